@@ -6,6 +6,7 @@ include(
         "common/core",
         "common/solver",
         "common/solver-z3",
+        "common/solver-smtlib",
 
         "cfa/cfa",
         "cfa/cfa-analysis",
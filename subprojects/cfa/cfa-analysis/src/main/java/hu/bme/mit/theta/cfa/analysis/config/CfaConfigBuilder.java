@@ -15,26 +15,36 @@
  */
 package hu.bme.mit.theta.cfa.analysis.config;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
 import hu.bme.mit.theta.analysis.Action;
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators;
 import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators.ArgNodeComparator;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
+import hu.bme.mit.theta.analysis.algorithm.cegar.ParallelAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplPrecChangeFilter;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.expl.ExplStmtAnalysis;
 import hu.bme.mit.theta.analysis.expl.ItpRefToExplPrec;
 import hu.bme.mit.theta.analysis.expl.VarsRefToExplPrec;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.refinement.*;
 import hu.bme.mit.theta.analysis.pred.ExprSplitters;
@@ -46,6 +56,7 @@ import hu.bme.mit.theta.analysis.pred.PredAnalysis;
 import hu.bme.mit.theta.analysis.pred.PredPrec;
 import hu.bme.mit.theta.analysis.pred.PredState;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
 import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.analysis.*;
 import hu.bme.mit.theta.cfa.analysis.lts.CfaCachedLts;
@@ -59,6 +70,7 @@ import hu.bme.mit.theta.cfa.analysis.prec.LocalCfaPrecRefiner;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 
 public class CfaConfigBuilder {
@@ -177,6 +189,8 @@ public class CfaConfigBuilder {
 	private int maxEnum = 0;
 	private InitPrec initPrec = InitPrec.EMPTY;
 	private PruneStrategy pruneStrategy = PruneStrategy.LAZY;
+	private int threads = 1;
+	private boolean incrementalPred = false;
 
 	public CfaConfigBuilder(final Domain domain, final Refinement refinement, final SolverFactory solverFactory) {
 		this.domain = domain;
@@ -224,53 +238,71 @@ public class CfaConfigBuilder {
 		return this;
 	}
 
+	public CfaConfigBuilder threads(final int threads) {
+		checkArgument(threads > 0, "Number of threads must be positive");
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Use predicate abstractors that keep the predicates in a dedicated solver
+	 * across calls instead of re-adding them for each abstraction.
+	 */
+	public CfaConfigBuilder incrementalPred(final boolean incrementalPred) {
+		this.incrementalPred = incrementalPred;
+		return this;
+	}
+
 	public CfaConfig<? extends State, ? extends Action, ? extends Prec> build(final CFA cfa, final CFA.Loc errLoc) {
 		final ItpSolver solver = solverFactory.createItpSolver();
 		final CfaLts lts = encoding.getLts(errLoc);
 
 		if (domain == Domain.EXPL) {
-			final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis
-					.create(cfa.getInitLoc(), ExplStmtAnalysis.create(solver, True(), maxEnum));
-			final ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> argBuilder = ArgBuilder.create(lts,
-					analysis, s -> s.getLoc().equals(errLoc), true);
-			final Abstractor<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> abstractor = BasicAbstractor
-					.builder(argBuilder).projection(CfaState::getLoc)
-					.waitlist(PriorityWaitlist.create(search.getComp(cfa, errLoc)))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex()).logger(logger).build();
-
+			final Function<Solver, ArgBuilder<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>>> argBuilderFactory =
+					abstractionSolver -> {
+						final Analysis<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> analysis = CfaAnalysis
+								.create(cfa.getInitLoc(), ExplStmtAnalysis.create(abstractionSolver, True(), maxEnum));
+						return ArgBuilder.create(lts, analysis, s -> s.getLoc().equals(errLoc), true);
+					};
+			final Abstractor<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> abstractor = createAbstractor(
+					argBuilderFactory, solver, CfaState::getLoc, PriorityWaitlist.create(search.getComp(cfa, errLoc)),
+					refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration() : StopCriterions.firstCex());
+
+			final PrecChangeFilter<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> precChangeFilter = PrecChangeFilters
+					.lift(CfaState::getState, (s, p) -> p.getPrec(s.getLoc()), ExplPrecChangeFilter.create(True()));
 			Refiner<CfaState<ExplState>, CfaAction, CfaPrec<ExplPrec>> refiner;
 
 			switch (refinement) {
 				case FW_BIN_ITP:
 					refiner = SingleExprTraceRefiner.create(ExprTraceFwBinItpChecker.create(True(), True(), solver),
-							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, logger);
+							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case BW_BIN_ITP:
 					refiner = SingleExprTraceRefiner.create(ExprTraceBwBinItpChecker.create(True(), True(), solver),
-							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, logger);
+							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case SEQ_ITP:
 					refiner = SingleExprTraceRefiner.create(ExprTraceSeqItpChecker.create(True(), True(), solver),
-							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, logger);
+							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case MULTI_SEQ:
-					refiner = MultiExprTraceRefiner.create(ExprTraceSeqItpChecker.create(True(), True(), solver),
-							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, logger);
+					refiner = createMultiRefiner(itpSolver -> ExprTraceSeqItpChecker.create(True(), True(), itpSolver),
+							solver, precGranularity.createRefiner(new ItpRefToExplPrec()), precChangeFilter);
 					break;
 				case UNSAT_CORE:
 					refiner = SingleExprTraceRefiner.create(ExprTraceUnsatCoreChecker.create(True(), True(), solver),
-							precGranularity.createRefiner(new VarsRefToExplPrec()), pruneStrategy, logger);
+							precGranularity.createRefiner(new VarsRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case UCB:
 					refiner = SingleExprTraceRefiner.create(ExprTraceUCBChecker.create(True(), True(), solver),
-							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, logger);
+							precGranularity.createRefiner(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case NWT_SP:
 					refiner = SingleExprTraceRefiner.create(
 						ExprTraceNewtonChecker.create(True(), True(), solver).withoutIT().withSP().withoutLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -279,6 +311,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withoutIT().withWP().withoutLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -287,6 +320,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withoutIT().withSP().withLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -295,6 +329,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withoutIT().withWP().withLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -303,6 +338,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withIT().withSP().withoutLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -311,6 +347,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withIT().withWP().withoutLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -319,6 +356,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withIT().withSP().withLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -327,6 +365,7 @@ public class CfaConfigBuilder {
 						ExprTraceNewtonChecker.create(True(), True(), solver).withIT().withWP().withLV(),
 						precGranularity.createRefiner(new ItpRefToExplPrec()),
 						pruneStrategy,
+						precChangeFilter,
 						logger
 					);
 					break;
@@ -355,29 +394,16 @@ public class CfaConfigBuilder {
 			return CfaConfig.create(checker, prec);
 
 		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT) {
-			PredAbstractor predAbstractor;
-			switch (domain) {
-				case PRED_BOOL:
-					predAbstractor = PredAbstractors.booleanAbstractor(solver);
-					break;
-				case PRED_SPLIT:
-					predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
-					break;
-				case PRED_CART:
-					predAbstractor = PredAbstractors.cartesianAbstractor(solver);
-					break;
-				default:
-					throw new UnsupportedOperationException(domain + " domain is not supported.");
-			}
-			final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis
-					.create(cfa.getInitLoc(), PredAnalysis.create(solver, predAbstractor, True()));
-			final ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> argBuilder = ArgBuilder.create(lts,
-					analysis, s -> s.getLoc().equals(errLoc), true);
-			final Abstractor<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> abstractor = BasicAbstractor
-					.builder(argBuilder).projection(CfaState::getLoc)
-					.waitlist(PriorityWaitlist.create(search.getComp(cfa, errLoc)))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex()).logger(logger).build();
+			final Function<Solver, ArgBuilder<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>>> argBuilderFactory =
+					abstractionSolver -> {
+						final PredAbstractor predAbstractor = createPredAbstractor(abstractionSolver);
+						final Analysis<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> analysis = CfaAnalysis
+								.create(cfa.getInitLoc(), PredAnalysis.create(abstractionSolver, predAbstractor, True()));
+						return ArgBuilder.create(lts, analysis, s -> s.getLoc().equals(errLoc), true);
+					};
+			final Abstractor<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> abstractor = createAbstractor(
+					argBuilderFactory, solver, CfaState::getLoc, PriorityWaitlist.create(search.getComp(cfa, errLoc)),
+					refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration() : StopCriterions.firstCex());
 
 			ExprTraceChecker<ItpRefutation> exprTraceChecker;
 			switch (refinement) {
@@ -425,14 +451,16 @@ public class CfaConfigBuilder {
 							domain + " domain does not support " + refinement + " refinement.");
 			}
 			final ItpRefToPredPrec refToPrec = new ItpRefToPredPrec(predSplit.splitter);
+			final PrecChangeFilter<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> precChangeFilter = PrecChangeFilters
+					.lift(CfaState::getState, (s, p) -> p.getPrec(s.getLoc()), PrecChangeFilters.all());
 			Refiner<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> refiner;
 
 			if (refinement == Refinement.MULTI_SEQ) {
-				refiner = MultiExprTraceRefiner.create(exprTraceChecker,
-						precGranularity.createRefiner(refToPrec), pruneStrategy, logger);
+				refiner = createMultiRefiner(itpSolver -> ExprTraceSeqItpChecker.create(True(), True(), itpSolver),
+						solver, precGranularity.createRefiner(refToPrec), precChangeFilter);
 			} else {
 				refiner = SingleExprTraceRefiner.create(exprTraceChecker,
-						precGranularity.createRefiner(refToPrec), pruneStrategy, logger);
+						precGranularity.createRefiner(refToPrec), pruneStrategy, precChangeFilter, logger);
 			}
 
 			final SafetyChecker<CfaState<PredState>, CfaAction, CfaPrec<PredPrec>> checker = CegarChecker
@@ -468,4 +496,73 @@ public class CfaConfigBuilder {
 			throw new UnsupportedOperationException(domain + " domain is not supported.");
 		}
 	}
+
+	private PredAbstractor createPredAbstractor(final Solver abstractionSolver) {
+		if (incrementalPred) {
+			return createIncrementalPredAbstractor(solverFactory.createSolver());
+		}
+		switch (domain) {
+			case PRED_BOOL:
+				return PredAbstractors.booleanAbstractor(abstractionSolver);
+			case PRED_SPLIT:
+				return PredAbstractors.booleanSplitAbstractor(abstractionSolver);
+			case PRED_CART:
+				return PredAbstractors.cartesianAbstractor(abstractionSolver);
+			default:
+				throw new UnsupportedOperationException(domain + " domain is not supported.");
+		}
+	}
+
+	private PredAbstractor createIncrementalPredAbstractor(final Solver predSolver) {
+		switch (domain) {
+			case PRED_BOOL:
+				return PredAbstractors.incrementalBooleanAbstractor(predSolver);
+			case PRED_SPLIT:
+				return PredAbstractors.incrementalBooleanSplitAbstractor(predSolver);
+			case PRED_CART:
+				return PredAbstractors.incrementalCartesianAbstractor(predSolver);
+			default:
+				throw new UnsupportedOperationException(domain + " domain is not supported.");
+		}
+	}
+
+	/**
+	 * Creates a BasicAbstractor for a single thread, or a ParallelAbstractor
+	 * otherwise. The first ArgBuilder uses the given solver, the others get their
+	 * own solver instances from the solver factory.
+	 */
+	private <S extends State, A extends Action, P extends Prec> Abstractor<S, A, P> createAbstractor(
+			final Function<Solver, ArgBuilder<S, A, P>> argBuilderFactory, final Solver solver,
+			final Function<? super S, ?> projection, final Waitlist<ArgNode<S, A>> waitlist,
+			final StopCriterion<S, A> stopCriterion) {
+		final ArgBuilder<S, A, P> argBuilder = argBuilderFactory.apply(solver);
+		if (threads == 1) {
+			return BasicAbstractor.builder(argBuilder).projection(projection).waitlist(waitlist)
+					.stopCriterion(stopCriterion).logger(logger).build();
+		}
+
+		final List<ArgBuilder<S, A, P>> argBuilders = new ArrayList<>(threads);
+		argBuilders.add(argBuilder);
+		for (int i = 1; i < threads; i++) {
+			argBuilders.add(argBuilderFactory.apply(solverFactory.createSolver()));
+		}
+		return ParallelAbstractor.builder(argBuilders).projection(projection).waitlist(waitlist)
+				.stopCriterion(stopCriterion).logger(logger).build();
+	}
+
+	/**
+	 * Creates a MultiExprTraceRefiner with an ExprTraceChecker for each thread.
+	 * The first checker uses the given solver, the others get their own
+	 * interpolating solver instances from the solver factory.
+	 */
+	private <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> Refiner<S, A, P> createMultiRefiner(
+			final Function<ItpSolver, ExprTraceChecker<R>> exprTraceCheckerFactory, final ItpSolver solver,
+			final PrecRefiner<S, A, P, R> precRefiner, final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter) {
+		final List<ExprTraceChecker<R>> exprTraceCheckers = new ArrayList<>(threads);
+		exprTraceCheckers.add(exprTraceCheckerFactory.apply(solver));
+		for (int i = 1; i < threads; i++) {
+			exprTraceCheckers.add(exprTraceCheckerFactory.apply(solverFactory.createItpSolver()));
+		}
+		return MultiExprTraceRefiner.create(exprTraceCheckers, precRefiner, pruneStrategy, precChangeFilter, logger);
+	}
 }
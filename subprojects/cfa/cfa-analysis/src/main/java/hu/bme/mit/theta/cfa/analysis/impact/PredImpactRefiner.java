@@ -34,6 +34,7 @@ import hu.bme.mit.theta.cfa.analysis.CfaState;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 
 public final class PredImpactRefiner implements ImpactRefiner<CfaState<PredState>, CfaAction> {
 
@@ -80,7 +81,7 @@ public final class PredImpactRefiner implements ImpactRefiner<CfaState<PredState
 			final Trace<CfaState<PredState>, CfaAction> trace = Trace.of(refinedStates, actions);
 			return RefinementResult.succesful(trace);
 		} else {
-			throw new AssertionError();
+			throw new UnknownSolverStatusException("Could not decide feasibility of trace");
 		}
 	}
 
@@ -23,7 +23,7 @@ public final class CfaCachedLts implements CfaLts {
 	}
 
 	@Override
-	public Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
+	public synchronized Collection<CfaAction> getEnabledActionsFor(final CfaState<?> state) {
 		final Loc loc = state.getLoc();
 		if (!actionCache.containsKey(loc)) {
 			actionCache.put(loc, lts.getEnabledActionsFor(state));
@@ -29,12 +29,19 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.google.common.base.Stopwatch;
 
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult.Unsafe;
+import hu.bme.mit.theta.analysis.algorithm.Statistics;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarStatistics;
+import hu.bme.mit.theta.analysis.algorithm.portfolio.PortfolioChecker;
+import hu.bme.mit.theta.analysis.algorithm.portfolio.PortfolioStatistics;
 import hu.bme.mit.theta.analysis.expl.ExplState;
 import hu.bme.mit.theta.analysis.expr.refinement.PruneStrategy;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.cfa.CFA;
 import hu.bme.mit.theta.cfa.analysis.CfaAction;
 import hu.bme.mit.theta.cfa.analysis.CfaState;
@@ -59,6 +66,9 @@ import hu.bme.mit.theta.common.table.BasicTableWriter;
 import hu.bme.mit.theta.common.table.TableWriter;
 import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
+import hu.bme.mit.theta.solver.BoundedSolverFactory;
+import hu.bme.mit.theta.solver.InterruptibleSolverFactory;
+import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -68,6 +78,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class CfaCli {
 	private static final String JAR_NAME = "theta-cfa-cli.jar";
+	private static final Domain[] PORTFOLIO_DOMAINS = {Domain.EXPL, Domain.PRED_CART, Domain.PRED_SPLIT};
+	private static final Refinement[] PORTFOLIO_REFINEMENTS = {Refinement.SEQ_ITP, Refinement.BW_BIN_ITP, Refinement.NWT_IT_WP};
 	private final String[] args;
 	private final TableWriter writer;
 
@@ -104,6 +116,18 @@ public class CfaCli {
 	@Parameter(names = "--prunestrategy", description = "Strategy for pruning the ARG after refinement")
 	PruneStrategy pruneStrategy = PruneStrategy.LAZY;
 
+	@Parameter(names = "--threads", description = "Number of threads used for building the ARG")
+	Integer threads = 1;
+
+	@Parameter(names = "--incrementalpred", description = "Keep predicates in the solver across abstraction steps (for predicate abstraction)")
+	boolean incrementalPred = false;
+
+	@Parameter(names = "--portfolio", description = "Run a portfolio of configurations concurrently (--domain and --refinement are ignored)")
+	boolean portfolio = false;
+
+	@Parameter(names = "--solvertimeout", description = "Timeout of a single solver query in milliseconds, after which it is treated as unknown (0: unlimited)")
+	Integer solverTimeout = 0;
+
 	@Parameter(names = "--loglevel", description = "Detailedness of logging")
 	Logger.Level logLevel = Level.SUBSTEP;
 
@@ -222,15 +246,38 @@ public class CfaCli {
 
 	private CfaConfig<?, ?, ?> buildConfiguration(final CFA cfa, final CFA.Loc errLoc) throws Exception {
 		try {
-			return new CfaConfigBuilder(domain, refinement, Z3SolverFactory.getInstance())
-					.precGranularity(precGranularity).search(search)
-					.predSplit(predSplit).encoding(encoding).maxEnum(maxEnum).initPrec(initPrec)
-					.pruneStrategy(pruneStrategy).logger(logger).build(cfa, errLoc);
+			if (portfolio) {
+				return buildPortfolio(cfa, errLoc);
+			}
+			return createConfigBuilder(domain, refinement, Z3SolverFactory.getInstance()).logger(logger)
+					.build(cfa, errLoc);
 		} catch (final Exception ex) {
 			throw new Exception("Could not create configuration: " + ex.getMessage(), ex);
 		}
 	}
 
+	private CfaConfig<State, Action, UnitPrec> buildPortfolio(final CFA cfa, final CFA.Loc errLoc) {
+		final PortfolioChecker.Builder<State, Action> builder = PortfolioChecker.builder();
+		for (int i = 0; i < PORTFOLIO_DOMAINS.length; i++) {
+			// Each member creates its own solvers, i.e., its own Z3 contexts, which are interrupted on cancellation
+			final InterruptibleSolverFactory solverFactory = InterruptibleSolverFactory.create(
+					Z3SolverFactory.getInstance());
+			final CfaConfig<? extends State, ? extends Action, ? extends Prec> config = createConfigBuilder(
+					PORTFOLIO_DOMAINS[i], PORTFOLIO_REFINEMENTS[i], solverFactory).build(cfa, errLoc);
+			builder.add(PORTFOLIO_DOMAINS[i] + "+" + PORTFOLIO_REFINEMENTS[i], config::check,
+					solverFactory::interrupt);
+		}
+		return CfaConfig.create(builder.logger(logger).build(), UnitPrec.getInstance());
+	}
+
+	private CfaConfigBuilder createConfigBuilder(final Domain domain, final Refinement refinement,
+												 final SolverFactory solverFactory) {
+		return new CfaConfigBuilder(domain, refinement, createSolverFactory(solverFactory))
+				.precGranularity(precGranularity).search(search)
+				.predSplit(predSplit).encoding(encoding).maxEnum(maxEnum).initPrec(initPrec)
+				.pruneStrategy(pruneStrategy).threads(threads).incrementalPred(incrementalPred);
+	}
+
 	private SafetyResult<?, ?> check(CfaConfig<?, ?, ?> configuration) throws Exception {
 		try {
 			return configuration.check();
@@ -240,10 +287,17 @@ public class CfaCli {
 		}
 	}
 
+	private SolverFactory createSolverFactory(final SolverFactory solverFactory) {
+		if (solverTimeout > 0) {
+			return BoundedSolverFactory.create(solverFactory, solverTimeout, TimeUnit.MILLISECONDS);
+		}
+		return solverFactory;
+	}
+
 	private void printResult(final SafetyResult<?, ?> status, final long totalTimeMs) {
-		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
+		final CegarStatistics stats = getCegarStatistics(status.getStats().get());
 		if (benchmarkMode) {
-			writer.cell(status.isSafe());
+			writer.cell(status.isUnknown() ? "unknown" : status.isSafe());
 			writer.cell(totalTimeMs);
 			writer.cell(stats.getAlgorithmTimeMs());
 			writer.cell(stats.getAbstractorTimeMs());
@@ -257,10 +311,20 @@ public class CfaCli {
 			} else {
 				writer.cell("");
 			}
+			if (status.getStats().get() instanceof PortfolioStatistics) {
+				writer.cell(((PortfolioStatistics) status.getStats().get()).getWinner());
+			}
 			writer.newRow();
 		}
 	}
 
+	private CegarStatistics getCegarStatistics(final Statistics stats) {
+		if (stats instanceof PortfolioStatistics) {
+			return (CegarStatistics) ((PortfolioStatistics) stats).getWinnerStats().get();
+		}
+		return (CegarStatistics) stats;
+	}
+
 	private void printError(final Throwable ex) {
 		final String message = ex.getMessage() == null ? "" : ex.getMessage();
 		if (benchmarkMode) {
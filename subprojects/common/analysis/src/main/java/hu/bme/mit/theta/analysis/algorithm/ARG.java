@@ -20,10 +20,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import hu.bme.mit.theta.common.container.Containers;
-import java.util.Optional;
-import java.util.OptionalInt;
 import java.util.stream.Stream;
 
 import hu.bme.mit.theta.analysis.Action;
@@ -32,7 +39,12 @@ import hu.bme.mit.theta.analysis.State;
 
 /**
  * Represents an abstract reachability graph (ARG). See the related class
- * ArgBuilder.
+ * ArgBuilder. The ARG maintains indexes (size, depth, incomplete, unsafe and
+ * covered nodes) incrementally, so that the queries used in each iteration of
+ * the abstraction do not have to traverse the whole graph. The exclusion of
+ * nodes is also maintained: when a node gets subsumed (covered or infeasible),
+ * its subtree is dropped from the incomplete and unsafe indexes, and it is
+ * added back when the node is no longer subsumed.
  */
 public final class ARG<S extends State, A extends Action> {
 
@@ -41,8 +53,23 @@ public final class ARG<S extends State, A extends Action> {
 	private int nextId = 0;
 	final PartialOrd<S> partialOrd;
 
+	// Indexes, updated when nodes are created, expanded, covered, refined or pruned
+	private int nodeCount = 0;
+	private int[] nodesAtDepth = new int[16];
+	private int maxDepth = -1;
+	// Nodes that are not excluded, ordered by their creation
+	private final Collection<ArgNode<S, A>> incompleteNodes;
+	private final Collection<ArgNode<S, A>> unsafeNodes;
+	private final Collection<ArgNode<S, A>> coveredNodes;
+
+	private final Collection<Consumer<? super ArgNode<S, A>>> stateObservers;
+
 	private ARG(final PartialOrd<S> partialOrd) {
 		initNodes = Containers.createSet();
+		incompleteNodes = new TreeSet<>(Comparator.comparingInt(ArgNode::getId));
+		unsafeNodes = new TreeSet<>(Comparator.comparingInt(ArgNode::getId));
+		coveredNodes = Containers.createSet();
+		stateObservers = new CopyOnWriteArrayList<>();
 		this.partialOrd = partialOrd;
 		this.initialized = false;
 	}
@@ -65,12 +92,41 @@ public final class ARG<S extends State, A extends Action> {
 		return getInitNodes().flatMap(ArgNode::descendants);
 	}
 
+	/**
+	 * Registers an observer that is notified after the state of a node is
+	 * replaced (e.g., by a refinement), so that data derived from the states
+	 * can be kept up to date without polling.
+	 */
+	public void addStateObserver(final Consumer<? super ArgNode<S, A>> observer) {
+		stateObservers.add(checkNotNull(observer));
+	}
+
+	/**
+	 * Gets the target nodes that are not excluded, in the order of their
+	 * creation.
+	 */
 	public Stream<ArgNode<S, A>> getUnsafeNodes() {
-		return getInitNodes().flatMap(ArgNode::unexcludedDescendants).filter(ArgNode::isTarget);
+		return snapshot(unsafeNodes).stream();
 	}
 
+	/**
+	 * Gets the nodes that are neither expanded nor excluded, in the order of
+	 * their creation.
+	 */
 	public Stream<ArgNode<S, A>> getIncompleteNodes() {
-		return getInitNodes().flatMap(ArgNode::unexcludedDescendants).filter(n -> !n.isExpanded());
+		return snapshot(incompleteNodes).stream();
+	}
+
+	/**
+	 * Gets the nodes that have a covering node.
+	 */
+	public Stream<ArgNode<S, A>> getCoveredNodes() {
+		return snapshot(coveredNodes).stream();
+	}
+
+	// Copy the index so that the returned stream survives modifications of the ARG
+	private synchronized List<ArgNode<S, A>> snapshot(final Collection<ArgNode<S, A>> index) {
+		return new ArrayList<>(index);
 	}
 
 	////
@@ -79,15 +135,15 @@ public final class ARG<S extends State, A extends Action> {
 	 * Checks if the ARG is complete, i.e., whether it is initialized and all of
 	 * its nodes are complete.
 	 */
-	public boolean isComplete() {
-		return isInitialized() && getNodes().allMatch(ArgNode::isComplete);
+	public synchronized boolean isComplete() {
+		return isInitialized() && incompleteNodes.isEmpty();
 	}
 
 	/**
 	 * Checks if the ARG is safe, i.e., whether all of its nodes are safe.
 	 */
-	public boolean isSafe() {
-		return getNodes().allMatch(ArgNode::isSafe);
+	public synchronized boolean isSafe() {
+		return unsafeNodes.isEmpty();
 	}
 
 	/**
@@ -102,7 +158,7 @@ public final class ARG<S extends State, A extends Action> {
 
 	public ArgNode<S, A> createInitNode(final S initState, final boolean target) {
 		checkNotNull(initState);
-		final ArgNode<S, A> initNode = createNode(initState, 0, target);
+		final ArgNode<S, A> initNode = createNode(null, null, initState, target);
 		initNodes.add(initNode);
 		return initNode;
 	}
@@ -114,21 +170,104 @@ public final class ARG<S extends State, A extends Action> {
 		checkNotNull(succState);
 		checkArgument(node.arg == this, "Node does not belong to this ARG");
 		checkArgument(!node.isTarget(), "Node is target");
-		final ArgNode<S, A> succNode = createNode(succState, node.getDepth() + 1, target);
-		createEdge(node, action, succNode);
-		return succNode;
+		return createNode(node, action, succState, target);
 	}
 
-	private ArgNode<S, A> createNode(final S state, final int depth, final boolean target) {
+	// Synchronized, as successors of different nodes may be created concurrently (see ParallelAbstractor)
+	private synchronized ArgNode<S, A> createNode(final ArgNode<S, A> parent, final A action, final S state,
+												  final boolean target) {
+		final int depth = parent == null ? 0 : parent.getDepth() + 1;
 		final ArgNode<S, A> node = new ArgNode<>(this, state, nextId, depth, target);
+		if (parent != null) {
+			createEdge(parent, action, node);
+		}
 		nextId = nextId + 1;
+		nodeCount = nodeCount + 1;
+		if (depth >= nodesAtDepth.length) {
+			nodesAtDepth = Arrays.copyOf(nodesAtDepth, Math.max(depth + 1, 2 * nodesAtDepth.length));
+		}
+		nodesAtDepth[depth] = nodesAtDepth[depth] + 1;
+		maxDepth = Math.max(maxDepth, depth);
+		node.excluded = !node.isFeasible() || (parent != null && parent.excluded);
+		if (!node.excluded) {
+			incompleteNodes.add(node);
+			if (target) {
+				unsafeNodes.add(node);
+			}
+		}
 		return node;
 	}
 
+	private synchronized void removeNode(final ArgNode<S, A> node) {
+		nodeCount = nodeCount - 1;
+		nodesAtDepth[node.getDepth()] = nodesAtDepth[node.getDepth()] - 1;
+		while (maxDepth >= 0 && nodesAtDepth[maxDepth] == 0) {
+			maxDepth = maxDepth - 1;
+		}
+		incompleteNodes.remove(node);
+		unsafeNodes.remove(node);
+		coveredNodes.remove(node);
+	}
+
+	// Called by ArgNode when the respective flags of a node change
+
+	synchronized void updateExpanded(final ArgNode<S, A> node, final boolean expanded) {
+		if (expanded) {
+			incompleteNodes.remove(node);
+		} else if (!node.excluded) {
+			incompleteNodes.add(node);
+		}
+	}
+
+	synchronized void updateCovered(final ArgNode<S, A> node, final boolean covered) {
+		if (covered) {
+			coveredNodes.add(node);
+		} else {
+			coveredNodes.remove(node);
+		}
+		updateExcluded(node);
+	}
+
+	void updateState(final ArgNode<S, A> node) {
+		updateSubsumed(node);
+		stateObservers.forEach(observer -> observer.accept(node));
+	}
+
+	private synchronized void updateSubsumed(final ArgNode<S, A> node) {
+		updateExcluded(node);
+	}
+
+	// Updates the exclusion of a node whose subsumption changed, and propagates
+	// it to the subtree as long as the exclusion of the nodes changes
+	private void updateExcluded(final ArgNode<S, A> node) {
+		final Deque<ArgNode<S, A>> nodesToUpdate = new ArrayDeque<>();
+		nodesToUpdate.push(node);
+		while (!nodesToUpdate.isEmpty()) {
+			final ArgNode<S, A> current = nodesToUpdate.pop();
+			final boolean excluded = current.isSubsumed()
+					|| (current.inEdge != null && current.inEdge.getSource().excluded);
+			if (excluded != current.excluded) {
+				current.excluded = excluded;
+				if (excluded) {
+					incompleteNodes.remove(current);
+					unsafeNodes.remove(current);
+				} else {
+					if (!current.isExpanded()) {
+						incompleteNodes.add(current);
+					}
+					if (current.isTarget()) {
+						unsafeNodes.add(current);
+					}
+				}
+				current.children().forEach(nodesToUpdate::push);
+			}
+		}
+	}
+
 	private ArgEdge<S, A> createEdge(final ArgNode<S, A> source, final A action, final ArgNode<S, A> target) {
 		final ArgEdge<S, A> edge = new ArgEdge<>(source, action, target);
 		source.outEdges.add(edge);
-		target.inEdge = Optional.of(edge);
+		target.inEdge = edge;
 		return edge;
 	}
 
@@ -142,22 +281,30 @@ public final class ARG<S extends State, A extends Action> {
 			final ArgEdge<S, A> edge = node.getInEdge().get();
 			final ArgNode<S, A> parent = edge.getSource();
 			parent.outEdges.remove(edge);
-			parent.expanded = false;
+			parent.setExpanded(false);
 		} else {
 			assert initNodes.contains(node);
 			initNodes.remove(node);
 			this.initialized = false;
 		}
-		node.descendants().forEach(ArgNode::unsetCoveringNode);
-		node.descendants().forEach(ArgNode::clearCoveredNodes);
+		final List<ArgNode<S, A>> subtree = node.descendants().collect(toList());
+		subtree.forEach(ArgNode::unsetCoveringNode);
+		subtree.forEach(ArgNode::clearCoveredNodes);
+		subtree.forEach(this::removeNode);
 	}
 
 	/**
 	 * Prune the whole ARG, making it uninitialized.
 	 */
-	public void pruneAll() {
+	public synchronized void pruneAll() {
 		initNodes.clear();
 		this.initialized = false;
+		nodeCount = 0;
+		Arrays.fill(nodesAtDepth, 0);
+		maxDepth = -1;
+		incompleteNodes.clear();
+		unsafeNodes.clear();
+		coveredNodes.clear();
 	}
 
 	public void minimize() {
@@ -186,7 +333,7 @@ public final class ARG<S extends State, A extends Action> {
 	 * Gets the size of the ARG, i.e., the number of nodes.
 	 */
 	public long size() {
-		return getNodes().count();
+		return nodeCount;
 	}
 
 	/**
@@ -195,9 +342,8 @@ public final class ARG<S extends State, A extends Action> {
 	 * ARG.
 	 */
 	public int getDepth() {
-		final OptionalInt maxOpt = getNodes().mapToInt(ArgNode::getDepth).max();
-		checkState(maxOpt.isPresent(), "Depth is undefined for an empty ARG.");
-		return maxOpt.getAsInt();
+		checkState(maxDepth >= 0, "Depth is undefined for an empty ARG.");
+		return maxDepth;
 	}
 
 	/**
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import hu.bme.mit.theta.common.container.Containers;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -31,7 +32,6 @@ import hu.bme.mit.theta.common.Utils;
 public final class ArgNode<S extends State, A extends Action> {
 
 	private static final int HASH_SEED = 8543;
-	private volatile int hashCode = 0;
 
 	final ARG<S, A> arg;
 
@@ -41,13 +41,17 @@ public final class ArgNode<S extends State, A extends Action> {
 
 	private S state;
 
-	Optional<ArgEdge<S, A>> inEdge; // Set by ARG
+	// The fields below are kept compact, as ARGs can have millions of nodes:
+	// optional references are nullable, and collections are allocated when needed
+
+	ArgEdge<S, A> inEdge; // Set by ARG, null for initial nodes
 	final Collection<ArgEdge<S, A>> outEdges;
 
-	Optional<ArgNode<S, A>> coveringNode; // Set by ARG
-	final Collection<ArgNode<S, A>> coveredNodes;
+	private ArgNode<S, A> coveringNode; // Null if not covered
+	Collection<ArgNode<S, A>> coveredNodes;
 
-	boolean expanded; // Set by ArgBuilder
+	private boolean expanded; // Set by ArgBuilder and ARG
+	boolean excluded; // Maintained by ARG when the subsumption of the node or its ancestors changes
 
 	ArgNode(final ARG<S, A> arg, final S state, final int id, final int depth, final boolean target) {
 		this.arg = arg;
@@ -55,10 +59,10 @@ public final class ArgNode<S extends State, A extends Action> {
 		this.id = id;
 		this.depth = depth;
 		this.target = target;
-		inEdge = Optional.empty();
-		outEdges = new ArrayList<>();
-		coveringNode = Optional.empty();
-		coveredNodes = Containers.createSet();
+		inEdge = null;
+		outEdges = new ArrayList<>(0);
+		coveringNode = null;
+		coveredNodes = Collections.emptySet();
 		expanded = false;
 	}
 
@@ -83,6 +87,7 @@ public final class ArgNode<S extends State, A extends Action> {
 	public void setState(final S state) {
 		checkNotNull(state);
 		this.state = state;
+		arg.updateState(this);
 	}
 
 	public boolean mayCover(final ArgNode<S, A> node) {
@@ -97,20 +102,28 @@ public final class ArgNode<S extends State, A extends Action> {
 		checkNotNull(node);
 		checkArgument(node.arg == this.arg, "Nodes belong to different ARGs");
 		unsetCoveringNode();
-		coveringNode = Optional.of(node);
+		coveringNode = node;
+		if (node.coveredNodes.isEmpty()) {
+			node.coveredNodes = Containers.createSet();
+		}
 		node.coveredNodes.add(this);
+		arg.updateCovered(this, true);
 	}
 
 	public void unsetCoveringNode() {
-		if (coveringNode.isPresent()) {
-			coveringNode.get().coveredNodes.remove(this);
-			coveringNode = Optional.empty();
+		if (coveringNode != null) {
+			coveringNode.coveredNodes.remove(this);
+			coveringNode = null;
+			arg.updateCovered(this, false);
 		}
 	}
 
 	public void clearCoveredNodes() {
-		coveredNodes.forEach(n -> n.coveringNode = Optional.empty());
-		coveredNodes.clear();
+		coveredNodes.forEach(n -> {
+			n.coveringNode = null;
+			arg.updateCovered(n, false);
+		});
+		coveredNodes = Collections.emptySet();
 	}
 
 	public void cover(final ArgNode<S, A> node) {
@@ -124,11 +137,11 @@ public final class ArgNode<S extends State, A extends Action> {
 	////
 
 	public Optional<ArgNode<S, A>> getParent() {
-		return inEdge.map(ArgEdge::getSource);
+		return getInEdge().map(ArgEdge::getSource);
 	}
 
 	public Optional<ArgEdge<S, A>> getInEdge() {
-		return inEdge;
+		return Optional.ofNullable(inEdge);
 	}
 
 	public Stream<ArgEdge<S, A>> getOutEdges() {
@@ -136,7 +149,7 @@ public final class ArgNode<S extends State, A extends Action> {
 	}
 
 	public Optional<ArgNode<S, A>> getCoveringNode() {
-		return coveringNode;
+		return Optional.ofNullable(coveringNode);
 	}
 
 	public Stream<ArgNode<S, A>> getCoveredNodes() {
@@ -160,7 +173,7 @@ public final class ArgNode<S extends State, A extends Action> {
 	 * node.
 	 */
 	public boolean isCovered() {
-		return coveringNode.isPresent();
+		return coveringNode != null;
 	}
 
 	/**
@@ -183,7 +196,7 @@ public final class ArgNode<S extends State, A extends Action> {
 	 * excluded parent.
 	 */
 	public boolean isExcluded() {
-		return ancestors().anyMatch(ArgNode::isSubsumed);
+		return excluded;
 	}
 
 	/**
@@ -201,6 +214,11 @@ public final class ArgNode<S extends State, A extends Action> {
 		return expanded;
 	}
 
+	void setExpanded(final boolean expanded) {
+		this.expanded = expanded;
+		arg.updateExpanded(this, expanded);
+	}
+
 	/**
 	 * Checks if the node is leaf, i.e., it has no successors.
 	 */
@@ -225,7 +243,11 @@ public final class ArgNode<S extends State, A extends Action> {
 	////
 
 	public Stream<ArgNode<S, A>> properAncestors() {
-		return getParent().map(p -> Stream.concat(Stream.of(p), p.properAncestors())).orElse(Stream.empty());
+		if (inEdge == null) {
+			return Stream.empty();
+		}
+		final ArgNode<S, A> parent = inEdge.getSource();
+		return Stream.concat(Stream.of(parent), parent.properAncestors());
 	}
 
 	public Stream<ArgNode<S, A>> ancestors() {
@@ -264,13 +286,8 @@ public final class ArgNode<S extends State, A extends Action> {
 
 	@Override
 	public int hashCode() {
-		int result = hashCode;
-		if (result == 0) {
-			result = HASH_SEED;
-			result = 31 * result + id;
-			hashCode = result;
-		}
-		return result;
+		// Not cached, as computing it is cheaper than storing it in each node
+		return 31 * HASH_SEED + id;
 	}
 
 	@Override
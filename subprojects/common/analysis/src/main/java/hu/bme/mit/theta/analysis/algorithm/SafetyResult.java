@@ -58,10 +58,21 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 		return new Unsafe<>(cex, arg, Optional.of(stats));
 	}
 
+	public static <S extends State, A extends Action> Unknown<S, A> unknown(final ARG<S, A> arg) {
+		return new Unknown<>(arg, Optional.empty());
+	}
+
+	public static <S extends State, A extends Action> Unknown<S, A> unknown(final ARG<S, A> arg,
+																			final Statistics stats) {
+		return new Unknown<>(arg, Optional.of(stats));
+	}
+
 	public abstract boolean isSafe();
 
 	public abstract boolean isUnsafe();
 
+	public abstract boolean isUnknown();
+
 	public abstract Safe<S, A> asSafe();
 
 	public abstract Unsafe<S, A> asUnsafe();
@@ -83,6 +94,11 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 			return false;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Safe<S, A> asSafe() {
 			return this;
@@ -123,6 +139,11 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 			return true;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Safe<S, A> asSafe() {
 			throw new ClassCastException(
@@ -141,4 +162,47 @@ public abstract class SafetyResult<S extends State, A extends Action> {
 		}
 	}
 
+	/**
+	 * Inconclusive result, e.g., when the feasibility of a counterexample could
+	 * not be decided by the solver in time.
+	 */
+	public static final class Unknown<S extends State, A extends Action> extends SafetyResult<S, A> {
+		private Unknown(final ARG<S, A> arg, final Optional<Statistics> stats) {
+			super(arg, stats);
+		}
+
+		@Override
+		public boolean isSafe() {
+			return false;
+		}
+
+		@Override
+		public boolean isUnsafe() {
+			return false;
+		}
+
+		@Override
+		public boolean isUnknown() {
+			return true;
+		}
+
+		@Override
+		public Safe<S, A> asSafe() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Safe.class.getSimpleName());
+		}
+
+		@Override
+		public Unsafe<S, A> asUnsafe() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Unsafe.class.getSimpleName());
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(SafetyResult.class.getSimpleName()).add(Unknown.class.getSimpleName())
+					.toString();
+		}
+	}
+
 }
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkState;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CancellationException;
 import java.util.function.Function;
 
 import hu.bme.mit.theta.analysis.Action;
@@ -30,7 +31,9 @@ import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
-import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
+import hu.bme.mit.theta.analysis.reachedset.CoverageIndex;
 import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
 import hu.bme.mit.theta.analysis.waitlist.Waitlist;
 import hu.bme.mit.theta.common.Utils;
@@ -45,14 +48,17 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 
 	private final ArgBuilder<S, A, P> argBuilder;
 	private final Function<? super S, ?> projection;
+	private final CoverageFilter<? super S, ?> coverageFilter;
 	private final Waitlist<ArgNode<S, A>> waitlist;
 	private final StopCriterion<S, A> stopCriterion;
 	private final Logger logger;
 
 	private BasicAbstractor(final ArgBuilder<S, A, P> argBuilder, final Function<? super S, ?> projection,
+							final CoverageFilter<? super S, ?> coverageFilter,
 							final Waitlist<ArgNode<S, A>> waitlist, final StopCriterion<S, A> stopCriterion, final Logger logger) {
 		this.argBuilder = checkNotNull(argBuilder);
 		this.projection = checkNotNull(projection);
+		this.coverageFilter = checkNotNull(coverageFilter);
 		this.waitlist = checkNotNull(waitlist);
 		this.stopCriterion = checkNotNull(stopCriterion);
 		this.logger = checkNotNull(logger);
@@ -82,11 +88,11 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 
 		assert arg.isInitialized();
 
-		logger.write(Level.INFO, "|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
+		logger.write(Level.INFO, "|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n", arg.size(),
 				arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
 		logger.write(Level.SUBSTEP, "|  |  Building ARG...");
 
-		final Partition<ArgNode<S, A>, ?> reachedSet = Partition.of(n -> projection.apply(n.getState()));
+		final CoverageIndex<S, A> reachedSet = CoverageIndex.of(projection, coverageFilter);
 		waitlist.clear();
 
 		reachedSet.addAll(arg.getNodes());
@@ -94,10 +100,13 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 
 		if (!stopCriterion.canStop(arg)) {
 			while (!waitlist.isEmpty()) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new CancellationException("Abstraction was interrupted");
+				}
 				final ArgNode<S, A> node = waitlist.remove();
 
 				Collection<ArgNode<S, A>> newNodes = Collections.emptyList();
-				close(node, reachedSet.get(node));
+				close(node, reachedSet.getCandidates(node));
 				if (!node.isSubsumed() && !node.isTarget()) {
 					newNodes = argBuilder.expand(node, prec);
 					reachedSet.addAll(newNodes);
@@ -108,8 +117,9 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		}
 
 		logger.write(Level.SUBSTEP, "done%n");
-		logger.write(Level.INFO, "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n", arg.getNodes().count(),
+		logger.write(Level.INFO, "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n", arg.size(),
 				arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+		logger.write(Level.DETAIL, "|  |  Coverage checks avoided: %d%n", reachedSet.getAvoidedChecks());
 
 		waitlist.clear(); // Optimization
 
@@ -141,6 +151,7 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 	public static final class Builder<S extends State, A extends Action, P extends Prec> {
 		private final ArgBuilder<S, A, P> argBuilder;
 		private Function<? super S, ?> projection;
+		private CoverageFilter<? super S, ?> coverageFilter;
 		private Waitlist<ArgNode<S, A>> waitlist;
 		private StopCriterion<S, A> stopCriterion;
 		private Logger logger;
@@ -148,6 +159,7 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		private Builder(final ArgBuilder<S, A, P> argBuilder) {
 			this.argBuilder = argBuilder;
 			this.projection = s -> 0;
+			this.coverageFilter = CoverageFilters.none();
 			this.waitlist = FifoWaitlist.create();
 			this.stopCriterion = StopCriterions.firstCex();
 			this.logger = NullLogger.getInstance();
@@ -158,6 +170,15 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 			return this;
 		}
 
+		/**
+		 * Sets a filter for ruling out coverage candidates without checking the
+		 * partial order. No filter is used by default.
+		 */
+		public Builder<S, A, P> coverageFilter(final CoverageFilter<? super S, ?> coverageFilter) {
+			this.coverageFilter = coverageFilter;
+			return this;
+		}
+
 		public Builder<S, A, P> waitlist(final Waitlist<ArgNode<S, A>> waitlist) {
 			this.waitlist = waitlist;
 			return this;
@@ -174,7 +195,7 @@ public final class BasicAbstractor<S extends State, A extends Action, P extends
 		}
 
 		public BasicAbstractor<S, A, P> build() {
-			return new BasicAbstractor<>(argBuilder, projection, waitlist, stopCriterion, logger);
+			return new BasicAbstractor<>(argBuilder, projection, coverageFilter, waitlist, stopCriterion, logger);
 		}
 	}
 
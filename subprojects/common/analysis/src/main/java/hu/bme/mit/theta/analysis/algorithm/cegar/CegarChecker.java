@@ -17,6 +17,7 @@ package hu.bme.mit.theta.analysis.algorithm.cegar;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Stopwatch;
@@ -72,6 +73,9 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 		P prec = initPrec;
 		int iteration = 0;
 		do {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException("CEGAR loop was interrupted");
+			}
 			++iteration;
 
 			logger.write(Level.MAINSTEP, "Iteration %d%n", iteration);
@@ -93,19 +97,22 @@ public final class CegarChecker<S extends State, A extends Action, P extends Pre
 				}
 			}
 
-		} while (!abstractorResult.isSafe() && !refinerResult.isUnsafe());
+		} while (!abstractorResult.isSafe() && !refinerResult.isUnsafe() && !refinerResult.isUnknown());
 
 		stopwatch.stop();
 		SafetyResult<S, A> cegarResult = null;
 		final CegarStatistics stats = new CegarStatistics(stopwatch.elapsed(TimeUnit.MILLISECONDS), abstractorTime,
 				refinerTime, iteration);
 
-		assert abstractorResult.isSafe() || (refinerResult != null && refinerResult.isUnsafe());
+		assert abstractorResult.isSafe()
+				|| (refinerResult != null && (refinerResult.isUnsafe() || refinerResult.isUnknown()));
 
 		if (abstractorResult.isSafe()) {
 			cegarResult = SafetyResult.safe(arg, stats);
 		} else if (refinerResult.isUnsafe()) {
 			cegarResult = SafetyResult.unsafe(refinerResult.asUnsafe().getCex(), arg, stats);
+		} else if (refinerResult.isUnknown()) {
+			cegarResult = SafetyResult.unknown(arg, stats);
 		}
 
 		assert cegarResult != null;
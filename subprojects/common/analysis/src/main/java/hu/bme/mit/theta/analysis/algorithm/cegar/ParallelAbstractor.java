@@ -0,0 +1,326 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.cegar;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
+import hu.bme.mit.theta.analysis.reachedset.CoverageIndex;
+import hu.bme.mit.theta.analysis.waitlist.ConcurrentWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.FifoWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.common.logging.Logger;
+import hu.bme.mit.theta.common.logging.Logger.Level;
+import hu.bme.mit.theta.common.logging.NullLogger;
+
+/**
+ * Multi-threaded implementation for the abstractor. Nodes of the frontier are
+ * removed from the waitlist in batches, closed sequentially and then expanded
+ * concurrently, each thread using its own ArgBuilder (and thus its own
+ * analysis and solver instance). The new nodes are merged into the reached set
+ * and the waitlist sequentially, in the order of the batch.
+ * <p>
+ * If the waitlist is a {@link ConcurrentWaitlist}, the threads share it as a
+ * frontier instead: each thread takes nodes from the waitlist and expands them
+ * on its own, only closing nodes and updating the reached set under a lock.
+ * This avoids waiting for the slowest node of a batch, but the exploration
+ * order is not deterministic.
+ */
+public final class ParallelAbstractor<S extends State, A extends Action, P extends Prec> implements Abstractor<S, A, P> {
+
+	private final List<ArgBuilder<S, A, P>> argBuilders;
+	private final Function<? super S, ?> projection;
+	private final CoverageFilter<? super S, ?> coverageFilter;
+	private final Waitlist<ArgNode<S, A>> waitlist;
+	private final StopCriterion<S, A> stopCriterion;
+	private final Logger logger;
+
+	private ParallelAbstractor(final List<ArgBuilder<S, A, P>> argBuilders, final Function<? super S, ?> projection,
+							   final CoverageFilter<? super S, ?> coverageFilter,
+							   final Waitlist<ArgNode<S, A>> waitlist, final StopCriterion<S, A> stopCriterion,
+							   final Logger logger) {
+		checkArgument(!argBuilders.isEmpty(), "At least one ArgBuilder is required");
+		this.argBuilders = ImmutableList.copyOf(argBuilders);
+		this.projection = checkNotNull(projection);
+		this.coverageFilter = checkNotNull(coverageFilter);
+		this.waitlist = checkNotNull(waitlist);
+		this.stopCriterion = checkNotNull(stopCriterion);
+		this.logger = checkNotNull(logger);
+	}
+
+	/**
+	 * Create a builder for the abstractor. The number of threads equals the
+	 * number of ArgBuilders, which must not share solver instances.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> Builder<S, A, P> builder(
+			final List<ArgBuilder<S, A, P>> argBuilders) {
+		return new Builder<>(argBuilders);
+	}
+
+	public int getThreads() {
+		return argBuilders.size();
+	}
+
+	@Override
+	public ARG<S, A> createArg() {
+		return argBuilders.get(0).createArg();
+	}
+
+	@Override
+	public AbstractorResult check(final ARG<S, A> arg, final P prec) {
+		checkNotNull(arg);
+		checkNotNull(prec);
+		logger.write(Level.DETAIL, "|  |  Precision: %s%n", prec);
+
+		if (!arg.isInitialized()) {
+			logger.write(Level.SUBSTEP, "|  |  (Re)initializing ARG...");
+			argBuilders.get(0).init(arg, prec);
+			logger.write(Level.SUBSTEP, "done%n");
+		}
+
+		assert arg.isInitialized();
+
+		logger.write(Level.INFO, "|  |  Starting ARG: %d nodes, %d incomplete, %d unsafe%n", arg.size(),
+				arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+		logger.write(Level.SUBSTEP, "|  |  Building ARG with %d threads...", argBuilders.size());
+
+		final CoverageIndex<S, A> reachedSet = CoverageIndex.of(projection, coverageFilter);
+		waitlist.clear();
+
+		reachedSet.addAll(arg.getNodes());
+		waitlist.addAll(arg.getIncompleteNodes());
+
+		if (!stopCriterion.canStop(arg)) {
+			final ExecutorService executor = Executors.newFixedThreadPool(argBuilders.size());
+			try {
+				if (waitlist instanceof ConcurrentWaitlist) {
+					expandShared(arg, prec, reachedSet, (ConcurrentWaitlist<ArgNode<S, A>>) waitlist, executor);
+				} else {
+					expandAll(arg, prec, reachedSet, executor);
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		logger.write(Level.SUBSTEP, "done%n");
+		logger.write(Level.INFO, "|  |  Finished ARG: %d nodes, %d incomplete, %d unsafe%n", arg.size(),
+				arg.getIncompleteNodes().count(), arg.getUnsafeNodes().count());
+		logger.write(Level.DETAIL, "|  |  Coverage checks avoided: %d%n", reachedSet.getAvoidedChecks());
+
+		waitlist.clear(); // Optimization
+
+		if (arg.isSafe()) {
+			checkState(arg.isComplete(), "Returning incomplete ARG as safe");
+			return AbstractorResult.safe();
+		} else {
+			return AbstractorResult.unsafe();
+		}
+	}
+
+	private void expandAll(final ARG<S, A> arg, final P prec, final CoverageIndex<S, A> reachedSet,
+						   final ExecutorService executor) {
+		final List<Future<Collection<ArgNode<S, A>>>> futures = new ArrayList<>(argBuilders.size());
+		while (!waitlist.isEmpty()) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new CancellationException("Abstraction was interrupted");
+			}
+			// Sequential phase: close the nodes of the next batch
+			futures.clear();
+			while (!waitlist.isEmpty() && futures.size() < argBuilders.size()) {
+				final ArgNode<S, A> node = waitlist.remove();
+				close(node, reachedSet.getCandidates(node));
+				if (!node.isSubsumed() && !node.isTarget()) {
+					final ArgBuilder<S, A, P> argBuilder = argBuilders.get(futures.size());
+					futures.add(executor.submit(() -> argBuilder.expand(node, prec)));
+				}
+			}
+
+			// Merge the results in the order of the batch to keep the exploration deterministic
+			boolean stop = false;
+			for (final Future<Collection<ArgNode<S, A>>> future : futures) {
+				final Collection<ArgNode<S, A>> newNodes = getResult(future);
+				if (!stop) {
+					reachedSet.addAll(newNodes);
+					waitlist.addAll(newNodes);
+					stop = stopCriterion.canStop(arg, newNodes);
+				}
+			}
+			if (stop) break;
+		}
+	}
+
+	private void expandShared(final ARG<S, A> arg, final P prec, final CoverageIndex<S, A> reachedSet,
+							  final ConcurrentWaitlist<ArgNode<S, A>> sharedWaitlist, final ExecutorService executor) {
+		final List<Future<Collection<ArgNode<S, A>>>> futures = new ArrayList<>(argBuilders.size());
+		for (final ArgBuilder<S, A, P> argBuilder : argBuilders) {
+			futures.add(executor.submit(() -> work(arg, prec, reachedSet, sharedWaitlist, argBuilder)));
+		}
+		for (final Future<Collection<ArgNode<S, A>>> future : futures) {
+			getResult(future);
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("Abstraction was interrupted");
+		}
+	}
+
+	private Collection<ArgNode<S, A>> work(final ARG<S, A> arg, final P prec, final CoverageIndex<S, A> reachedSet,
+										   final ConcurrentWaitlist<ArgNode<S, A>> sharedWaitlist,
+										   final ArgBuilder<S, A, P> argBuilder) {
+		ArgNode<S, A> node;
+		while ((node = sharedWaitlist.take()) != null) {
+			try {
+				final boolean expand;
+				synchronized (reachedSet) {
+					close(node, reachedSet.getCandidates(node));
+					expand = !node.isSubsumed() && !node.isTarget();
+				}
+				if (expand) {
+					final Collection<ArgNode<S, A>> newNodes = argBuilder.expand(node, prec);
+					synchronized (reachedSet) {
+						reachedSet.addAll(newNodes);
+						sharedWaitlist.addAll(newNodes);
+						if (stopCriterion.canStop(arg, newNodes)) {
+							sharedWaitlist.terminate();
+						}
+					}
+				}
+			} catch (final RuntimeException | Error e) {
+				// Stop the other threads too, the exception is rethrown by getResult
+				sharedWaitlist.terminate();
+				throw e;
+			} finally {
+				sharedWaitlist.done();
+			}
+		}
+		return ImmutableList.of();
+	}
+
+	private Collection<ArgNode<S, A>> getResult(final Future<Collection<ArgNode<S, A>>> future) {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Abstraction was interrupted");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	private void close(final ArgNode<S, A> node, final Collection<ArgNode<S, A>> candidates) {
+		if (!node.isLeaf()) {
+			return;
+		}
+		for (final ArgNode<S, A> candidate : candidates) {
+			if (candidate.mayCover(node)) {
+				node.cover(candidate);
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(waitlist).add(argBuilders.size()).toString();
+	}
+
+	public static final class Builder<S extends State, A extends Action, P extends Prec> {
+		private final List<ArgBuilder<S, A, P>> argBuilders;
+		private Function<? super S, ?> projection;
+		private CoverageFilter<? super S, ?> coverageFilter;
+		private Waitlist<ArgNode<S, A>> waitlist;
+		private StopCriterion<S, A> stopCriterion;
+		private Logger logger;
+
+		private Builder(final List<ArgBuilder<S, A, P>> argBuilders) {
+			this.argBuilders = argBuilders;
+			this.projection = s -> 0;
+			this.coverageFilter = CoverageFilters.none();
+			this.waitlist = FifoWaitlist.create();
+			this.stopCriterion = StopCriterions.firstCex();
+			this.logger = NullLogger.getInstance();
+		}
+
+		public Builder<S, A, P> projection(final Function<? super S, ?> projection) {
+			this.projection = projection;
+			return this;
+		}
+
+		/**
+		 * Sets a filter for ruling out coverage candidates without checking the
+		 * partial order. No filter is used by default.
+		 */
+		public Builder<S, A, P> coverageFilter(final CoverageFilter<? super S, ?> coverageFilter) {
+			this.coverageFilter = coverageFilter;
+			return this;
+		}
+
+		/**
+		 * Sets the waitlist. If it is a {@link ConcurrentWaitlist}, the threads
+		 * share it as a frontier instead of expanding nodes in batches.
+		 */
+		public Builder<S, A, P> waitlist(final Waitlist<ArgNode<S, A>> waitlist) {
+			this.waitlist = waitlist;
+			return this;
+		}
+
+		public Builder<S, A, P> stopCriterion(final StopCriterion<S, A> stopCriterion) {
+			this.stopCriterion = stopCriterion;
+			return this;
+		}
+
+		public Builder<S, A, P> logger(final Logger logger) {
+			this.logger = logger;
+			return this;
+		}
+
+		public ParallelAbstractor<S, A, P> build() {
+			return new ParallelAbstractor<>(argBuilders, projection, coverageFilter, waitlist, stopCriterion, logger);
+		}
+	}
+
+}
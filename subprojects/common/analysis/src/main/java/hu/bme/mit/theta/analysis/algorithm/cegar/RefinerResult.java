@@ -24,9 +24,10 @@ import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.common.Utils;
 
 /**
- * Represents the result of the Refiner class that can be either spurious or
- * unsafe. In the former case it also contains the refined precision and in the
- * latter case the feasible counterexample.
+ * Represents the result of the Refiner class that can be either spurious,
+ * unsafe or unknown. In the first case it also contains the refined precision
+ * and in the second case the feasible counterexample. The result is unknown if
+ * the feasibility of the counterexample could not be decided.
  */
 public abstract class RefinerResult<S extends State, A extends Action, P extends Prec> {
 
@@ -53,10 +54,21 @@ public abstract class RefinerResult<S extends State, A extends Action, P extends
 		return new Unsafe<>(cex);
 	}
 
+	/**
+	 * Creates a new unknown result.
+	 *
+	 * @return
+	 */
+	public static <S extends State, A extends Action, P extends Prec> Unknown<S, A, P> unknown() {
+		return new Unknown<>();
+	}
+
 	public abstract boolean isSpurious();
 
 	public abstract boolean isUnsafe();
 
+	public abstract boolean isUnknown();
+
 	public abstract Spurious<S, A, P> asSpurious();
 
 	public abstract Unsafe<S, A, P> asUnsafe();
@@ -86,6 +98,11 @@ public abstract class RefinerResult<S extends State, A extends Action, P extends
 			return false;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Spurious<S, A, P> asSpurious() {
 			return this;
@@ -128,6 +145,11 @@ public abstract class RefinerResult<S extends State, A extends Action, P extends
 			return true;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Spurious<S, A, P> asSpurious() {
 			throw new ClassCastException(
@@ -145,4 +167,48 @@ public abstract class RefinerResult<S extends State, A extends Action, P extends
 					.toString();
 		}
 	}
+
+	/**
+	 * Represents the unknown result, where the counterexample could neither be
+	 * confirmed nor refuted.
+	 */
+	public static final class Unknown<S extends State, A extends Action, P extends Prec>
+			extends RefinerResult<S, A, P> {
+
+		private Unknown() {
+		}
+
+		@Override
+		public boolean isSpurious() {
+			return false;
+		}
+
+		@Override
+		public boolean isUnsafe() {
+			return false;
+		}
+
+		@Override
+		public boolean isUnknown() {
+			return true;
+		}
+
+		@Override
+		public Spurious<S, A, P> asSpurious() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Spurious.class.getSimpleName());
+		}
+
+		@Override
+		public Unsafe<S, A, P> asUnsafe() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Unsafe.class.getSimpleName());
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(RefinerResult.class.getSimpleName()).add(getClass().getSimpleName())
+					.toString();
+		}
+	}
 }
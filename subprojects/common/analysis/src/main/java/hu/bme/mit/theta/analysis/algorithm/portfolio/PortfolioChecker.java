@@ -0,0 +1,271 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.portfolio;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.common.logging.Logger;
+import hu.bme.mit.theta.common.logging.Logger.Level;
+import hu.bme.mit.theta.common.logging.NullLogger;
+
+/**
+ * Portfolio of safety checking algorithms (e.g., CEGAR configurations with
+ * different domains and refinements) that are run concurrently on separate
+ * threads. The first conclusive result of a member that terminates normally is
+ * returned and the other members are cancelled: their threads are interrupted
+ * and their cancellation hooks are run (e.g., interrupting their solvers with
+ * {@link hu.bme.mit.theta.solver.InterruptibleSolverFactory#interrupt()}).
+ * Cancelled members get a grace period to stop before the result is returned.
+ * Members still running after it are only logged and left behind on their
+ * daemon threads, as they might be in code that does not react to
+ * interrupts. If no member is conclusive, an unknown result is returned. Each
+ * member should use its own solver instances.
+ */
+public final class PortfolioChecker<S extends State, A extends Action> implements SafetyChecker<S, A, UnitPrec> {
+
+	private final Map<String, Member<S, A>> members;
+	private final long gracePeriodMs;
+	private final Logger logger;
+
+	private PortfolioChecker(final Map<String, Member<S, A>> members, final long gracePeriodMs,
+							 final Logger logger) {
+		checkArgument(!members.isEmpty(), "Portfolio must have at least one member");
+		checkArgument(gracePeriodMs >= 0, "Grace period must be non-negative");
+		this.members = ImmutableMap.copyOf(members);
+		this.gracePeriodMs = gracePeriodMs;
+		this.logger = checkNotNull(logger);
+	}
+
+	public static <S extends State, A extends Action> Builder<S, A> builder() {
+		return new Builder<>();
+	}
+
+	@Override
+	public SafetyResult<S, A> check(final UnitPrec prec) {
+		logger.write(Level.INFO, "Configuration: %s%n", this);
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+		final ExecutorService executor = Executors.newFixedThreadPool(members.size(), runnable -> {
+			final Thread thread = new Thread(runnable);
+			thread.setDaemon(true);
+			return thread;
+		});
+		final CompletionService<MemberResult<S, A>> completionService = new ExecutorCompletionService<>(executor);
+		final Map<String, Future<MemberResult<S, A>>> futures = new LinkedHashMap<>();
+
+		try {
+			for (final Map.Entry<String, Member<S, A>> member : members.entrySet()) {
+				logger.write(Level.MAINSTEP, "Starting portfolio member %s%n", member.getKey());
+				futures.put(member.getKey(), completionService.submit(
+						() -> new MemberResult<>(member.getKey(), member.getValue().checker.get())));
+			}
+
+			final List<Throwable> failures = new ArrayList<>();
+			MemberResult<S, A> unknownResult = null;
+			for (int i = 0; i < members.size(); i++) {
+				final Future<MemberResult<S, A>> future = completionService.take();
+				try {
+					final MemberResult<S, A> memberResult = future.get();
+					if (memberResult.result.isUnknown()) {
+						logger.write(Level.MAINSTEP, "Portfolio member %s was inconclusive%n", memberResult.name);
+						if (unknownResult == null) {
+							unknownResult = memberResult;
+						}
+						continue;
+					}
+					stopwatch.stop();
+					final SafetyResult<S, A> result = wrap(memberResult, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+					logger.write(Level.RESULT, "Portfolio winner: %s%n", memberResult.name);
+					logger.write(Level.RESULT, "%s%n", result);
+					logger.write(Level.INFO, "%s%n", result.getStats().get());
+					return result;
+				} catch (final ExecutionException e) {
+					logger.write(Level.MAINSTEP, "Portfolio member failed: %s%n", e.getCause());
+					failures.add(e.getCause());
+				}
+			}
+
+			if (unknownResult != null) {
+				stopwatch.stop();
+				final SafetyResult<S, A> result = wrap(unknownResult, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+				logger.write(Level.RESULT, "%s%n", result);
+				logger.write(Level.INFO, "%s%n", result.getStats().get());
+				return result;
+			}
+
+			final IllegalStateException exception = new IllegalStateException(
+					"All members of the portfolio failed");
+			failures.forEach(exception::addSuppressed);
+			throw exception;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for portfolio members", e);
+		} finally {
+			executor.shutdownNow();
+			cancelMembers();
+			awaitMembers(executor, futures);
+		}
+	}
+
+	private void cancelMembers() {
+		for (final Map.Entry<String, Member<S, A>> member : members.entrySet()) {
+			try {
+				member.getValue().cancel.run();
+			} catch (final RuntimeException e) {
+				logger.write(Level.MAINSTEP, "Could not cancel portfolio member %s: %s%n", member.getKey(), e);
+			}
+		}
+	}
+
+	private void awaitMembers(final ExecutorService executor,
+							  final Map<String, Future<MemberResult<S, A>>> futures) {
+		try {
+			if (executor.awaitTermination(gracePeriodMs, TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		futures.forEach((name, future) -> {
+			if (!future.isDone()) {
+				logger.write(Level.MAINSTEP, "Portfolio member %s did not stop within %d ms%n", name, gracePeriodMs);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private SafetyResult<S, A> wrap(final MemberResult<S, A> memberResult, final long algorithmTimeMs) {
+		final SafetyResult<? extends S, ? extends A> result = memberResult.result;
+		final PortfolioStatistics stats = new PortfolioStatistics(memberResult.name, algorithmTimeMs,
+				result.getStats());
+		// Results are read-only, so viewing them with the bounds of the portfolio is safe
+		final ARG<S, A> arg = (ARG<S, A>) result.getArg();
+		if (result.isSafe()) {
+			return SafetyResult.safe(arg, stats);
+		} else if (result.isUnsafe()) {
+			return SafetyResult.unsafe((Trace<S, A>) result.asUnsafe().getTrace(), arg, stats);
+		} else {
+			return SafetyResult.unknown(arg, stats);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).addAll(members.keySet()).toString();
+	}
+
+	private static final class Member<S extends State, A extends Action> {
+		private final Supplier<? extends SafetyResult<? extends S, ? extends A>> checker;
+		private final Runnable cancel;
+
+		private Member(final Supplier<? extends SafetyResult<? extends S, ? extends A>> checker,
+					   final Runnable cancel) {
+			this.checker = checkNotNull(checker);
+			this.cancel = checkNotNull(cancel);
+		}
+	}
+
+	private static final class MemberResult<S extends State, A extends Action> {
+		private final String name;
+		private final SafetyResult<? extends S, ? extends A> result;
+
+		private MemberResult(final String name, final SafetyResult<? extends S, ? extends A> result) {
+			this.name = checkNotNull(name);
+			this.result = checkNotNull(result);
+		}
+	}
+
+	public static final class Builder<S extends State, A extends Action> {
+		private static final long DEFAULT_GRACE_PERIOD_MS = 5000;
+
+		private final Map<String, Member<S, A>> members;
+		private long gracePeriodMs;
+		private Logger logger;
+
+		private Builder() {
+			this.members = new LinkedHashMap<>();
+			this.gracePeriodMs = DEFAULT_GRACE_PERIOD_MS;
+			this.logger = NullLogger.getInstance();
+		}
+
+		/**
+		 * Adds a new member to the portfolio, which is identified by its (unique)
+		 * name in the statistics. The member is only cancelled by interrupting
+		 * its thread.
+		 */
+		public Builder<S, A> add(final String name, final Supplier<? extends SafetyResult<? extends S, ? extends A>> member) {
+			return add(name, member, () -> {
+			});
+		}
+
+		/**
+		 * Adds a new member to the portfolio, which is identified by its (unique)
+		 * name in the statistics. The cancellation hook is called from another
+		 * thread when the member is cancelled and it should make the member stop
+		 * (e.g., by interrupting its solvers). It is also called if the member
+		 * has already stopped.
+		 */
+		public Builder<S, A> add(final String name, final Supplier<? extends SafetyResult<? extends S, ? extends A>> member,
+								 final Runnable cancel) {
+			checkArgument(!members.containsKey(name), "Duplicate portfolio member " + name);
+			members.put(checkNotNull(name), new Member<>(member, cancel));
+			return this;
+		}
+
+		/**
+		 * Sets how long cancelled members are waited for before the result is
+		 * returned (default: 5 seconds).
+		 */
+		public Builder<S, A> gracePeriod(final long gracePeriod, final TimeUnit unit) {
+			this.gracePeriodMs = unit.toMillis(gracePeriod);
+			return this;
+		}
+
+		public Builder<S, A> logger(final Logger logger) {
+			this.logger = logger;
+			return this;
+		}
+
+		public PortfolioChecker<S, A> build() {
+			return new PortfolioChecker<>(members, gracePeriodMs, logger);
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Optional;
+
+import hu.bme.mit.theta.analysis.algorithm.Statistics;
+
+/**
+ * Represents statistics collected by the PortfolioChecker algorithm. Besides
+ * the winner of the portfolio, it also contains the statistics of the winner.
+ */
+public final class PortfolioStatistics extends Statistics {
+	private final String winner;
+	private final long algorithmTimeMs;
+	private final Optional<Statistics> winnerStats;
+
+	public PortfolioStatistics(final String winner, final long algorithmTimeMs,
+							   final Optional<Statistics> winnerStats) {
+		this.winner = checkNotNull(winner);
+		this.algorithmTimeMs = algorithmTimeMs;
+		this.winnerStats = checkNotNull(winnerStats);
+
+		addStat("Winner", this::getWinner);
+		addStat("PortfolioTimeMs", this::getAlgorithmTimeMs);
+		winnerStats.ifPresent(stats -> stats.keySet().forEach(key -> addStat(key, () -> stats.get(key))));
+	}
+
+	/**
+	 * Gets the name of the member that produced the result.
+	 */
+	public String getWinner() {
+		return winner;
+	}
+
+	public long getAlgorithmTimeMs() {
+		return algorithmTimeMs;
+	}
+
+	public Optional<Statistics> getWinnerStats() {
+		return winnerStats;
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import java.util.Map;
+
+import hu.bme.mit.theta.analysis.reachedset.JoinableCoverageFilter;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.type.LitExpr;
+
+/**
+ * Coverage filter for explicit states. The key of a state is a 64-bit
+ * signature of its assignments (or null for bottom). A state can only cover
+ * another state if its assignments are a subset of the assignments of the
+ * other state, which implies the same for the signatures. Keys are joined by
+ * intersecting the signatures.
+ */
+public final class ExplCoverageFilter implements JoinableCoverageFilter<ExplState, Long> {
+
+	private static final ExplCoverageFilter INSTANCE = new ExplCoverageFilter();
+
+	private ExplCoverageFilter() {
+	}
+
+	public static ExplCoverageFilter getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public Long getKey(final ExplState state) {
+		if (state.isBottom()) {
+			return null;
+		}
+		long signature = 0;
+		for (final Map.Entry<Decl<?>, LitExpr<?>> entry : state.toMap().entrySet()) {
+			final int hash = 31 * entry.getKey().hashCode() + entry.getValue().hashCode();
+			signature |= 1L << (hash ^ (hash >>> 16));
+		}
+		return signature;
+	}
+
+	@Override
+	public boolean mayCover(final Long covererKey, final Long covereeKey) {
+		if (covereeKey == null) {
+			return true;
+		} else if (covererKey == null) {
+			return false;
+		} else {
+			return (covererKey & ~covereeKey) == 0;
+		}
+	}
+
+	@Override
+	public Long join(final Long covererKey1, final Long covererKey2) {
+		if (covererKey1 == null) {
+			return covererKey2;
+		} else if (covererKey2 == null) {
+			return covererKey1;
+		} else {
+			return covererKey1 & covererKey2;
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 
 public final class ExplInitFunc implements InitFunc<ExplState, ExplPrec> {
 
@@ -44,8 +45,13 @@ public final class ExplInitFunc implements InitFunc<ExplState, ExplPrec> {
 	@Override
 	public Collection<? extends ExplState> getInitStates(final ExplPrec prec) {
 		checkNotNull(prec);
-		final Collection<ExplState> initStates = ExprStates.createStatesForExpr(solver, initExpr, 0, prec::createState,
-				VarIndexing.all(0));
+		final Collection<ExplState> initStates;
+		try {
+			initStates = ExprStates.createStatesForExpr(solver, initExpr, 0, prec::createState, VarIndexing.all(0),
+					prec.getVars(), 0);
+		} catch (final UnknownSolverStatusException e) {
+			return Collections.singleton(ExplState.top());
+		}
 		return initStates.isEmpty() ? Collections.singleton(ExplState.bottom()) : initStates;
 	}
 
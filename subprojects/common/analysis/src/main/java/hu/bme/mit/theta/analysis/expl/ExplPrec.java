@@ -27,7 +27,6 @@ import com.google.common.collect.ImmutableSet;
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.decl.VarDecl;
-import hu.bme.mit.theta.core.model.ImmutableValuation;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.LitExpr;
 
@@ -38,10 +37,12 @@ import hu.bme.mit.theta.core.type.LitExpr;
 public final class ExplPrec implements Prec {
 
 	private final Set<VarDecl<?>> vars;
+	private final ExplVarLayout layout;
 	private static ExplPrec EMPTY = new ExplPrec(Collections.emptySet());
 
 	private ExplPrec(final Iterable<? extends VarDecl<?>> vars) {
 		this.vars = ImmutableSet.copyOf(vars);
+		this.layout = ExplVarLayout.of(this.vars);
 	}
 
 	public static ExplPrec empty() {
@@ -75,16 +76,35 @@ public final class ExplPrec implements Prec {
 		}
 	}
 
+	/**
+	 * Creates a state by projecting a valuation to the variables of the
+	 * precision. The values are stored in an array indexed by the variable
+	 * layout of the precision, which is shared by all of its states.
+	 */
 	public ExplState createState(final Valuation valuation) {
 		checkNotNull(valuation);
-		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
-		for (final VarDecl<?> varDecl : vars) {
-			final Optional<? extends LitExpr<?>> eval = valuation.eval(varDecl);
+		final LitExpr<?>[] values = new LitExpr<?>[layout.size()];
+		for (int i = 0; i < values.length; i++) {
+			final Optional<? extends LitExpr<?>> eval = valuation.eval(layout.getVar(i));
 			if (eval.isPresent()) {
-				builder.put(varDecl, eval.get());
+				values[i] = eval.get();
 			}
 		}
-		return ExplState.of(builder.build());
+		return ExplState.of(layout, values);
+	}
+
+	/**
+	 * Re-creates a state with the variable layout of the precision, so that it
+	 * can be compared to the states of the precision without a map-based
+	 * fallback. Returns the same instance if it already has the layout or it
+	 * is bottom. Values of variables not in the precision are dropped.
+	 */
+	public ExplState adaptState(final ExplState state) {
+		checkNotNull(state);
+		if (state.isBottom() || state.hasLayout(layout)) {
+			return state;
+		}
+		return createState(state);
 	}
 
 	@Override
@@ -0,0 +1,67 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.analysis.expr.refinement.PrecChangeFilter;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.ExprUtils;
+
+/**
+ * Precision change filter for explicit states computed by
+ * {@link ExplStmtTransFunc}. A successor is affected if the projection of the
+ * precision to the variables of the source state and the action changes. An
+ * initial state is affected if a variable of the initial expression is added
+ * or removed.
+ */
+public final class ExplPrecChangeFilter implements PrecChangeFilter<ExplState, StmtAction, ExplPrec> {
+
+	private final Set<VarDecl<?>> initVars;
+
+	private ExplPrecChangeFilter(final Expr<BoolType> initExpr) {
+		this.initVars = ImmutableSet.copyOf(ExprUtils.getVars(checkNotNull(initExpr)));
+	}
+
+	public static ExplPrecChangeFilter create(final Expr<BoolType> initExpr) {
+		return new ExplPrecChangeFilter(initExpr);
+	}
+
+	@Override
+	public boolean isAffected(final ExplState state, final ExplPrec oldPrec, final ExplPrec newPrec) {
+		for (final VarDecl<?> var : initVars) {
+			if (oldPrec.getVars().contains(var) != newPrec.getVars().contains(var)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean isAffected(final ExplState source, final StmtAction action, final ExplState target,
+							  final ExplPrec oldPrec, final ExplPrec newPrec) {
+		return !ExplStmtTransFunc.projectPrec(source, action, oldPrec)
+				.equals(ExplStmtTransFunc.projectPrec(source, action, newPrec));
+	}
+
+}
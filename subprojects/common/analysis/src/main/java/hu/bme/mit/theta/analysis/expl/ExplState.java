@@ -15,23 +15,33 @@
  */
 package hu.bme.mit.theta.analysis.expl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.common.Utils;
 import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.ImmutableValuation;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.abstracttype.AbstractExprs;
 import hu.bme.mit.theta.core.type.booltype.BoolExprs;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.SmartBoolExprs;
 
 public abstract class ExplState extends Valuation implements ExprState {
 
@@ -45,6 +55,21 @@ public abstract class ExplState extends Valuation implements ExprState {
 		return new NonBottom(val);
 	}
 
+	/**
+	 * Creates a state storing the values in an array indexed by a layout. The
+	 * array must not be modified afterwards, null elements denote unassigned
+	 * variables.
+	 */
+	static ExplState of(final ExplVarLayout layout, final LitExpr<?>[] values) {
+		checkArgument(layout.size() == values.length, "Values do not match the layout");
+		for (final LitExpr<?> value : values) {
+			if (value != null) {
+				return new Compact(layout, values);
+			}
+		}
+		return top();
+	}
+
 	public static ExplState bottom() {
 		return BottomLazyHolder.INSTANCE;
 	}
@@ -57,6 +82,13 @@ public abstract class ExplState extends Valuation implements ExprState {
 
 	public abstract boolean isLeq(final ExplState that);
 
+	/**
+	 * Checks whether the values of the state are stored by the given layout.
+	 */
+	boolean hasLayout(final ExplVarLayout layout) {
+		return false;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) {
@@ -132,6 +164,151 @@ public abstract class ExplState extends Valuation implements ExprState {
 		}
 	}
 
+	/**
+	 * Non-bottom state storing its values in an array indexed by a layout that
+	 * is shared with the other states of the same precision. Comparison of
+	 * states with the same layout is performed element-wise without
+	 * allocation, while the hash code is consistent with map-based states.
+	 */
+	private static final class Compact extends ExplState {
+		private final ExplVarLayout layout;
+		private final LitExpr<?>[] values;
+		private final int hashCode;
+
+		private Compact(final ExplVarLayout layout, final LitExpr<?>[] values) {
+			this.layout = checkNotNull(layout);
+			this.values = checkNotNull(values);
+			this.hashCode = computeHashCode();
+		}
+
+		// Same as the hash code of the equivalent map-based state (see Valuation and ExplState)
+		private int computeHashCode() {
+			int mapHashCode = 0;
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					mapHashCode += layout.getVar(i).hashCode() ^ values[i].hashCode();
+				}
+			}
+			return ImmutableValuation.empty().hashCode() + mapHashCode + 1;
+		}
+
+		@Override
+		public Collection<? extends Decl<?>> getDecls() {
+			int count = 0;
+			for (final LitExpr<?> value : values) {
+				if (value != null) {
+					count++;
+				}
+			}
+			if (count == values.length) {
+				return layout.getVars();
+			}
+			final ImmutableList.Builder<VarDecl<?>> builder = ImmutableList.builderWithExpectedSize(count);
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					builder.add(layout.getVar(i));
+				}
+			}
+			return builder.build();
+		}
+
+		@Override
+		public <DeclType extends Type> Optional<LitExpr<DeclType>> eval(final Decl<DeclType> decl) {
+			checkNotNull(decl);
+			final int index = layout.indexOf(decl);
+			if (index < 0) {
+				return Optional.empty();
+			}
+			@SuppressWarnings("unchecked") final LitExpr<DeclType> value = (LitExpr<DeclType>) values[index];
+			return Optional.ofNullable(value);
+		}
+
+		@Override
+		public Expr<BoolType> toExpr() {
+			final List<Expr<BoolType>> exprs = new ArrayList<>();
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					exprs.add(AbstractExprs.Eq(layout.getVar(i).getRef(), values[i]));
+				}
+			}
+			return SmartBoolExprs.And(exprs);
+		}
+
+		@Override
+		public Map<Decl<?>, LitExpr<?>> toMap() {
+			final ImmutableMap.Builder<Decl<?>, LitExpr<?>> builder = ImmutableMap.builder();
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					builder.put(layout.getVar(i), values[i]);
+				}
+			}
+			return builder.build();
+		}
+
+		////
+
+		@Override
+		public Valuation getVal() {
+			return this;
+		}
+
+		@Override
+		public boolean isLeq(final ExplState that) {
+			if (that.isBottom()) {
+				return false;
+			} else if (that instanceof Compact && this.layout.equals(((Compact) that).layout)) {
+				final LitExpr<?>[] thatValues = ((Compact) that).values;
+				for (int i = 0; i < values.length; i++) {
+					if (thatValues[i] != null && !thatValues[i].equals(values[i])) {
+						return false;
+					}
+				}
+				return true;
+			} else {
+				return this.isLeq(that.getVal());
+			}
+		}
+
+		@Override
+		boolean hasLayout(final ExplVarLayout layout) {
+			return this.layout.equals(layout);
+		}
+
+		@Override
+		public boolean isBottom() {
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Compact && this.layout.equals(((Compact) obj).layout)) {
+				final Compact that = (Compact) obj;
+				return this.hashCode == that.hashCode && Arrays.equals(this.values, that.values);
+			} else {
+				return super.equals(obj);
+			}
+		}
+
+		@Override
+		public String toString() {
+			final List<String> assignments = new ArrayList<>();
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					assignments.add(String.format("(%s %s)", layout.getVar(i).getName(), values[i]));
+				}
+			}
+			return Utils.lispStringBuilder(ExplState.class.getSimpleName()).aligned().addAll(assignments)
+					.toString();
+		}
+	}
+
 	private static final class Bottom extends ExplState {
 		@Override
 		public Collection<? extends Decl<?>> getDecls() {
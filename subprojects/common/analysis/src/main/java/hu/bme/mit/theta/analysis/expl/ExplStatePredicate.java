@@ -27,6 +27,7 @@ import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.ExprUtils;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 public class ExplStatePredicate implements Predicate<ExplState> {
@@ -51,6 +52,9 @@ public class ExplStatePredicate implements Predicate<ExplState> {
 		try (WithPushPop wpp = new WithPushPop(solver)) {
 			solver.add(PathUtils.unfold(simplified, 0));
 			return solver.check().isSat();
+		} catch (final UnknownSolverStatusException e) {
+			// Treat the state as a possible target, the trace checker decides
+			return true;
 		}
 	}
 
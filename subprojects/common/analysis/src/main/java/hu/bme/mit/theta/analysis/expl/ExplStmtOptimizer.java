@@ -1,23 +1,42 @@
 package hu.bme.mit.theta.analysis.expl;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import hu.bme.mit.theta.analysis.stmtoptimizer.StmtOptimizer;
 import hu.bme.mit.theta.analysis.stmtoptimizer.StmtSimplifier;
 import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.utils.CachingExprSimplifier;
 
 public class ExplStmtOptimizer implements StmtOptimizer<ExplState> {
 
-    private ExplStmtOptimizer(){}
+    private final CachingExprSimplifier simplifier;
+
+    private ExplStmtOptimizer(final CachingExprSimplifier simplifier){
+        this.simplifier = simplifier;
+    }
 
     private static class LazyHolder {
-        static final ExplStmtOptimizer INSTANCE = new ExplStmtOptimizer();
+        static final ExplStmtOptimizer INSTANCE = new ExplStmtOptimizer(null);
     }
 
     public static ExplStmtOptimizer getInstance() {
         return LazyHolder.INSTANCE;
     }
 
+    /**
+     * Create an optimizer that memoizes the simplification of expressions
+     * (e.g., guards) under the values of the variables they depend on.
+     */
+    public static ExplStmtOptimizer create(final CachingExprSimplifier simplifier) {
+        return new ExplStmtOptimizer(checkNotNull(simplifier));
+    }
+
     @Override
     public Stmt optimizeStmt(final ExplState state, final Stmt stmt) {
-        return StmtSimplifier.simplifyStmt(state,stmt);
+        if (simplifier == null) {
+            return StmtSimplifier.simplifyStmt(state,stmt);
+        } else {
+            return StmtSimplifier.simplifyStmt(state,stmt,simplifier);
+        }
     }
 }
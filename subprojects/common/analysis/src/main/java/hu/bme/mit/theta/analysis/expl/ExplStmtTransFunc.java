@@ -22,11 +22,15 @@ import static java.util.Collections.singleton;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
 
 import hu.bme.mit.theta.analysis.TransFunc;
 import hu.bme.mit.theta.analysis.expl.StmtApplier.ApplyResult;
 import hu.bme.mit.theta.analysis.expr.ExprStates;
 import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.MutableValuation;
 import hu.bme.mit.theta.core.stmt.Stmt;
 import hu.bme.mit.theta.core.type.Expr;
@@ -35,6 +39,7 @@ import hu.bme.mit.theta.core.utils.StmtUnfoldResult;
 import hu.bme.mit.theta.core.utils.StmtUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 
 public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction, ExplPrec> {
 
@@ -78,8 +83,16 @@ public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction,
 				// We query (max + 1) states from the solver to see if there
 				// would be more than max
 				final int maxToQuery = maxSuccToEnumerate == 0 ? 0 : maxSuccToEnumerate + 1;
-				final Collection<ExplState> succStates = ExprStates.createStatesForExpr(solver, expr, 0,
-						prec::createState, nextIdx, maxToQuery);
+				final Collection<ExplState> succStates;
+				try {
+					succStates = ExprStates.createStatesForExpr(solver, expr, 0, prec::createState, nextIdx,
+							prec.getVars(), maxToQuery);
+				} catch (final UnknownSolverStatusException e) {
+					// Abstract the statement like with too many successors
+					final ApplyResult reapplyResult = StmtApplier.apply(stmt, val, true);
+					assert reapplyResult == ApplyResult.SUCCESS;
+					continue;
+				}
 
 				if (succStates.isEmpty()) {
 					return singleton(ExplState.bottom());
@@ -96,4 +109,26 @@ public final class ExplStmtTransFunc implements TransFunc<ExplState, StmtAction,
 		return singleton(abstracted);
 	}
 
+	/**
+	 * Projects the precision to the variables that can influence the
+	 * successors of a state with an action, i.e., the tracked variables that
+	 * have a value in the state or appear in the action. Suitable as a
+	 * precision projection for caching the results of the transfer function,
+	 * together with {@link ExplPrec#adaptState} as the adapter of cached
+	 * successors: a hit may have been computed with a different precision,
+	 * whose variable layout would make comparisons with the new states slow.
+	 * The successors only have values for variables of the projection, so
+	 * adapting them to the current precision loses nothing.
+	 */
+	public static Set<VarDecl<?>> projectPrec(final ExplState state, final StmtAction action, final ExplPrec prec) {
+		final Set<VarDecl<?>> actionVars = StmtUtils.getVars(action.getStmts());
+		final ImmutableSet.Builder<VarDecl<?>> builder = ImmutableSet.builder();
+		for (final VarDecl<?> var : prec.getVars()) {
+			if (actionVars.contains(var) || state.eval(var).isPresent()) {
+				builder.add(var);
+			}
+		}
+		return builder.build();
+	}
+
 }
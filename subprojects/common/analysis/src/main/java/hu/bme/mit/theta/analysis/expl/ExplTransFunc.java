@@ -25,6 +25,7 @@ import hu.bme.mit.theta.analysis.expr.ExprAction;
 import hu.bme.mit.theta.analysis.expr.ExprStates;
 import hu.bme.mit.theta.core.type.booltype.BoolExprs;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 
 public final class ExplTransFunc implements TransFunc<ExplState, ExprAction, ExplPrec> {
 
@@ -44,8 +45,13 @@ public final class ExplTransFunc implements TransFunc<ExplState, ExprAction, Exp
 		checkNotNull(state);
 		checkNotNull(action);
 		checkNotNull(prec);
-		final Collection<ExplState> succStates = ExprStates.createStatesForExpr(solver,
-				BoolExprs.And(state.toExpr(), action.toExpr()), 0, prec::createState, action.nextIndexing());
+		final Collection<ExplState> succStates;
+		try {
+			succStates = ExprStates.createStatesForExpr(solver, BoolExprs.And(state.toExpr(), action.toExpr()), 0,
+					prec::createState, action.nextIndexing(), prec.getVars(), 0);
+		} catch (final UnknownSolverStatusException e) {
+			return Collections.singleton(ExplState.top());
+		}
 		return succStates.isEmpty() ? Collections.singleton(ExplState.bottom()) : succStates;
 	}
 
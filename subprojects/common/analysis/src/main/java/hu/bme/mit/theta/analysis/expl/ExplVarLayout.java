@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.VarDecl;
+
+/**
+ * Assignment of dense indices to the variables of an explicit precision. The
+ * layout is shared by all the states created by the precision, which store
+ * only an array of values indexed by the layout.
+ */
+final class ExplVarLayout {
+
+	private final List<VarDecl<?>> vars;
+	private final Map<Decl<?>, Integer> indexes;
+
+	private ExplVarLayout(final Iterable<? extends VarDecl<?>> vars) {
+		this.vars = ImmutableList.copyOf(vars);
+		final ImmutableMap.Builder<Decl<?>, Integer> builder = ImmutableMap.builder();
+		for (int i = 0; i < this.vars.size(); i++) {
+			builder.put(this.vars.get(i), i);
+		}
+		this.indexes = builder.build();
+	}
+
+	public static ExplVarLayout of(final Iterable<? extends VarDecl<?>> vars) {
+		return new ExplVarLayout(vars);
+	}
+
+	public int size() {
+		return vars.size();
+	}
+
+	public List<VarDecl<?>> getVars() {
+		return vars;
+	}
+
+	public VarDecl<?> getVar(final int index) {
+		return vars.get(index);
+	}
+
+	/**
+	 * Gets the index of a declaration, or -1 if it is not part of the layout.
+	 */
+	public int indexOf(final Decl<?> decl) {
+		final Integer index = indexes.get(decl);
+		return index == null ? -1 : index;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof ExplVarLayout) {
+			final ExplVarLayout that = (ExplVarLayout) obj;
+			return this.vars.equals(that.vars);
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * vars.hashCode();
+	}
+
+}
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.utils.PathUtils.unfold;
 
 import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 public final class ExprOrd implements PartialOrd<ExprState> {
@@ -44,6 +45,9 @@ public final class ExprOrd implements PartialOrd<ExprState> {
 			solver.add(unfold(state1.toExpr(), 0));
 			solver.add(Not(unfold(state2.toExpr(), 0)));
 			return solver.check().isUnsat();
+		} catch (final UnknownSolverStatusException e) {
+			// Not covering is always sound
+			return false;
 		}
 	}
 
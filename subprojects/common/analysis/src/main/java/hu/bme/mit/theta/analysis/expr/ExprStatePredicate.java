@@ -24,6 +24,7 @@ import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 public class ExprStatePredicate implements Predicate<ExprState> {
@@ -47,6 +48,9 @@ public class ExprStatePredicate implements Predicate<ExprState> {
 			solver.add(PathUtils.unfold(state.toExpr(), 0));
 			solver.add(expr0);
 			return solver.check().isSat();
+		} catch (final UnknownSolverStatusException e) {
+			// Treat the state as a possible target, the trace checker decides
+			return true;
 		}
 	}
 
@@ -19,14 +19,18 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.utils.ModelEnumerator;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 /**
@@ -83,4 +87,41 @@ public final class ExprStates {
 			return result;
 		}
 	}
+
+	/**
+	 * Generate all or a limited number of states that satisfy a given
+	 * expression, where the states are determined by the values of the given
+	 * variables. Models are enumerated and blocked directly on the constants
+	 * of these variables, instead of the expressions of the states.
+	 *
+	 * @param solver           Solver
+	 * @param expr             Expression to be satisfied
+	 * @param exprIndex        Index for unfolding the expression
+	 * @param valuationToState Mapping from a valuation (of the variables) to a state
+	 * @param stateIndexing    Index for extracting the state
+	 * @param vars             Variables that determine the state
+	 * @param limit            Limit the number of states to generate (0 is unlimited)
+	 * @return States satisfying the expression
+	 */
+	public static <S extends ExprState> Collection<S> createStatesForExpr(final Solver solver,
+																		  final Expr<BoolType> expr, final int exprIndex,
+																		  final Function<? super Valuation, ? extends S> valuationToState, final VarIndexing stateIndexing,
+																		  final Collection<? extends VarDecl<?>> vars, final int limit) {
+		final List<ConstDecl<?>> projection = new ArrayList<>(vars.size());
+		for (final VarDecl<?> var : vars) {
+			projection.add(var.getConstDecl(stateIndexing.get(var)));
+		}
+		final ModelEnumerator enumerator = ModelEnumerator.builder(solver).limit(limit).build();
+
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(PathUtils.unfold(expr, exprIndex));
+
+			final Collection<S> result = new ArrayList<>();
+			enumerator.enumerate(projection, model -> {
+				final Valuation valuation = PathUtils.extractValuation(model, stateIndexing, vars);
+				result.add(valuationToState.apply(valuation));
+			});
+			return result;
+		}
+	}
 }
@@ -34,6 +34,7 @@ import hu.bme.mit.theta.solver.Interpolant;
 import hu.bme.mit.theta.solver.ItpMarker;
 import hu.bme.mit.theta.solver.ItpPattern;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 
 /**
  * An ExprTraceChecker that generates a binary interpolant by incrementally
@@ -67,64 +68,68 @@ public final class ExprTraceBwBinItpChecker implements ExprTraceChecker<ItpRefut
 		indexings.add(VarIndexing.all(Integer.MAX_VALUE));
 
 		solver.push();
+		int nPush = 1;
+		try {
+			final ItpMarker A = solver.createMarker();
+			final ItpMarker B = solver.createMarker();
+			final ItpPattern pattern = solver.createBinPattern(A, B);
+
+			solver.add(A, PathUtils.unfold(target, indexings.get(0)));
+			solver.add(A, PathUtils.unfold(traceRev.getState(0).toExpr(), indexings.get(0)));
+			assert solver.check().isSat() : "Initial state of the trace is not feasible";
+			int satPostfix = 0;
+
+			for (int i = 1; i < stateCount; ++i) {
+				solver.push();
+				++nPush;
+				indexings.add(indexings.get(i - 1).sub(traceRev.getAction(i - 1).nextIndexing()));
+				solver.add(A, PathUtils.unfold(traceRev.getState(i).toExpr(), indexings.get(i)));
+				solver.add(A, PathUtils.unfold(traceRev.getAction(i - 1).toExpr(), indexings.get(i)));
+
+				if (solver.check().isSat()) {
+					satPostfix = i;
+				} else {
+					solver.pop();
+					--nPush;
+					break;
+				}
+			}
 
-		final ItpMarker A = solver.createMarker();
-		final ItpMarker B = solver.createMarker();
-		final ItpPattern pattern = solver.createBinPattern(A, B);
+			final boolean concretizable;
 
-		int nPush = 1;
-		solver.add(A, PathUtils.unfold(target, indexings.get(0)));
-		solver.add(A, PathUtils.unfold(traceRev.getState(0).toExpr(), indexings.get(0)));
-		assert solver.check().isSat() : "Initial state of the trace is not feasible";
-		int satPostfix = 0;
-
-		for (int i = 1; i < stateCount; ++i) {
-			solver.push();
-			++nPush;
-			indexings.add(indexings.get(i - 1).sub(traceRev.getAction(i - 1).nextIndexing()));
-			solver.add(A, PathUtils.unfold(traceRev.getState(i).toExpr(), indexings.get(i)));
-			solver.add(A, PathUtils.unfold(traceRev.getAction(i - 1).toExpr(), indexings.get(i)));
-
-			if (solver.check().isSat()) {
-				satPostfix = i;
+			if (satPostfix == stateCount - 1) {
+				solver.add(B, PathUtils.unfold(init, indexings.get(stateCount - 1)));
+				concretizable = solver.check().isSat();
 			} else {
-				solver.pop();
-				--nPush;
-				break;
+				solver.add(B, PathUtils.unfold(traceRev.getState(satPostfix + 1).toExpr(), indexings.get(satPostfix + 1)));
+				solver.add(B, PathUtils.unfold(traceRev.getAction(satPostfix).toExpr(), indexings.get(satPostfix + 1)));
+				solver.check();
+				assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
+				concretizable = false;
 			}
-		}
 
-		final boolean concretizable;
-
-		if (satPostfix == stateCount - 1) {
-			solver.add(B, PathUtils.unfold(init, indexings.get(stateCount - 1)));
-			concretizable = solver.check().isSat();
-		} else {
-			solver.add(B, PathUtils.unfold(traceRev.getState(satPostfix + 1).toExpr(), indexings.get(satPostfix + 1)));
-			solver.add(B, PathUtils.unfold(traceRev.getAction(satPostfix).toExpr(), indexings.get(satPostfix + 1)));
-			solver.check();
-			assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
-			concretizable = false;
-		}
-
-		ExprTraceStatus<ItpRefutation> status = null;
-		if (concretizable) {
-			final Valuation model = solver.getModel();
-			final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
-			for (final VarIndexing indexing : indexings) {
-				builder.add(PathUtils.extractValuation(model, indexing));
+			ExprTraceStatus<ItpRefutation> status = null;
+			if (concretizable) {
+				final Valuation model = solver.getModel();
+				final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+				for (final VarIndexing indexing : indexings) {
+					builder.add(PathUtils.extractValuation(model, indexing));
+				}
+				status = ExprTraceStatus.feasible(Trace.of(builder.build().reverse(), trace.getActions()));
+			} else {
+				final Interpolant interpolant = solver.getInterpolant(pattern);
+				final Expr<BoolType> itpFolded = PathUtils.foldin(interpolant.eval(A), indexings.get(satPostfix));
+				status = ExprTraceStatus
+						.infeasible(ItpRefutation.binary(itpFolded, stateCount - 1 - satPostfix, stateCount));
 			}
-			status = ExprTraceStatus.feasible(Trace.of(builder.build().reverse(), trace.getActions()));
-		} else {
-			final Interpolant interpolant = solver.getInterpolant(pattern);
-			final Expr<BoolType> itpFolded = PathUtils.foldin(interpolant.eval(A), indexings.get(satPostfix));
-			status = ExprTraceStatus
-					.infeasible(ItpRefutation.binary(itpFolded, stateCount - 1 - satPostfix, stateCount));
-		}
-		assert status != null;
-		solver.pop(nPush);
+			assert status != null;
+			solver.pop(nPush);
 
-		return status;
+			return status;
+		} catch (final UnknownSolverStatusException e) {
+			solver.pop(nPush);
+			return ExprTraceStatus.unknown();
+		}
 	}
 
 	@Override
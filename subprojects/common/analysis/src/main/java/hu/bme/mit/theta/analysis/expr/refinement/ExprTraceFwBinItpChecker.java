@@ -34,6 +34,7 @@ import hu.bme.mit.theta.solver.Interpolant;
 import hu.bme.mit.theta.solver.ItpMarker;
 import hu.bme.mit.theta.solver.ItpPattern;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 
 /**
  * An ExprTraceChecker that generates a binary interpolant by incrementally
@@ -65,63 +66,67 @@ public final class ExprTraceFwBinItpChecker implements ExprTraceChecker<ItpRefut
 		indexings.add(VarIndexing.all(0));
 
 		solver.push();
+		int nPush = 1;
+		try {
+			final ItpMarker A = solver.createMarker();
+			final ItpMarker B = solver.createMarker();
+			final ItpPattern pattern = solver.createBinPattern(A, B);
+
+			solver.add(A, PathUtils.unfold(init, indexings.get(0)));
+			solver.add(A, PathUtils.unfold(trace.getState(0).toExpr(), indexings.get(0)));
+			assert solver.check().isSat() : "Initial state of the trace is not feasible";
+			int satPrefix = 0;
+
+			for (int i = 1; i < stateCount; ++i) {
+				solver.push();
+				++nPush;
+				indexings.add(indexings.get(i - 1).add(trace.getAction(i - 1).nextIndexing()));
+				solver.add(A, PathUtils.unfold(trace.getState(i).toExpr(), indexings.get(i)));
+				solver.add(A, PathUtils.unfold(trace.getAction(i - 1).toExpr(), indexings.get(i - 1)));
+
+				if (solver.check().isSat()) {
+					satPrefix = i;
+				} else {
+					solver.pop();
+					--nPush;
+					break;
+				}
+			}
 
-		final ItpMarker A = solver.createMarker();
-		final ItpMarker B = solver.createMarker();
-		final ItpPattern pattern = solver.createBinPattern(A, B);
+			final boolean concretizable;
 
-		int nPush = 1;
-		solver.add(A, PathUtils.unfold(init, indexings.get(0)));
-		solver.add(A, PathUtils.unfold(trace.getState(0).toExpr(), indexings.get(0)));
-		assert solver.check().isSat() : "Initial state of the trace is not feasible";
-		int satPrefix = 0;
-
-		for (int i = 1; i < stateCount; ++i) {
-			solver.push();
-			++nPush;
-			indexings.add(indexings.get(i - 1).add(trace.getAction(i - 1).nextIndexing()));
-			solver.add(A, PathUtils.unfold(trace.getState(i).toExpr(), indexings.get(i)));
-			solver.add(A, PathUtils.unfold(trace.getAction(i - 1).toExpr(), indexings.get(i - 1)));
-
-			if (solver.check().isSat()) {
-				satPrefix = i;
+			if (satPrefix == stateCount - 1) {
+				solver.add(B, PathUtils.unfold(target, indexings.get(stateCount - 1)));
+				concretizable = solver.check().isSat();
 			} else {
-				solver.pop();
-				--nPush;
-				break;
+				solver.add(B, PathUtils.unfold(trace.getState(satPrefix + 1).toExpr(), indexings.get(satPrefix + 1)));
+				solver.add(B, PathUtils.unfold(trace.getAction(satPrefix).toExpr(), indexings.get(satPrefix)));
+				solver.check();
+				assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
+				concretizable = false;
 			}
-		}
 
-		final boolean concretizable;
-
-		if (satPrefix == stateCount - 1) {
-			solver.add(B, PathUtils.unfold(target, indexings.get(stateCount - 1)));
-			concretizable = solver.check().isSat();
-		} else {
-			solver.add(B, PathUtils.unfold(trace.getState(satPrefix + 1).toExpr(), indexings.get(satPrefix + 1)));
-			solver.add(B, PathUtils.unfold(trace.getAction(satPrefix).toExpr(), indexings.get(satPrefix)));
-			solver.check();
-			assert solver.getStatus().isUnsat() : "Trying to interpolate a feasible formula";
-			concretizable = false;
-		}
-
-		ExprTraceStatus<ItpRefutation> status = null;
-		if (concretizable) {
-			final Valuation model = solver.getModel();
-			final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
-			for (final VarIndexing indexing : indexings) {
-				builder.add(PathUtils.extractValuation(model, indexing));
+			ExprTraceStatus<ItpRefutation> status = null;
+			if (concretizable) {
+				final Valuation model = solver.getModel();
+				final ImmutableList.Builder<Valuation> builder = ImmutableList.builder();
+				for (final VarIndexing indexing : indexings) {
+					builder.add(PathUtils.extractValuation(model, indexing));
+				}
+				status = ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
+			} else {
+				final Interpolant interpolant = solver.getInterpolant(pattern);
+				final Expr<BoolType> itpFolded = PathUtils.foldin(interpolant.eval(A), indexings.get(satPrefix));
+				status = ExprTraceStatus.infeasible(ItpRefutation.binary(itpFolded, satPrefix, stateCount));
 			}
-			status = ExprTraceStatus.feasible(Trace.of(builder.build(), trace.getActions()));
-		} else {
-			final Interpolant interpolant = solver.getInterpolant(pattern);
-			final Expr<BoolType> itpFolded = PathUtils.foldin(interpolant.eval(A), indexings.get(satPrefix));
-			status = ExprTraceStatus.infeasible(ItpRefutation.binary(itpFolded, satPrefix, stateCount));
-		}
-		assert status != null;
-		solver.pop(nPush);
+			assert status != null;
+			solver.pop(nPush);
 
-		return status;
+			return status;
+		} catch (final UnknownSolverStatusException e) {
+			solver.pop(nPush);
+			return ExprTraceStatus.unknown();
+		}
 	}
 
 	@Override
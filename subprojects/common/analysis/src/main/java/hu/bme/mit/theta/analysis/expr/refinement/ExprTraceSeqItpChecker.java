@@ -34,6 +34,7 @@ import hu.bme.mit.theta.solver.Interpolant;
 import hu.bme.mit.theta.solver.ItpMarker;
 import hu.bme.mit.theta.solver.ItpPattern;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 /**
@@ -100,6 +101,8 @@ public final class ExprTraceSeqItpChecker implements ExprTraceChecker<ItpRefutat
 				}
 				return ExprTraceStatus.infeasible(ItpRefutation.sequence(interpolants));
 			}
+		} catch (final UnknownSolverStatusException e) {
+			return ExprTraceStatus.unknown();
 		}
 	}
 
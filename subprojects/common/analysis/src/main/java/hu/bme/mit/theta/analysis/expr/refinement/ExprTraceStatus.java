@@ -35,10 +35,20 @@ public abstract class ExprTraceStatus<R extends Refutation> {
 		return new Feasible<>(valuations);
 	}
 
+	/**
+	 * Creates a status for a trace whose feasibility could not be decided,
+	 * e.g., because the solver timed out or gave up.
+	 */
+	public static <R extends Refutation> Unknown<R> unknown() {
+		return new Unknown<>();
+	}
+
 	public abstract boolean isInfeasible();
 
 	public abstract boolean isFeasible();
 
+	public abstract boolean isUnknown();
+
 	public abstract Infeasible<R> asInfeasible();
 
 	public abstract Feasible<R> asFeasible();
@@ -64,6 +74,11 @@ public abstract class ExprTraceStatus<R extends Refutation> {
 			return false;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Infeasible<R> asInfeasible() {
 			return this;
@@ -104,6 +119,11 @@ public abstract class ExprTraceStatus<R extends Refutation> {
 			return true;
 		}
 
+		@Override
+		public boolean isUnknown() {
+			return false;
+		}
+
 		@Override
 		public Infeasible<R> asInfeasible() {
 			throw new ClassCastException(
@@ -122,4 +142,44 @@ public abstract class ExprTraceStatus<R extends Refutation> {
 		}
 
 	}
+
+	public final static class Unknown<R extends Refutation> extends ExprTraceStatus<R> {
+
+		private Unknown() {
+		}
+
+		@Override
+		public boolean isInfeasible() {
+			return false;
+		}
+
+		@Override
+		public boolean isFeasible() {
+			return false;
+		}
+
+		@Override
+		public boolean isUnknown() {
+			return true;
+		}
+
+		@Override
+		public Infeasible<R> asInfeasible() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Infeasible.class.getSimpleName());
+		}
+
+		@Override
+		public Feasible<R> asFeasible() {
+			throw new ClassCastException(
+					"Cannot cast " + Unknown.class.getSimpleName() + " to " + Feasible.class.getSimpleName());
+		}
+
+		@Override
+		public String toString() {
+			return Utils.lispStringBuilder(ExprTraceStatus.class.getSimpleName()).add(getClass().getSimpleName())
+					.toString();
+		}
+
+	}
 }
@@ -18,6 +18,7 @@ package hu.bme.mit.theta.analysis.expr.refinement;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public final class ExprTraceStatusMergers {
 
@@ -37,14 +38,17 @@ public final class ExprTraceStatusMergers {
 		public ExprTraceStatus<R> merge(final Collection<ExprTraceStatus<R>> statuses) {
 			checkArgument(!statuses.isEmpty(), "No statuses to merge.");
 
-			final ExprTraceStatus<R> firstStatus = statuses.iterator().next();
-			if (firstStatus.isFeasible()) {
-				assert statuses.stream().allMatch(ExprTraceStatus::isFeasible);
-				return firstStatus;
+			final Optional<ExprTraceStatus<R>> feasible = statuses.stream().filter(ExprTraceStatus::isFeasible)
+					.findFirst();
+			if (feasible.isPresent()) {
+				assert statuses.stream().noneMatch(ExprTraceStatus::isInfeasible);
+				return feasible.get();
+			} else if (statuses.stream().anyMatch(ExprTraceStatus::isInfeasible)) {
+				return statuses.stream().filter(ExprTraceStatus::isInfeasible).map(ExprTraceStatus::asInfeasible)
+						.min((s1, s2) -> Integer.compare(s1.getRefutation().getPruneIndex(),
+								s2.getRefutation().getPruneIndex())).get();
 			} else {
-				assert statuses.stream().allMatch(ExprTraceStatus::isInfeasible);
-				return statuses.stream().map(ExprTraceStatus::asInfeasible).min((s1, s2) -> Integer
-						.compare(s1.getRefutation().getPruneIndex(), s2.getRefutation().getPruneIndex())).get();
+				return ExprTraceStatus.unknown();
 			}
 		}
 	}
@@ -54,14 +58,17 @@ public final class ExprTraceStatusMergers {
 		public ExprTraceStatus<R> merge(final Collection<ExprTraceStatus<R>> statuses) {
 			checkArgument(!statuses.isEmpty(), "No statuses to merge.");
 
-			final ExprTraceStatus<R> firstStatus = statuses.iterator().next();
-			if (firstStatus.isFeasible()) {
-				assert statuses.stream().allMatch(ExprTraceStatus::isFeasible);
-				return firstStatus;
+			final Optional<ExprTraceStatus<R>> feasible = statuses.stream().filter(ExprTraceStatus::isFeasible)
+					.findFirst();
+			if (feasible.isPresent()) {
+				assert statuses.stream().noneMatch(ExprTraceStatus::isInfeasible);
+				return feasible.get();
+			} else if (statuses.stream().anyMatch(ExprTraceStatus::isInfeasible)) {
+				return statuses.stream().filter(ExprTraceStatus::isInfeasible).map(ExprTraceStatus::asInfeasible)
+						.max((s1, s2) -> Integer.compare(s1.getRefutation().getPruneIndex(),
+								s2.getRefutation().getPruneIndex())).get();
 			} else {
-				assert statuses.stream().allMatch(ExprTraceStatus::isInfeasible);
-				return statuses.stream().map(ExprTraceStatus::asInfeasible).max((s1, s2) -> Integer
-						.compare(s1.getRefutation().getPruneIndex(), s2.getRefutation().getPruneIndex())).get();
+				return ExprTraceStatus.unknown();
 			}
 		}
 	}
@@ -21,6 +21,7 @@ import hu.bme.mit.theta.core.utils.SpState;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.core.utils.WpState;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 import java.util.ArrayList;
@@ -71,6 +72,9 @@ public class ExprTraceUCBChecker implements ExprTraceChecker<ItpRefutation>  {
         catch(ClassCastException e) {
             throw new UnsupportedOperationException("Actions must be of type StmtAction", e);
         }
+        catch(UnknownSolverStatusException e) {
+            return ExprTraceStatus.unknown();
+        }
     }
 
 private ExprTraceStatus<ItpRefutation> check2(final Trace<? extends ExprState, ? extends StmtAction> trace) {
@@ -34,6 +34,7 @@ import hu.bme.mit.theta.core.utils.IndexedVars;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 /**
@@ -100,6 +101,8 @@ public final class ExprTraceUnsatCoreChecker implements ExprTraceChecker<VarsRef
 				final IndexedVars indexedVars = ExprUtils.getVarsIndexed(unsatCore);
 				return ExprTraceStatus.infeasible(VarsRefutation.create(indexedVars));
 			}
+		} catch (final UnknownSolverStatusException e) {
+			return ExprTraceStatus.unknown();
 		}
 	}
 
@@ -15,12 +15,26 @@
  */
 package hu.bme.mit.theta.analysis.expr.refinement;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+
 import hu.bme.mit.theta.analysis.Prec;
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.algorithm.ARG;
@@ -33,27 +47,80 @@ import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.Logger.Level;
 
+/**
+ * Refiner that checks all counterexamples of the ARG and refines the precision
+ * based on each of them. If multiple ExprTraceCheckers are given, traces are
+ * checked in parallel, each thread using its own checker (and thus its own
+ * solver). The results are the same as with sequential checking: the first
+ * feasible trace (in the order of the ARG) is reported, and refutations are
+ * merged in the order of the traces. The threads are kept between refinements
+ * and stop after being idle for a while.
+ */
 public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation>
 		implements Refiner<S, A, P> {
 
-	private final ExprTraceChecker<R> exprTraceChecker;
+	private final List<ExprTraceChecker<R>> exprTraceCheckers;
 	private final PrecRefiner<S, A, P, R> precRefiner;
 	private final PruneStrategy pruneStrategy;
+	private final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter;
 	private final Logger logger;
+	private final ExecutorService executor; // Null if there is a single checker
 
-	private MultiExprTraceRefiner(final ExprTraceChecker<R> exprTraceChecker,
+	private static final long IDLE_THREAD_TIMEOUT_S = 60;
+
+	private MultiExprTraceRefiner(final List<ExprTraceChecker<R>> exprTraceCheckers,
 								  final PrecRefiner<S, A, P, R> precRefiner,
-								  final PruneStrategy pruneStrategy, final Logger logger) {
-		this.exprTraceChecker = checkNotNull(exprTraceChecker);
+								  final PruneStrategy pruneStrategy,
+								  final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter,
+								  final Logger logger) {
+		checkArgument(!exprTraceCheckers.isEmpty(), "At least one ExprTraceChecker is required");
+		this.exprTraceCheckers = ImmutableList.copyOf(exprTraceCheckers);
 		this.precRefiner = checkNotNull(precRefiner);
 		this.pruneStrategy = checkNotNull(pruneStrategy);
+		this.precChangeFilter = checkNotNull(precChangeFilter);
 		this.logger = checkNotNull(logger);
+		this.executor = exprTraceCheckers.size() > 1 ? createExecutor(exprTraceCheckers.size()) : null;
+	}
+
+	private static ExecutorService createExecutor(final int threads) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT_S,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			final Thread thread = new Thread(runnable, "MultiExprTraceRefiner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
 			final ExprTraceChecker<R> exprTraceChecker, final PrecRefiner<S, A, P, R> precRefiner,
 			final PruneStrategy pruneStrategy, final Logger logger) {
-		return new MultiExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, logger);
+		return new MultiExprTraceRefiner<>(ImmutableList.of(exprTraceChecker), precRefiner, pruneStrategy,
+				PrecChangeFilters.all(), logger);
+	}
+
+	/**
+	 * Create a refiner that checks traces in parallel. The number of threads
+	 * equals the number of checkers, which must not share solver instances.
+	 */
+	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
+			final List<ExprTraceChecker<R>> exprTraceCheckers, final PrecRefiner<S, A, P, R> precRefiner,
+			final PruneStrategy pruneStrategy, final Logger logger) {
+		return new MultiExprTraceRefiner<>(exprTraceCheckers, precRefiner, pruneStrategy, PrecChangeFilters.all(),
+				logger);
+	}
+
+	/**
+	 * Create a refiner that checks traces in parallel and uses the given filter
+	 * to decide which nodes to prune with the {@link PruneStrategy#AFFECTED}
+	 * strategy.
+	 */
+	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> MultiExprTraceRefiner<S, A, P, R> create(
+			final List<ExprTraceChecker<R>> exprTraceCheckers, final PrecRefiner<S, A, P, R> precRefiner,
+			final PruneStrategy pruneStrategy, final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter,
+			final Logger logger) {
+		return new MultiExprTraceRefiner<>(exprTraceCheckers, precRefiner, pruneStrategy, precChangeFilter, logger);
 	}
 
 	@Override
@@ -70,19 +137,20 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
 		assert traces.size() > 0 : "No counterexample in ARG";
 
 		logger.write(Level.SUBSTEP, "|  |  Checking traces...");
-		final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
-		for (final Trace<S, A> trace : traces) {
-			final ExprTraceStatus<R> status = exprTraceChecker.check(trace);
-			cexStatuses.add(status);
-			if (status.isFeasible()) {
-				break;
-			}
+		final List<ExprTraceStatus<R>> cexStatuses;
+		if (exprTraceCheckers.size() == 1 || traces.size() == 1) {
+			cexStatuses = checkSequentially(traces);
+		} else {
+			cexStatuses = checkConcurrently(traces);
 		}
 
 		if (cexStatuses.stream().anyMatch(ExprTraceStatus::isFeasible)) {
 			logger.write(Level.SUBSTEP, "done, result: found feasible%n");
 			return RefinerResult.unsafe(traces.get(
 					cexStatuses.indexOf(cexStatuses.stream().filter(ExprTraceStatus::isFeasible).findFirst().get())));
+		} else if (cexStatuses.stream().anyMatch(ExprTraceStatus::isUnknown)) {
+			logger.write(Level.SUBSTEP, "done, result: found unknown%n");
+			return RefinerResult.unknown();
 		} else {
 			assert cexStatuses.size() == cexs.size();
 			logger.write(Level.SUBSTEP, "done, result: all infeasible%n");
@@ -127,6 +195,15 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
 					logger.write(Level.SUBSTEP, "|  |  Pruning (full)...");
 					arg.pruneAll();
 					break;
+				case AFFECTED:
+					logger.write(Level.SUBSTEP, "|  |  Pruning (affected)...");
+					for (int i = 0; i < nodesToPrune.size(); ++i) {
+						if (!skip.get(i)) {
+							arg.prune(nodesToPrune.get(i));
+						}
+					}
+					PrecChangeFilters.getAffectedNodes(arg, precChangeFilter, prec, refinedPrec).forEach(arg::prune);
+					break;
 				default:
 					throw new UnsupportedOperationException("Unsupported pruning strategy");
 			}
@@ -136,4 +213,97 @@ public final class MultiExprTraceRefiner<S extends ExprState, A extends ExprActi
 
 	}
 
+	private List<ExprTraceStatus<R>> checkSequentially(final List<Trace<S, A>> traces) {
+		final ExprTraceChecker<R> exprTraceChecker = exprTraceCheckers.get(0);
+		final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
+		for (final Trace<S, A> trace : traces) {
+			final ExprTraceStatus<R> status = exprTraceChecker.check(trace);
+			cexStatuses.add(status);
+			if (status.isFeasible()) {
+				break;
+			}
+		}
+		return cexStatuses;
+	}
+
+	/**
+	 * Check traces concurrently. Traces are taken in order, and no trace is
+	 * started after a feasible trace with a lower index is found. Therefore, all
+	 * traces before the first feasible one are checked, which gives the same
+	 * statuses as sequential checking. Returns (or throws) only when all
+	 * workers stopped, so the checkers are free to be used by the next call.
+	 */
+	private List<ExprTraceStatus<R>> checkConcurrently(final List<Trace<S, A>> traces) {
+		final AtomicReferenceArray<ExprTraceStatus<R>> statuses = new AtomicReferenceArray<>(traces.size());
+		final AtomicInteger nextIndex = new AtomicInteger(0);
+		final AtomicInteger firstFeasible = new AtomicInteger(traces.size());
+
+		final int threads = Math.min(exprTraceCheckers.size(), traces.size());
+		final CountDownLatch finished = new CountDownLatch(threads);
+		final List<Future<?>> futures = new ArrayList<>(threads);
+		boolean completed = false;
+		try {
+			for (int t = 0; t < threads; ++t) {
+				final ExprTraceChecker<R> exprTraceChecker = exprTraceCheckers.get(t);
+				futures.add(executor.submit(() -> {
+					try {
+						int i;
+						while ((i = nextIndex.getAndIncrement()) < firstFeasible.get()) {
+							if (Thread.currentThread().isInterrupted()) {
+								throw new CancellationException("Refinement was interrupted");
+							}
+							final ExprTraceStatus<R> status = exprTraceChecker.check(traces.get(i));
+							statuses.set(i, status);
+							if (status.isFeasible()) {
+								firstFeasible.accumulateAndGet(i, Math::min);
+							}
+						}
+					} finally {
+						finished.countDown();
+					}
+				}));
+			}
+			for (final Future<?> future : futures) {
+				waitFor(future);
+			}
+			completed = true;
+		} finally {
+			if (!completed) {
+				// Stop the other workers after their current trace. Their futures are not
+				// cancelled, as a cancelled worker that has not started would never count down.
+				firstFeasible.set(-1);
+			}
+			Uninterruptibles.awaitUninterruptibly(finished);
+		}
+
+		final List<ExprTraceStatus<R>> cexStatuses = new ArrayList<>(traces.size());
+		for (int i = 0; i < traces.size(); ++i) {
+			final ExprTraceStatus<R> status = statuses.get(i);
+			assert status != null;
+			cexStatuses.add(status);
+			if (status.isFeasible()) {
+				break;
+			}
+		}
+		return cexStatuses;
+	}
+
+	private void waitFor(final Future<?> future) {
+		try {
+			future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Refinement was interrupted");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+
+/**
+ * Interface for deciding whether the state of an ARG node may change when the
+ * precision is refined, provided that its parent does not change. Used by the
+ * {@link PruneStrategy#AFFECTED} strategy, which keeps the nodes that are not
+ * affected. Filters can be over-approximating, i.e., it is always safe to
+ * report a node as affected.
+ */
+public interface PrecChangeFilter<S extends State, A extends Action, P extends Prec> {
+
+	/**
+	 * Checks whether an initial state may change.
+	 */
+	boolean isAffected(S state, P oldPrec, P newPrec);
+
+	/**
+	 * Checks whether the target state of a transition may change, given that
+	 * the source state does not change.
+	 */
+	boolean isAffected(S source, A action, S target, P oldPrec, P newPrec);
+
+}
@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+
+public final class PrecChangeFilters {
+
+	private PrecChangeFilters() {
+	}
+
+	/**
+	 * Create a filter that reports every node as affected if the precision has
+	 * changed.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> PrecChangeFilter<S, A, P> all() {
+		return new PrecChangeFilter<S, A, P>() {
+			@Override
+			public boolean isAffected(final S state, final P oldPrec, final P newPrec) {
+				return !oldPrec.equals(newPrec);
+			}
+
+			@Override
+			public boolean isAffected(final S source, final A action, final S target, final P oldPrec,
+									  final P newPrec) {
+				return !oldPrec.equals(newPrec);
+			}
+		};
+	}
+
+	/**
+	 * Lift a filter to a different domain by mapping the states and the
+	 * precisions. The precision is mapped based on the (initial or target)
+	 * state, e.g., to the precision of its location.
+	 */
+	public static <S1 extends State, S2 extends State, A extends Action, P1 extends Prec, P2 extends Prec> PrecChangeFilter<S1, A, P1> lift(
+			final Function<? super S1, ? extends S2> stateMapping,
+			final BiFunction<? super S1, ? super P1, ? extends P2> precMapping,
+			final PrecChangeFilter<S2, ? super A, P2> filter) {
+		checkNotNull(stateMapping);
+		checkNotNull(precMapping);
+		checkNotNull(filter);
+		return new PrecChangeFilter<S1, A, P1>() {
+			@Override
+			public boolean isAffected(final S1 state, final P1 oldPrec, final P1 newPrec) {
+				return filter.isAffected(stateMapping.apply(state), precMapping.apply(state, oldPrec),
+						precMapping.apply(state, newPrec));
+			}
+
+			@Override
+			public boolean isAffected(final S1 source, final A action, final S1 target, final P1 oldPrec,
+									  final P1 newPrec) {
+				return filter.isAffected(stateMapping.apply(source), action, stateMapping.apply(target),
+						precMapping.apply(target, oldPrec), precMapping.apply(target, newPrec));
+			}
+		};
+	}
+
+	/**
+	 * Collect the topmost affected nodes of an ARG, i.e., the affected nodes
+	 * without an affected ancestor.
+	 */
+	static <S extends State, A extends Action, P extends Prec> List<ArgNode<S, A>> getAffectedNodes(
+			final ARG<S, A> arg, final PrecChangeFilter<? super S, ? super A, ? super P> filter, final P oldPrec,
+			final P newPrec) {
+		final List<ArgNode<S, A>> affectedNodes = new ArrayList<>();
+		final Deque<ArgNode<S, A>> nodesToVisit = new ArrayDeque<>();
+		arg.getInitNodes().forEach(node -> {
+			if (filter.isAffected(node.getState(), oldPrec, newPrec)) {
+				affectedNodes.add(node);
+			} else {
+				nodesToVisit.add(node);
+			}
+		});
+		while (!nodesToVisit.isEmpty()) {
+			final ArgNode<S, A> node = nodesToVisit.remove();
+			node.getOutEdges().forEach(edge -> {
+				final ArgNode<S, A> succ = edge.getTarget();
+				if (filter.isAffected(node.getState(), edge.getAction(), succ.getState(), oldPrec, newPrec)) {
+					affectedNodes.add(succ);
+				} else {
+					nodesToVisit.add(succ);
+				}
+			});
+		}
+		return affectedNodes;
+	}
+
+}
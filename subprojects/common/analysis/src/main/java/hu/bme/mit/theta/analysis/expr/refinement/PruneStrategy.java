@@ -1,5 +1,11 @@
 package hu.bme.mit.theta.analysis.expr.refinement;
 
 public enum PruneStrategy {
-    LAZY, FULL
+    LAZY, FULL,
+
+    /**
+     * Prune like LAZY, and also every node whose state may change due to the
+     * refined precision, as decided by a {@link PrecChangeFilter}.
+     */
+    AFFECTED
 }
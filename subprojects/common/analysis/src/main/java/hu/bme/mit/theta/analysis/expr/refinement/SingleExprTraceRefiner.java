@@ -40,21 +40,37 @@ public final class SingleExprTraceRefiner<S extends ExprState, A extends ExprAct
 	private final ExprTraceChecker<R> exprTraceChecker;
 	private final PrecRefiner<S, A, P, R> precRefiner;
 	private final PruneStrategy pruneStrategy;
+	private final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter;
 	private final Logger logger;
 
 	private SingleExprTraceRefiner(final ExprTraceChecker<R> exprTraceChecker,
 								   final PrecRefiner<S, A, P, R> precRefiner,
-								   final PruneStrategy pruneStrategy, final Logger logger) {
+								   final PruneStrategy pruneStrategy,
+								   final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter,
+								   final Logger logger) {
 		this.exprTraceChecker = checkNotNull(exprTraceChecker);
 		this.precRefiner = checkNotNull(precRefiner);
 		this.pruneStrategy = checkNotNull(pruneStrategy);
+		this.precChangeFilter = checkNotNull(precChangeFilter);
 		this.logger = checkNotNull(logger);
 	}
 
 	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> SingleExprTraceRefiner<S, A, P, R> create(
 			final ExprTraceChecker<R> exprTraceChecker, final PrecRefiner<S, A, P, R> precRefiner,
 			final PruneStrategy pruneStrategy, final Logger logger) {
-		return new SingleExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, logger);
+		return new SingleExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, PrecChangeFilters.all(),
+				logger);
+	}
+
+	/**
+	 * Create a refiner that uses the given filter to decide which nodes to
+	 * prune with the {@link PruneStrategy#AFFECTED} strategy.
+	 */
+	public static <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> SingleExprTraceRefiner<S, A, P, R> create(
+			final ExprTraceChecker<R> exprTraceChecker, final PrecRefiner<S, A, P, R> precRefiner,
+			final PruneStrategy pruneStrategy, final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter,
+			final Logger logger) {
+		return new SingleExprTraceRefiner<>(exprTraceChecker, precRefiner, pruneStrategy, precChangeFilter, logger);
 	}
 
 	@Override
@@ -72,10 +88,10 @@ public final class SingleExprTraceRefiner<S extends ExprState, A extends ExprAct
 		final ExprTraceStatus<R> cexStatus = exprTraceChecker.check(traceToConcretize);
 		logger.write(Level.SUBSTEP, "done, result: %s%n", cexStatus);
 
-		assert cexStatus.isFeasible() || cexStatus.isInfeasible() : "Unknown CEX status";
-
 		if (cexStatus.isFeasible()) {
 			return RefinerResult.unsafe(traceToConcretize);
+		} else if (cexStatus.isUnknown()) {
+			return RefinerResult.unknown();
 		} else {
 			final R refutation = cexStatus.asInfeasible().getRefutation();
 			logger.write(Level.DETAIL, "|  |  |  Refutation: %s%n", refutation);
@@ -94,6 +110,11 @@ public final class SingleExprTraceRefiner<S extends ExprState, A extends ExprAct
 					logger.write(Level.SUBSTEP, "|  |  Pruning whole ARG", pruneIndex);
 					arg.pruneAll();
 					break;
+				case AFFECTED:
+					logger.write(Level.SUBSTEP, "|  |  Pruning from index %d and affected nodes...", pruneIndex);
+					arg.prune(cexToConcretize.node(pruneIndex));
+					PrecChangeFilters.getAffectedNodes(arg, precChangeFilter, prec, refinedPrec).forEach(arg::prune);
+					break;
 				default:
 					throw new UnsupportedOperationException("Unsupported pruning strategy");
 			}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.BiFunction;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.common.TriFunction;
+
+/**
+ * Analysis that wraps the transfer function of another analysis into a
+ * {@link CachingTransFunc}.
+ */
+public final class CachingAnalysis<S extends State, A extends Action, P extends Prec> implements Analysis<S, A, P> {
+
+	private final PartialOrd<S> partialOrd;
+	private final InitFunc<S, P> initFunc;
+	private final CachingTransFunc<S, A, P> transFunc;
+
+	private CachingAnalysis(final Analysis<S, ? super A, P> analysis,
+							final TriFunction<? super S, ? super A, ? super P, ?> precProjection,
+							final BiFunction<? super S, ? super P, ? extends S> succStateAdapter,
+							final long maximumSize) {
+		checkNotNull(analysis);
+		this.partialOrd = analysis.getPartialOrd();
+		this.initFunc = analysis.getInitFunc();
+		this.transFunc = CachingTransFunc.create(analysis.getTransFunc(), precProjection, succStateAdapter,
+				maximumSize);
+	}
+
+	public static <S extends State, A extends Action, P extends Prec> CachingAnalysis<S, A, P> create(
+			final Analysis<S, ? super A, P> analysis, final long maximumSize) {
+		return new CachingAnalysis<>(analysis, (s, a, p) -> p, (s, p) -> s, maximumSize);
+	}
+
+	public static <S extends State, A extends Action, P extends Prec> CachingAnalysis<S, A, P> create(
+			final Analysis<S, ? super A, P> analysis,
+			final TriFunction<? super S, ? super A, ? super P, ?> precProjection, final long maximumSize) {
+		return new CachingAnalysis<>(analysis, precProjection, (s, p) -> s, maximumSize);
+	}
+
+	public static <S extends State, A extends Action, P extends Prec> CachingAnalysis<S, A, P> create(
+			final Analysis<S, ? super A, P> analysis,
+			final TriFunction<? super S, ? super A, ? super P, ?> precProjection,
+			final BiFunction<? super S, ? super P, ? extends S> succStateAdapter, final long maximumSize) {
+		return new CachingAnalysis<>(analysis, precProjection, succStateAdapter, maximumSize);
+	}
+
+	@Override
+	public PartialOrd<S> getPartialOrd() {
+		return partialOrd;
+	}
+
+	@Override
+	public InitFunc<S, P> getInitFunc() {
+		return initFunc;
+	}
+
+	@Override
+	public CachingTransFunc<S, A, P> getTransFunc() {
+		return transFunc;
+	}
+
+}
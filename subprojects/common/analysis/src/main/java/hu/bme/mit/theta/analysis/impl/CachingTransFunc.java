@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.common.TriFunction;
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Memoizing wrapper for transfer functions. Successors are cached for a
+ * triple of a state, an action and a projection of the precision, which
+ * should only keep the parts of the precision that can influence the
+ * successors of the state with the action. This way, re-expanding a node after
+ * pruning is a cache hit, even if the precision was refined in the meantime
+ * with irrelevant elements. The cache is bounded, least recently used entries
+ * are evicted first. The wrapper is thread-safe if the wrapped transfer
+ * function is.
+ * <p>
+ * Cached successors were computed with an earlier precision. If their
+ * representation depends on the precision (e.g., explicit states store their
+ * values by the variable layout of the precision), an adapter can re-create
+ * them for the current precision on a hit. The adapted successors replace the
+ * cached ones, since precisions usually change monotonically.
+ */
+public final class CachingTransFunc<S extends State, A extends Action, P extends Prec> implements TransFunc<S, A, P> {
+
+	private final TransFunc<S, ? super A, ? super P> transFunc;
+	private final TriFunction<? super S, ? super A, ? super P, ?> precProjection;
+	private final BiFunction<? super S, ? super P, ? extends S> succStateAdapter;
+	private final Cache<Key, List<S>> keyToSuccStates;
+
+	private CachingTransFunc(final TransFunc<S, ? super A, ? super P> transFunc,
+							 final TriFunction<? super S, ? super A, ? super P, ?> precProjection,
+							 final BiFunction<? super S, ? super P, ? extends S> succStateAdapter,
+							 final long maximumSize) {
+		checkArgument(maximumSize > 0, "Cache size must be positive");
+		this.transFunc = checkNotNull(transFunc);
+		this.precProjection = checkNotNull(precProjection);
+		this.succStateAdapter = checkNotNull(succStateAdapter);
+		this.keyToSuccStates = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	/**
+	 * Create a transfer function caching at most the given number of results,
+	 * where the whole precision is part of the key.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> CachingTransFunc<S, A, P> create(
+			final TransFunc<S, ? super A, ? super P> transFunc, final long maximumSize) {
+		return new CachingTransFunc<>(transFunc, (s, a, p) -> p, (s, p) -> s, maximumSize);
+	}
+
+	/**
+	 * Create a transfer function caching at most the given number of results,
+	 * where the key contains the precision projected by the given function.
+	 * The projection must not return null.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> CachingTransFunc<S, A, P> create(
+			final TransFunc<S, ? super A, ? super P> transFunc,
+			final TriFunction<? super S, ? super A, ? super P, ?> precProjection, final long maximumSize) {
+		return new CachingTransFunc<>(transFunc, precProjection, (s, p) -> s, maximumSize);
+	}
+
+	/**
+	 * Create a transfer function caching at most the given number of results,
+	 * where the key contains the precision projected by the given function,
+	 * and cached successors are adapted to the current precision by the given
+	 * adapter. The adapter should return the same instance if there is
+	 * nothing to adapt.
+	 */
+	public static <S extends State, A extends Action, P extends Prec> CachingTransFunc<S, A, P> create(
+			final TransFunc<S, ? super A, ? super P> transFunc,
+			final TriFunction<? super S, ? super A, ? super P, ?> precProjection,
+			final BiFunction<? super S, ? super P, ? extends S> succStateAdapter, final long maximumSize) {
+		return new CachingTransFunc<>(transFunc, precProjection, succStateAdapter, maximumSize);
+	}
+
+	@Override
+	public Collection<? extends S> getSuccStates(final S state, final A action, final P prec) {
+		checkNotNull(state);
+		checkNotNull(action);
+		checkNotNull(prec);
+		final Key key = new Key(state, action, checkNotNull(precProjection.apply(state, action, prec)));
+		final List<S> cached = keyToSuccStates.getIfPresent(key);
+		if (cached != null) {
+			return adapt(key, cached, prec);
+		}
+		final List<S> succStates = ImmutableList.copyOf(transFunc.getSuccStates(state, action, prec));
+		keyToSuccStates.put(key, succStates);
+		return succStates;
+	}
+
+	private List<S> adapt(final Key key, final List<S> succStates, final P prec) {
+		boolean changed = false;
+		final ImmutableList.Builder<S> builder = ImmutableList.builderWithExpectedSize(succStates.size());
+		for (final S succState : succStates) {
+			final S adapted = succStateAdapter.apply(succState, prec);
+			changed |= adapted != succState;
+			builder.add(adapted);
+		}
+		if (!changed) {
+			return succStates;
+		}
+		final List<S> adaptedSuccStates = builder.build();
+		keyToSuccStates.put(key, adaptedSuccStates);
+		return adaptedSuccStates;
+	}
+
+	public long getHitCount() {
+		return keyToSuccStates.stats().hitCount();
+	}
+
+	public long getMissCount() {
+		return keyToSuccStates.stats().missCount();
+	}
+
+	public long getEvictionCount() {
+		return keyToSuccStates.stats().evictionCount();
+	}
+
+	public long size() {
+		return keyToSuccStates.size();
+	}
+
+	public void clear() {
+		keyToSuccStates.invalidateAll();
+	}
+
+	@Override
+	public String toString() {
+		final CacheStats stats = keyToSuccStates.stats();
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add("size " + keyToSuccStates.size())
+				.add("hits " + stats.hitCount()).add("misses " + stats.missCount())
+				.add("evictions " + stats.evictionCount()).toString();
+	}
+
+	private static final class Key {
+		private final State state;
+		private final Action action;
+		private final Object precProjection;
+		private final int hashCode;
+
+		private Key(final State state, final Action action, final Object precProjection) {
+			this.state = state;
+			this.action = action;
+			this.precProjection = precProjection;
+			this.hashCode = 31 * (31 * state.hashCode() + action.hashCode()) + precProjection.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Key) {
+				final Key that = (Key) obj;
+				return this.hashCode == that.hashCode && this.state.equals(that.state)
+						&& this.action.equals(that.action) && this.precProjection.equals(that.precProjection);
+			} else {
+				return false;
+			}
+		}
+	}
+
+}
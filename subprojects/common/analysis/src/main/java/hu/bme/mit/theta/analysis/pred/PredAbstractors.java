@@ -16,7 +16,6 @@
 package hu.bme.mit.theta.analysis.pred;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Iff;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
@@ -28,10 +27,13 @@ import java.util.Collections;
 import hu.bme.mit.theta.common.container.Containers;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decls;
 import hu.bme.mit.theta.core.model.Valuation;
@@ -42,6 +44,9 @@ import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.core.utils.VarIndexing;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+import hu.bme.mit.theta.solver.utils.ModelEnumerator;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 /**
@@ -51,6 +56,27 @@ public class PredAbstractors {
 
 	private PredAbstractors() {}
 
+	/**
+	 * Checks whether the assertions of the solver are unsatisfiable. If the
+	 * solver cannot decide, they are treated as satisfiable, which only makes
+	 * the abstraction coarser.
+	 */
+	private static boolean isUnsat(final Solver solver) {
+		try {
+			return solver.check().isUnsat();
+		} catch (final UnknownSolverStatusException e) {
+			return false;
+		}
+	}
+
+	private static boolean isUnsat(final Solver solver, final Collection<? extends Expr<BoolType>> assumptions) {
+		try {
+			return solver.check(assumptions).isUnsat();
+		} catch (final UnknownSolverStatusException e) {
+			return false;
+		}
+	}
+
 	/**
 	 * Interface for performing predicate abstraction over an expression.
 	 */
@@ -100,6 +126,42 @@ public class PredAbstractors {
 		return new CartesianAbstractor(solver);
 	}
 
+	/**
+	 * Get the strategy that uses Boolean abstraction and splits the disjuncts,
+	 * keeping the encoding of the predicates in the solver across calls. The
+	 * solver must be used exclusively by the abstractor.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor incrementalBooleanSplitAbstractor(final Solver solver) {
+		return new IncrementalBooleanAbstractor(solver, true);
+	}
+
+	/**
+	 * Get the strategy that uses Boolean abstraction (and keeps the formula as
+	 * a whole), keeping the encoding of the predicates in the solver across
+	 * calls. The solver must be used exclusively by the abstractor.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor incrementalBooleanAbstractor(final Solver solver) {
+		return new IncrementalBooleanAbstractor(solver, false);
+	}
+
+	/**
+	 * Get the strategy that uses Cartesian abstraction, keeping the encoding of
+	 * the predicates in the solver across calls and checking them by
+	 * assumptions. The solver must be used exclusively by the abstractor.
+	 *
+	 * @param solver
+	 * @return
+	 */
+	public static PredAbstractor incrementalCartesianAbstractor(final Solver solver) {
+		return new IncrementalCartesianAbstractor(solver);
+	}
+
 	private static final class BooleanAbstractor implements PredAbstractor {
 
 		private final Solver solver;
@@ -135,28 +197,20 @@ public class PredAbstractors {
 				for (int i = 0; i < preds.size(); ++i) {
 					solver.add(Iff(actLits.get(i).getRef(), PathUtils.unfold(preds.get(i), precIndexing)));
 				}
-				while (solver.check().isSat()) {
-					final Valuation model = solver.getModel();
+				final List<ConstDecl<BoolType>> projection = actLits.subList(0, preds.size());
+				ModelEnumerator.builder(solver).build().enumerate(projection, model -> {
 					final Set<Expr<BoolType>> newStatePreds = Containers.createSet();
-					final List<Expr<BoolType>> feedback = new LinkedList<>();
-					feedback.add(True());
 					for (int i = 0; i < preds.size(); ++i) {
-						final ConstDecl<BoolType> lit = actLits.get(i);
 						final Expr<BoolType> pred = preds.get(i);
-						final Optional<LitExpr<BoolType>> eval = model.eval(lit);
+						final Optional<LitExpr<BoolType>> eval = model.eval(projection.get(i));
 						if (eval.isPresent()) {
-							if (eval.get().equals(True())) {
-								newStatePreds.add(pred);
-								feedback.add(lit.getRef());
-							} else {
-								newStatePreds.add(prec.negate(pred));
-								feedback.add(Not(lit.getRef()));
-							}
+							newStatePreds.add(eval.get().equals(True()) ? pred : prec.negate(pred));
 						}
 					}
-					states.add(PredState.of(newStatePreds));
-					solver.add(Not(And(feedback)));
-				}
+					states.add(prec.createState(newStatePreds));
+				});
+			} catch (final UnknownSolverStatusException e) {
+				return Collections.singleton(PredState.of());
 			}
 			if (!split && states.size() > 1) {
 				final Expr<BoolType> pred = Or(states.stream().map(PredState::toExpr).collect(Collectors.toList()));
@@ -188,8 +242,7 @@ public class PredAbstractors {
 
 			try (WithPushPop wp = new WithPushPop(solver)) {
 				solver.add(PathUtils.unfold(expr, exprIndexing));
-				solver.check();
-				if (solver.getStatus().isUnsat()) {
+				if (isUnsat(solver)) {
 					return Collections.emptySet();
 				}
 
@@ -198,11 +251,11 @@ public class PredAbstractors {
 					final boolean negEntailed;
 					try (WithPushPop wp1 = new WithPushPop(solver)) {
 						solver.add(PathUtils.unfold(prec.negate(pred), precIndexing));
-						ponEntailed = solver.check().isUnsat();
+						ponEntailed = isUnsat(solver);
 					}
 					try (WithPushPop wp2 = new WithPushPop(solver)) {
 						solver.add(PathUtils.unfold(pred, precIndexing));
-						negEntailed = solver.check().isUnsat();
+						negEntailed = isUnsat(solver);
 					}
 
 					assert !(ponEntailed && negEntailed) : "Ponated and negated predicates are both entailed.";
@@ -216,8 +269,152 @@ public class PredAbstractors {
 				}
 			}
 
-			return Collections.singleton(PredState.of(newStatePreds));
+			return Collections.singleton(prec.createState(newStatePreds));
+		}
+
+	}
+
+	/**
+	 * Activation literals for unfolded predicates. The equivalence of a literal
+	 * and its predicate is asserted in the solver when the literal is first
+	 * requested, and it is kept across calls. Therefore, literals must be
+	 * requested before pushing the solver.
+	 */
+	private static final class PredLiterals {
+		private final Solver solver;
+		private final Map<Expr<BoolType>, ConstDecl<BoolType>> literals;
+		private final String litPrefix;
+		private static int instanceCounter = 0;
+
+		private PredLiterals(final Solver solver) {
+			this.solver = checkNotNull(solver);
+			this.literals = Containers.createMap();
+			this.litPrefix = "__" + getClass().getSimpleName() + "_" + instanceCounter + "_";
+			instanceCounter++;
+		}
+
+		private List<ConstDecl<BoolType>> getAll(final List<Expr<BoolType>> preds, final VarIndexing precIndexing) {
+			final List<ConstDecl<BoolType>> lits = new ArrayList<>(preds.size());
+			for (final Expr<BoolType> pred : preds) {
+				lits.add(get(PathUtils.unfold(pred, precIndexing)));
+			}
+			return lits;
+		}
+
+		private ConstDecl<BoolType> get(final Expr<BoolType> unfoldedPred) {
+			ConstDecl<BoolType> lit = literals.get(unfoldedPred);
+			if (lit == null) {
+				lit = Decls.Const(litPrefix + literals.size(), BoolExprs.Bool());
+				solver.add(Iff(lit.getRef(), unfoldedPred));
+				literals.put(unfoldedPred, lit);
+			}
+			return lit;
 		}
+	}
 
+	private static final class IncrementalBooleanAbstractor implements PredAbstractor {
+
+		private final Solver solver;
+		private final PredLiterals predLiterals;
+		private final boolean split;
+
+		public IncrementalBooleanAbstractor(final Solver solver, final boolean split) {
+			this.solver = checkNotNull(solver);
+			this.predLiterals = new PredLiterals(solver);
+			this.split = split;
+		}
+
+		@Override
+		public Collection<PredState> createStatesForExpr(final Expr<BoolType> expr, final VarIndexing exprIndexing,
+														 final PredPrec prec, final VarIndexing precIndexing) {
+			checkNotNull(expr);
+			checkNotNull(exprIndexing);
+			checkNotNull(prec);
+			checkNotNull(precIndexing);
+
+			final List<Expr<BoolType>> preds = new ArrayList<>(prec.getPreds());
+			final List<ConstDecl<BoolType>> lits = predLiterals.getAll(preds, precIndexing);
+
+			final List<PredState> states = new LinkedList<>();
+			try (WithPushPop wp = new WithPushPop(solver)) {
+				solver.add(PathUtils.unfold(expr, exprIndexing));
+				ModelEnumerator.builder(solver).build().enumerate(lits, model -> {
+					final Set<Expr<BoolType>> newStatePreds = Containers.createSet();
+					for (int i = 0; i < preds.size(); ++i) {
+						final Expr<BoolType> pred = preds.get(i);
+						final Optional<LitExpr<BoolType>> eval = model.eval(lits.get(i));
+						if (eval.isPresent()) {
+							newStatePreds.add(eval.get().equals(True()) ? pred : prec.negate(pred));
+						}
+					}
+					states.add(prec.createState(newStatePreds));
+				});
+			} catch (final UnknownSolverStatusException e) {
+				return Collections.singleton(PredState.of());
+			}
+			if (!split && states.size() > 1) {
+				final Expr<BoolType> pred = Or(states.stream().map(PredState::toExpr).collect(Collectors.toList()));
+				return Collections.singleton(PredState.of(pred));
+			} else {
+				return states;
+			}
+		}
+	}
+
+	private static final class IncrementalCartesianAbstractor implements PredAbstractor {
+
+		private final Solver solver;
+		private final PredLiterals predLiterals;
+
+		public IncrementalCartesianAbstractor(final Solver solver) {
+			this.solver = checkNotNull(solver);
+			this.predLiterals = new PredLiterals(solver);
+		}
+
+		@Override
+		public Collection<PredState> createStatesForExpr(final Expr<BoolType> expr, final VarIndexing exprIndexing,
+														 final PredPrec prec, final VarIndexing precIndexing) {
+			final List<Expr<BoolType>> preds = new ArrayList<>(prec.getPreds());
+			final List<ConstDecl<BoolType>> lits = predLiterals.getAll(preds, precIndexing);
+			final List<Expr<BoolType>> newStatePreds = new ArrayList<>();
+
+			try (WithPushPop wp = new WithPushPop(solver)) {
+				solver.add(PathUtils.unfold(expr, exprIndexing));
+				final SolverStatus status;
+				try {
+					status = solver.check();
+				} catch (final UnknownSolverStatusException e) {
+					return Collections.singleton(PredState.of());
+				}
+				if (status.isUnsat()) {
+					return Collections.emptySet();
+				}
+				// A predicate cannot be entailed if the first model already contradicts it
+				final Valuation model = solver.getModel();
+				final List<Optional<LitExpr<BoolType>>> evals = lits.stream().map(model::eval)
+						.collect(Collectors.toList());
+
+				for (int i = 0; i < preds.size(); ++i) {
+					final Expr<BoolType> pred = preds.get(i);
+					final ConstDecl<BoolType> lit = lits.get(i);
+					final Optional<LitExpr<BoolType>> eval = evals.get(i);
+					final boolean ponEntailed = !eval.equals(Optional.of(BoolExprs.False()))
+							&& isUnsat(solver, ImmutableList.of(Not(lit.getRef())));
+					final boolean negEntailed = !eval.equals(Optional.of(True()))
+							&& isUnsat(solver, ImmutableList.of(lit.getRef()));
+
+					assert !(ponEntailed && negEntailed) : "Ponated and negated predicates are both entailed.";
+
+					if (ponEntailed) {
+						newStatePreds.add(pred);
+					}
+					if (negEntailed) {
+						newStatePreds.add(prec.negate(pred));
+					}
+				}
+			}
+
+			return Collections.singleton(prec.createState(newStatePreds));
+		}
 	}
 }
@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.pred;
+
+import java.util.BitSet;
+import java.util.Map;
+
+import hu.bme.mit.theta.analysis.reachedset.JoinableCoverageFilter;
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+
+/**
+ * Coverage filter for predicate states. The key of a state is the set of
+ * its positive and negative literals, encoded as bitsets over the atoms seen
+ * so far (or null for bottom). A state can not cover another state if they
+ * contain an atom with different polarities, unless the covered state is
+ * unsatisfiable. Such states are not produced by the predicate abstractors,
+ * and excluding them from coverage is safe anyway. Keys are joined by
+ * intersecting the literals.
+ */
+public final class PredCoverageFilter implements JoinableCoverageFilter<PredState, PredCoverageFilter.Key> {
+
+	private final Map<Expr<BoolType>, Integer> atoms;
+
+	private PredCoverageFilter() {
+		atoms = Containers.createMap();
+	}
+
+	public static PredCoverageFilter create() {
+		return new PredCoverageFilter();
+	}
+
+	@Override
+	public synchronized Key getKey(final PredState state) {
+		if (state.isBottom()) {
+			return null;
+		}
+		final BitSet positive = new BitSet();
+		final BitSet negative = new BitSet();
+		for (final Expr<BoolType> pred : state.getPreds()) {
+			if (pred instanceof NotExpr) {
+				negative.set(indexOf(((NotExpr) pred).getOp()));
+			} else {
+				positive.set(indexOf(pred));
+			}
+		}
+		return new Key(positive, negative);
+	}
+
+	private int indexOf(final Expr<BoolType> atom) {
+		return atoms.computeIfAbsent(atom, a -> atoms.size());
+	}
+
+	@Override
+	public boolean mayCover(final Key covererKey, final Key covereeKey) {
+		if (covereeKey == null) {
+			return true;
+		} else if (covererKey == null) {
+			return false;
+		} else {
+			return !covererKey.positive.intersects(covereeKey.negative)
+					&& !covererKey.negative.intersects(covereeKey.positive);
+		}
+	}
+
+	@Override
+	public Key join(final Key covererKey1, final Key covererKey2) {
+		if (covererKey1 == null) {
+			return covererKey2;
+		} else if (covererKey2 == null) {
+			return covererKey1;
+		} else {
+			final BitSet positive = (BitSet) covererKey1.positive.clone();
+			positive.and(covererKey2.positive);
+			final BitSet negative = (BitSet) covererKey1.negative.clone();
+			negative.and(covererKey2.negative);
+			return new Key(positive, negative);
+		}
+	}
+
+	public static final class Key {
+		private final BitSet positive;
+		private final BitSet negative;
+
+		private Key(final BitSet positive, final BitSet negative) {
+			this.positive = positive;
+			this.negative = negative;
+		}
+	}
+
+}
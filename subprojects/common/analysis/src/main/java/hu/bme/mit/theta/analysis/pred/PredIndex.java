@@ -0,0 +1,47 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.pred;
+
+import java.util.Map;
+
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Append-only numbering of (ponated) predicates, shared by a precision and
+ * the precisions obtained from it by joining. Predicate states created by
+ * precisions with the same index are encoded as comparable bitsets.
+ */
+final class PredIndex {
+
+	private final Map<Expr<BoolType>, Integer> indexes;
+
+	PredIndex() {
+		indexes = Containers.createMap();
+	}
+
+	synchronized int indexOf(final Expr<BoolType> pred) {
+		final Integer index = indexes.get(pred);
+		if (index != null) {
+			return index;
+		}
+		final int newIndex = indexes.size();
+		indexes.put(pred, newIndex);
+		return newIndex;
+	}
+
+}
@@ -21,6 +21,7 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 import hu.bme.mit.theta.analysis.PartialOrd;
 import hu.bme.mit.theta.core.utils.PathUtils;
 import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
 import hu.bme.mit.theta.solver.utils.WithPushPop;
 
 public final class PredOrd implements PartialOrd<PredState> {
@@ -35,12 +36,27 @@ public final class PredOrd implements PartialOrd<PredState> {
 		this.solver = checkNotNull(solver);
 	}
 
+	/**
+	 * Checks implication between the states. States encoded by the same index
+	 * (see PredPrec.createState) are first compared as bitsets: superset of
+	 * literals implies the other state, and conflicting literals rule it out
+	 * (as abstractors only create satisfiable encoded states). The solver is
+	 * only used if neither holds, e.g., for disjunctive states.
+	 */
 	@Override
 	public boolean isLeq(final PredState state1, final PredState state2) {
+		if (state1.containsAll(state2)) {
+			return true;
+		} else if (state1.conflictsWith(state2)) {
+			return false;
+		}
 		try (WithPushPop wpp = new WithPushPop(solver)) {
 			solver.add(PathUtils.unfold(state1.toExpr(), 0));
 			solver.add(PathUtils.unfold(Not(state2.toExpr()), 0));
 			return solver.check().isUnsat();
+		} catch (final UnknownSolverStatusException e) {
+			// Not covering is always sound
+			return false;
 		}
 	}
 
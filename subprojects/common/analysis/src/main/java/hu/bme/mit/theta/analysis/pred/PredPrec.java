@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import hu.bme.mit.theta.analysis.Prec;
@@ -32,19 +33,26 @@ import hu.bme.mit.theta.common.container.Containers;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
 import hu.bme.mit.theta.core.utils.ExprUtils;
 
 /**
  * Represents an immutable, simple predicate precision that is a set of
- * predicates.
+ * predicates. Predicates are numbered by an index that is shared with the
+ * precisions obtained by joining, so that the states created by them (see
+ * createState) can be compared as bitsets.
  */
 public final class PredPrec implements Prec {
 
 	private final Map<Expr<BoolType>, Expr<BoolType>> predToNegMap;
+	private final PredIndex index;
+	private final Map<Expr<BoolType>, Integer> predToIndex;
+	private final int words;
 
-	private PredPrec(final Iterable<Expr<BoolType>> preds) {
+	private PredPrec(final Iterable<Expr<BoolType>> preds, final PredIndex index) {
 		checkNotNull(preds);
 		this.predToNegMap = Containers.createMap();
+		this.index = checkNotNull(index);
 
 		for (final Expr<BoolType> pred : preds) {
 			if (pred instanceof BoolLitExpr) {
@@ -55,20 +63,30 @@ public final class PredPrec implements Prec {
 				this.predToNegMap.put(ponatedPred, Not(ponatedPred));
 			}
 		}
+
+		final ImmutableMap.Builder<Expr<BoolType>, Integer> builder = ImmutableMap.builder();
+		int maxIndex = -1;
+		for (final Expr<BoolType> pred : predToNegMap.keySet()) {
+			final int i = index.indexOf(pred);
+			builder.put(pred, i);
+			maxIndex = Math.max(maxIndex, i);
+		}
+		this.predToIndex = builder.build();
+		this.words = (maxIndex >> 6) + 1;
 	}
 
 	public static PredPrec of(final Iterable<Expr<BoolType>> preds) {
-		return new PredPrec(preds);
+		return new PredPrec(preds, new PredIndex());
 	}
 
 	// Convenience factory methods
 
 	public static PredPrec of() {
-		return new PredPrec(Collections.emptySet());
+		return of(Collections.emptySet());
 	}
 
 	public static PredPrec of(final Expr<BoolType> pred) {
-		return new PredPrec(Collections.singleton(pred));
+		return of(Collections.singleton(pred));
 	}
 
 	////
@@ -83,6 +101,28 @@ public final class PredPrec implements Prec {
 		return negated;
 	}
 
+	/**
+	 * Creates a state from predicates of this precision and their negations.
+	 * The state is encoded as bitsets, unless it contains other expressions.
+	 */
+	public PredState createState(final Iterable<? extends Expr<BoolType>> literals) {
+		checkNotNull(literals);
+		final long[] positive = new long[words];
+		final long[] negative = new long[words];
+		for (final Expr<BoolType> literal : literals) {
+			final Integer i = predToIndex.get(literal);
+			if (i != null) {
+				positive[i >> 6] |= 1L << i;
+			} else if (literal instanceof NotExpr && predToIndex.containsKey(((NotExpr) literal).getOp())) {
+				final int j = predToIndex.get(((NotExpr) literal).getOp());
+				negative[j >> 6] |= 1L << j;
+			} else {
+				return PredState.of(literals);
+			}
+		}
+		return PredState.of(literals, index, positive, negative);
+	}
+
 	public PredPrec join(final PredPrec other) {
 		checkNotNull(other);
 		final Collection<Expr<BoolType>> joinedPreds = ImmutableSet.<Expr<BoolType>>builder()
@@ -90,11 +130,12 @@ public final class PredPrec implements Prec {
 		// If no new predicate was added, return same instance (immutable)
 		if (joinedPreds.size() == this.predToNegMap.size()) {
 			return this;
-		} else if (joinedPreds.size() == other.predToNegMap.size()) {
+		} else if (joinedPreds.size() == other.predToNegMap.size() && other.index == this.index) {
 			return other;
 		}
 
-		return of(joinedPreds);
+		// Keep the index, so that states of this and the joined precision are comparable
+		return new PredPrec(joinedPreds, index);
 	}
 
 	@Override
@@ -36,17 +36,31 @@ public final class PredState implements ExprState {
 
 	private final Set<Expr<BoolType>> preds;
 
+	// Bitset encoding relative to the index of the creating precision (see PredPrec.createState), null if not encoded
+	private final PredIndex index;
+	private final long[] positive;
+	private final long[] negative;
+
 	private volatile Expr<BoolType> expr = null;
 
 	private volatile int hashCode;
 
-	private PredState(final Iterable<? extends Expr<BoolType>> preds) {
+	private PredState(final Iterable<? extends Expr<BoolType>> preds, final PredIndex index, final long[] positive,
+					  final long[] negative) {
 		checkNotNull(preds);
 		this.preds = ImmutableSet.copyOf(preds);
+		this.index = index;
+		this.positive = positive;
+		this.negative = negative;
 	}
 
 	public static PredState of(final Iterable<? extends Expr<BoolType>> preds) {
-		return new PredState(preds);
+		return new PredState(preds, null, null, null);
+	}
+
+	static PredState of(final Iterable<? extends Expr<BoolType>> preds, final PredIndex index, final long[] positive,
+						final long[] negative) {
+		return new PredState(preds, checkNotNull(index), checkNotNull(positive), checkNotNull(negative));
 	}
 
 	public static PredState bottom() {
@@ -56,29 +70,29 @@ public final class PredState implements ExprState {
 	// Convenience factory methods
 
 	public static PredState of() {
-		return new PredState(ImmutableSet.of());
+		return of(ImmutableSet.of());
 	}
 
 	public static PredState of(final Expr<BoolType> pred) {
-		return new PredState(ImmutableSet.of(pred));
+		return of(ImmutableSet.of(pred));
 	}
 
 	public static PredState of(final Expr<BoolType> pred1, final Expr<BoolType> pred2) {
-		return new PredState(ImmutableSet.of(pred1, pred2));
+		return of(ImmutableSet.of(pred1, pred2));
 	}
 
 	public static PredState of(final Expr<BoolType> pred1, final Expr<BoolType> pred2, final Expr<BoolType> pred3) {
-		return new PredState(ImmutableSet.of(pred1, pred2, pred3));
+		return of(ImmutableSet.of(pred1, pred2, pred3));
 	}
 
 	public static PredState of(final Expr<BoolType> pred1, final Expr<BoolType> pred2, final Expr<BoolType> pred3,
 							   final Expr<BoolType> pred4) {
-		return new PredState(ImmutableSet.of(pred1, pred2, pred3, pred4));
+		return of(ImmutableSet.of(pred1, pred2, pred3, pred4));
 	}
 
 	public static PredState of(final Expr<BoolType> pred1, final Expr<BoolType> pred2, final Expr<BoolType> pred3,
 							   final Expr<BoolType> pred4, final Expr<BoolType> pred5) {
-		return new PredState(ImmutableSet.of(pred1, pred2, pred3, pred4, pred5));
+		return of(ImmutableSet.of(pred1, pred2, pred3, pred4, pred5));
 	}
 
 	////
@@ -87,6 +101,48 @@ public final class PredState implements ExprState {
 		return preds;
 	}
 
+	private boolean isComparableTo(final PredState that) {
+		return this.index != null && this.index == that.index;
+	}
+
+	/**
+	 * Checks if the literals of this state are a superset of the literals of
+	 * the other, which implies that this state is less or equal. Only works
+	 * for states encoded with the same index, otherwise false is returned.
+	 */
+	boolean containsAll(final PredState that) {
+		return isComparableTo(that) && isSubset(that.positive, this.positive) && isSubset(that.negative, this.negative);
+	}
+
+	/**
+	 * Checks if this state contains the negation of a literal of the other.
+	 * Only works for states encoded with the same index, otherwise false is
+	 * returned.
+	 */
+	boolean conflictsWith(final PredState that) {
+		return isComparableTo(that) && (intersects(this.positive, that.negative) || intersects(this.negative, that.positive));
+	}
+
+	private static boolean isSubset(final long[] words1, final long[] words2) {
+		for (int i = 0; i < words1.length; i++) {
+			final long word2 = i < words2.length ? words2[i] : 0;
+			if ((words1[i] & ~word2) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean intersects(final long[] words1, final long[] words2) {
+		final int length = Math.min(words1.length, words2.length);
+		for (int i = 0; i < length; i++) {
+			if ((words1[i] & words2[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public boolean isBottom() {
 		return preds.size() == 1 && singleElementOf(preds).equals(False());
@@ -125,7 +181,15 @@ public final class PredState implements ExprState {
 			return true;
 		} else if (obj instanceof PredState) {
 			final PredState that = (PredState) obj;
-			return this.preds.equals(that.preds);
+			if (this.hashCode() != that.hashCode()) {
+				return false;
+			} else if (isComparableTo(that)) {
+				// Words might differ in length for different precisions of the same index
+				return isSubset(this.positive, that.positive) && isSubset(that.positive, this.positive)
+						&& isSubset(this.negative, that.negative) && isSubset(that.negative, this.negative);
+			} else {
+				return this.preds.equals(that.preds);
+			}
 		} else {
 			return false;
 		}
@@ -104,7 +104,7 @@ public class Prod2ExplPredAbstractors {
                         }
                     }
                     final Set<Expr<BoolType>> simplfiedNewStatePreds = newStatePreds.stream().map(pred -> ExprUtils.simplify(pred,explState)).collect(Collectors.toSet());
-                    final PredState predState = PredState.of(simplfiedNewStatePreds);
+                    final PredState predState = prec.getPrec2().createState(simplfiedNewStatePreds);
 
                     final Prod2State<ExplState,PredState> prod2ExplPredState = Prod2State.of(explState,predState);
                     states.add(prod2ExplPredState);
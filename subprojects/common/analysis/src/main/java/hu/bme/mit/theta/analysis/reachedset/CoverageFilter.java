@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+/**
+ * Domain-specific pre-filter for coverage checks. States are mapped to keys
+ * that can be compared more cheaply than the states themselves. Filters must
+ * be conservative: if a state can be covered by another state, then mayCover
+ * must hold for their keys, so that coverage is only ruled out by the filter
+ * when the (possibly expensive) check would fail anyway. Filters whose keys
+ * can be summarized implement {@link JoinableCoverageFilter}.
+ *
+ * @param <S> Type of the states
+ * @param <K> Type of the keys (null keys are allowed)
+ */
+public interface CoverageFilter<S, K> {
+
+	/**
+	 * Gets the key of a state that is a candidate for covering other states.
+	 */
+	K getKey(S state);
+
+	/**
+	 * Gets the key of a state that is to be covered. It is the same as the key
+	 * of the state as a covering candidate by default.
+	 */
+	default K getCovereeKey(final S state) {
+		return getKey(state);
+	}
+
+	/**
+	 * Checks if the state with the given key might cover the state with the
+	 * other key. False is only allowed if the coverage surely fails.
+	 */
+	boolean mayCover(K covererKey, K covereeKey);
+
+}
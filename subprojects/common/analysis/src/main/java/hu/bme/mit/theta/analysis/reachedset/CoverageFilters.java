@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.function.Function;
+
+/**
+ * Utility functions for creating and combining coverage filters.
+ */
+public final class CoverageFilters {
+
+	private CoverageFilters() {
+	}
+
+	/**
+	 * Gets a filter that does not rule out any coverage.
+	 */
+	public static <S> CoverageFilter<S, ?> none() {
+		return new NoFilter<>();
+	}
+
+	/**
+	 * Applies a filter on a component of the states.
+	 */
+	public static <S, T, K> CoverageFilter<S, K> lift(final Function<? super S, ? extends T> component,
+													  final CoverageFilter<? super T, K> filter) {
+		return lift(component, component, filter);
+	}
+
+	/**
+	 * Applies a filter on a component of the states, where different
+	 * components are compared for covering states and covered states (e.g.,
+	 * abstract and concrete states). The result is joinable if the filter is
+	 * joinable.
+	 */
+	public static <S, T, K> CoverageFilter<S, K> lift(final Function<? super S, ? extends T> covererComponent,
+													  final Function<? super S, ? extends T> covereeComponent,
+													  final CoverageFilter<? super T, K> filter) {
+		if (filter instanceof JoinableCoverageFilter) {
+			return new JoinableLiftedFilter<>(covererComponent, covereeComponent,
+					(JoinableCoverageFilter<? super T, K>) filter);
+		}
+		return new LiftedFilter<>(covererComponent, covereeComponent, filter);
+	}
+
+	/**
+	 * Combines two filters, coverage is only possible if both of them allow
+	 * it. The result is joinable if both filters are joinable.
+	 */
+	public static <S, K1, K2> CoverageFilter<S, ?> and(final CoverageFilter<? super S, K1> filter1,
+													   final CoverageFilter<? super S, K2> filter2) {
+		if (filter1 instanceof JoinableCoverageFilter && filter2 instanceof JoinableCoverageFilter) {
+			return new JoinableConjunctiveFilter<>((JoinableCoverageFilter<? super S, K1>) filter1,
+					(JoinableCoverageFilter<? super S, K2>) filter2);
+		}
+		return new ConjunctiveFilter<>(filter1, filter2);
+	}
+
+	private static final class NoFilter<S> implements JoinableCoverageFilter<S, Void> {
+		@Override
+		public Void getKey(final S state) {
+			return null;
+		}
+
+		@Override
+		public boolean mayCover(final Void covererKey, final Void covereeKey) {
+			return true;
+		}
+
+		@Override
+		public Void join(final Void covererKey1, final Void covererKey2) {
+			return null;
+		}
+	}
+
+	private static class LiftedFilter<S, T, K> implements CoverageFilter<S, K> {
+		private final Function<? super S, ? extends T> covererComponent;
+		private final Function<? super S, ? extends T> covereeComponent;
+		private final CoverageFilter<? super T, K> filter;
+
+		private LiftedFilter(final Function<? super S, ? extends T> covererComponent,
+							 final Function<? super S, ? extends T> covereeComponent,
+							 final CoverageFilter<? super T, K> filter) {
+			this.covererComponent = checkNotNull(covererComponent);
+			this.covereeComponent = checkNotNull(covereeComponent);
+			this.filter = checkNotNull(filter);
+		}
+
+		@Override
+		public K getKey(final S state) {
+			return filter.getKey(covererComponent.apply(state));
+		}
+
+		@Override
+		public K getCovereeKey(final S state) {
+			return filter.getCovereeKey(covereeComponent.apply(state));
+		}
+
+		@Override
+		public boolean mayCover(final K covererKey, final K covereeKey) {
+			return filter.mayCover(covererKey, covereeKey);
+		}
+
+	}
+
+	private static final class JoinableLiftedFilter<S, T, K> extends LiftedFilter<S, T, K>
+			implements JoinableCoverageFilter<S, K> {
+		private final JoinableCoverageFilter<? super T, K> filter;
+
+		private JoinableLiftedFilter(final Function<? super S, ? extends T> covererComponent,
+									 final Function<? super S, ? extends T> covereeComponent,
+									 final JoinableCoverageFilter<? super T, K> filter) {
+			super(covererComponent, covereeComponent, filter);
+			this.filter = filter;
+		}
+
+		@Override
+		public K join(final K covererKey1, final K covererKey2) {
+			return filter.join(covererKey1, covererKey2);
+		}
+	}
+
+	private static class ConjunctiveFilter<S, K1, K2> implements CoverageFilter<S, Key<K1, K2>> {
+		private final CoverageFilter<? super S, K1> filter1;
+		private final CoverageFilter<? super S, K2> filter2;
+
+		private ConjunctiveFilter(final CoverageFilter<? super S, K1> filter1,
+								  final CoverageFilter<? super S, K2> filter2) {
+			this.filter1 = checkNotNull(filter1);
+			this.filter2 = checkNotNull(filter2);
+		}
+
+		@Override
+		public Key<K1, K2> getKey(final S state) {
+			return new Key<>(filter1.getKey(state), filter2.getKey(state));
+		}
+
+		@Override
+		public Key<K1, K2> getCovereeKey(final S state) {
+			return new Key<>(filter1.getCovereeKey(state), filter2.getCovereeKey(state));
+		}
+
+		@Override
+		public boolean mayCover(final Key<K1, K2> covererKey, final Key<K1, K2> covereeKey) {
+			return filter1.mayCover(covererKey.key1, covereeKey.key1)
+					&& filter2.mayCover(covererKey.key2, covereeKey.key2);
+		}
+
+	}
+
+	private static final class JoinableConjunctiveFilter<S, K1, K2> extends ConjunctiveFilter<S, K1, K2>
+			implements JoinableCoverageFilter<S, Key<K1, K2>> {
+		private final JoinableCoverageFilter<? super S, K1> filter1;
+		private final JoinableCoverageFilter<? super S, K2> filter2;
+
+		private JoinableConjunctiveFilter(final JoinableCoverageFilter<? super S, K1> filter1,
+										  final JoinableCoverageFilter<? super S, K2> filter2) {
+			super(filter1, filter2);
+			this.filter1 = filter1;
+			this.filter2 = filter2;
+		}
+
+		@Override
+		public Key<K1, K2> join(final Key<K1, K2> covererKey1, final Key<K1, K2> covererKey2) {
+			return new Key<>(filter1.join(covererKey1.key1, covererKey2.key1),
+					filter2.join(covererKey1.key2, covererKey2.key2));
+		}
+	}
+
+	// Key of conjunctive filters, tuples can not be used, as keys might be null
+	private static final class Key<K1, K2> {
+		private final K1 key1;
+		private final K2 key2;
+
+		private Key(final K1 key1, final K2 key2) {
+			this.key1 = key1;
+			this.key2 = key2;
+		}
+	}
+
+}
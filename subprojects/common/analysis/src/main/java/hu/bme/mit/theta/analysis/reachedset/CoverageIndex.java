@@ -0,0 +1,195 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.common.container.Containers;
+
+/**
+ * Reached set of ARG nodes for looking up coverage candidates. Nodes are
+ * partitioned by a projection (like in Partition), and the nodes of a class
+ * are further pre-filtered by a CoverageFilter, whose keys are stored along
+ * with the nodes. If the filter is a JoinableCoverageFilter, each class also
+ * keeps the join of its keys as a summary, so that a whole class can be ruled
+ * out with a single check.
+ * <p>
+ * Keys have to be recomputed with {@link #update(ArgNode)} when the state of a
+ * node changes, which is done automatically for the ARG given to
+ * {@link #observe(ARG)}. The summary of a class is only recomputed at the next
+ * lookup in the class after such a change.
+ */
+public final class CoverageIndex<S extends State, A extends Action> {
+
+	private final Function<? super S, ?> projection;
+	private final CoverageFilter<? super S, Object> filter;
+	private final JoinableCoverageFilter<? super S, Object> joinableFilter; // Null if the filter is not joinable
+	private final Map<Object, Partition<S, A>> classes;
+	private final Map<ArgNode<S, A>, Entry<S, A>> entries;
+	private long avoidedChecks;
+	private long rejectedClasses;
+
+	@SuppressWarnings("unchecked")
+	private CoverageIndex(final Function<? super S, ?> projection, final CoverageFilter<? super S, ?> filter) {
+		this.projection = checkNotNull(projection);
+		this.filter = (CoverageFilter<? super S, Object>) checkNotNull(filter);
+		joinableFilter = filter instanceof JoinableCoverageFilter
+				? (JoinableCoverageFilter<? super S, Object>) filter : null;
+		classes = Containers.createMap();
+		entries = Containers.createMap();
+		avoidedChecks = 0;
+		rejectedClasses = 0;
+	}
+
+	public static <S extends State, A extends Action> CoverageIndex<S, A> of(final Function<? super S, ?> projection,
+																			 final CoverageFilter<? super S, ?> filter) {
+		return new CoverageIndex<>(projection, filter);
+	}
+
+	public static <S extends State, A extends Action> CoverageIndex<S, A> of(final Function<? super S, ?> projection) {
+		return of(projection, CoverageFilters.none());
+	}
+
+	/**
+	 * Keeps the keys up to date when the state of a node of the given ARG is
+	 * replaced.
+	 */
+	public void observe(final ARG<S, A> arg) {
+		arg.addStateObserver(this::update);
+	}
+
+	public void add(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		final S state = node.getState();
+		final Partition<S, A> partition = classes.computeIfAbsent(projection.apply(state), k -> new Partition<>());
+		final Entry<S, A> entry = new Entry<>(node, partition, filter.getKey(state));
+		entries.put(node, entry);
+		partition.entries.add(entry);
+		if (joinableFilter != null && !partition.dirty) {
+			partition.summary = partition.entries.size() == 1 ? entry.key
+					: joinableFilter.join(partition.summary, entry.key);
+		}
+	}
+
+	public void addAll(final Iterable<? extends ArgNode<S, A>> nodes) {
+		nodes.forEach(this::add);
+	}
+
+	public void addAll(final Stream<? extends ArgNode<S, A>> nodes) {
+		nodes.forEach(this::add);
+	}
+
+	/**
+	 * Recomputes the key of a node after its state changed and marks the
+	 * summary of its class for recomputation. Nodes that are not in the index
+	 * are ignored.
+	 */
+	public void update(final ArgNode<S, A> node) {
+		final Entry<S, A> entry = entries.get(checkNotNull(node));
+		if (entry != null) {
+			entry.key = filter.getKey(node.getState());
+			entry.partition.dirty = true;
+		}
+	}
+
+	/**
+	 * Gets the nodes that might cover the given node, in the order they were
+	 * added. Nodes ruled out by the filter are counted as avoided checks.
+	 */
+	public List<ArgNode<S, A>> getCandidates(final ArgNode<S, A> node) {
+		checkNotNull(node);
+		final S state = node.getState();
+		final Partition<S, A> partition = classes.get(projection.apply(state));
+		if (partition == null) {
+			return Collections.emptyList();
+		}
+		final Object covereeKey = filter.getCovereeKey(state);
+		if (joinableFilter != null) {
+			updateSummary(partition);
+			if (!filter.mayCover(partition.summary, covereeKey)) {
+				avoidedChecks += partition.entries.size();
+				rejectedClasses++;
+				return Collections.emptyList();
+			}
+		}
+		final List<ArgNode<S, A>> candidates = new ArrayList<>(partition.entries.size());
+		for (final Entry<S, A> entry : partition.entries) {
+			if (filter.mayCover(entry.key, covereeKey)) {
+				candidates.add(entry.node);
+			} else {
+				avoidedChecks++;
+			}
+		}
+		return candidates;
+	}
+
+	// Recompute the summary if a key of the class changed since the last lookup
+	private void updateSummary(final Partition<S, A> partition) {
+		if (partition.dirty) {
+			Object summary = partition.entries.get(0).key;
+			for (int i = 1; i < partition.entries.size(); i++) {
+				summary = joinableFilter.join(summary, partition.entries.get(i).key);
+			}
+			partition.summary = summary;
+			partition.dirty = false;
+		}
+	}
+
+	/**
+	 * Gets the number of coverage checks that were avoided by the filter.
+	 */
+	public long getAvoidedChecks() {
+		return avoidedChecks;
+	}
+
+	/**
+	 * Gets the number of lookups where a whole class was ruled out by its
+	 * summary.
+	 */
+	public long getRejectedClasses() {
+		return rejectedClasses;
+	}
+
+	private static final class Partition<S extends State, A extends Action> {
+		private final List<Entry<S, A>> entries = new ArrayList<>();
+		private Object summary = null;
+		private boolean dirty = false;
+	}
+
+	private static final class Entry<S extends State, A extends Action> {
+		private final ArgNode<S, A> node;
+		private final Partition<S, A> partition;
+		private Object key;
+
+		private Entry(final ArgNode<S, A> node, final Partition<S, A> partition, final Object key) {
+			this.node = node;
+			this.partition = partition;
+			this.key = key;
+		}
+	}
+
+}
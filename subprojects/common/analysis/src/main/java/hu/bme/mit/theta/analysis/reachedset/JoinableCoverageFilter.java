@@ -0,0 +1,34 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+/**
+ * Coverage filter whose keys of covering candidates can be joined into a
+ * summary, so that a whole set of candidates can be ruled out with a single
+ * check (see CoverageIndex).
+ *
+ * @param <S> Type of the states
+ * @param <K> Type of the keys (null keys are allowed)
+ */
+public interface JoinableCoverageFilter<S, K> extends CoverageFilter<S, K> {
+
+	/**
+	 * Joins the keys of two covering candidates into a summary key that might
+	 * cover every state that one of the keys might cover.
+	 */
+	K join(K covererKey1, K covererKey2);
+
+}
@@ -12,6 +12,7 @@ import hu.bme.mit.theta.core.type.Type;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.utils.CachingExprSimplifier;
 import hu.bme.mit.theta.core.utils.ExprUtils;
 
 import java.math.BigInteger;
@@ -19,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 
@@ -26,7 +28,16 @@ public class StmtSimplifier {
 
     public static Stmt simplifyStmt(final Valuation valuation, final Stmt stmt) {
         MutableValuation mutableValuation = MutableValuation.copyOf(valuation);
-        final var result = stmt.accept(new StmtSimplifierVisitor(),mutableValuation);
+        final var result = stmt.accept(new StmtSimplifierVisitor(null),mutableValuation);
+        return result.stmt;
+    }
+
+    /**
+     * Simplify a statement, using (and filling) the cache of the given expression simplifier.
+     */
+    public static Stmt simplifyStmt(final Valuation valuation, final Stmt stmt, final CachingExprSimplifier simplifier) {
+        MutableValuation mutableValuation = MutableValuation.copyOf(valuation);
+        final var result = stmt.accept(new StmtSimplifierVisitor(checkNotNull(simplifier)),mutableValuation);
         return result.stmt;
     }
 
@@ -51,6 +62,21 @@ public class StmtSimplifier {
 
     private static class StmtSimplifierVisitor implements StmtVisitor<MutableValuation, SimplifyResult> {
 
+        // Null if expressions are simplified without caching
+        private final CachingExprSimplifier simplifier;
+
+        private StmtSimplifierVisitor(final CachingExprSimplifier simplifier) {
+            this.simplifier = simplifier;
+        }
+
+        private <T extends Type> Expr<T> simplify(final Expr<T> expr, final Valuation valuation) {
+            if (simplifier == null) {
+                return ExprUtils.simplify(expr, valuation);
+            } else {
+                return simplifier.simplify(expr, valuation);
+            }
+        }
+
         @Override
         public SimplifyResult visit(final SkipStmt stmt, final MutableValuation valuation) {
             return SimplifyResult.of(SkipStmt.getInstance(), SimplifyStatus.SUCCESS);
@@ -58,7 +84,7 @@ public class StmtSimplifier {
 
         @Override
         public SimplifyResult visit(final AssumeStmt stmt, final MutableValuation valuation) {
-            final Expr<BoolType> simplifiedExpr = ExprUtils.simplify(stmt.getCond(),valuation);
+            final Expr<BoolType> simplifiedExpr = simplify(stmt.getCond(),valuation);
             final Stmt simplifiedStmt =  AssumeStmt.of(simplifiedExpr);
             if (simplifiedExpr instanceof BoolLitExpr) {
                 final BoolLitExpr condLit = (BoolLitExpr) simplifiedExpr;
@@ -72,7 +98,7 @@ public class StmtSimplifier {
         @Override
         public <DeclType extends Type> SimplifyResult visit(final AssignStmt<DeclType> stmt, final MutableValuation valuation) {
             final VarDecl<DeclType> varDecl = stmt.getVarDecl();
-            final Expr<DeclType> expr = ExprUtils.simplify(stmt.getExpr(), valuation);
+            final Expr<DeclType> expr = simplify(stmt.getExpr(), valuation);
             if (expr instanceof LitExpr<?>) {
                 final LitExpr<?> lit = (LitExpr<?>) expr;
                 valuation.put(varDecl, lit);
@@ -147,8 +173,8 @@ public class StmtSimplifier {
         public SimplifyResult visit(final LoopStmt stmt, final MutableValuation valuation) {
             var from = stmt.getFrom();
             var to = stmt.getTo();
-            var fromUnrolled = ExprUtils.simplify(from,valuation);
-            var toUnrolled = ExprUtils.simplify(to,valuation);
+            var fromUnrolled = simplify(from,valuation);
+            var toUnrolled = simplify(to,valuation);
             if(fromUnrolled instanceof IntLitExpr && toUnrolled instanceof IntLitExpr){
                 var fromValue = ((IntLitExpr) fromUnrolled).getValue();
                 var toValue = ((IntLitExpr) toUnrolled).getValue();
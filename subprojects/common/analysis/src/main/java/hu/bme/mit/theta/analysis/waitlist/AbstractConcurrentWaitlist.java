@@ -0,0 +1,155 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Common base for concurrent waitlists, implementing termination detection by
+ * counting the items that were added but not yet removed or processed.
+ */
+abstract class AbstractConcurrentWaitlist<T> implements ConcurrentWaitlist<T> {
+
+	private static final int SPINS = 64;
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final AtomicInteger size;
+	private final AtomicLong pending;
+	private volatile boolean terminated;
+
+	AbstractConcurrentWaitlist() {
+		this.size = new AtomicInteger(0);
+		this.pending = new AtomicLong(0);
+		this.terminated = false;
+	}
+
+	abstract void offer(T item);
+
+	abstract T tryRemove();
+
+	////
+
+	@Override
+	public final void add(final T item) {
+		checkNotNull(item);
+		// Counted before the item becomes visible, so that termination is not detected prematurely
+		pending.incrementAndGet();
+		size.incrementAndGet();
+		offer(item);
+	}
+
+	@Override
+	public final void addAll(final Collection<? extends T> items) {
+		checkNotNull(items);
+		items.forEach(this::add);
+	}
+
+	@Override
+	public final void addAll(final Stream<? extends T> items) {
+		checkNotNull(items);
+		items.forEach(this::add);
+	}
+
+	@Override
+	public final boolean isEmpty() {
+		return size.get() == 0;
+	}
+
+	@Override
+	public final int size() {
+		return size.get();
+	}
+
+	@Override
+	public final T remove() {
+		final T item = poll();
+		if (item == null) {
+			throw new NoSuchElementException();
+		}
+		return item;
+	}
+
+	@Override
+	public final T poll() {
+		final T item = removeCounted();
+		if (item != null) {
+			pending.decrementAndGet();
+		}
+		return item;
+	}
+
+	@Override
+	public final T take() {
+		int spins = 0;
+		while (!terminated && !Thread.currentThread().isInterrupted()) {
+			final T item = removeCounted();
+			if (item != null) {
+				return item;
+			} else if (pending.get() == 0) {
+				return null;
+			} else if (spins < SPINS) {
+				spins++;
+				Thread.onSpinWait();
+			} else {
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public final void done() {
+		pending.decrementAndGet();
+	}
+
+	@Override
+	public final void terminate() {
+		terminated = true;
+	}
+
+	@Override
+	public final boolean isTerminated() {
+		return terminated || pending.get() == 0;
+	}
+
+	@Override
+	public final void clear() {
+		while (poll() != null) {
+			// Remove all items
+		}
+		terminated = false;
+	}
+
+	private T removeCounted() {
+		if (size.get() == 0) {
+			return null;
+		}
+		final T item = tryRemove();
+		if (item != null) {
+			size.decrementAndGet();
+		}
+		return item;
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Concurrent FIFO (First In First Out) waitlist based on a lock-free queue.
+ * Items are removed in the same order as they were added.
+ */
+public final class ConcurrentFifoWaitlist<T> extends AbstractConcurrentWaitlist<T> {
+
+	private final Queue<T> items;
+
+	private ConcurrentFifoWaitlist() {
+		this.items = new ConcurrentLinkedQueue<>();
+	}
+
+	public static <T> ConcurrentFifoWaitlist<T> create() {
+		return new ConcurrentFifoWaitlist<>();
+	}
+
+	@Override
+	void offer(final T item) {
+		items.offer(item);
+	}
+
+	@Override
+	T tryRemove() {
+		return items.poll();
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).addAll(items).toString();
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators;
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Relaxed concurrent priority waitlist (multi-queue). Items are distributed
+ * among several priority queues, each with its own lock. An item is added to a
+ * random queue, and removal takes the better of the least items of two random
+ * queues. Thus, the removed item is not necessarily the least one, but it is
+ * close to it with high probability.
+ *
+ * @see ArgNodeComparators
+ */
+public final class ConcurrentPriorityWaitlist<T> extends AbstractConcurrentWaitlist<T> {
+
+	private final Comparator<? super T> comparator;
+	private final List<PriorityQueue<T>> queues;
+	private final ReentrantLock[] locks;
+
+	private ConcurrentPriorityWaitlist(final Comparator<? super T> comparator, final int nQueues) {
+		checkArgument(nQueues > 0, "At least one queue is required");
+		this.comparator = checkNotNull(comparator);
+		this.queues = new ArrayList<>(nQueues);
+		this.locks = new ReentrantLock[nQueues];
+		for (int i = 0; i < nQueues; i++) {
+			queues.add(new PriorityQueue<>(comparator));
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	public static <T> ConcurrentPriorityWaitlist<T> create(final Comparator<? super T> comparator,
+														   final int nQueues) {
+		return new ConcurrentPriorityWaitlist<>(comparator, nQueues);
+	}
+
+	/**
+	 * Creates a waitlist with two queues for each available processor.
+	 */
+	public static <T> ConcurrentPriorityWaitlist<T> create(final Comparator<? super T> comparator) {
+		return new ConcurrentPriorityWaitlist<>(comparator, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	void offer(final T item) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (true) {
+			final int i = random.nextInt(queues.size());
+			if (locks[i].tryLock()) {
+				try {
+					queues.get(i).add(item);
+					return;
+				} finally {
+					locks[i].unlock();
+				}
+			}
+		}
+	}
+
+	@Override
+	T tryRemove() {
+		if (queues.size() > 1) {
+			final ThreadLocalRandom random = ThreadLocalRandom.current();
+			final int i = random.nextInt(queues.size());
+			final int j = (i + 1 + random.nextInt(queues.size() - 1)) % queues.size();
+			final T first = peek(i);
+			final T second = peek(j);
+			if (first != null || second != null) {
+				final int best = second == null || (first != null && comparator.compare(first, second) <= 0) ? i : j;
+				final T item = poll(best);
+				if (item != null) {
+					return item;
+				}
+			}
+		}
+		// Fall back to scanning all queues, so that no item is missed
+		for (int i = 0; i < queues.size(); i++) {
+			final T item = poll(i);
+			if (item != null) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	private T peek(final int i) {
+		locks[i].lock();
+		try {
+			return queues.get(i).peek();
+		} finally {
+			locks[i].unlock();
+		}
+	}
+
+	private T poll(final int i) {
+		locks[i].lock();
+		try {
+			return queues.get(i).poll();
+		} finally {
+			locks[i].unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(comparator).add(queues.size()).toString();
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+/**
+ * Waitlist that can be shared by multiple threads without a global lock. The
+ * order of removal may be relaxed compared to the sequential waitlists.
+ * <p>
+ * Besides the operations of {@link Waitlist}, it can detect the termination of
+ * a parallel search: workers remove items with {@link #take()} and call
+ * {@link #done()} once the successors of the item were added. The search
+ * terminates if the waitlist is empty and no taken item is in progress, or if
+ * {@link #terminate()} was called. Clearing the waitlist resets termination.
+ */
+public interface ConcurrentWaitlist<T> extends Waitlist<T> {
+
+	/**
+	 * Removes an item, or returns null if the waitlist is empty.
+	 */
+	T poll();
+
+	/**
+	 * Removes an item for processing, waiting while the waitlist is empty but
+	 * items in progress may still produce new items. Returns null if the search
+	 * terminated or the current thread was interrupted.
+	 */
+	T take();
+
+	/**
+	 * Marks an item returned by {@link #take()} as processed.
+	 */
+	void done();
+
+	void terminate();
+
+	boolean isTerminated();
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Concurrent waitlist for DFS-like search, with a lock-free deque for each
+ * worker thread. Threads add and remove items at the head of their own deque
+ * (LIFO), and if it is empty, they steal the oldest item from the tail of
+ * another deque.
+ */
+public final class WorkStealingWaitlist<T> extends AbstractConcurrentWaitlist<T> {
+
+	private final List<Deque<T>> deques;
+	private final AtomicInteger nextDeque;
+	private final ThreadLocal<Integer> ownDeque;
+
+	private WorkStealingWaitlist(final int workers) {
+		checkArgument(workers > 0, "At least one worker is required");
+		this.deques = new ArrayList<>(workers);
+		for (int i = 0; i < workers; i++) {
+			deques.add(new ConcurrentLinkedDeque<>());
+		}
+		this.nextDeque = new AtomicInteger(0);
+		this.ownDeque = ThreadLocal.withInitial(() -> Math.floorMod(nextDeque.getAndIncrement(), workers));
+	}
+
+	/**
+	 * Creates a waitlist with a deque for each of the given number of workers.
+	 * Threads are assigned to deques in a round-robin fashion.
+	 */
+	public static <T> WorkStealingWaitlist<T> create(final int workers) {
+		return new WorkStealingWaitlist<>(workers);
+	}
+
+	public static <T> WorkStealingWaitlist<T> create() {
+		return new WorkStealingWaitlist<>(Runtime.getRuntime().availableProcessors());
+	}
+
+	@Override
+	void offer(final T item) {
+		deques.get(ownDeque.get()).addFirst(item);
+	}
+
+	@Override
+	T tryRemove() {
+		final int own = ownDeque.get();
+		final T item = deques.get(own).pollFirst();
+		if (item != null) {
+			return item;
+		}
+		for (int i = 1; i < deques.size(); i++) {
+			final T stolen = deques.get((own + i) % deques.size()).pollLast();
+			if (stolen != null) {
+				return stolen;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).addAll(deques).toString();
+	}
+}
@@ -27,12 +27,18 @@ import static java.lang.Math.min;
 import java.util.Arrays;
 import java.util.function.IntBinaryOperator;
 
-import hu.bme.mit.theta.common.IntMatrix;
-
+/**
+ * Difference bound matrix over clocks 0..n, where 0 is the zero clock. The
+ * bounds are stored row-major in a flat array, indices are only checked at the
+ * entry points, and the inner loops work on whole rows. Copies share the array
+ * until one of them is modified (copy-on-write).
+ */
 final class BasicDbm {
 
 	private final int nClocks;
-	private final IntMatrix matrix;
+	private final int dim;
+	private int[] matrix;
+	private boolean shared;
 
 	////
 
@@ -40,13 +46,18 @@ final class BasicDbm {
 		checkArgument(size > 0, "Zero sized DBM");
 		checkNotNull(values);
 		this.nClocks = size - 1;
-		matrix = IntMatrix.create(size, size);
+		this.dim = size;
+		this.matrix = new int[size * size];
+		this.shared = false;
 		fill(values);
 	}
 
 	BasicDbm(final BasicDbm dbm) {
 		this.nClocks = dbm.nClocks;
-		this.matrix = IntMatrix.copyOf(dbm.matrix);
+		this.dim = dbm.dim;
+		this.matrix = dbm.matrix;
+		this.shared = true;
+		dbm.shared = true;
 	}
 
 	////
@@ -67,46 +78,54 @@ final class BasicDbm {
 	int get(final int x, final int y) {
 		checkArgument(isClock(x));
 		checkArgument(isClock(y));
-		return matrix.get(x, y);
+		return matrix[x * dim + y];
 	}
 
 	void set(final int x, final int y, final int b) {
 		checkArgument(isClock(x));
 		checkArgument(isClock(y));
-		matrix.set(x, y, b);
+		own();
+		matrix[x * dim + y] = b;
 	}
 
 	void fill(final IntBinaryOperator values) {
 		checkNotNull(values);
-		matrix.fill(values);
+		own();
+		for (int i = 0; i < dim; i++) {
+			final int row = i * dim;
+			for (int j = 0; j < dim; j++) {
+				matrix[row + j] = values.applyAsInt(i, j);
+			}
+		}
 	}
 
 	////
 
 	public int size() {
-		return nClocks + 1;
+		return dim;
 	}
 
 	////
 
 	public boolean isConsistent() {
-		return matrix.get(0, 0) > 0;
+		return matrix[0] > 0;
 	}
 
 	public boolean isSatisfied(final int x, final int y, final int b) {
 		checkArgument(isClock(x));
 		checkArgument(isClock(y));
-		return add(matrix.get(y, x), b) >= Leq(0);
+		return add(matrix[y * dim + x], b) >= Leq(0);
 	}
 
 	public boolean constrains(final int x) {
 		checkArgument(isClock(x));
-		for (int i = 0; i <= nClocks; i++) {
-			if (matrix.get(x, i) < defaultBound(x, i)) {
+		final int row = x * dim;
+		for (int i = 0; i < dim; i++) {
+			if (matrix[row + i] < defaultBound(x, i)) {
 				return true;
 			}
 
-			if (matrix.get(i, x) < defaultBound(i, x)) {
+			if (matrix[i * dim + x] < defaultBound(i, x)) {
 				return true;
 			}
 		}
@@ -117,8 +136,9 @@ final class BasicDbm {
 
 	public void up() {
 		if (isConsistent()) {
+			own();
 			for (int i = 1; i <= nClocks; i++) {
-				matrix.set(i, 0, Inf());
+				matrix[i * dim] = Inf();
 			}
 			assert isClosed();
 		}
@@ -126,9 +146,8 @@ final class BasicDbm {
 
 	public void down() {
 		if (isConsistent()) {
-			for (int i = 1; i <= nClocks; i++) {
-				matrix.set(0, i, Inf());
-			}
+			own();
+			Arrays.fill(matrix, 1, dim, Inf());
 			assert isClosed();
 		}
 	}
@@ -136,57 +155,87 @@ final class BasicDbm {
 	public void and(final int x, final int y, final int b) {
 		checkArgument(isClock(x));
 		checkArgument(isClock(y));
+		tighten(x, y, b);
+		assert !isConsistent() || isClosed();
+	}
+
+	/**
+	 * Intersects the DBM with the constraints x - y ~ b, given as consecutive
+	 * triples (x, y, b) of the array. If the tightened bounds share clocks, they
+	 * are all applied first and the DBM is closed once afterwards, pivoting only
+	 * on their clocks. Otherwise they are applied one by one, each followed by
+	 * an incremental closure.
+	 */
+	public void and(final int[] constrs) {
+		checkNotNull(constrs);
+		checkArgument(constrs.length % 3 == 0, "Constraints must be triples");
+		for (int c = 0; c < constrs.length; c += 3) {
+			checkArgument(isClock(constrs[c]));
+			checkArgument(isClock(constrs[c + 1]));
+		}
 
 		if (!isConsistent()) {
-			// do nothing
+			return;
+		}
 
-		} else if (!isSatisfied(x, y, b)) {
-			matrix.set(0, 0, Leq(-1));
+		final boolean[] pivots = new boolean[dim];
+		int nTightened = 0;
+		int nPivots = 0;
+		for (int c = 0; c < constrs.length; c += 3) {
+			final int x = constrs[c];
+			final int y = constrs[c + 1];
+			if (constrs[c + 2] < matrix[x * dim + y]) {
+				nTightened++;
+				nPivots += pivots[x] ? 0 : 1;
+				pivots[x] = true;
+				nPivots += pivots[y] ? 0 : 1;
+				pivots[y] = true;
+			}
+		}
 
-		} else if (b < matrix.get(x, y)) {
-			matrix.set(x, y, b);
+		if (nTightened > 0) {
+			own();
+		}
 
-			for (int i = 0; i <= nClocks; i++) {
-				for (int j = 0; j <= nClocks; j++) {
-					if (add(matrix.get(i, x), matrix.get(x, j)) < matrix.get(i, j)) {
-						matrix.set(i, j, add(matrix.get(i, x), matrix.get(x, j)));
-					}
-					if (add(matrix.get(i, y), matrix.get(y, j)) < matrix.get(i, j)) {
-						matrix.set(i, j, add(matrix.get(i, y), matrix.get(y, j)));
-					}
+		if (nPivots < nTightened) {
+			for (int c = 0; c < constrs.length; c += 3) {
+				final int index = constrs[c] * dim + constrs[c + 1];
+				matrix[index] = min(matrix[index], constrs[c + 2]);
+			}
+			// The DBM was closed before, so shortest paths can only go through the new bounds
+			for (int k = 0; k < dim; k++) {
+				if (pivots[k] && !relax(k)) {
+					matrix[0] = Leq(-1);
+					return;
 				}
 			}
+		} else {
+			for (int c = 0; c < constrs.length && isConsistent(); c += 3) {
+				tighten(constrs[c], constrs[c + 1], constrs[c + 2]);
+			}
 		}
 		assert !isConsistent() || isClosed();
 	}
 
-	public void nonnegative() {
+	private void tighten(final int x, final int y, final int b) {
 		if (!isConsistent()) {
-			return;
-		}
-
-		for (int k = 1; k <= nClocks; k++) {
-			if (!isSatisfied(0, k, Leq(0))) {
-				matrix.set(0, 0, Leq(-1));
-				return;
-			}
+			// do nothing
 
-			if (Leq(0) < matrix.get(0, k)) {
-				matrix.set(0, k, Leq(0));
+		} else if (add(matrix[y * dim + x], b) < Leq(0)) {
+			own();
+			matrix[0] = Leq(-1);
 
-				for (int i = 0; i <= nClocks; i++) {
-					for (int j = 0; j <= nClocks; j++) {
-						if (add(matrix.get(i, 0), matrix.get(0, j)) < matrix.get(i, j)) {
-							matrix.set(i, j, add(matrix.get(i, 0), matrix.get(0, j)));
-						}
-						if (add(matrix.get(i, k), matrix.get(k, j)) < matrix.get(i, j)) {
-							matrix.set(i, j, add(matrix.get(i, k), matrix.get(k, j)));
-						}
-					}
-				}
-			}
+		} else if (b < matrix[x * dim + y]) {
+			own();
+			matrix[x * dim + y] = b;
+			closeThrough(x, y, b);
 		}
+	}
 
+	public void nonnegative() {
+		for (int k = 1; k <= nClocks && isConsistent(); k++) {
+			tighten(0, k, Leq(0));
+		}
 		assert !isConsistent() || isClosed();
 	}
 
@@ -194,10 +243,12 @@ final class BasicDbm {
 		checkArgument(isNonZeroClock(x));
 
 		if (isConsistent()) {
-			for (int i = 0; i <= nClocks; i++) {
+			own();
+			final int row = x * dim;
+			for (int i = 0; i < dim; i++) {
 				if (i != x) {
-					matrix.set(x, i, Inf());
-					matrix.set(i, x, Inf());
+					matrix[row + i] = Inf();
+					matrix[i * dim + x] = Inf();
 				}
 			}
 			assert isClosed();
@@ -212,11 +263,12 @@ final class BasicDbm {
 		checkArgument(isNonZeroClock(x));
 
 		if (isConsistent()) {
-			for (int i = 0; i <= nClocks; i++) {
-				matrix.set(x, i, add(Leq(m), matrix.get(0, i)));
-				matrix.set(i, x, add(matrix.get(i, 0), Leq(-m)));
+			own();
+			final int row = x * dim;
+			for (int i = 0; i < dim; i++) {
+				matrix[row + i] = add(Leq(m), matrix[i]);
+				matrix[i * dim + x] = add(matrix[i * dim], Leq(-m));
 			}
-
 			assert isClosed();
 		}
 	}
@@ -224,24 +276,29 @@ final class BasicDbm {
 	public void copy(final int x, final int y) {
 		checkArgument(isNonZeroClock(y));
 
-		for (int i = 0; i <= nClocks; i++) {
+		own();
+		final int rowX = x * dim;
+		final int rowY = y * dim;
+		for (int i = 0; i < dim; i++) {
 			if (i != x) {
-				matrix.set(x, i, matrix.get(y, i));
-				matrix.set(i, x, matrix.get(i, y));
+				matrix[rowX + i] = matrix[rowY + i];
+				matrix[i * dim + x] = matrix[i * dim + y];
 			}
 		}
-		matrix.set(x, y, Leq(0));
-		matrix.set(y, x, Leq(0));
+		matrix[rowX + y] = Leq(0);
+		matrix[rowY + x] = Leq(0);
 		assert isClosed();
 	}
 
 	public void shift(final int x, final int m) {
 		checkArgument(isNonZeroClock(x));
 
-		for (int i = 0; i <= nClocks; i++) {
+		own();
+		final int row = x * dim;
+		for (int i = 0; i < dim; i++) {
 			if (i != x) {
-				matrix.set(x, i, add(matrix.get(x, i), Leq(m)));
-				matrix.set(i, x, add(matrix.get(i, x), Leq(-m)));
+				matrix[row + i] = add(matrix[row + i], Leq(m));
+				matrix[i * dim + x] = add(matrix[i * dim + x], Leq(-m));
 			}
 		}
 		assert isClosed();
@@ -249,15 +306,22 @@ final class BasicDbm {
 
 	public void norm(final int[] k) {
 		checkNotNull(k);
-		checkArgument(k.length == nClocks + 1);
-
-		for (int i = 0; i <= nClocks; i++) {
-			for (int j = 0; j <= nClocks; j++) {
-				if (matrix.get(i, j) != Inf()) {
-					if (matrix.get(i, j) > Leq(k[i])) {
-						matrix.set(i, j, Inf());
-					} else if (matrix.get(i, j) < Lt(-k[j])) {
-						matrix.set(i, j, Lt(-k[j]));
+		checkArgument(k.length == dim);
+
+		own();
+		for (int i = 0; i < dim; i++) {
+			final int row = i * dim;
+			final int upper = Leq(k[i]);
+			for (int j = 0; j < dim; j++) {
+				final int b = matrix[row + j];
+				if (b != Inf()) {
+					if (b > upper) {
+						matrix[row + j] = Inf();
+					} else {
+						final int lower = Lt(-k[j]);
+						if (b < lower) {
+							matrix[row + j] = lower;
+						}
 					}
 				}
 			}
@@ -266,33 +330,79 @@ final class BasicDbm {
 	}
 
 	void close() {
-		for (int k = 0; k <= nClocks; k++) {
-			for (int i = 0; i <= nClocks; i++) {
-				for (int j = 0; j <= nClocks; j++) {
-					final int newBound = min(matrix.get(i, j), add(matrix.get(i, k), matrix.get(k, j)));
-					if (i == j && newBound < Leq(0)) {
-						matrix.set(0, 0, Leq(-1));
-						return;
-					} else {
-						matrix.set(i, j, newBound);
+		own();
+		for (int k = 0; k < dim; k++) {
+			if (!relax(k)) {
+				matrix[0] = Leq(-1);
+				return;
+			}
+		}
+		assert isClosed();
+	}
+
+	/**
+	 * Shortens all paths through clock k, i.e., one iteration of the
+	 * Floyd-Warshall algorithm. Returns false if a negative cycle is found.
+	 */
+	private boolean relax(final int k) {
+		final int rowK = k * dim;
+		for (int i = 0; i < dim; i++) {
+			final int row = i * dim;
+			final int ik = matrix[row + k];
+			if (ik != Inf()) {
+				for (int j = 0; j < dim; j++) {
+					final int newBound = add(ik, matrix[rowK + j]);
+					if (newBound < matrix[row + j]) {
+						matrix[row + j] = newBound;
+					}
+				}
+				if (matrix[row + i] < Leq(0)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Restores closedness after tightening the bound on x - y to b, assuming
+	 * that the DBM was closed before and b is consistent with it.
+	 */
+	private void closeThrough(final int x, final int y, final int b) {
+		final int rowY = y * dim;
+		for (int i = 0; i < dim; i++) {
+			final int row = i * dim;
+			final int ix = matrix[row + x];
+			if (ix != Inf()) {
+				final int iy = add(ix, b);
+				for (int j = 0; j < dim; j++) {
+					final int newBound = add(iy, matrix[rowY + j]);
+					if (newBound < matrix[row + j]) {
+						matrix[row + j] = newBound;
 					}
 				}
 			}
 		}
-		assert isClosed();
 	}
 
 	int[] closeItp() {
-		final IntMatrix next = IntMatrix.create(nClocks + 1, nClocks + 1);
-		next.fill((x, y) -> y);
-
-		for (int k = 0; k <= nClocks; k++) {
-			for (int i = 0; i <= nClocks; i++) {
-				for (int j = 0; j <= nClocks; j++) {
-					final int newBound = add(matrix.get(i, k), matrix.get(k, j));
-					if (newBound < matrix.get(i, j)) {
-						matrix.set(i, j, newBound);
-						next.set(i, j, next.get(i, k));
+		own();
+		final int[] next = new int[dim * dim];
+		for (int i = 0; i < dim; i++) {
+			for (int j = 0; j < dim; j++) {
+				next[i * dim + j] = j;
+			}
+		}
+
+		for (int k = 0; k < dim; k++) {
+			final int rowK = k * dim;
+			for (int i = 0; i < dim; i++) {
+				final int row = i * dim;
+				for (int j = 0; j < dim; j++) {
+					final int newBound = add(matrix[row + k], matrix[rowK + j]);
+					if (newBound < matrix[row + j]) {
+						matrix[row + j] = newBound;
+						next[row + j] = next[row + k];
 						if (i == j && newBound < Leq(0)) {
 							final int[] cycle = path(next, i, j);
 							return cycle;
@@ -305,14 +415,14 @@ final class BasicDbm {
 		throw new IllegalStateException();
 	}
 
-	private int[] path(final IntMatrix next, final int u, final int v) {
+	private int[] path(final int[] next, final int u, final int v) {
 		final int[] path = new int[nClocks + 2];
 
 		int w = u;
 		path[0] = w;
 		int i = 1;
 		do {
-			w = next.get(w, v);
+			w = next[w * dim + v];
 			path[i] = w;
 			i++;
 		} while (w != v);
@@ -320,11 +430,44 @@ final class BasicDbm {
 		return Arrays.copyOf(path, i);
 	}
 
+	/**
+	 * Makes sure that the matrix is not shared with other copies before it is
+	 * modified.
+	 */
+	private void own() {
+		if (shared) {
+			matrix = matrix.clone();
+			shared = false;
+		}
+	}
+
+	////
+
+	/**
+	 * Checks whether all bounds are at most the corresponding bounds of the
+	 * other DBM of the same size.
+	 */
+	boolean isLeq(final BasicDbm that) {
+		checkArgument(this.dim == that.dim);
+		if (this.matrix == that.matrix) {
+			return true;
+		}
+		for (int i = 0; i < matrix.length; i++) {
+			if (this.matrix[i] > that.matrix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	boolean isClosed() {
-		for (int i = 0; i <= nClocks; i++) {
-			for (int j = 0; j <= nClocks; j++) {
-				for (int k = 0; k <= nClocks; k++) {
-					if (matrix.get(i, j) > add(matrix.get(i, k), matrix.get(k, j))) {
+		for (int i = 0; i < dim; i++) {
+			final int row = i * dim;
+			for (int k = 0; k < dim; k++) {
+				final int ik = matrix[row + k];
+				final int rowK = k * dim;
+				for (int j = 0; j < dim; j++) {
+					if (matrix[row + j] > add(ik, matrix[rowK + j])) {
 						return false;
 					}
 				}
@@ -335,24 +478,44 @@ final class BasicDbm {
 
 	////
 
+	/**
+	 * All inconsistent DBMs of the same size are considered equal, regardless of
+	 * their other bounds.
+	 */
 	@Override
 	public int hashCode() {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException("TODO: auto-generated method stub");
+		if (!isConsistent()) {
+			return dim;
+		}
+		return 31 * dim + Arrays.hashCode(matrix);
 	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException("TODO: auto-generated method stub");
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof BasicDbm) {
+			final BasicDbm that = (BasicDbm) obj;
+			if (this.dim != that.dim) {
+				return false;
+			} else if (this.matrix == that.matrix) {
+				return true;
+			} else if (!this.isConsistent() || !that.isConsistent()) {
+				return this.isConsistent() == that.isConsistent();
+			} else {
+				return Arrays.equals(this.matrix, that.matrix);
+			}
+		} else {
+			return false;
+		}
 	}
 
 	@Override
 	public String toString() {
 		final StringBuilder sb = new StringBuilder();
-		for (int i = 0; i <= nClocks; i++) {
-			for (int j = 0; j <= nClocks; j++) {
-				sb.append(String.format("%-12s", asString(matrix.get(i, j))));
+		for (int i = 0; i < dim; i++) {
+			for (int j = 0; j < dim; j++) {
+				sb.append(String.format("%-12s", asString(matrix[i * dim + j])));
 			}
 			sb.append(System.lineSeparator());
 		}
@@ -148,7 +148,11 @@ final class DBM {
 
 	public static DBM project(final DBM dbm, final Iterable<? extends VarDecl<RatType>> vars) {
 		checkNotNull(vars);
-		return new DBM(DbmSignature.over(vars), dbm::getOrDefault);
+		final DbmSignature signature = DbmSignature.over(vars);
+		if (signature.equals(dbm.signature)) {
+			return new DBM(dbm);
+		}
+		return new DBM(signature, dbm::getOrDefault);
 	}
 
 	////
@@ -324,6 +328,14 @@ final class DBM {
 
 	////
 
+	/**
+	 * Gets the bound on x - y, which is the default bound if x or y is not
+	 * tracked.
+	 */
+	int getBound(final VarDecl<RatType> x, final VarDecl<RatType> y) {
+		return getOrDefault(x, y);
+	}
+
 	private int getOrDefault(final VarDecl<RatType> x, final VarDecl<RatType> y) {
 		if (!tracks(x) || !tracks(y)) {
 			return defaultBound(x, y);
@@ -392,6 +404,10 @@ final class DBM {
 	}
 
 	public boolean isLeq(final DBM that) {
+		if (this.signature.equals(that.signature)) {
+			return this.dbm.isLeq(that.dbm);
+		}
+
 		final Set<VarDecl<RatType>> vars = Sets.union(this.signature.toSet(), that.signature.toSet());
 
 		for (final VarDecl<RatType> x : vars) {
@@ -519,7 +535,9 @@ final class DBM {
 
 	public void and(final ClockConstr constr) {
 		checkNotNull(constr);
-		constr.accept(AndOperationVisitor.INSTANCE, this);
+		final Guards guards = new Guards(this);
+		constr.accept(AndOperationVisitor.INSTANCE, guards);
+		dbm.and(guards.toArray());
 	}
 
 	public void free(final VarDecl<RatType> varDecl) {
@@ -572,16 +590,31 @@ final class DBM {
 
 	////
 
+	/**
+	 * DBMs are equal if they have the same signature and bounds, or if both of
+	 * them are inconsistent.
+	 */
 	@Override
 	public int hashCode() {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException("TODO: auto-generated method stub");
+		if (!isConsistent()) {
+			return 0;
+		}
+		return 31 * signature.hashCode() + dbm.hashCode();
 	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException("TODO: auto-generated method stub");
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof DBM) {
+			final DBM that = (DBM) obj;
+			if (!this.isConsistent() || !that.isConsistent()) {
+				return this.isConsistent() == that.isConsistent();
+			}
+			return this.signature.equals(that.signature) && this.dbm.equals(that.dbm);
+		} else {
+			return false;
+		}
 	}
 
 	@Override
@@ -679,7 +712,7 @@ final class DBM {
 
 	////
 
-	private static final class AndOperationVisitor implements ClockConstrVisitor<DBM, Void> {
+	private static final class AndOperationVisitor implements ClockConstrVisitor<Guards, Void> {
 
 		private static final AndOperationVisitor INSTANCE = new AndOperationVisitor();
 
@@ -687,150 +720,177 @@ final class DBM {
 		}
 
 		@Override
-		public Void visit(final TrueConstr constr, final DBM dbm) {
+		public Void visit(final TrueConstr constr, final Guards guards) {
 			return null;
 		}
 
 		@Override
-		public Void visit(final FalseConstr constr, final DBM dbm) {
-			dbm.dbm.and(0, 0, Lt(-1));
+		public Void visit(final FalseConstr constr, final Guards guards) {
+			guards.add(0, 0, Lt(-1));
 			return null;
 		}
 
 		@Override
-		public Void visit(final UnitLtConstr constr, final DBM dbm) {
+		public Void visit(final UnitLtConstr constr, final Guards guards) {
 			final VarDecl<RatType> varDecl = constr.getVar();
-			if (dbm.tracks(varDecl)) {
-				final int x = dbm.signature.indexOf(varDecl);
+			if (guards.dbm.tracks(varDecl)) {
+				final int x = guards.dbm.signature.indexOf(varDecl);
 				final int m = constr.getBound();
-				dbm.dbm.and(x, 0, Lt(m));
+				guards.add(x, 0, Lt(m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final UnitLeqConstr constr, final DBM dbm) {
+		public Void visit(final UnitLeqConstr constr, final Guards guards) {
 			final VarDecl<RatType> varDecl = constr.getVar();
-			if (dbm.tracks(varDecl)) {
-				final int x = dbm.signature.indexOf(varDecl);
+			if (guards.dbm.tracks(varDecl)) {
+				final int x = guards.dbm.signature.indexOf(varDecl);
 				final int m = constr.getBound();
-				dbm.dbm.and(x, 0, Leq(m));
+				guards.add(x, 0, Leq(m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final UnitGtConstr constr, final DBM dbm) {
+		public Void visit(final UnitGtConstr constr, final Guards guards) {
 			final VarDecl<RatType> varDecl = constr.getVar();
-			if (dbm.tracks(varDecl)) {
-				final int x = dbm.signature.indexOf(varDecl);
+			if (guards.dbm.tracks(varDecl)) {
+				final int x = guards.dbm.signature.indexOf(varDecl);
 				final int m = constr.getBound();
-				dbm.dbm.and(0, x, Lt(-m));
+				guards.add(0, x, Lt(-m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final UnitGeqConstr constr, final DBM dbm) {
+		public Void visit(final UnitGeqConstr constr, final Guards guards) {
 			final VarDecl<RatType> varDecl = constr.getVar();
-			if (dbm.tracks(varDecl)) {
-				final int x = dbm.signature.indexOf(varDecl);
+			if (guards.dbm.tracks(varDecl)) {
+				final int x = guards.dbm.signature.indexOf(varDecl);
 				final int m = constr.getBound();
-				dbm.dbm.and(0, x, Leq(-m));
+				guards.add(0, x, Leq(-m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final UnitEqConstr constr, final DBM dbm) {
+		public Void visit(final UnitEqConstr constr, final Guards guards) {
 			final VarDecl<RatType> varDecl = constr.getVar();
-			if (dbm.tracks(varDecl)) {
-				final int x = dbm.signature.indexOf(varDecl);
+			if (guards.dbm.tracks(varDecl)) {
+				final int x = guards.dbm.signature.indexOf(varDecl);
 				final int m = constr.getBound();
-				dbm.dbm.and(x, 0, Leq(m));
-				dbm.dbm.and(0, x, Leq(-m));
+				guards.add(x, 0, Leq(m));
+				guards.add(0, x, Leq(-m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final DiffLtConstr constr, final DBM dbm) {
+		public Void visit(final DiffLtConstr constr, final Guards guards) {
 			final VarDecl<RatType> leftVar = constr.getLeftVar();
 			final VarDecl<RatType> rightVar = constr.getRightVar();
-			if (dbm.tracks(leftVar) && dbm.tracks(rightVar)) {
-				final int x = dbm.signature.indexOf(leftVar);
-				final int y = dbm.signature.indexOf(rightVar);
+			if (guards.dbm.tracks(leftVar) && guards.dbm.tracks(rightVar)) {
+				final int x = guards.dbm.signature.indexOf(leftVar);
+				final int y = guards.dbm.signature.indexOf(rightVar);
 				final int m = constr.getBound();
-				dbm.dbm.and(x, y, Lt(m));
+				guards.add(x, y, Lt(m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final DiffLeqConstr constr, final DBM dbm) {
+		public Void visit(final DiffLeqConstr constr, final Guards guards) {
 			final VarDecl<RatType> leftVar = constr.getLeftVar();
 			final VarDecl<RatType> rightVar = constr.getRightVar();
-			if (dbm.tracks(leftVar) && dbm.tracks(rightVar)) {
-				final int x = dbm.signature.indexOf(leftVar);
-				final int y = dbm.signature.indexOf(rightVar);
+			if (guards.dbm.tracks(leftVar) && guards.dbm.tracks(rightVar)) {
+				final int x = guards.dbm.signature.indexOf(leftVar);
+				final int y = guards.dbm.signature.indexOf(rightVar);
 				final int m = constr.getBound();
-				dbm.dbm.and(x, y, Leq(m));
+				guards.add(x, y, Leq(m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final DiffGtConstr constr, final DBM dbm) {
+		public Void visit(final DiffGtConstr constr, final Guards guards) {
 			final VarDecl<RatType> leftVar = constr.getLeftVar();
 			final VarDecl<RatType> rightVar = constr.getRightVar();
-			if (dbm.tracks(leftVar) && dbm.tracks(rightVar)) {
-				final int x = dbm.signature.indexOf(leftVar);
-				final int y = dbm.signature.indexOf(rightVar);
+			if (guards.dbm.tracks(leftVar) && guards.dbm.tracks(rightVar)) {
+				final int x = guards.dbm.signature.indexOf(leftVar);
+				final int y = guards.dbm.signature.indexOf(rightVar);
 				final int m = constr.getBound();
-				dbm.dbm.and(y, x, Lt(-m));
+				guards.add(y, x, Lt(-m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final DiffGeqConstr constr, final DBM dbm) {
+		public Void visit(final DiffGeqConstr constr, final Guards guards) {
 			final VarDecl<RatType> leftVar = constr.getLeftVar();
 			final VarDecl<RatType> rightVar = constr.getRightVar();
-			if (dbm.tracks(leftVar) && dbm.tracks(rightVar)) {
-				final int x = dbm.signature.indexOf(leftVar);
-				final int y = dbm.signature.indexOf(rightVar);
+			if (guards.dbm.tracks(leftVar) && guards.dbm.tracks(rightVar)) {
+				final int x = guards.dbm.signature.indexOf(leftVar);
+				final int y = guards.dbm.signature.indexOf(rightVar);
 				final int m = constr.getBound();
-				dbm.dbm.and(y, x, Leq(-m));
+				guards.add(y, x, Leq(-m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final DiffEqConstr constr, final DBM dbm) {
+		public Void visit(final DiffEqConstr constr, final Guards guards) {
 			final VarDecl<RatType> leftVar = constr.getLeftVar();
 			final VarDecl<RatType> rightVar = constr.getRightVar();
-			if (dbm.tracks(leftVar) && dbm.tracks(rightVar)) {
-				final int x = dbm.signature.indexOf(leftVar);
-				final int y = dbm.signature.indexOf(rightVar);
+			if (guards.dbm.tracks(leftVar) && guards.dbm.tracks(rightVar)) {
+				final int x = guards.dbm.signature.indexOf(leftVar);
+				final int y = guards.dbm.signature.indexOf(rightVar);
 				final int m = constr.getBound();
-				dbm.dbm.and(x, y, Leq(m));
-				dbm.dbm.and(y, x, Leq(-m));
+				guards.add(x, y, Leq(m));
+				guards.add(y, x, Leq(-m));
 			}
 			return null;
 		}
 
 		@Override
-		public Void visit(final AndConstr constr, final DBM dbm) {
+		public Void visit(final AndConstr constr, final Guards guards) {
 			for (final ClockConstr atomicConstr : constr.getConstrs()) {
-				atomicConstr.accept(this, dbm);
-				if (!dbm.dbm.isConsistent()) {
-					return null;
-				}
+				atomicConstr.accept(this, guards);
 			}
 			return null;
 		}
 	}
 
+	/**
+	 * Collects the atomic constraints of a guard as (x, y, b) triples, so that
+	 * they can be applied to the DBM with a single closure.
+	 */
+	private static final class Guards {
+		private final DBM dbm;
+		private int[] constrs;
+		private int size;
+
+		private Guards(final DBM dbm) {
+			this.dbm = dbm;
+			this.constrs = new int[6];
+			this.size = 0;
+		}
+
+		private void add(final int x, final int y, final int b) {
+			if (size + 3 > constrs.length) {
+				constrs = Arrays.copyOf(constrs, constrs.length * 2);
+			}
+			constrs[size] = x;
+			constrs[size + 1] = y;
+			constrs[size + 2] = b;
+			size += 3;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(constrs, size);
+		}
+	}
+
 	@FunctionalInterface
 	private interface Procedure {
 		void execute();
@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.reachedset.JoinableCoverageFilter;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+/**
+ * Coverage filter for zones with respect to inclusion (ZoneState.isLeq). The
+ * key of a zone consists of the upper and lower bounds of the given clocks. A
+ * zone can only cover another zone if these bounds are not tighter than the
+ * bounds of the other zone. Keys are joined by taking the loosest bounds. The
+ * filter is not applicable to abstract inclusion checks (e.g., with LU
+ * bounds).
+ */
+public final class ZoneCoverageFilter implements JoinableCoverageFilter<ZoneState, int[]> {
+
+	private final List<VarDecl<RatType>> clocks;
+
+	private ZoneCoverageFilter(final Collection<? extends VarDecl<RatType>> clocks) {
+		this.clocks = ImmutableList.copyOf(checkNotNull(clocks));
+	}
+
+	public static ZoneCoverageFilter create(final Collection<? extends VarDecl<RatType>> clocks) {
+		return new ZoneCoverageFilter(clocks);
+	}
+
+	@Override
+	public int[] getKey(final ZoneState state) {
+		final VarDecl<RatType> zero = ZeroVar.getInstance();
+		final int[] bounds = new int[2 * clocks.size()];
+		for (int i = 0; i < clocks.size(); i++) {
+			final VarDecl<RatType> clock = clocks.get(i);
+			bounds[2 * i] = state.getBound(clock, zero);
+			bounds[2 * i + 1] = state.getBound(zero, clock);
+		}
+		return bounds;
+	}
+
+	@Override
+	public boolean mayCover(final int[] covererKey, final int[] covereeKey) {
+		for (int i = 0; i < covererKey.length; i++) {
+			if (covereeKey[i] > covererKey[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int[] join(final int[] covererKey1, final int[] covererKey2) {
+		final int[] bounds = new int[covererKey1.length];
+		for (int i = 0; i < bounds.length; i++) {
+			bounds[i] = Math.max(covererKey1[i], covererKey2[i]);
+		}
+		return bounds;
+	}
+
+}
@@ -27,6 +27,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
 
 import hu.bme.mit.theta.analysis.expr.ExprState;
@@ -45,6 +47,8 @@ public final class ZoneState implements ExprState {
 	private static final ZoneState TOP = new ZoneState(DBM.top(Collections.emptySet()));
 	private static final ZoneState BOTTOM = new ZoneState(DBM.bottom(Collections.emptySet()));
 
+	private static final Interner<ZoneState> INTERNER = Interners.newWeakInterner();
+
 	private static final int HASH_SEED = 4349;
 
 	private volatile int hashCode = 0;
@@ -56,10 +60,6 @@ public final class ZoneState implements ExprState {
 		this.dbm = dbm;
 	}
 
-	private ZoneState(final Builder ops) {
-		this.dbm = ops.dbm;
-	}
-
 	////
 
 	public static ZoneState region(final Valuation valuation, final Collection<VarDecl<RatType>> vars) {
@@ -142,6 +142,16 @@ public final class ZoneState implements ExprState {
 		return dbms.stream().map(ZoneState::new).collect(toList());
 	}
 
+	/**
+	 * Gets the canonical instance of zones equal to this one. Interned zones
+	 * reached on different paths share their DBM and can be compared by
+	 * reference. Zones are only kept in the intern table while they are
+	 * reachable.
+	 */
+	public ZoneState intern() {
+		return INTERNER.intern(this);
+	}
+
 	public Builder transform() {
 		return Builder.transform(this);
 	}
@@ -162,7 +172,15 @@ public final class ZoneState implements ExprState {
 		return !dbm.isConsistent();
 	}
 
+	// Used by ZoneCoverageFilter
+	int getBound(final VarDecl<RatType> x, final VarDecl<RatType> y) {
+		return dbm.getBound(x, y);
+	}
+
 	public boolean isLeq(final ZoneState that) {
+		if (this == that) {
+			return true;
+		}
 		return this.dbm.isLeq(that.dbm);
 	}
 
@@ -245,7 +263,8 @@ public final class ZoneState implements ExprState {
 		////
 
 		public ZoneState build() {
-			return new ZoneState(this);
+			// The builder keeps its DBM, so the state gets a (copy-on-write) copy
+			return new ZoneState(DBM.copyOf(dbm));
 		}
 
 		////
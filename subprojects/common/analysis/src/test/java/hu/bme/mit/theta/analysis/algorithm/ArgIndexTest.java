@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static java.util.stream.Collectors.toSet;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+public class ArgIndexTest {
+
+	private static final Action ACTION = new ActionStub("A");
+
+	private static final State BOTTOM = new State() {
+		@Override
+		public boolean isBottom() {
+			return true;
+		}
+	};
+
+	private static boolean isExcluded(final ArgNode<State, Action> node) {
+		return node.ancestors().anyMatch(ArgNode::isSubsumed);
+	}
+
+	// Compare the incrementally maintained indexes with a traversal of the ARG
+	private static void assertConsistent(final ARG<State, Action> arg) {
+		assertTrue(arg.getNodes().allMatch(n -> n.isExcluded() == isExcluded(n)));
+		assertEquals(arg.getNodes().count(), arg.size());
+		if (arg.size() > 0) {
+			assertEquals(arg.getNodes().mapToInt(ArgNode::getDepth).max().getAsInt(), arg.getDepth());
+		}
+		assertEquals(arg.getNodes().filter(n -> n.isTarget() && !isExcluded(n)).collect(toSet()),
+				arg.getUnsafeNodes().collect(toSet()));
+		assertEquals(arg.getNodes().filter(n -> !n.isExpanded() && !isExcluded(n)).collect(toSet()),
+				arg.getIncompleteNodes().collect(toSet()));
+		assertEquals(arg.getNodes().filter(ArgNode::isCovered).collect(toSet()),
+				arg.getCoveredNodes().collect(toSet()));
+		assertEquals(arg.getNodes().allMatch(ArgNode::isSafe), arg.isSafe());
+		assertEquals(arg.isInitialized() && arg.getNodes().allMatch(ArgNode::isComplete), arg.isComplete());
+	}
+
+	@Test
+	public void testExpandCoverPrune() {
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		assertConsistent(arg);
+
+		final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+		arg.initialized = true;
+		assertConsistent(arg);
+		assertFalse(arg.isComplete());
+
+		final ArgNode<State, Action> n00 = arg.createSuccNode(n0, ACTION, new StateStub("00"), false);
+		final ArgNode<State, Action> n01 = arg.createSuccNode(n0, ACTION, new StateStub("01"), true);
+		n0.setExpanded(true);
+		assertConsistent(arg);
+		assertFalse(arg.isSafe());
+
+		final ArgNode<State, Action> n000 = arg.createSuccNode(n00, ACTION, new StateStub("000"), false);
+		final ArgNode<State, Action> n001 = arg.createSuccNode(n00, ACTION, new StateStub("001"), true);
+		n00.setExpanded(true);
+		n000.setExpanded(true);
+		assertConsistent(arg);
+		assertEquals(2, arg.getDepth());
+
+		n01.setCoveringNode(n000);
+		n001.setCoveringNode(n000);
+		assertConsistent(arg);
+		assertTrue(arg.isSafe());
+		assertTrue(arg.isComplete());
+
+		arg.prune(n00);
+		assertConsistent(arg);
+		assertEquals(2, arg.size());
+		assertEquals(1, arg.getDepth());
+		assertFalse(n01.isCovered());
+		assertFalse(n0.isExpanded());
+		assertFalse(arg.isSafe());
+
+		arg.prune(n0);
+		assertConsistent(arg);
+		assertEquals(0, arg.size());
+		assertFalse(arg.isInitialized());
+	}
+
+	@Test
+	public void testSubtreeExclusion() {
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+		arg.initialized = true;
+		final ArgNode<State, Action> n00 = arg.createSuccNode(n0, ACTION, new StateStub("00"), false);
+		final ArgNode<State, Action> n01 = arg.createSuccNode(n0, ACTION, new StateStub("01"), false);
+		n0.setExpanded(true);
+		final ArgNode<State, Action> n010 = arg.createSuccNode(n01, ACTION, new StateStub("010"), true);
+		final ArgNode<State, Action> n011 = arg.createSuccNode(n01, ACTION, new StateStub("011"), false);
+		n01.setExpanded(true);
+		assertConsistent(arg);
+		assertEquals(3, arg.getIncompleteNodes().count());
+
+		// Covering an inner node drops its subtree from the indexes
+		n01.setCoveringNode(n00);
+		assertConsistent(arg);
+		assertTrue(n010.isExcluded());
+		assertTrue(arg.isSafe());
+		assertEquals(1, arg.getIncompleteNodes().count());
+
+		// Nodes created below an excluded node are excluded
+		final ArgNode<State, Action> n0110 = arg.createSuccNode(n011, ACTION, new StateStub("0110"), true);
+		assertConsistent(arg);
+		assertTrue(n0110.isExcluded());
+
+		// Uncovering adds the subtree back
+		n01.unsetCoveringNode();
+		assertConsistent(arg);
+		assertFalse(arg.isSafe());
+		assertEquals(2, arg.getUnsafeNodes().count());
+
+		// Refining to an infeasible state excludes the subtree
+		n011.setState(BOTTOM);
+		assertConsistent(arg);
+		assertEquals(1, arg.getUnsafeNodes().count());
+
+		n011.setState(new StateStub("011"));
+		assertConsistent(arg);
+		assertEquals(2, arg.getUnsafeNodes().count());
+
+		// Clearing the covered nodes of a pruned node adds them back
+		n01.setCoveringNode(n00);
+		n00.setExpanded(true);
+		assertConsistent(arg);
+		assertTrue(arg.isComplete());
+		arg.prune(n00);
+		assertConsistent(arg);
+		assertFalse(n01.isCovered());
+		assertFalse(arg.isSafe());
+	}
+
+	@Test
+	public void testPruneAll() {
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		final ArgNode<State, Action> n0 = arg.createInitNode(new StateStub("0"), false);
+		final ArgNode<State, Action> n00 = arg.createSuccNode(n0, ACTION, new StateStub("00"), true);
+		n00.setCoveringNode(n0);
+		arg.pruneAll();
+
+		assertConsistent(arg);
+		assertEquals(0, arg.size());
+		assertEquals(0, arg.getCoveredNodes().count());
+
+		arg.createInitNode(new StateStub("1"), true);
+		assertConsistent(arg);
+		assertEquals(0, arg.getDepth());
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+/**
+ * Measures the heap overhead of ARG nodes (including their edges). All nodes
+ * share the same state and action, so only the structure of the ARG is
+ * measured. Not a unit test, run it with its main method, e.g., with
+ * -Xmx4g and an optional argument for the number of nodes.
+ */
+public final class ArgMemoryBenchmark {
+
+	private static final int BRANCHING = 3;
+
+	private ArgMemoryBenchmark() {
+	}
+
+	public static void main(final String[] args) {
+		final int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		final State state = new StateStub("s");
+		final Action action = new ActionStub("a");
+
+		final long before = usedMemory();
+		final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+		final List<ArgNode<State, Action>> frontier = new ArrayList<>();
+		frontier.add(arg.createInitNode(state, false));
+		int created = 1;
+		for (int i = 0; created < nodes; i++) {
+			final ArgNode<State, Action> node = frontier.get(i);
+			for (int j = 0; j < BRANCHING && created < nodes; j++) {
+				frontier.add(arg.createSuccNode(node, action, state, false));
+				created++;
+			}
+			node.setExpanded(true);
+		}
+		// Every tenth leaf is covered by the initial node
+		final ArgNode<State, Action> initNode = frontier.get(0);
+		for (int i = frontier.size() - 1; i >= 0 && frontier.get(i).isLeaf(); i -= 10) {
+			frontier.get(i).setCoveringNode(initNode);
+		}
+		frontier.clear();
+		final long after = usedMemory();
+
+		System.out.printf("Nodes: %d%n", arg.size());
+		System.out.printf("Bytes per node: %.1f%n", (double) (after - before) / arg.size());
+	}
+
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
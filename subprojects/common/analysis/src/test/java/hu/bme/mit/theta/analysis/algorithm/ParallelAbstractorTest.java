@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Analysis;
+import hu.bme.mit.theta.analysis.InitFunc;
+import hu.bme.mit.theta.analysis.LTS;
+import hu.bme.mit.theta.analysis.PartialOrd;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.algorithm.cegar.AbstractorResult;
+import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
+import hu.bme.mit.theta.analysis.algorithm.cegar.ParallelAbstractor;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+import hu.bme.mit.theta.analysis.waitlist.ConcurrentFifoWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.ConcurrentPriorityWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.analysis.waitlist.WorkStealingWaitlist;
+
+public class ParallelAbstractorTest {
+
+	private static final int DEPTH = 8;
+	private static final Action ACTION = new ActionStub("A");
+
+	// Complete binary tree of states, where the labels are the paths from the root
+	private static final class TreeAnalysis implements Analysis<State, Action, Prec> {
+		@Override
+		public PartialOrd<State> getPartialOrd() {
+			return new PartialOrdStub();
+		}
+
+		@Override
+		public InitFunc<State, Prec> getInitFunc() {
+			return prec -> ImmutableList.of(new StateStub(""));
+		}
+
+		@Override
+		public TransFunc<State, Action, Prec> getTransFunc() {
+			return (state, action, prec) -> {
+				final String label = state.toString();
+				if (label.length() == DEPTH) {
+					return Collections.emptyList();
+				}
+				return ImmutableList.of(new StateStub(label + "0"), new StateStub(label + "1"));
+			};
+		}
+	}
+
+	private static ArgBuilder<State, Action, Prec> createArgBuilder(final String targetLabel) {
+		final LTS<State, Action> lts = s -> ImmutableList.of(ACTION);
+		return ArgBuilder.create(lts, new TreeAnalysis(), s -> s.toString().equals(targetLabel));
+	}
+
+	private static List<ArgBuilder<State, Action, Prec>> createArgBuilders(final int threads, final String targetLabel) {
+		final List<ArgBuilder<State, Action, Prec>> argBuilders = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			argBuilders.add(createArgBuilder(targetLabel));
+		}
+		return argBuilders;
+	}
+
+	@Test
+	public void testFullExploration() {
+		final ParallelAbstractor<State, Action, Prec> abstractor = ParallelAbstractor
+				.builder(createArgBuilders(4, "none")).stopCriterion(StopCriterions.fullExploration()).build();
+		final ARG<State, Action> arg = abstractor.createArg();
+		final AbstractorResult result = abstractor.check(arg, new PrecStub());
+
+		assertTrue(result.isSafe());
+		assertTrue(arg.isComplete());
+		assertEquals((1 << (DEPTH + 1)) - 1, arg.size());
+		assertEquals(DEPTH, arg.getDepth());
+	}
+
+	@Test
+	public void testSameResultAsBasic() {
+		final String targetLabel = "1011";
+
+		final BasicAbstractor<State, Action, Prec> basicAbstractor = BasicAbstractor
+				.builder(createArgBuilder(targetLabel)).stopCriterion(StopCriterions.fullExploration()).build();
+		final ARG<State, Action> basicArg = basicAbstractor.createArg();
+		final AbstractorResult basicResult = basicAbstractor.check(basicArg, new PrecStub());
+
+		final ParallelAbstractor<State, Action, Prec> parallelAbstractor = ParallelAbstractor
+				.builder(createArgBuilders(3, targetLabel)).stopCriterion(StopCriterions.fullExploration()).build();
+		final ARG<State, Action> parallelArg = parallelAbstractor.createArg();
+		final AbstractorResult parallelResult = parallelAbstractor.check(parallelArg, new PrecStub());
+
+		assertTrue(basicResult.isUnsafe());
+		assertTrue(parallelResult.isUnsafe());
+		assertEquals(basicArg.size(), parallelArg.size());
+		assertEquals(1, parallelArg.getUnsafeNodes().count());
+		assertEquals(targetLabel, parallelArg.getUnsafeNodes().findFirst().get().getState().toString());
+	}
+
+	@Test
+	public void testFirstCex() {
+		final ParallelAbstractor<State, Action, Prec> abstractor = ParallelAbstractor
+				.builder(createArgBuilders(4, "0110")).build();
+		final ARG<State, Action> arg = abstractor.createArg();
+		final AbstractorResult result = abstractor.check(arg, new PrecStub());
+
+		assertTrue(result.isUnsafe());
+		final Collection<ArgNode<State, Action>> unsafeNodes = new ArrayList<>();
+		arg.getUnsafeNodes().forEach(unsafeNodes::add);
+		assertEquals(1, unsafeNodes.size());
+		assertTrue(arg.size() < (1 << (DEPTH + 1)) - 1);
+	}
+
+	@Test
+	public void testSharedFullExploration() {
+		final List<Waitlist<ArgNode<State, Action>>> waitlists = ImmutableList.of(ConcurrentFifoWaitlist.create(),
+				WorkStealingWaitlist.create(4),
+				ConcurrentPriorityWaitlist.create(Comparator.comparingInt(ArgNode::getDepth), 8));
+		for (final Waitlist<ArgNode<State, Action>> waitlist : waitlists) {
+			final ParallelAbstractor<State, Action, Prec> abstractor = ParallelAbstractor
+					.builder(createArgBuilders(4, "none")).waitlist(waitlist)
+					.stopCriterion(StopCriterions.fullExploration()).build();
+			final ARG<State, Action> arg = abstractor.createArg();
+			final AbstractorResult result = abstractor.check(arg, new PrecStub());
+
+			assertTrue(result.isSafe());
+			assertTrue(arg.isComplete());
+			assertEquals((1 << (DEPTH + 1)) - 1, arg.size());
+		}
+	}
+
+	@Test
+	public void testSharedFirstCex() {
+		final ParallelAbstractor<State, Action, Prec> abstractor = ParallelAbstractor
+				.builder(createArgBuilders(4, "0110")).waitlist(WorkStealingWaitlist.create(4)).build();
+		final ARG<State, Action> arg = abstractor.createArg();
+		final AbstractorResult result = abstractor.check(arg, new PrecStub());
+
+		assertTrue(result.isUnsafe());
+		assertEquals("0110", arg.getUnsafeNodes().findFirst().get().getState().toString());
+	}
+
+}
@@ -0,0 +1,171 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.portfolio.PortfolioChecker;
+import hu.bme.mit.theta.analysis.algorithm.portfolio.PortfolioStatistics;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+
+public class PortfolioCheckerTest {
+
+	private static SafetyResult<State, Action> safe() {
+		return SafetyResult.safe(ARG.create(new PartialOrdStub()));
+	}
+
+	private static SafetyResult<State, Action> unknown() {
+		return SafetyResult.unknown(ARG.create(new PartialOrdStub()));
+	}
+
+	@Test
+	public void testFirstResultWins() {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("slow", () -> {
+					try {
+						latch.await();
+					} catch (final InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+					return safe();
+				})
+				.add("fast", PortfolioCheckerTest::safe)
+				.build();
+
+		final SafetyResult<State, Action> result = checker.check(UnitPrec.getInstance());
+
+		assertTrue(result.isSafe());
+		assertEquals("fast", ((PortfolioStatistics) result.getStats().get()).getWinner());
+	}
+
+	@Test
+	public void testLosingMemberCancelledAndAwaited() {
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+		final AtomicBoolean stopped = new AtomicBoolean(false);
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("uninterruptible", () -> {
+					// Ignores thread interrupts, like a native solver call
+					while (!cancelled.get()) {
+						Thread.onSpinWait();
+					}
+					stopped.set(true);
+					return safe();
+				}, () -> cancelled.set(true))
+				.add("fast", PortfolioCheckerTest::safe)
+				.build();
+
+		final SafetyResult<State, Action> result = checker.check(UnitPrec.getInstance());
+
+		assertEquals("fast", ((PortfolioStatistics) result.getStats().get()).getWinner());
+		assertTrue(stopped.get());
+	}
+
+	@Test(timeout = 5000)
+	public void testStuckMemberLeftBehind() {
+		final AtomicBoolean released = new AtomicBoolean(false);
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("stuck", () -> {
+					// Ignores both thread interrupts and the cancellation hook
+					while (!released.get()) {
+						Thread.onSpinWait();
+					}
+					return safe();
+				})
+				.add("fast", PortfolioCheckerTest::safe)
+				.gracePeriod(100, TimeUnit.MILLISECONDS)
+				.build();
+
+		final SafetyResult<State, Action> result = checker.check(UnitPrec.getInstance());
+		released.set(true);
+
+		assertEquals("fast", ((PortfolioStatistics) result.getStats().get()).getWinner());
+	}
+
+	@Test
+	public void testFailingMemberIgnored() {
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("failing", () -> {
+					throw new UnsupportedOperationException();
+				})
+				.add("working", PortfolioCheckerTest::safe)
+				.build();
+
+		final SafetyResult<State, Action> result = checker.check(UnitPrec.getInstance());
+
+		assertEquals("working", ((PortfolioStatistics) result.getStats().get()).getWinner());
+	}
+
+	@Test
+	public void testUnknownMemberIgnored() {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("unknown", () -> {
+					latch.countDown();
+					return unknown();
+				})
+				.add("conclusive", () -> {
+					try {
+						latch.await();
+					} catch (final InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+					return safe();
+				})
+				.build();
+
+		final SafetyResult<State, Action> result = checker.check(UnitPrec.getInstance());
+
+		assertTrue(result.isSafe());
+		assertEquals("conclusive", ((PortfolioStatistics) result.getStats().get()).getWinner());
+	}
+
+	@Test
+	public void testAllMembersUnknown() {
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("unknown", PortfolioCheckerTest::unknown)
+				.add("failing", () -> {
+					throw new UnsupportedOperationException();
+				})
+				.build();
+
+		final SafetyResult<State, Action> result = checker.check(UnitPrec.getInstance());
+
+		assertTrue(result.isUnknown());
+		assertEquals("unknown", ((PortfolioStatistics) result.getStats().get()).getWinner());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAllMembersFail() {
+		final PortfolioChecker<State, Action> checker = PortfolioChecker.<State, Action>builder()
+				.add("failing", () -> {
+					throw new UnsupportedOperationException();
+				})
+				.build();
+		checker.check(UnitPrec.getInstance());
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class ExplCoverageFilterTest {
+
+	private final VarDecl<IntType> x = Var("x", Int());
+	private final VarDecl<IntType> y = Var("y", Int());
+	private final VarDecl<IntType> z = Var("z", Int());
+
+	// All states over x, y, z with values from {0, 1} or unassigned, and bottom
+	private List<ExplState> createStates() {
+		final List<ExplState> states = new ArrayList<>();
+		states.add(ExplState.bottom());
+		for (int i = 0; i < 27; i++) {
+			final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+			if (i % 3 < 2) builder.put(x, Int(i % 3));
+			if (i / 3 % 3 < 2) builder.put(y, Int(i / 3 % 3));
+			if (i / 9 < 2) builder.put(z, Int(i / 9));
+			states.add(ExplState.of(builder.build()));
+		}
+		return states;
+	}
+
+	@Test
+	public void testConservative() {
+		final ExplCoverageFilter filter = ExplCoverageFilter.getInstance();
+		final List<ExplState> states = createStates();
+		for (final ExplState coveree : states) {
+			for (final ExplState coverer : states) {
+				if (coveree.isLeq(coverer)) {
+					assertTrue(filter.mayCover(filter.getKey(coverer), filter.getCovereeKey(coveree)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testJoinConservative() {
+		final ExplCoverageFilter filter = ExplCoverageFilter.getInstance();
+		final List<ExplState> states = createStates();
+		for (final ExplState coverer1 : states) {
+			for (final ExplState coverer2 : states) {
+				final Long summary = filter.join(filter.getKey(coverer1), filter.getKey(coverer2));
+				for (final ExplState coveree : states) {
+					if (coveree.isLeq(coverer1) || coveree.isLeq(coverer2)) {
+						assertTrue(filter.mayCover(summary, filter.getCovereeKey(coveree)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFiltered() {
+		final ExplCoverageFilter filter = ExplCoverageFilter.getInstance();
+		final ExplState x0 = ExplState.of(ImmutableValuation.builder().put(x, Int(0)).build());
+		final ExplState x1 = ExplState.of(ImmutableValuation.builder().put(x, Int(1)).build());
+		assertFalse(filter.mayCover(filter.getKey(x0), filter.getKey(x1)));
+		assertFalse(filter.mayCover(filter.getKey(ExplState.bottom()), filter.getKey(x1)));
+		assertTrue(filter.mayCover(filter.getKey(x0), filter.getKey(ExplState.bottom())));
+	}
+
+}
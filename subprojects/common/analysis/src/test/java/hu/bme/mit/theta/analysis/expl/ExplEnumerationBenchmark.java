@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expl;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.stmt.Stmts.Assume;
+import static hu.bme.mit.theta.core.stmt.Stmts.Havoc;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+/**
+ * Measures the throughput of successor enumeration in the explicit domain,
+ * which is dominated by extracting models from the solver. Not a unit test,
+ * run it with its main method, optionally passing the number of iterations.
+ */
+public final class ExplEnumerationBenchmark {
+
+	private static final int[] MAX_ENUMS = {2, 10, 50};
+	private static final int VARS = 8;
+	private static final int BOUND = 10;
+	private static final int WARMUP_ROUNDS = 3;
+
+	private ExplEnumerationBenchmark() {
+	}
+
+	public static void main(final String[] args) {
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		final Solver solver = Z3SolverFactory.getInstance().createSolver();
+
+		final List<VarDecl<IntType>> vars = new ArrayList<>();
+		final List<Stmt> stmts = new ArrayList<>();
+		for (int i = 0; i < VARS; i++) {
+			final VarDecl<IntType> var = Var("x" + i, Int());
+			vars.add(var);
+			stmts.add(Havoc(var));
+			stmts.add(Assume(Geq(var.getRef(), Int(0))));
+			stmts.add(Assume(Leq(var.getRef(), Int(BOUND))));
+		}
+		final ExplPrec prec = ExplPrec.of(vars);
+
+		System.out.println("maxEnum,succ/s");
+		for (final int maxEnum : MAX_ENUMS) {
+			final ExplStmtTransFunc transFunc = ExplStmtTransFunc.create(solver, maxEnum);
+			long elapsed = 0;
+			long succs = 0;
+			for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+				succs = 0;
+				final long start = System.nanoTime();
+				for (int i = 0; i < iterations; i++) {
+					succs += transFunc.getSuccStates(ExplState.top(), stmts, prec).size();
+				}
+				elapsed = System.nanoTime() - start;
+			}
+			System.out.printf("%d,%.1f%n", maxEnum, succs * 1e9 / elapsed);
+		}
+	}
+
+}
@@ -74,6 +74,21 @@ public class ExplPrecTest {
 		Assert.assertSame(r3, pxy);
 	}
 
+	@Test
+	public void testAdaptState() {
+		final ExplPrec px = ExplPrec.of(Collections.singleton(x));
+		final ExplPrec pxy = ExplPrec.of(ImmutableSet.of(x, y));
+		final ExplState s = px.createState(ImmutableValuation.builder().put(x, Int(1)).build());
+
+		final ExplState adapted = pxy.adaptState(s);
+
+		Assert.assertSame(s, px.adaptState(s));
+		Assert.assertNotSame(s, adapted);
+		Assert.assertEquals(s, adapted);
+		Assert.assertSame(adapted, pxy.adaptState(adapted));
+		Assert.assertSame(ExplState.bottom(), pxy.adaptState(ExplState.bottom()));
+	}
+
 	@Test
 	public void testEquals() {
 		final ExplPrec p1 = ExplPrec.empty();
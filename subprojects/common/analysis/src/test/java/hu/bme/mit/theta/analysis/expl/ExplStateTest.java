@@ -24,6 +24,8 @@ import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -71,4 +73,29 @@ public class ExplStateTest {
 		Assert.assertEquals(And(Eq(x.getRef(), Int(1)), Eq(y.getRef(), Int(2))),
 				ExplState.of(ImmutableValuation.builder().put(x, Int(1)).put(y, Int(2)).build()).toExpr());
 	}
+
+	@Test
+	public void testCompact() {
+		final ExplPrec prec = ExplPrec.of(ImmutableList.of(x, y));
+		final ImmutableValuation val = ImmutableValuation.builder().put(x, Int(1)).put(y, Int(2)).build();
+		final ExplState compact = prec.createState(val);
+		final ExplState compactX = prec.createState(ImmutableValuation.builder().put(x, Int(1)).build());
+		final ExplState mapBased = ExplState.of(val);
+
+		Assert.assertEquals(mapBased, compact);
+		Assert.assertEquals(compact, mapBased);
+		Assert.assertEquals(mapBased.hashCode(), compact.hashCode());
+		Assert.assertEquals(compact, ExplPrec.of(ImmutableList.of(x, y)).createState(val));
+		Assert.assertEquals(mapBased.toExpr(), compact.toExpr());
+		Assert.assertEquals(mapBased.toString(), compact.toString());
+		Assert.assertEquals(Optional.of(Int(2)), compact.eval(y));
+		Assert.assertEquals(ImmutableList.of(x), ImmutableList.copyOf(compactX.getDecls()));
+
+		Assert.assertTrue(compact.isLeq(compactX));
+		Assert.assertFalse(compactX.isLeq(compact));
+		Assert.assertTrue(mapBased.isLeq(compactX));
+		Assert.assertTrue(compact.isLeq(ExplState.of(ImmutableValuation.builder().put(y, Int(2)).build())));
+		Assert.assertFalse(compact.isLeq(ExplState.bottom()));
+		Assert.assertSame(ExplState.top(), prec.createState(ImmutableValuation.empty()));
+	}
 }
@@ -37,6 +37,7 @@ import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 public class ExprStatesTest {
 
 	private final VarDecl<IntType> vx = Var("x", Int());
+	private final VarDecl<IntType> vy = Var("y", Int());
 	private final ExplPrec prec = ExplPrec.of(Collections.singleton(vx));
 	private final Solver solver = Z3SolverFactory.getInstance().createSolver();
 
@@ -61,4 +62,16 @@ public class ExprStatesTest {
 		Assert.assertEquals(4, ExprStates.createStatesForExpr(solver, expr, 0, prec::createState, idx, 0).size());
 		Assert.assertEquals(4, ExprStates.createStatesForExpr(solver, expr, 0, prec::createState, idx).size());
 	}
+
+	@Test
+	public void testProjected() {
+		final Expr<BoolType> expr = BoolExprs.And(Geq(vx.getRef(), Int(0)), Geq(Int(3), vx.getRef()),
+				Geq(vy.getRef(), vx.getRef()));
+		final VarIndexing idx = VarIndexing.all(0);
+
+		Assert.assertEquals(2, ExprStates.createStatesForExpr(solver, expr, 0, prec::createState, idx,
+				prec.getVars(), 2).size());
+		Assert.assertEquals(4, ExprStates.createStatesForExpr(solver, expr, 0, prec::createState, idx,
+				prec.getVars(), 0).size());
+	}
 }
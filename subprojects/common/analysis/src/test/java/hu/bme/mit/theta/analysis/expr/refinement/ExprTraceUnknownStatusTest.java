@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.ExprTraceUtils;
+import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+
+public final class ExprTraceUnknownStatusTest {
+
+	@Test
+	public void testUnknown() {
+		final StmtAction action = new StmtAction() {
+			@Override
+			public List<Stmt> getStmts() {
+				return ImmutableList.of(Stmts.Assume(True()));
+			}
+		};
+		final Trace<ExprState, StmtAction> trace = ExprTraceUtils.traceFrom(Arrays.asList(action, action));
+
+		final UnknownItpSolverStub solver = new UnknownItpSolverStub();
+		final List<ExprTraceChecker<?>> checkers = ImmutableList.of(
+				ExprTraceSeqItpChecker.create(True(), True(), solver),
+				ExprTraceFwBinItpChecker.create(True(), True(), solver),
+				ExprTraceBwBinItpChecker.create(True(), True(), solver),
+				ExprTraceUnsatCoreChecker.create(True(), True(), solver),
+				ExprTraceUCBChecker.create(True(), True(), solver),
+				ExprTraceNewtonChecker.create(True(), True(), solver).withoutIT().withSP().withoutLV());
+
+		for (final ExprTraceChecker<?> checker : checkers) {
+			final ExprTraceStatus<?> status = checker.check(trace);
+			assertTrue(checker + " should be unknown", status.isUnknown());
+			assertEquals(checker + " should restore the solver", 0, solver.nPush);
+		}
+	}
+
+	private static final class UnknownItpSolverStub implements ItpSolver {
+		private int nPush = 0;
+
+		@Override
+		public ItpPattern createPattern(final ItpMarker marker) {
+			return new ItpPatternStub(marker);
+		}
+
+		@Override
+		public ItpMarker createMarker() {
+			return new ItpMarker() {
+			};
+		}
+
+		@Override
+		public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+		}
+
+		@Override
+		public Interpolant getInterpolant(final ItpPattern pattern) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Collection<? extends ItpMarker> getMarkers() {
+			return ImmutableList.of();
+		}
+
+		@Override
+		public void add(final Expr<BoolType> assertion) {
+		}
+
+		@Override
+		public void track(final Expr<BoolType> assertion) {
+		}
+
+		@Override
+		public SolverStatus check() {
+			throw new UnknownSolverStatusException("Timeout");
+		}
+
+		@Override
+		public SolverStatus check(final long timeout, final TimeUnit unit) {
+			return SolverStatus.UNKNOWN;
+		}
+
+		@Override
+		public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+			throw new UnknownSolverStatusException("Timeout");
+		}
+
+		@Override
+		public Future<SolverStatus> checkAsync() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void push() {
+			++nPush;
+		}
+
+		@Override
+		public void pop(final int n) {
+			nPush -= n;
+		}
+
+		@Override
+		public void reset() {
+			nPush = 0;
+		}
+
+		@Override
+		public SolverStatus getStatus() {
+			return SolverStatus.UNKNOWN;
+		}
+
+		@Override
+		public Valuation getModel() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getUnsatCore() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getAssertions() {
+			return ImmutableList.of();
+		}
+	}
+
+	private static final class ItpPatternStub implements ItpPattern {
+		private final ItpMarker marker;
+
+		private ItpPatternStub(final ItpMarker marker) {
+			this.marker = marker;
+		}
+
+		@Override
+		public ItpMarker getMarker() {
+			return marker;
+		}
+
+		@Override
+		public ItpPattern getParent() {
+			return null;
+		}
+
+		@Override
+		public Collection<ItpPattern> getChildren() {
+			return ImmutableList.of();
+		}
+
+		@Override
+		public ItpPattern createChild(final ItpMarker marker) {
+			return new ItpPatternStub(marker);
+		}
+	}
+
+}
@@ -0,0 +1,228 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.analysis.Trace;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.algorithm.cegar.RefinerResult;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
+import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.common.logging.NullLogger;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.stmt.Stmts;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+public class MultiExprTraceRefinerTest {
+
+	private static final StmtAction ACTION = new StmtAction() {
+		@Override
+		public List<Stmt> getStmts() {
+			return ImmutableList.of(Stmts.Assume(True()));
+		}
+	};
+
+	private static final Refutation REFUTATION = () -> 1;
+
+	private static ExprState newState() {
+		return new ExprState() {
+			@Override
+			public Expr<BoolType> toExpr() {
+				return True();
+			}
+
+			@Override
+			public boolean isBottom() {
+				return false;
+			}
+		};
+	}
+
+	// ARG with an initial node and the given number of target successors, one counterexample each
+	private static final class Cexs {
+		private final ARG<ExprState, StmtAction> arg = ARG.create((s1, s2) -> false);
+		private final Map<ExprState, Integer> indexes;
+
+		private Cexs(final int n) {
+			this(n, new IdentityHashMap<>());
+		}
+
+		// Indexes can be shared, so that a checker recognizes the traces of several ARGs
+		private Cexs(final int n, final Map<ExprState, Integer> indexes) {
+			this.indexes = indexes;
+			final ArgNode<ExprState, StmtAction> init = arg.createInitNode(newState(), false);
+			for (int i = 0; i < n; i++) {
+				final ExprState state = newState();
+				indexes.put(state, i);
+				arg.createSuccNode(init, ACTION, state, true);
+			}
+		}
+
+		private int indexOf(final Trace<? extends ExprState, ?> trace) {
+			return indexes.get(trace.getStates().get(trace.getStates().size() - 1));
+		}
+	}
+
+	// Checker that computes the status of each trace from its index and records the started traces
+	private static final class CheckerStub implements ExprTraceChecker<Refutation> {
+		private final Cexs cexs;
+		private final IntFunction<ExprTraceStatus<Refutation>> statuses;
+		private final Set<Integer> started;
+		private final Set<Thread> threads;
+
+		private CheckerStub(final Cexs cexs, final IntFunction<ExprTraceStatus<Refutation>> statuses,
+							final Set<Integer> started, final Set<Thread> threads) {
+			this.cexs = cexs;
+			this.statuses = statuses;
+			this.started = started;
+			this.threads = threads;
+		}
+
+		@Override
+		public ExprTraceStatus<Refutation> check(final Trace<? extends ExprState, ? extends ExprAction> trace) {
+			final int i = cexs.indexOf(trace);
+			started.add(i);
+			threads.add(Thread.currentThread());
+			return statuses.apply(i);
+		}
+	}
+
+	private static MultiExprTraceRefiner<ExprState, StmtAction, PrecStub, Refutation> refiner(
+			final Cexs cexs, final int nCheckers, final IntFunction<ExprTraceStatus<Refutation>> statuses,
+			final Set<Integer> started, final Set<Thread> threads, final List<Integer> refinedTraces) {
+		final List<ExprTraceChecker<Refutation>> checkers = new ArrayList<>();
+		for (int i = 0; i < nCheckers; i++) {
+			checkers.add(new CheckerStub(cexs, statuses, started, threads));
+		}
+		return MultiExprTraceRefiner.create(checkers, (prec, trace, refutation) -> {
+			refinedTraces.add(cexs.indexOf(trace));
+			return prec;
+		}, PruneStrategy.LAZY, NullLogger.getInstance());
+	}
+
+	private static <T> Set<T> newSet() {
+		return ConcurrentHashMap.newKeySet();
+	}
+
+	private static ExprTraceStatus<Refutation> infeasible() {
+		return ExprTraceStatus.infeasible(REFUTATION);
+	}
+
+	@Test
+	public void testSameResultAsSequential() {
+		final IntFunction<ExprTraceStatus<Refutation>> statuses = i -> i == 3 ? ExprTraceStatus.feasible(null)
+				: infeasible();
+		for (final int nCheckers : new int[]{1, 3}) {
+			final Cexs cexs = new Cexs(6);
+			final Set<Integer> started = newSet();
+			final RefinerResult<ExprState, StmtAction, PrecStub> result = refiner(cexs, nCheckers, statuses,
+					started, newSet(), new ArrayList<>()).refine(cexs.arg, new PrecStub());
+
+			assertTrue(result.isUnsafe());
+			assertEquals(3, cexs.indexOf(result.asUnsafe().getCex()));
+			assertTrue(started.containsAll(ImmutableSet.of(0, 1, 2, 3)));
+		}
+	}
+
+	@Test
+	public void testRefutationsInOrder() {
+		final Cexs cexs = new Cexs(6);
+		final List<Integer> refinedTraces = Collections.synchronizedList(new ArrayList<>());
+		final RefinerResult<ExprState, StmtAction, PrecStub> result = refiner(cexs, 3, i -> infeasible(),
+				newSet(), newSet(), refinedTraces).refine(cexs.arg, new PrecStub());
+
+		assertTrue(result.isSpurious());
+		assertEquals(ImmutableList.of(0, 1, 2, 3, 4, 5), refinedTraces);
+	}
+
+	@Test
+	public void testNoTraceStartedAfterFeasible() {
+		final Cexs cexs = new Cexs(6);
+		final CountDownLatch feasibleFound = new CountDownLatch(1);
+		final IntFunction<ExprTraceStatus<Refutation>> statuses = i -> {
+			if (i == 1) {
+				feasibleFound.countDown();
+				return ExprTraceStatus.feasible(null);
+			}
+			try {
+				// Finish the first trace well after the feasible one is reported
+				feasibleFound.await();
+				Thread.sleep(100);
+			} catch (final InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			return infeasible();
+		};
+		final Set<Integer> started = newSet();
+		final RefinerResult<ExprState, StmtAction, PrecStub> result = refiner(cexs, 2, statuses, started,
+				newSet(), new ArrayList<>()).refine(cexs.arg, new PrecStub());
+
+		assertTrue(result.isUnsafe());
+		assertEquals(1, cexs.indexOf(result.asUnsafe().getCex()));
+		assertEquals(ImmutableSet.of(0, 1), started);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCheckerExceptionRethrown() {
+		final Cexs cexs = new Cexs(6);
+		final IntFunction<ExprTraceStatus<Refutation>> statuses = i -> {
+			if (i == 2) {
+				throw new IllegalStateException("Checker failed");
+			}
+			return infeasible();
+		};
+		refiner(cexs, 3, statuses, newSet(), newSet(), new ArrayList<>()).refine(cexs.arg, new PrecStub());
+	}
+
+	@Test
+	public void testThreadsReused() {
+		final Set<Thread> threads = newSet();
+		final Map<ExprState, Integer> indexes = new IdentityHashMap<>();
+		final List<Cexs> iterations = ImmutableList.of(new Cexs(6, indexes), new Cexs(6, indexes),
+				new Cexs(6, indexes));
+
+		final MultiExprTraceRefiner<ExprState, StmtAction, PrecStub, Refutation> refiner = refiner(iterations.get(0), 3,
+				i -> infeasible(), newSet(), threads, Collections.synchronizedList(new ArrayList<>()));
+		for (final Cexs cexs : iterations) {
+			assertTrue(refiner.refine(cexs.arg, new PrecStub()).isSpurious());
+		}
+
+		assertTrue(threads.size() <= 3);
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.expr.refinement;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.stmt.Stmts.Assign;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.expl.ExplOrd;
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplPrecChangeFilter;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.expr.StmtAction;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.stmt.Stmt;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class PrecChangeFiltersTest {
+
+	private final VarDecl<IntType> x = Var("x", Int());
+	private final VarDecl<IntType> y = Var("y", Int());
+	private final VarDecl<IntType> z = Var("z", Int());
+
+	private static StmtAction action(final Stmt stmt) {
+		return new StmtAction() {
+			@Override
+			public List<Stmt> getStmts() {
+				return ImmutableList.of(stmt);
+			}
+		};
+	}
+
+	@Test
+	public void testExplFilter() {
+		final ExplPrecChangeFilter filter = ExplPrecChangeFilter.create(Eq(x.getRef(), Int(0)));
+		final ExplPrec precY = ExplPrec.of(ImmutableSet.of(y));
+		final ExplPrec precXY = ExplPrec.of(ImmutableSet.of(x, y));
+		final ExplPrec precYZ = ExplPrec.of(ImmutableSet.of(y, z));
+		final ExplState y1 = ExplState.of(ImmutableValuation.builder().put(y, Int(1)).build());
+		final StmtAction assignX = action(Assign(x, Int(1)));
+
+		assertFalse(filter.isAffected(ExplState.top(), precY, precYZ));
+		assertTrue(filter.isAffected(ExplState.top(), precY, precXY));
+		assertFalse(filter.isAffected(y1, assignX, y1, precY, precYZ));
+		assertTrue(filter.isAffected(y1, assignX, y1, precY, precXY));
+	}
+
+	@Test
+	public void testAffectedNodes() {
+		final ExplPrecChangeFilter filter = ExplPrecChangeFilter.create(Eq(y.getRef(), Int(0)));
+		final ExplPrec oldPrec = ExplPrec.of(ImmutableSet.of(y));
+		final ExplPrec newPrec = ExplPrec.of(ImmutableSet.of(x, y));
+		final ExplState y0 = ExplState.of(ImmutableValuation.builder().put(y, Int(0)).build());
+
+		final ARG<ExplState, StmtAction> arg = ARG.create(ExplOrd.getInstance());
+		final ArgNode<ExplState, StmtAction> n0 = arg.createInitNode(y0, false);
+		final ArgNode<ExplState, StmtAction> n1 = arg.createSuccNode(n0, action(Assign(z, Int(1))), y0, false);
+		final ArgNode<ExplState, StmtAction> n2 = arg.createSuccNode(n0, action(Assign(x, Int(1))), y0, false);
+		arg.createSuccNode(n2, action(Assign(z, Int(2))), y0, false);
+		final ArgNode<ExplState, StmtAction> n4 = arg.createSuccNode(n1, action(Assign(x, Int(2))), y0, false);
+
+		final List<ArgNode<ExplState, StmtAction>> affectedNodes = PrecChangeFilters.getAffectedNodes(arg, filter,
+				oldPrec, newPrec);
+		assertEquals(ImmutableList.of(n2, n4), affectedNodes);
+
+		affectedNodes.forEach(arg::prune);
+		assertEquals(2, arg.size());
+		assertTrue(PrecChangeFilters.getAffectedNodes(arg, PrecChangeFilters.all(), oldPrec, oldPrec).isEmpty());
+		assertEquals(ImmutableList.of(n0), PrecChangeFilters.getAffectedNodes(arg, PrecChangeFilters.all(), oldPrec,
+				newPrec));
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.impl;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.TransFunc;
+import hu.bme.mit.theta.analysis.expl.ExplPrec;
+import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PrecStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class CachingTransFuncTest {
+
+	private final State s1 = new StateStub("s1");
+	private final State s2 = new StateStub("s2");
+	private final Action a = new ActionStub("a");
+	private final Prec p1 = new PrecStub();
+	private final Prec p2 = new PrecStub();
+
+	private static final class CountingTransFunc implements TransFunc<State, Action, Prec> {
+		private int calls = 0;
+
+		@Override
+		public Collection<? extends State> getSuccStates(final State state, final Action action, final Prec prec) {
+			calls++;
+			return ImmutableList.of(new StateStub(state + "'"));
+		}
+	}
+
+	@Test
+	public void testHit() {
+		final CountingTransFunc transFunc = new CountingTransFunc();
+		final CachingTransFunc<State, Action, Prec> cachingTransFunc = CachingTransFunc.create(transFunc, 10);
+
+		final Collection<? extends State> succ1 = cachingTransFunc.getSuccStates(s1, a, p1);
+		final Collection<? extends State> succ2 = cachingTransFunc.getSuccStates(s1, a, p1);
+		cachingTransFunc.getSuccStates(s1, a, p2);
+		cachingTransFunc.getSuccStates(s2, a, p1);
+
+		assertSame(succ1, succ2);
+		assertEquals(3, transFunc.calls);
+		assertEquals(1, cachingTransFunc.getHitCount());
+		assertEquals(3, cachingTransFunc.getMissCount());
+		assertEquals(3, cachingTransFunc.size());
+	}
+
+	@Test
+	public void testPrecProjection() {
+		final CountingTransFunc transFunc = new CountingTransFunc();
+		final CachingTransFunc<State, Action, Prec> cachingTransFunc = CachingTransFunc.create(transFunc,
+				(s, a, p) -> "relevant", 10);
+
+		cachingTransFunc.getSuccStates(s1, a, p1);
+		cachingTransFunc.getSuccStates(s1, a, p2);
+
+		assertEquals(1, transFunc.calls);
+		assertEquals(1, cachingTransFunc.getHitCount());
+	}
+
+	@Test
+	public void testAdaptExplSuccStates() {
+		final VarDecl<IntType> x = Var("x", Int());
+		final VarDecl<IntType> y = Var("y", Int());
+		final ExplPrec px = ExplPrec.of(Collections.singleton(x));
+		final ExplPrec pxy = ExplPrec.of(ImmutableSet.of(x, y));
+		final TransFunc<ExplState, Action, ExplPrec> transFunc = (s, a, p) -> ImmutableList
+				.of(p.createState(ImmutableValuation.builder().put(x, Int(1)).build()));
+		// Only x is relevant, so the refined precision gives a hit with a state of the old layout
+		final CachingTransFunc<ExplState, Action, ExplPrec> cachingTransFunc = CachingTransFunc.create(transFunc,
+				(s, a, p) -> p.getVars().contains(x), (s, p) -> p.adaptState(s), 10);
+
+		final ExplState succ1 = Iterables.getOnlyElement(cachingTransFunc.getSuccStates(ExplState.top(), a, px));
+		final ExplState succ2 = Iterables.getOnlyElement(cachingTransFunc.getSuccStates(ExplState.top(), a, pxy));
+		final ExplState succ3 = Iterables.getOnlyElement(cachingTransFunc.getSuccStates(ExplState.top(), a, pxy));
+
+		assertEquals(1, cachingTransFunc.getMissCount());
+		assertEquals(succ1, succ2);
+		assertNotSame(succ1, succ2);
+		assertSame(succ2, pxy.adaptState(succ2));
+		assertSame(succ2, succ3);
+	}
+
+	@Test
+	public void testEviction() {
+		final CountingTransFunc transFunc = new CountingTransFunc();
+		final CachingTransFunc<State, Action, Prec> cachingTransFunc = CachingTransFunc.create(transFunc, 1);
+
+		cachingTransFunc.getSuccStates(s1, a, p1);
+		cachingTransFunc.getSuccStates(s2, a, p1);
+		cachingTransFunc.getSuccStates(s1, a, p1);
+
+		assertEquals(3, transFunc.calls);
+		assertEquals(1, cachingTransFunc.size());
+		assertEquals(2, cachingTransFunc.getEvictionCount());
+	}
+
+}
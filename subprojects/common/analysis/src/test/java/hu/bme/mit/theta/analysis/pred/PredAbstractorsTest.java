@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.pred;
+
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.pred.PredAbstractors.PredAbstractor;
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.VarIndexing;
+import hu.bme.mit.theta.solver.SolverFactory;
+import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
+
+public class PredAbstractorsTest {
+	private final VarDecl<IntType> x = Var("x", Int());
+	private final VarDecl<IntType> y = Var("y", Int());
+	private final SolverFactory factory = Z3SolverFactory.getInstance();
+
+	private final PredPrec prec = PredPrec.of(ImmutableList.of(Gt(x.getRef(), Int(0)), Gt(y.getRef(), Int(0)),
+			Lt(x.getRef(), Int(5))));
+	private final Collection<Expr<BoolType>> exprs = ImmutableList.of(
+			Gt(x.getRef(), Int(2)),
+			And(Eq(x.getRef(), Int(1)), Lt(y.getRef(), Int(0))),
+			Gt(y.getRef(), x.getRef()),
+			And(Gt(x.getRef(), Int(0)), Lt(x.getRef(), Int(0))));
+
+	@Test
+	public void testBooleanSplit() {
+		assertSameStates(PredAbstractors.booleanSplitAbstractor(factory.createSolver()),
+				PredAbstractors.incrementalBooleanSplitAbstractor(factory.createSolver()));
+	}
+
+	@Test
+	public void testCartesian() {
+		assertSameStates(PredAbstractors.cartesianAbstractor(factory.createSolver()),
+				PredAbstractors.incrementalCartesianAbstractor(factory.createSolver()));
+	}
+
+	private void assertSameStates(final PredAbstractor expected, final PredAbstractor actual) {
+		// Repeat to check that the kept predicates do not interfere with later calls
+		for (int i = 0; i < 2; i++) {
+			for (final Expr<BoolType> expr : exprs) {
+				final Collection<PredState> expectedStates = expected.createStatesForExpr(expr, VarIndexing.all(0),
+						prec, VarIndexing.all(0));
+				final Collection<PredState> actualStates = actual.createStatesForExpr(expr, VarIndexing.all(0), prec,
+						VarIndexing.all(0));
+				Assert.assertEquals(new HashSet<>(expectedStates), new HashSet<>(actualStates));
+			}
+		}
+	}
+}
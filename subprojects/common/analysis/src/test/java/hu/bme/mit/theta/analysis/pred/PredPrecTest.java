@@ -16,12 +16,15 @@
 package hu.bme.mit.theta.analysis.pred;
 
 import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
 
 import java.util.Collections;
 
+import com.google.common.collect.ImmutableList;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -63,4 +66,32 @@ public class PredPrecTest {
 		Assert.assertNotEquals(p0, p2);
 		Assert.assertEquals(p1, p2);
 	}
+
+	@Test
+	public void testCreateState() {
+		final Expr<BoolType> pred2 = Eq(x.getRef(), y.getRef());
+		final PredPrec p1 = PredPrec.of(Collections.singleton(pred));
+		final PredPrec p2 = p1.join(PredPrec.of(Collections.singleton(pred2)));
+
+		final PredState s1 = p1.createState(ImmutableList.of(pred));
+		final PredState s2 = p2.createState(ImmutableList.of(pred));
+		final PredState s3 = p2.createState(ImmutableList.of(pred, Not(pred2)));
+		final PredState s4 = p2.createState(ImmutableList.of(Not(pred), Not(pred2)));
+
+		Assert.assertEquals(s1, s2);
+		Assert.assertEquals(PredState.of(pred), s1);
+		Assert.assertEquals(s1.hashCode(), PredState.of(pred).hashCode());
+		Assert.assertNotEquals(s2, s3);
+
+		Assert.assertTrue(s3.containsAll(s1));
+		Assert.assertFalse(s1.containsAll(s3));
+		Assert.assertTrue(s4.conflictsWith(s1));
+		Assert.assertFalse(s3.conflictsWith(s1));
+
+		// States that are not encoded with the same index can not be compared syntactically
+		final PredState s5 = PredPrec.of(Collections.singleton(pred)).createState(ImmutableList.of(pred));
+		Assert.assertEquals(s1, s5);
+		Assert.assertFalse(s5.containsAll(s1));
+		Assert.assertFalse(PredState.of(pred).containsAll(s1));
+	}
 }
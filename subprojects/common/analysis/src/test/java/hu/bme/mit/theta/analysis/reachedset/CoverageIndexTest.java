@@ -0,0 +1,149 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.reachedset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.State;
+import hu.bme.mit.theta.analysis.algorithm.ARG;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.stubs.ActionStub;
+import hu.bme.mit.theta.analysis.stubs.PartialOrdStub;
+import hu.bme.mit.theta.analysis.stubs.StateStub;
+
+public class CoverageIndexTest {
+
+	// States can only be covered by states with shorter or equal labels
+	private static final CoverageFilter<State, Integer> LENGTH_FILTER = new CoverageFilter<State, Integer>() {
+		@Override
+		public Integer getKey(final State state) {
+			return state.toString().length();
+		}
+
+		@Override
+		public boolean mayCover(final Integer covererKey, final Integer covereeKey) {
+			return covererKey <= covereeKey;
+		}
+	};
+
+	// Same as above, but the summary of a class is its shortest label
+	private static final JoinableCoverageFilter<State, Integer> JOINABLE_LENGTH_FILTER = new JoinableCoverageFilter<State, Integer>() {
+		@Override
+		public Integer getKey(final State state) {
+			return LENGTH_FILTER.getKey(state);
+		}
+
+		@Override
+		public boolean mayCover(final Integer covererKey, final Integer covereeKey) {
+			return LENGTH_FILTER.mayCover(covererKey, covereeKey);
+		}
+
+		@Override
+		public Integer join(final Integer covererKey1, final Integer covererKey2) {
+			return Math.min(covererKey1, covererKey2);
+		}
+	};
+
+	private final ARG<State, Action> arg = ARG.create(new PartialOrdStub());
+	private final Action action = new ActionStub("A");
+
+	@Test
+	public void testWithoutFilter() {
+		final CoverageIndex<State, Action> index = CoverageIndex.of(s -> s.toString().charAt(0));
+		final ArgNode<State, Action> a = arg.createInitNode(new StateStub("a"), false);
+		final ArgNode<State, Action> ab = arg.createSuccNode(a, action, new StateStub("ab"), false);
+		final ArgNode<State, Action> b = arg.createSuccNode(a, action, new StateStub("b"), false);
+		index.addAll(ImmutableList.of(a, ab, b));
+
+		assertEquals(ImmutableList.of(a, ab), index.getCandidates(ab));
+		assertEquals(ImmutableList.of(b), index.getCandidates(b));
+		assertEquals(0, index.getAvoidedChecks());
+	}
+
+	@Test
+	public void testWithFilter() {
+		final CoverageIndex<State, Action> index = CoverageIndex.of(s -> 0, LENGTH_FILTER);
+		index.observe(arg);
+		final ArgNode<State, Action> a = arg.createInitNode(new StateStub("a"), false);
+		final ArgNode<State, Action> ab = arg.createSuccNode(a, action, new StateStub("ab"), false);
+		final ArgNode<State, Action> abc = arg.createSuccNode(ab, action, new StateStub("abc"), false);
+		index.addAll(ImmutableList.of(a, ab, abc));
+
+		assertEquals(ImmutableList.of(a), index.getCandidates(a));
+		assertEquals(2, index.getAvoidedChecks());
+		assertEquals(ImmutableList.of(a, ab, abc), index.getCandidates(abc));
+		assertEquals(2, index.getAvoidedChecks());
+
+		// Keys are updated when the state of a node changes
+		abc.setState(new StateStub("c"));
+		final List<ArgNode<State, Action>> candidates = index.getCandidates(a);
+		assertEquals(ImmutableList.of(a, abc), candidates);
+		assertEquals(3, index.getAvoidedChecks());
+	}
+
+	@Test
+	public void testWithSummary() {
+		final CoverageIndex<State, Action> index = CoverageIndex.of(s -> 0, JOINABLE_LENGTH_FILTER);
+		index.observe(arg);
+		final ArgNode<State, Action> a = arg.createInitNode(new StateStub("a"), false);
+		final ArgNode<State, Action> ab = arg.createSuccNode(a, action, new StateStub("ab"), false);
+		final ArgNode<State, Action> abc = arg.createSuccNode(ab, action, new StateStub("abc"), false);
+		final ArgNode<State, Action> empty = arg.createSuccNode(a, action, new StateStub(""), false);
+		index.addAll(ImmutableList.of(a, ab, abc));
+
+		assertEquals(ImmutableList.of(a, ab), index.getCandidates(ab));
+		assertEquals(1, index.getAvoidedChecks());
+		assertEquals(0, index.getRejectedClasses());
+		assertEquals(ImmutableList.of(), index.getCandidates(empty));
+		assertEquals(4, index.getAvoidedChecks());
+		assertEquals(1, index.getRejectedClasses());
+
+		// The summary is recomputed when the state of a node changes
+		abc.setState(new StateStub(""));
+		assertEquals(ImmutableList.of(abc), index.getCandidates(empty));
+		assertEquals(6, index.getAvoidedChecks());
+		assertEquals(1, index.getRejectedClasses());
+	}
+
+	@Test
+	public void testJoinableCombinations() {
+		assertTrue(CoverageFilters.none() instanceof JoinableCoverageFilter);
+		assertTrue(CoverageFilters.lift((State s) -> s, JOINABLE_LENGTH_FILTER) instanceof JoinableCoverageFilter);
+		assertFalse(CoverageFilters.lift((State s) -> s, LENGTH_FILTER) instanceof JoinableCoverageFilter);
+		assertTrue(CoverageFilters.and(JOINABLE_LENGTH_FILTER, CoverageFilters.none())
+				instanceof JoinableCoverageFilter);
+		assertFalse(CoverageFilters.and(JOINABLE_LENGTH_FILTER, LENGTH_FILTER) instanceof JoinableCoverageFilter);
+
+		// Conjunctions of joinable filters are summarized
+		final CoverageIndex<State, Action> index = CoverageIndex.of(s -> 0,
+				CoverageFilters.and(JOINABLE_LENGTH_FILTER, CoverageFilters.none()));
+		final ArgNode<State, Action> ab = arg.createInitNode(new StateStub("ab"), false);
+		final ArgNode<State, Action> a = arg.createInitNode(new StateStub("a"), false);
+		index.add(ab);
+		assertEquals(ImmutableList.of(), index.getCandidates(a));
+		assertEquals(1, index.getRejectedClasses());
+	}
+
+}
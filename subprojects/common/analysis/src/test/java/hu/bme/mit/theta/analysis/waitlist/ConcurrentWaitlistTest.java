@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.waitlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class ConcurrentWaitlistTest {
+
+	private static final int THREADS = 4;
+	private static final int DEPTH = 12;
+
+	@Test
+	public void testFifo() throws InterruptedException {
+		testTermination(ConcurrentFifoWaitlist::create);
+	}
+
+	@Test
+	public void testWorkStealing() throws InterruptedException {
+		testTermination(() -> WorkStealingWaitlist.create(THREADS));
+	}
+
+	@Test
+	public void testPriority() throws InterruptedException {
+		testTermination(() -> ConcurrentPriorityWaitlist.create(Comparator.naturalOrder(), 2 * THREADS));
+	}
+
+	@Test
+	public void testPriorityRemovesAllItems() {
+		final ConcurrentWaitlist<Integer> waitlist = ConcurrentPriorityWaitlist.create(Comparator.naturalOrder(), 3);
+		for (int i = 0; i < 100; i++) {
+			waitlist.add(i);
+		}
+		assertEquals(100, waitlist.size());
+		int sum = 0;
+		while (!waitlist.isEmpty()) {
+			sum += waitlist.remove();
+		}
+		assertEquals(99 * 100 / 2, sum);
+		assertNull(waitlist.poll());
+		assertTrue(waitlist.isTerminated());
+	}
+
+	// Each item is the depth of a node in a complete binary tree, whose children are added by the workers
+	private static void testTermination(final Supplier<ConcurrentWaitlist<Integer>> waitlistFactory)
+			throws InterruptedException {
+		final ConcurrentWaitlist<Integer> waitlist = waitlistFactory.get();
+		final AtomicInteger processed = new AtomicInteger(0);
+		waitlist.add(0);
+
+		final List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			final Thread thread = new Thread(() -> {
+				Integer depth;
+				while ((depth = waitlist.take()) != null) {
+					processed.incrementAndGet();
+					if (depth < DEPTH) {
+						waitlist.add(depth + 1);
+						waitlist.add(depth + 1);
+					}
+					waitlist.done();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals((1 << (DEPTH + 1)) - 1, processed.get());
+		assertTrue(waitlist.isEmpty());
+		assertTrue(waitlist.isTerminated());
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Lt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BasicDbmTest {
+
+	private static final int CLOCKS = 6;
+	private static final int ROUNDS = 200;
+
+	@Test
+	public void testIncrementalAndMatchesClose() {
+		final Random random = new Random(0);
+		for (int r = 0; r < ROUNDS; r++) {
+			final BasicDbm dbm = new BasicDbm(CLOCKS + 1, BasicDbm::defaultBound);
+			dbm.up();
+			final BasicDbm expected = new BasicDbm(dbm);
+
+			for (int c = 0; c < 4 && dbm.isConsistent(); c++) {
+				final int[] constr = randomConstr(random);
+				dbm.and(constr[0], constr[1], constr[2]);
+				tighten(expected, constr);
+				expected.close();
+				assertEqualDbms(expected, dbm);
+			}
+		}
+	}
+
+	@Test
+	public void testBatchedAndMatchesClose() {
+		final Random random = new Random(1);
+		for (int r = 0; r < ROUNDS; r++) {
+			final BasicDbm dbm = new BasicDbm(CLOCKS + 1, BasicDbm::defaultBound);
+			dbm.nonnegative();
+			final BasicDbm expected = new BasicDbm(dbm);
+
+			final int[] constrs = new int[3 * (2 + random.nextInt(4))];
+			for (int c = 0; c < constrs.length; c += 3) {
+				System.arraycopy(randomConstr(random), 0, constrs, c, 3);
+			}
+			dbm.and(constrs);
+			for (int c = 0; c < constrs.length; c += 3) {
+				tighten(expected, new int[]{constrs[c], constrs[c + 1], constrs[c + 2]});
+			}
+			expected.close();
+			assertEqualDbms(expected, dbm);
+		}
+	}
+
+	@Test
+	public void testBatchedAndInconsistent() {
+		final BasicDbm dbm = new BasicDbm(3, BasicDbm::defaultBound);
+		dbm.nonnegative();
+		dbm.and(new int[]{1, 2, Leq(-1), 2, 0, Leq(3), 0, 1, Lt(-3)});
+		assertFalse(dbm.isConsistent());
+
+		final BasicDbm other = new BasicDbm(3, BasicDbm::defaultBound);
+		other.nonnegative();
+		other.and(new int[]{1, 2, Leq(-1), 2, 0, Leq(3), 0, 1, Leq(-2)});
+		assertTrue(other.isConsistent());
+		assertEquals(Leq(2), other.get(1, 0));
+		assertEquals(Leq(-2), other.get(0, 1));
+	}
+
+	@Test
+	public void testCopyOnWrite() {
+		final BasicDbm dbm = new BasicDbm(3, BasicDbm::defaultBound);
+		dbm.nonnegative();
+		final BasicDbm copy = new BasicDbm(dbm);
+		assertEquals(dbm, copy);
+
+		copy.and(1, 0, Leq(5));
+		assertEquals(Leq(5), copy.get(1, 0));
+		assertEquals(DiffBounds.Inf(), dbm.get(1, 0));
+		assertFalse(dbm.equals(copy));
+
+		dbm.and(1, 0, Leq(5));
+		assertEquals(copy, dbm);
+		assertEquals(copy.hashCode(), dbm.hashCode());
+	}
+
+	private static int[] randomConstr(final Random random) {
+		final int x = random.nextInt(CLOCKS + 1);
+		int y = random.nextInt(CLOCKS + 1);
+		if (x == y) {
+			y = (y + 1) % (CLOCKS + 1);
+		}
+		final int m = random.nextInt(20) - 10;
+		final int b = random.nextBoolean() ? Leq(m) : Lt(m);
+		return new int[]{x, y, b};
+	}
+
+	private static void tighten(final BasicDbm dbm, final int[] constr) {
+		if (constr[2] < dbm.get(constr[0], constr[1])) {
+			dbm.set(constr[0], constr[1], constr[2]);
+		}
+	}
+
+	private static void assertEqualDbms(final BasicDbm expected, final BasicDbm actual) {
+		assertEquals(expected.isConsistent(), actual.isConsistent());
+		if (expected.isConsistent()) {
+			for (int i = 0; i < expected.size(); i++) {
+				for (int j = 0; j < expected.size(); j++) {
+					assertEquals(expected.get(i, j), actual.get(i, j));
+				}
+			}
+		}
+	}
+
+}
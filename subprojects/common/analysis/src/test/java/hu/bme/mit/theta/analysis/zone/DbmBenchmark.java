@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Leq;
+import static hu.bme.mit.theta.analysis.zone.DiffBounds.Lt;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Measures the operations of the DBM kernel (closure, guards, delay and
+ * normalization) for different numbers of clocks. Not a unit test, run it with
+ * its main method, optionally passing the number of iterations.
+ */
+public final class DbmBenchmark {
+
+	private static final int[] CLOCKS = {4, 8, 16, 32, 64};
+	private static final int GUARD_SIZE = 4;
+	private static final int MAX_CONSTANT = 100;
+	private static final int WARMUP_ROUNDS = 3;
+
+	private static volatile boolean sink;
+
+	private DbmBenchmark() {
+	}
+
+	public static void main(final String[] args) {
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		System.out.println("clocks,operation,ns/op");
+		for (final int clocks : CLOCKS) {
+			final Random random = new Random(clocks);
+			final BasicDbm zone = randomZone(clocks, random);
+			final int[] guard = randomGuard(clocks, random);
+			final int[] diffGuard = diffGuard();
+			final int[] k = new int[clocks + 1];
+			for (int i = 1; i <= clocks; i++) {
+				k[i] = MAX_CONSTANT / 2;
+			}
+
+			measure(clocks, "close", iterations, zone, BasicDbm::close);
+			measure(clocks, "and", iterations, zone, dbm -> {
+				for (int c = 0; c < guard.length; c += 3) {
+					dbm.and(guard[c], guard[c + 1], guard[c + 2]);
+				}
+			});
+			measure(clocks, "and-batched", iterations, zone, dbm -> dbm.and(guard));
+			measure(clocks, "and-diff", iterations, zone, dbm -> {
+				for (int c = 0; c < diffGuard.length; c += 3) {
+					dbm.and(diffGuard[c], diffGuard[c + 1], diffGuard[c + 2]);
+				}
+			});
+			measure(clocks, "and-diff-batched", iterations, zone, dbm -> dbm.and(diffGuard));
+			measure(clocks, "up", iterations, zone, BasicDbm::up);
+			measure(clocks, "norm", iterations, zone, dbm -> dbm.norm(k));
+		}
+	}
+
+	private static void measure(final int clocks, final String name, final int iterations, final BasicDbm zone,
+								final Consumer<BasicDbm> operation) {
+		long elapsed = 0;
+		for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+			final long start = System.nanoTime();
+			for (int i = 0; i < iterations; i++) {
+				final BasicDbm dbm = new BasicDbm(zone);
+				operation.accept(dbm);
+				sink ^= dbm.isConsistent();
+			}
+			elapsed = System.nanoTime() - start;
+		}
+		System.out.printf("%d,%s,%.1f%n", clocks, name, (double) elapsed / iterations);
+	}
+
+	private static BasicDbm randomZone(final int clocks, final Random random) {
+		final BasicDbm dbm = new BasicDbm(clocks + 1, BasicDbm::defaultBound);
+		dbm.nonnegative();
+		for (int x = 1; x <= clocks; x++) {
+			dbm.and(x, 0, Leq(MAX_CONSTANT + random.nextInt(MAX_CONSTANT)));
+			dbm.and(0, x, Leq(-random.nextInt(MAX_CONSTANT / 4)));
+		}
+		return dbm;
+	}
+
+	private static int[] randomGuard(final int clocks, final Random random) {
+		final int[] guard = new int[3 * GUARD_SIZE];
+		for (int c = 0; c < guard.length; c += 3) {
+			guard[c] = 1 + random.nextInt(clocks);
+			guard[c + 1] = 0;
+			guard[c + 2] = Lt(MAX_CONSTANT / 2 + random.nextInt(MAX_CONSTANT / 2));
+		}
+		return guard;
+	}
+
+	// Bounds and differences of the first two clocks, sharing their pivots
+	private static int[] diffGuard() {
+		return new int[]{
+				1, 0, Leq(MAX_CONSTANT / 2), 0, 1, Leq(-MAX_CONSTANT / 4),
+				2, 0, Leq(MAX_CONSTANT / 2), 0, 2, Leq(-MAX_CONSTANT / 4),
+				1, 2, Leq(MAX_CONSTANT / 10), 2, 1, Leq(MAX_CONSTANT / 10)};
+	}
+
+}
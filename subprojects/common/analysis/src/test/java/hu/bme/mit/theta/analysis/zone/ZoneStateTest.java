@@ -0,0 +1,66 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.analysis.zone;
+
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Gt;
+import static hu.bme.mit.theta.core.clock.constr.ClockConstrs.Leq;
+import static hu.bme.mit.theta.core.decl.Decls.Var;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.decl.VarDecl;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+public class ZoneStateTest {
+
+	private final VarDecl<RatType> x = Var("x", Rat());
+	private final VarDecl<RatType> y = Var("y", Rat());
+	private final Collection<VarDecl<RatType>> clocks = ImmutableList.of(x, y);
+
+	@Test
+	public void testIntern() {
+		final ZoneState zone1 = ZoneState.zero(clocks).transform().up().and(Leq(x, 5)).build();
+		final ZoneState zone2 = ZoneState.zero(clocks).transform().up().and(Leq(y, 5)).build();
+		final ZoneState zone3 = zone1.project(clocks).build();
+
+		assertEquals(zone1, zone2);
+		assertEquals(zone1.hashCode(), zone2.hashCode());
+		assertSame(zone1.intern(), zone2.intern());
+		assertSame(zone1.intern(), zone3.intern());
+
+		final ZoneState other = zone1.transform().and(Gt(x, 1)).build();
+		assertNotEquals(zone1, other);
+		assertTrue(other.isLeq(zone1));
+	}
+
+	@Test
+	public void testBottomsAreEqual() {
+		final ZoneState bottom = ZoneState.zero(clocks).transform().and(Gt(x, 1)).build();
+		assertTrue(bottom.isBottom());
+		assertEquals(ZoneState.bottom(), bottom);
+		assertEquals(ZoneState.bottom().hashCode(), bottom.hashCode());
+	}
+
+}
@@ -39,7 +39,7 @@ public final class VarDecl<DeclType extends Type> extends Decl<DeclType> {
 		indexToConst = Containers.createMap();
 	}
 
-	public IndexedConstDecl<DeclType> getConstDecl(final int index) {
+	public synchronized IndexedConstDecl<DeclType> getConstDecl(final int index) {
 		checkArgument(index >= 0);
 		IndexedConstDecl<DeclType> constDecl = indexToConst.get(index);
 		if (constDecl == null) {
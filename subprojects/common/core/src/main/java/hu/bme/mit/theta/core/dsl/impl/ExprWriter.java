@@ -102,7 +102,6 @@ import hu.bme.mit.theta.core.type.rattype.RatNeqExpr;
 import hu.bme.mit.theta.core.type.rattype.RatPosExpr;
 import hu.bme.mit.theta.core.type.rattype.RatSubExpr;
 
-import java.util.Arrays;
 import java.util.stream.Collectors;
 
 public final class ExprWriter {
@@ -388,14 +387,7 @@ public final class ExprWriter {
 	}
 
 	private String bvLit(final BvLitExpr expr) {
-		var value = Arrays.toString(expr.getValue())
-			.replace("true", "1")
-			.replace("false", "0")
-			.replace("[", "")
-			.replace("]", "")
-			.replace(",", "")
-			.replace(" ", "");
-		return expr.getType().getSize() + "'b" + value;
+		return expr.toString();
 	}
 
 	private String arrayLit(final ArrayLitExpr<?, ?> expr) {
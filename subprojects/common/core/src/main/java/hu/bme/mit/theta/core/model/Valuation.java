@@ -18,6 +18,9 @@ package hu.bme.mit.theta.core.model;
 import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +44,22 @@ public abstract class Valuation implements Substitution {
 
 	public abstract Map<Decl<?>, LitExpr<?>> toMap();
 
+	/**
+	 * Evaluate multiple declarations at once. Declarations without a value are
+	 * not included in the result. Implementations can override this to
+	 * evaluate the declarations in bulk, e.g., for solver models.
+	 * @param decls Declarations to evaluate
+	 * @return Values of the declarations, in the order of the declarations
+	 */
+	public Map<Decl<?>, LitExpr<?>> evalAll(final Collection<? extends Decl<?>> decls) {
+		final Map<Decl<?>, LitExpr<?>> result = new LinkedHashMap<>();
+		for (final Decl<?> decl : decls) {
+			final Optional<? extends LitExpr<?>> value = eval(decl);
+			value.ifPresent(v -> result.put(decl, v));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
 	/**
 	 * Convert a valuation into an expression. For example if the valuation assigns
 	 * 1 to x and 2 to y, the expression is (x == 1 and y == 2).
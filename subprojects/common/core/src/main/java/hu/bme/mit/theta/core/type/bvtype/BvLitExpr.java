@@ -5,7 +5,6 @@ import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.NullaryExpr;
 import hu.bme.mit.theta.core.type.booltype.BoolLitExpr;
 import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
-import hu.bme.mit.theta.core.utils.BvUtils;
 
 import java.math.BigInteger;
 import java.util.Arrays;
@@ -13,43 +12,147 @@ import java.util.Arrays;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
-import static hu.bme.mit.theta.core.type.bvtype.BvExprs.Bv;
 import static hu.bme.mit.theta.core.type.bvtype.BvExprs.BvType;
-import static hu.bme.mit.theta.core.utils.BvUtils.bigIntegerToNeutralBvLitExpr;
-import static hu.bme.mit.theta.core.utils.BvUtils.bigIntegerToSignedBvLitExpr;
-import static hu.bme.mit.theta.core.utils.BvUtils.bigIntegerToUnsignedBvLitExpr;
-import static hu.bme.mit.theta.core.utils.BvUtils.fitBigIntegerIntoNeutralDomain;
-import static hu.bme.mit.theta.core.utils.BvUtils.fitBigIntegerIntoSignedDomain;
-import static hu.bme.mit.theta.core.utils.BvUtils.fitBigIntegerIntoUnsignedDomain;
-import static hu.bme.mit.theta.core.utils.BvUtils.neutralBvLitExprToBigInteger;
 import static hu.bme.mit.theta.core.utils.BvUtils.signedBvLitExprToBigInteger;
 import static hu.bme.mit.theta.core.utils.BvUtils.unsignedBvLitExprToBigInteger;
 
+/**
+ * Bitvector literal. The bits are packed into longs: bitvectors of at most 64
+ * bits are stored in a single long and their operations are performed on
+ * primitive values, wider bitvectors are stored as an array of words (least
+ * significant word first) and their arithmetic is performed on BigIntegers.
+ * Unused high bits are always zero.
+ */
 public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvType>, Comparable<BvLitExpr> {
 
     private static final int HASH_SEED = 5624;
     private volatile int hashCode = 0;
 
-    private final boolean[] value;
+    private final int size;
+    // Bits of the value if size <= 64
+    private final long bits;
+    // Words of the value if size > 64, null otherwise
+    private final long[] words;
 
-    private BvLitExpr(final boolean[] value) {
+    private BvLitExpr(final int size, final long bits, final long[] words) {
+        checkArgument(size > 0, "Bitvector must have positive size");
+        this.size = size;
+        this.bits = bits;
+        this.words = words;
+    }
+
+    /**
+     * Creates a bitvector from its bits, the most significant bit being the
+     * first element.
+     */
+    public static BvLitExpr of(final boolean[] value) {
         checkNotNull(value);
-        checkArgument(value.length > 0, "Bitvector must have positive size");
+        final int size = value.length;
+        if (size <= Long.SIZE) {
+            long bits = 0;
+            for (final boolean bit : value) {
+                bits = (bits << 1) | (bit ? 1 : 0);
+            }
+            return new BvLitExpr(size, bits, null);
+        } else {
+            final long[] words = new long[wordCount(size)];
+            for (int i = 0; i < size; i++) {
+                if (value[size - 1 - i]) {
+                    words[i >>> 6] |= 1L << i;
+                }
+            }
+            return new BvLitExpr(size, 0, words);
+        }
+    }
 
-        this.value = value;
+    /**
+     * Creates a bitvector of the given size representing the value modulo
+     * 2^size.
+     */
+    public static BvLitExpr of(final long value, final int size) {
+        if (size <= Long.SIZE) {
+            return new BvLitExpr(size, value & mask(size), null);
+        } else {
+            final long[] words = new long[wordCount(size)];
+            Arrays.fill(words, value < 0 ? -1L : 0L);
+            words[0] = value;
+            return new BvLitExpr(size, 0, maskTopWord(words, size));
+        }
     }
 
-    public static BvLitExpr of(final boolean[] value) {
-        return new BvLitExpr(value);
+    /**
+     * Creates a bitvector of the given size representing the value modulo
+     * 2^size.
+     */
+    public static BvLitExpr of(final BigInteger value, final int size) {
+        if (size <= Long.SIZE) {
+            return of(value.longValue(), size);
+        } else {
+            final long[] words = new long[wordCount(size)];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = value.shiftRight(i * Long.SIZE).longValue();
+            }
+            return new BvLitExpr(size, 0, maskTopWord(words, size));
+        }
+    }
+
+    private static int wordCount(final int size) {
+        return (size + Long.SIZE - 1) / Long.SIZE;
     }
 
+    private static long mask(final int size) {
+        return size >= Long.SIZE ? -1L : (1L << size) - 1;
+    }
+
+    private static long[] maskTopWord(final long[] words, final int size) {
+        words[words.length - 1] &= mask(size - (words.length - 1) * Long.SIZE);
+        return words;
+    }
+
+    /**
+     * Gets the bits of the bitvector, the most significant bit being the first
+     * element. The returned array is a copy.
+     */
     public boolean[] getValue() {
+        final boolean[] value = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            value[size - 1 - i] = testBit(i);
+        }
         return value;
     }
 
+    /**
+     * Gets the least significant 64 bits of the bitvector.
+     */
+    public long longValue() {
+        return words == null ? bits : words[0];
+    }
+
+    /**
+     * Gets the bits of the bitvector packed into longs, the least significant
+     * word being the first element. The returned array is a copy.
+     */
+    public long[] toLongArray() {
+        return words == null ? new long[]{bits} : words.clone();
+    }
+
+    private boolean testBit(final int i) {
+        final long word = words == null ? bits : words[i >>> 6];
+        return ((word >>> (i & (Long.SIZE - 1))) & 1) != 0;
+    }
+
+    private boolean isWide() {
+        return words != null;
+    }
+
+    // Sign extension of the bits to 64 bits, only for bitvectors of at most 64 bits
+    private long signedBits() {
+        return (bits << (Long.SIZE - size)) >> (Long.SIZE - size);
+    }
+
     @Override
     public BvType getType() {
-        return BvType(value.length);
+        return BvType(size);
     }
 
     @Override
@@ -58,14 +161,12 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
     }
 
     public BvLitExpr concat(final BvLitExpr that) {
-        boolean[] concated = new boolean[this.getType().getSize() + that.getType().getSize()];
-        for(int i = 0; i < this.getType().getSize(); i++) {
-            concated[i] = this.getValue()[i];
-        }
-        for(int i = 0; i < that.getType().getSize(); i++) {
-            concated[this.getType().getSize() + i] = that.getValue()[i];
+        final int concatSize = this.size + that.size;
+        if (concatSize <= Long.SIZE) {
+            return new BvLitExpr(concatSize, (this.bits << that.size) | that.bits, null);
         }
-        return Bv(concated);
+        return of(unsignedBvLitExprToBigInteger(this).shiftLeft(that.size).or(unsignedBvLitExprToBigInteger(that)),
+            concatSize);
     }
 
     public BvLitExpr extract(final IntLitExpr from, final IntLitExpr until) {
@@ -74,177 +175,196 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
         checkArgument(fromValue >= 0);
         checkArgument(untilValue >= 0);
         checkArgument(untilValue > fromValue);
+        checkArgument(untilValue <= size);
 
-        boolean[] extracted = new boolean[untilValue - fromValue];
-        for(int i = 0; i < extracted.length; i++) {
-            extracted[extracted.length - i - 1] = this.getValue()[this.getValue().length - (fromValue + i) - 1];
+        if (!isWide()) {
+            return of(bits >>> fromValue, untilValue - fromValue);
         }
-        return Bv(extracted);
+        return of(unsignedBvLitExprToBigInteger(this).shiftRight(fromValue), untilValue - fromValue);
     }
 
     public BvLitExpr zext(final BvType extendType) {
         checkArgument(extendType.getSize() >= this.getType().getSize());
 
-        boolean[] extended = new boolean[extendType.getSize()];
-        for(int i = 0; i < this.getValue().length; i++) {
-            extended[extended.length - i - 1] = this.getValue()[this.getValue().length - i - 1];
+        if (extendType.getSize() <= Long.SIZE) {
+            return new BvLitExpr(extendType.getSize(), bits, null);
         }
-        for(int i = 0; i < extendType.getSize() - this.getType().getSize(); i++) {
-            extended[i] = false;
-        }
-        return Bv(extended);
+        return of(unsignedBvLitExprToBigInteger(this), extendType.getSize());
     }
 
     public BvLitExpr sext(final BvType extendType) {
         checkArgument(extendType.getSize() >= this.getType().getSize());
 
-        boolean[] extended = new boolean[extendType.getSize()];
-        for(int i = 0; i < this.getValue().length; i++) {
-            extended[extended.length - i - 1] = this.getValue()[this.getValue().length - i - 1];
-        }
-        for(int i = 0; i < extendType.getSize() - this.getType().getSize(); i++) {
-            extended[i] = this.getValue()[0];
+        if (!isWide()) {
+            return of(signedBits(), extendType.getSize());
         }
-        return Bv(extended);
+        return of(signedBvLitExprToBigInteger(this), extendType.getSize());
     }
 
     public BvLitExpr add(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger sum = neutralBvLitExprToBigInteger(this).add(neutralBvLitExprToBigInteger(that));
-        sum = fitBigIntegerIntoNeutralDomain(sum, getType().getSize());
-        return bigIntegerToNeutralBvLitExpr(sum, getType().getSize());
+        if (!isWide()) {
+            return of(this.bits + that.bits, size);
+        }
+        return of(unsignedBvLitExprToBigInteger(this).add(unsignedBvLitExprToBigInteger(that)), size);
     }
 
     public BvLitExpr sub(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger sub = neutralBvLitExprToBigInteger(this).subtract(neutralBvLitExprToBigInteger(that));
-        sub = fitBigIntegerIntoNeutralDomain(sub, getType().getSize());
-        return bigIntegerToNeutralBvLitExpr(sub, getType().getSize());
+        if (!isWide()) {
+            return of(this.bits - that.bits, size);
+        }
+        return of(unsignedBvLitExprToBigInteger(this).subtract(unsignedBvLitExprToBigInteger(that)), size);
     }
 
     public BvLitExpr mul(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger prod = neutralBvLitExprToBigInteger(this).multiply(neutralBvLitExprToBigInteger(that));
-        prod = fitBigIntegerIntoNeutralDomain(prod, getType().getSize());
-        return bigIntegerToNeutralBvLitExpr(prod, getType().getSize());
+        if (!isWide()) {
+            return of(this.bits * that.bits, size);
+        }
+        return of(unsignedBvLitExprToBigInteger(this).multiply(unsignedBvLitExprToBigInteger(that)), size);
     }
 
     public BvLitExpr pos() {
-        BigInteger pos = signedBvLitExprToBigInteger(this);
-        pos = fitBigIntegerIntoSignedDomain(pos, getType().getSize());
-        return bigIntegerToSignedBvLitExpr(pos, getType().getSize());
+        return this;
     }
 
     public BvLitExpr neg() {
-        BigInteger neg = signedBvLitExprToBigInteger(this).negate();
-        neg = fitBigIntegerIntoSignedDomain(neg, getType().getSize());
-        return bigIntegerToSignedBvLitExpr(neg, getType().getSize());
+        if (!isWide()) {
+            return of(-bits, size);
+        }
+        return of(unsignedBvLitExprToBigInteger(this).negate(), size);
     }
 
     public BvLitExpr udiv(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger div = unsignedBvLitExprToBigInteger(this).divide(unsignedBvLitExprToBigInteger(that));
-        div = fitBigIntegerIntoUnsignedDomain(div, getType().getSize());
-        return bigIntegerToUnsignedBvLitExpr(div, getType().getSize());
+        if (!isWide()) {
+            return of(Long.divideUnsigned(this.bits, that.bits), size);
+        }
+        return of(unsignedBvLitExprToBigInteger(this).divide(unsignedBvLitExprToBigInteger(that)), size);
     }
 
     public BvLitExpr sdiv(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger div = signedBvLitExprToBigInteger(this).divide(signedBvLitExprToBigInteger(that));
-        div = fitBigIntegerIntoSignedDomain(div, getType().getSize());
-        return bigIntegerToSignedBvLitExpr(div, getType().getSize());
+        if (!isWide()) {
+            return of(this.signedBits() / that.signedBits(), size);
+        }
+        return of(signedBvLitExprToBigInteger(this).divide(signedBvLitExprToBigInteger(that)), size);
     }
 
     public BvLitExpr and(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger and = neutralBvLitExprToBigInteger(this).and(neutralBvLitExprToBigInteger(that));
-        return bigIntegerToNeutralBvLitExpr(and, getType().getSize());
+        if (!isWide()) {
+            return new BvLitExpr(size, this.bits & that.bits, null);
+        }
+        final long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = this.words[i] & that.words[i];
+        }
+        return new BvLitExpr(size, 0, result);
     }
 
     public BvLitExpr or(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger or = neutralBvLitExprToBigInteger(this).or(neutralBvLitExprToBigInteger(that));
-        return bigIntegerToNeutralBvLitExpr(or, getType().getSize());
+        if (!isWide()) {
+            return new BvLitExpr(size, this.bits | that.bits, null);
+        }
+        final long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = this.words[i] | that.words[i];
+        }
+        return new BvLitExpr(size, 0, result);
     }
 
     public BvLitExpr xor(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        BigInteger xor = neutralBvLitExprToBigInteger(this).xor(neutralBvLitExprToBigInteger(that));
-        return bigIntegerToNeutralBvLitExpr(xor, getType().getSize());
+        if (!isWide()) {
+            return new BvLitExpr(size, this.bits ^ that.bits, null);
+        }
+        final long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = this.words[i] ^ that.words[i];
+        }
+        return new BvLitExpr(size, 0, result);
     }
 
     public BvLitExpr not() {
-        BigInteger not = neutralBvLitExprToBigInteger(this).not();
-        return bigIntegerToNeutralBvLitExpr(not, getType().getSize());
+        if (!isWide()) {
+            return of(~bits, size);
+        }
+        final long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ~this.words[i];
+        }
+        return new BvLitExpr(size, 0, maskTopWord(result, size));
+    }
+
+    // Shift distance (interpreted as unsigned), saturated at the size of the bitvector
+    private int shiftDistance(final BvLitExpr that) {
+        if (!that.isWide()) {
+            return Long.compareUnsigned(that.bits, size) < 0 ? (int) that.bits : size;
+        }
+        final BigInteger distance = unsignedBvLitExprToBigInteger(that);
+        return distance.compareTo(BigInteger.valueOf(size)) < 0 ? distance.intValue() : size;
+    }
+
+    // Rotation distance (interpreted as unsigned), modulo the size of the bitvector
+    private int rotateDistance(final BvLitExpr that) {
+        if (!that.isWide()) {
+            return (int) Long.remainderUnsigned(that.bits, size);
+        }
+        return unsignedBvLitExprToBigInteger(that).mod(BigInteger.valueOf(size)).intValue();
     }
 
     public BvLitExpr shiftLeft(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-
-        boolean[] shifted = Arrays.copyOf(this.getValue(), this.getValue().length);
-        for(BigInteger i = BigInteger.ZERO; i.compareTo(neutralBvLitExprToBigInteger(that)) < 0; i = i.add(BigInteger.ONE)) {
-            for(int j = 0; j < shifted.length - 1; j++) {
-                shifted[j] = shifted[j + 1];
-            }
-            shifted[shifted.length - 1] = false;
+        final int distance = shiftDistance(that);
+        if (!isWide()) {
+            return distance == size ? of(0, size) : of(bits << distance, size);
         }
-        return Bv(shifted);
+        return of(unsignedBvLitExprToBigInteger(this).shiftLeft(distance), size);
     }
 
     public BvLitExpr arithShiftRight(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-
-        boolean[] shifted = Arrays.copyOf(this.getValue(), this.getValue().length);
-        boolean insert = shifted[0];
-        for(BigInteger i = BigInteger.ZERO; i.compareTo(neutralBvLitExprToBigInteger(that)) < 0; i = i.add(BigInteger.ONE)) {
-            for(int j = shifted.length - 1; j > 0; j--) {
-                shifted[j] = shifted[j - 1];
-            }
-            shifted[0] = insert;
+        final int distance = shiftDistance(that);
+        if (!isWide()) {
+            return of(signedBits() >> Math.min(distance, Long.SIZE - 1), size);
         }
-        return Bv(shifted);
+        return of(signedBvLitExprToBigInteger(this).shiftRight(distance), size);
     }
 
     public BvLitExpr logicShiftRight(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-
-        boolean[] shifted = Arrays.copyOf(this.getValue(), this.getValue().length);
-        boolean insert = false;
-        for(BigInteger i = BigInteger.ZERO; i.compareTo(neutralBvLitExprToBigInteger(that)) < 0; i = i.add(BigInteger.ONE)) {
-            for(int j = shifted.length - 1; j > 0; j--) {
-                shifted[j] = shifted[j - 1];
-            }
-            shifted[0] = insert;
+        final int distance = shiftDistance(that);
+        if (!isWide()) {
+            return distance == size ? of(0, size) : of(bits >>> distance, size);
         }
-        return Bv(shifted);
+        return of(unsignedBvLitExprToBigInteger(this).shiftRight(distance), size);
     }
 
     public BvLitExpr rotateLeft(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-
-        boolean[] shifted = Arrays.copyOf(this.getValue(), this.getValue().length);
-        for(BigInteger i = BigInteger.ZERO; i.compareTo(neutralBvLitExprToBigInteger(that)) < 0; i = i.add(BigInteger.ONE)) {
-            boolean rotated = shifted[0];
-            for(int j = 0; j < shifted.length - 1; j++) {
-                shifted[j] = shifted[j + 1];
-            }
-            shifted[shifted.length - 1] = rotated;
+        final int distance = rotateDistance(that);
+        if (distance == 0) {
+            return this;
+        } else if (!isWide()) {
+            return of((bits << distance) | (bits >>> (size - distance)), size);
         }
-        return Bv(shifted);
+        final BigInteger value = unsignedBvLitExprToBigInteger(this);
+        return of(value.shiftLeft(distance).or(value.shiftRight(size - distance)), size);
     }
 
     public BvLitExpr rotateRight(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-
-        boolean[] shifted = Arrays.copyOf(this.getValue(), this.getValue().length);
-        for(BigInteger i = BigInteger.ZERO; i.compareTo(neutralBvLitExprToBigInteger(that)) < 0; i = i.add(BigInteger.ONE)) {
-            boolean rotated = shifted[shifted.length - 1];
-            for(int j = shifted.length - 1; j > 0; j--) {
-                shifted[j] = shifted[j - 1];
-            }
-            shifted[0] = rotated;
+        final int distance = rotateDistance(that);
+        if (distance == 0) {
+            return this;
+        } else if (!isWide()) {
+            return of((bits >>> distance) | (bits << (size - distance)), size);
         }
-        return Bv(shifted);
+        final BigInteger value = unsignedBvLitExprToBigInteger(this);
+        return of(value.shiftRight(distance).or(value.shiftLeft(size - distance)), size);
     }
 
     public BvLitExpr smod(final BvLitExpr that) {
@@ -254,20 +374,26 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
         // 5 mod -3 = 2
         // -5 mod 3 = 1
         // -5 mod -3 = 1
+        if (!isWide() && that.signedBits() > 0) {
+            return of(Math.floorMod(this.signedBits(), that.signedBits()), size);
+        }
         BigInteger result = signedBvLitExprToBigInteger(this).mod(signedBvLitExprToBigInteger(that));
         if (result.compareTo(BigInteger.ZERO) < 0) {
             result = result.add(signedBvLitExprToBigInteger(that).abs());
         }
         assert result.compareTo(BigInteger.ZERO) >= 0;
-        return bigIntegerToSignedBvLitExpr(result, getType().getSize());
+        return of(result, size);
     }
 
     public BvLitExpr urem(final BvLitExpr that) {
         // Semantics:
         // 5 rem 3 = 2
+        if (!isWide() && that.signedBits() > 0) {
+            return of(Math.floorMod(this.signedBits(), that.signedBits()), size);
+        }
         BigInteger thisInt = signedBvLitExprToBigInteger(this);
         BigInteger thatInt = signedBvLitExprToBigInteger(that);
-        return bigIntegerToSignedBvLitExpr(thisInt.mod(thatInt), getType().getSize());
+        return of(thisInt.mod(thatInt), size);
     }
 
     public BvLitExpr srem(final BvLitExpr that) {
@@ -276,69 +402,73 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
         // 5 rem -3 = 2
         // -5 rem 3 = -1
         // -5 rem -3 = -1
-        BigInteger thisInt = BvUtils.signedBvLitExprToBigInteger(this);
-        BigInteger thatInt = BvUtils.signedBvLitExprToBigInteger(that);
+        if (!isWide()) {
+            // The remainder has the sign of the dividend, just like Java's remainder operator
+            return of(this.signedBits() % that.signedBits(), size);
+        }
+        BigInteger thisInt = signedBvLitExprToBigInteger(this);
+        BigInteger thatInt = signedBvLitExprToBigInteger(that);
         BigInteger thisAbs = thisInt.abs();
         BigInteger thatAbs = thatInt.abs();
         if (thisInt.compareTo(BigInteger.ZERO) < 0 && thatInt.compareTo(BigInteger.ZERO) < 0) {
-            return bigIntegerToSignedBvLitExpr(thisAbs.mod(thatAbs).negate(), getType().getSize());
+            return of(thisAbs.mod(thatAbs).negate(), size);
         } else if (thisInt.compareTo(BigInteger.ZERO) >= 0 && thatInt.compareTo(BigInteger.ZERO) < 0) {
-            return bigIntegerToSignedBvLitExpr(thisAbs.mod(thatAbs), getType().getSize());
+            return of(thisAbs.mod(thatAbs), size);
         } else if (thisInt.compareTo(BigInteger.ZERO) < 0 && thatInt.compareTo(BigInteger.ZERO) >= 0) {
-            return bigIntegerToSignedBvLitExpr(thisAbs.mod(thatAbs).negate(), getType().getSize());
+            return of(thisAbs.mod(thatAbs).negate(), size);
         } else {
-            return bigIntegerToSignedBvLitExpr(thisInt.mod(thatInt), getType().getSize());
+            return of(thisInt.mod(thatInt), size);
         }
     }
 
     public BoolLitExpr eq(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        return Bool(Arrays.equals(this.getValue(), that.getValue()));
+        return Bool(this.equals(that));
     }
 
     public BoolLitExpr neq(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        return Bool(!Arrays.equals(this.getValue(), that.getValue()));
+        return Bool(!this.equals(that));
     }
 
     public BoolLitExpr ult(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(unsignedBvLitExprToBigInteger(this).compareTo(unsignedBvLitExprToBigInteger(that)) < 0);
+        return Bool(this.compareTo(that) < 0);
     }
 
     public BoolLitExpr ule(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(unsignedBvLitExprToBigInteger(this).compareTo(unsignedBvLitExprToBigInteger(that)) <= 0);
+        return Bool(this.compareTo(that) <= 0);
     }
 
     public BoolLitExpr ugt(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(unsignedBvLitExprToBigInteger(this).compareTo(unsignedBvLitExprToBigInteger(that)) > 0);
+        return Bool(this.compareTo(that) > 0);
     }
 
     public BoolLitExpr uge(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(unsignedBvLitExprToBigInteger(this).compareTo(unsignedBvLitExprToBigInteger(that)) >= 0);
+        return Bool(this.compareTo(that) >= 0);
     }
 
     public BoolLitExpr slt(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(signedBvLitExprToBigInteger(this).compareTo(signedBvLitExprToBigInteger(that)) < 0);
+        return Bool(this.compareSigned(that) < 0);
     }
 
     public BoolLitExpr sle(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(signedBvLitExprToBigInteger(this).compareTo(signedBvLitExprToBigInteger(that)) <= 0);
+        return Bool(this.compareSigned(that) <= 0);
     }
 
     public BoolLitExpr sgt(final BvLitExpr that) {
-        checkArgument(this.getType().equals(that.getType()));
-        return Bool(signedBvLitExprToBigInteger(this).compareTo(signedBvLitExprToBigInteger(that)) > 0);
+        return Bool(this.compareSigned(that) > 0);
     }
 
     public BoolLitExpr sge(final BvLitExpr that) {
+        return Bool(this.compareSigned(that) >= 0);
+    }
+
+    private int compareSigned(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        return Bool(signedBvLitExprToBigInteger(this).compareTo(signedBvLitExprToBigInteger(that)) >= 0);
+        if (!isWide()) {
+            return Long.compare(this.signedBits(), that.signedBits());
+        }
+        return signedBvLitExprToBigInteger(this).compareTo(signedBvLitExprToBigInteger(that));
     }
 
     @Override
@@ -346,7 +476,8 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
         int result = hashCode;
         if (result == 0) {
             result = HASH_SEED;
-            result = 31 * result + Arrays.hashCode(value);
+            result = 31 * result + size;
+            result = 31 * result + (words == null ? Long.hashCode(bits) : Arrays.hashCode(words));
             hashCode = result;
         }
         return result;
@@ -358,7 +489,7 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
             return true;
         } else if (obj instanceof BvLitExpr) {
             final BvLitExpr that = (BvLitExpr) obj;
-            return Arrays.equals(this.value, that.value);
+            return this.size == that.size && this.bits == that.bits && Arrays.equals(this.words, that.words);
         } else {
             return false;
         }
@@ -367,10 +498,10 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
-        sb.append(getType().getSize());
+        sb.append(size);
         sb.append("'b");
-        for(boolean bit : value) {
-            sb.append(bit ? "1" : "0");
+        for (int i = size - 1; i >= 0; i--) {
+            sb.append(testBit(i) ? '1' : '0');
         }
         return sb.toString();
     }
@@ -378,6 +509,15 @@ public final class BvLitExpr extends NullaryExpr<BvType> implements LitExpr<BvTy
     @Override
     public int compareTo(final BvLitExpr that) {
         checkArgument(this.getType().equals(that.getType()));
-        return neutralBvLitExprToBigInteger(this).compareTo(neutralBvLitExprToBigInteger(that));
+        if (!isWide()) {
+            return Long.compareUnsigned(this.bits, that.bits);
+        }
+        for (int i = words.length - 1; i >= 0; i--) {
+            final int result = Long.compareUnsigned(this.words[i], that.words[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
     }
 }
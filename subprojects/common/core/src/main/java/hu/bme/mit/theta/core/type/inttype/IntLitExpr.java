@@ -17,7 +17,6 @@ package hu.bme.mit.theta.core.type.inttype;
 
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
-import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.LitExpr;
@@ -27,23 +26,74 @@ import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
 
 import java.math.BigInteger;
 
+/**
+ * Integer literal. Values that fit into a long are stored as a long and
+ * arithmetic on them is performed without allocating BigIntegers, falling
+ * back to BigInteger arithmetic on overflow. Frequently used small literals
+ * are cached.
+ */
 public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<IntType>, Comparable<IntLitExpr> {
 
 	private static final int HASH_SEED = 4111;
 	private volatile int hashCode = 0;
 
-	private final BigInteger value;
+	private static final int CACHE_LOW = -128;
+	private static final int CACHE_HIGH = 1024;
+	private static final IntLitExpr[] CACHE = new IntLitExpr[CACHE_HIGH - CACHE_LOW];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = new IntLitExpr(CACHE_LOW + i, null);
+		}
+	}
+
+	private final long smallValue;
+	// Null iff the value fits into a long
+	private final BigInteger bigValue;
 
-	private IntLitExpr(final BigInteger value) {
-		this.value = value;
+	private IntLitExpr(final long smallValue, final BigInteger bigValue) {
+		this.smallValue = smallValue;
+		this.bigValue = bigValue;
+	}
+
+	public static IntLitExpr of(final long value) {
+		if (CACHE_LOW <= value && value < CACHE_HIGH) {
+			return CACHE[(int) value - CACHE_LOW];
+		}
+		return new IntLitExpr(value, null);
 	}
 
 	public static IntLitExpr of(final BigInteger value) {
-		return new IntLitExpr(value);
+		if (value.bitLength() < Long.SIZE) {
+			return of(value.longValue());
+		}
+		return new IntLitExpr(0, value);
 	}
 
 	public BigInteger getValue() {
-		return value;
+		return bigValue == null ? BigInteger.valueOf(smallValue) : bigValue;
+	}
+
+	/**
+	 * Returns whether the value fits into a long.
+	 */
+	public boolean isLong() {
+		return bigValue == null;
+	}
+
+	/**
+	 * Gets the value as a long, throwing an ArithmeticException if it does not
+	 * fit.
+	 */
+	public long longValueExact() {
+		if (bigValue != null) {
+			throw new ArithmeticException("Integer literal out of long range: " + bigValue);
+		}
+		return smallValue;
+	}
+
+	public int sign() {
+		return bigValue == null ? Long.signum(smallValue) : bigValue.signum();
 	}
 
 	@Override
@@ -57,27 +107,58 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 	}
 
 	public RatLitExpr toRat() {
-		return Rat(this.value, 1);
+		return bigValue == null ? RatLitExpr.of(smallValue, 1) : RatLitExpr.of(bigValue, BigInteger.ONE);
 	}
 
 	public IntLitExpr add(final IntLitExpr that) {
-		return IntLitExpr.of(this.value.add(that.value));
+		if (this.isLong() && that.isLong()) {
+			try {
+				return IntLitExpr.of(Math.addExact(this.smallValue, that.smallValue));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
+		return IntLitExpr.of(this.getValue().add(that.getValue()));
 	}
 
 	public IntLitExpr sub(final IntLitExpr that) {
-		return IntLitExpr.of(this.value.subtract(that.value));
+		if (this.isLong() && that.isLong()) {
+			try {
+				return IntLitExpr.of(Math.subtractExact(this.smallValue, that.smallValue));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
+		return IntLitExpr.of(this.getValue().subtract(that.getValue()));
+	}
+
+	public IntLitExpr mul(final IntLitExpr that) {
+		if (this.isLong() && that.isLong()) {
+			try {
+				return IntLitExpr.of(Math.multiplyExact(this.smallValue, that.smallValue));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
+		return IntLitExpr.of(this.getValue().multiply(that.getValue()));
 	}
 
 	public IntLitExpr neg() {
-		return IntLitExpr.of(this.value.negate());
+		if (this.isLong() && this.smallValue != Long.MIN_VALUE) {
+			return IntLitExpr.of(-this.smallValue);
+		}
+		return IntLitExpr.of(this.getValue().negate());
 	}
 
 	public IntLitExpr pos() {
-		return IntLitExpr.of(this.value);
+		return this;
 	}
 
 	public IntLitExpr div(final IntLitExpr that) {
-		return IntLitExpr.of(this.value.divide(that.value));
+		if (this.isLong() && that.isLong() && !(this.smallValue == Long.MIN_VALUE && that.smallValue == -1)) {
+			return IntLitExpr.of(this.smallValue / that.smallValue);
+		}
+		return IntLitExpr.of(this.getValue().divide(that.getValue()));
 	}
 
 	public IntLitExpr mod(final IntLitExpr that) {
@@ -86,9 +167,14 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 		// 5 mod -3 = 2
 		// -5 mod 3 = 1
 		// -5 mod -3 = 1
-		var result = this.value.mod(that.value.abs());
+		if (this.isLong() && that.isLong() && that.smallValue != Long.MIN_VALUE) {
+			final long result = Math.floorMod(this.smallValue, Math.abs(that.smallValue));
+			assert result >= 0;
+			return IntLitExpr.of(result);
+		}
+		var result = this.getValue().mod(that.getValue().abs());
 		if (result.compareTo(BigInteger.ZERO) < 0) {
-			result = result.add(that.value.abs());
+			result = result.add(that.getValue().abs());
 		}
 		assert result.compareTo(BigInteger.ZERO) >= 0;
 		return IntLitExpr.of(result);
@@ -100,49 +186,70 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 		// 5 rem -3 = -2
 		// -5 rem 3 = 1
 		// -5 rem -3 = -1
-		final var thisAbs = this.value.abs();
-		final var thatAbs = that.value.abs();
-		if (this.value.compareTo(BigInteger.ZERO) < 0 && that.value.compareTo(BigInteger.ZERO) < 0) {
+		if (this.isLong() && that.isLong() && this.smallValue != Long.MIN_VALUE && that.smallValue != Long.MIN_VALUE) {
+			return IntLitExpr.of(remLong(this.smallValue, that.smallValue));
+		}
+		final var thisValue = this.getValue();
+		final var thatValue = that.getValue();
+		final var thisAbs = thisValue.abs();
+		final var thatAbs = thatValue.abs();
+		if (thisValue.compareTo(BigInteger.ZERO) < 0 && thatValue.compareTo(BigInteger.ZERO) < 0) {
 			var result = thisAbs.mod(thatAbs);
 			if (result.compareTo(BigInteger.ZERO) != 0) {
 				result = result.subtract(thatAbs);
 			}
-			return new IntLitExpr(result);
-		} else if (this.value.compareTo(BigInteger.ZERO) >= 0 && that.value.compareTo(BigInteger.ZERO) < 0) {
-			return new IntLitExpr(thisAbs.mod(thatAbs).negate());
-		} else if (this.value.compareTo(BigInteger.ZERO) < 0 && that.value.compareTo(BigInteger.ZERO) >= 0) {
+			return IntLitExpr.of(result);
+		} else if (thisValue.compareTo(BigInteger.ZERO) >= 0 && thatValue.compareTo(BigInteger.ZERO) < 0) {
+			return IntLitExpr.of(thisAbs.mod(thatAbs).negate());
+		} else if (thisValue.compareTo(BigInteger.ZERO) < 0 && thatValue.compareTo(BigInteger.ZERO) >= 0) {
 			var result = thisAbs.mod(thatAbs);
 			if (result.compareTo(BigInteger.ZERO) != 0) {
 				result = thatAbs.subtract(result);
 			}
 			return IntLitExpr.of(result);
 		} else {
-			return IntLitExpr.of(this.value.mod(that.value));
+			return IntLitExpr.of(thisValue.mod(thatValue));
+		}
+	}
+
+	private static long remLong(final long thisValue, final long thatValue) {
+		final long thisAbs = Math.abs(thisValue);
+		final long thatAbs = Math.abs(thatValue);
+		if (thisValue < 0 && thatValue < 0) {
+			final long result = thisAbs % thatAbs;
+			return result != 0 ? result - thatAbs : result;
+		} else if (thisValue >= 0 && thatValue < 0) {
+			return -(thisAbs % thatAbs);
+		} else if (thisValue < 0 && thatValue >= 0) {
+			final long result = thisAbs % thatAbs;
+			return result != 0 ? thatAbs - result : result;
+		} else {
+			return thisValue % thatValue;
 		}
 	}
 
 	public BoolLitExpr eq(final IntLitExpr that) {
-		return Bool(this.value.compareTo(that.value) == 0);
+		return Bool(this.compareTo(that) == 0);
 	}
 
 	public BoolLitExpr neq(final IntLitExpr that) {
-		return Bool(this.value.compareTo(that.value) != 0);
+		return Bool(this.compareTo(that) != 0);
 	}
 
 	public BoolLitExpr lt(final IntLitExpr that) {
-		return Bool(this.value.compareTo(that.value) < 0);
+		return Bool(this.compareTo(that) < 0);
 	}
 
 	public BoolLitExpr leq(final IntLitExpr that) {
-		return Bool(this.value.compareTo(that.value) <= 0);
+		return Bool(this.compareTo(that) <= 0);
 	}
 
 	public BoolLitExpr gt(final IntLitExpr that) {
-		return Bool(this.value.compareTo(that.value) > 0);
+		return Bool(this.compareTo(that) > 0);
 	}
 
 	public BoolLitExpr geq(final IntLitExpr that) {
-		return Bool(this.value.compareTo(that.value) >= 0);
+		return Bool(this.compareTo(that) >= 0);
 	}
 
 	@Override
@@ -150,7 +257,8 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 		int result = hashCode;
 		if (result == 0) {
 			result = HASH_SEED;
-			result = 31 * result + value.hashCode();
+			// The representation is canonical, so the hash is consistent with equals
+			result = 31 * result + (bigValue == null ? Long.hashCode(smallValue) : bigValue.hashCode());
 			hashCode = result;
 		}
 		return result;
@@ -162,7 +270,7 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 			return true;
 		} else if (obj instanceof IntLitExpr) {
 			final IntLitExpr that = (IntLitExpr) obj;
-			return this.getValue().compareTo(that.getValue()) == 0;
+			return this.compareTo(that) == 0;
 		} else {
 			return false;
 		}
@@ -170,11 +278,14 @@ public final class IntLitExpr extends NullaryExpr<IntType> implements LitExpr<In
 
 	@Override
 	public String toString() {
-		return getValue().toString();
+		return bigValue == null ? Long.toString(smallValue) : bigValue.toString();
 	}
 
 	@Override
 	public int compareTo(final IntLitExpr that) {
+		if (this.isLong() && that.isLong()) {
+			return Long.compare(this.smallValue, that.smallValue);
+		}
 		return this.getValue().compareTo(that.getValue());
 	}
 
@@ -19,7 +19,6 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 
-import java.math.BigInteger;
 import java.util.List;
 
 import hu.bme.mit.theta.core.model.Valuation;
@@ -50,12 +49,12 @@ public final class IntMulExpr extends MulExpr<IntType> {
 
 	@Override
 	public IntLitExpr eval(final Valuation val) {
-		var prod = BigInteger.ONE;
+		var prod = Int(1);
 		for (final Expr<IntType> op : getOps()) {
 			final IntLitExpr opVal = (IntLitExpr) op.eval(val);
-			prod = prod.multiply(opVal.getValue());
+			prod = prod.mul(opVal);
 		}
-		return Int(prod);
+		return prod;
 	}
 
 	@Override
@@ -19,7 +19,6 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 import static hu.bme.mit.theta.core.utils.TypeUtils.cast;
 
-import java.math.BigInteger;
 import java.util.List;
 
 import hu.bme.mit.theta.core.model.Valuation;
@@ -50,18 +49,12 @@ public final class RatAddExpr extends AddExpr<RatType> {
 
 	@Override
 	public RatLitExpr eval(final Valuation val) {
-		var sumNum = BigInteger.ZERO;
-		var sumDenom = BigInteger.ONE;
+		var sum = Rat(0, 1);
 		for (final Expr<RatType> op : getOps()) {
 			final RatLitExpr opLit = (RatLitExpr) op.eval(val);
-			final var leftNum = sumNum;
-			final var leftDenom = sumDenom;
-			final var rightNum = opLit.getNum();
-			final var rightDenom = opLit.getDenom();
-			sumNum = leftNum.multiply(rightDenom).add(leftDenom.multiply(rightNum));
-			sumDenom = leftDenom.multiply(rightDenom);
+			sum = sum.add(opLit);
 		}
-		return Rat(sumNum, sumDenom);
+		return sum;
 	}
 
 	@Override
@@ -23,34 +23,99 @@ import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
 
 import java.math.BigInteger;
 
+import com.google.common.math.LongMath;
+
 import static com.google.common.base.Preconditions.checkArgument;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
 import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 
+/**
+ * Rational literal in normalized form. If both the numerator and the
+ * denominator fit into a long (excluding Long.MIN_VALUE), they are stored as
+ * longs and arithmetic is performed without allocating BigIntegers, falling
+ * back to BigInteger arithmetic on overflow. Small integer values are cached.
+ */
 public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<RatType>, Comparable<RatLitExpr> {
 
 	private static final int HASH_SEED = 149;
 
-	private final BigInteger num;
-	private final BigInteger denom;
+	private static final int CACHE_LOW = -128;
+	private static final int CACHE_HIGH = 128;
+	private static final RatLitExpr[] CACHE = new RatLitExpr[CACHE_HIGH - CACHE_LOW];
+
+	static {
+		for (int i = 0; i < CACHE.length; i++) {
+			CACHE[i] = new RatLitExpr(CACHE_LOW + i, 1, null, null);
+		}
+	}
+
+	private final long smallNum;
+	private final long smallDenom;
+	// Both null iff the numerator and the denominator fit into longs
+	private final BigInteger bigNum;
+	private final BigInteger bigDenom;
 
 	private volatile int hashCode = 0;
 
-	private RatLitExpr(final BigInteger num, final BigInteger denom) {
+	private RatLitExpr(final long smallNum, final long smallDenom, final BigInteger bigNum,
+					   final BigInteger bigDenom) {
+		this.smallNum = smallNum;
+		this.smallDenom = smallDenom;
+		this.bigNum = bigNum;
+		this.bigDenom = bigDenom;
+	}
+
+	public static RatLitExpr of(final long num, final long denom) {
+		checkArgument(denom != 0);
+		if (num == Long.MIN_VALUE || denom == Long.MIN_VALUE) {
+			return of(BigInteger.valueOf(num), BigInteger.valueOf(denom));
+		}
+
+		final long gcd = LongMath.gcd(Math.abs(num), Math.abs(denom));
+		if (denom > 0) {
+			return ofNormalized(num / gcd, denom / gcd);
+		} else {
+			return ofNormalized(-num / gcd, -denom / gcd);
+		}
+	}
+
+	public static RatLitExpr of(final BigInteger num, final BigInteger denom) {
 		checkArgument(denom.compareTo(BigInteger.ZERO) != 0);
+		if (isSmall(num) && isSmall(denom)) {
+			return of(num.longValue(), denom.longValue());
+		}
 
 		final var gcd = num.abs().gcd(denom.abs());
+		final BigInteger normNum;
+		final BigInteger normDenom;
 		if (denom.compareTo(BigInteger.ZERO) >= 0) {
-			this.num = num.divide(gcd);
-			this.denom = denom.divide(gcd);
+			normNum = num.divide(gcd);
+			normDenom = denom.divide(gcd);
 		} else {
-			this.num = num.divide(gcd).negate();
-			this.denom = denom.divide(gcd).negate();
+			normNum = num.divide(gcd).negate();
+			normDenom = denom.divide(gcd).negate();
+		}
+
+		if (isSmall(normNum) && isSmall(normDenom)) {
+			return ofNormalized(normNum.longValue(), normDenom.longValue());
+		} else {
+			return new RatLitExpr(0, 0, normNum, normDenom);
 		}
 	}
 
-	public static RatLitExpr of(final BigInteger num, final BigInteger denom) {
-		return new RatLitExpr(num, denom);
+	private static RatLitExpr ofNormalized(final long num, final long denom) {
+		if (denom == 1 && CACHE_LOW <= num && num < CACHE_HIGH) {
+			return CACHE[(int) num - CACHE_LOW];
+		}
+		return new RatLitExpr(num, denom, null, null);
+	}
+
+	private static boolean isSmall(final BigInteger value) {
+		return value.bitLength() < Long.SIZE && value.longValue() != Long.MIN_VALUE;
+	}
+
+	private boolean isSmall() {
+		return bigNum == null;
 	}
 
 	@Override
@@ -64,85 +129,124 @@ public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<Ra
 	}
 
 	public BigInteger getNum() {
-		return num;
+		return isSmall() ? BigInteger.valueOf(smallNum) : bigNum;
 	}
 
 	public BigInteger getDenom() {
-		return denom;
+		return isSmall() ? BigInteger.valueOf(smallDenom) : bigDenom;
 	}
 
 	public int sign() {
-		return num.signum();
+		return isSmall() ? Long.signum(smallNum) : bigNum.signum();
 	}
 
 	public BigInteger floor() {
-		if (num.compareTo(BigInteger.ZERO) >= 0 || num.mod(denom).compareTo(BigInteger.ZERO) == 0) {
-			return num.divide(denom);
+		if (isSmall()) {
+			return BigInteger.valueOf(Math.floorDiv(smallNum, smallDenom));
+		}
+		if (bigNum.compareTo(BigInteger.ZERO) >= 0 || bigNum.mod(bigDenom).compareTo(BigInteger.ZERO) == 0) {
+			return bigNum.divide(bigDenom);
 		} else {
-			return num.divide(denom).subtract(BigInteger.ONE);
+			return bigNum.divide(bigDenom).subtract(BigInteger.ONE);
 		}
 	}
 
 	public BigInteger ceil() {
-		if (num.compareTo(BigInteger.ZERO) <= 0 || num.mod(denom).compareTo(BigInteger.ZERO) == 0) {
-			return num.divide(denom);
+		if (isSmall()) {
+			return BigInteger.valueOf(-Math.floorDiv(-smallNum, smallDenom));
+		}
+		if (bigNum.compareTo(BigInteger.ZERO) <= 0 || bigNum.mod(bigDenom).compareTo(BigInteger.ZERO) == 0) {
+			return bigNum.divide(bigDenom);
 		} else {
-			return num.divide(denom).add(BigInteger.ONE);
+			return bigNum.divide(bigDenom).add(BigInteger.ONE);
 		}
 	}
 
 	public RatLitExpr add(final RatLitExpr that) {
+		if (this.isSmall() && that.isSmall()) {
+			try {
+				if (this.smallDenom == that.smallDenom) {
+					return RatLitExpr.of(Math.addExact(this.smallNum, that.smallNum), this.smallDenom);
+				}
+				return RatLitExpr.of(Math.addExact(Math.multiplyExact(this.smallNum, that.smallDenom),
+						Math.multiplyExact(this.smallDenom, that.smallNum)),
+						Math.multiplyExact(this.smallDenom, that.smallDenom));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
 		return RatLitExpr.of(this.getNum().multiply(that.getDenom()).add(this.getDenom().multiply(that.getNum())),
 				this.getDenom().multiply(that.getDenom()));
 	}
 
 	public RatLitExpr sub(final RatLitExpr that) {
-		return RatLitExpr.of(this.getNum().multiply(that.getDenom()).subtract(this.getDenom().multiply(that.getNum())),
-				this.getDenom().multiply(that.getDenom()));
+		return add(that.neg());
 	}
 
 	public RatLitExpr pos() {
-		return RatLitExpr.of(this.getNum(), this.getDenom());
+		return this;
 	}
 
 	public RatLitExpr neg() {
-		return RatLitExpr.of(this.getNum().negate(), this.getDenom());
+		if (isSmall()) {
+			return ofNormalized(-smallNum, smallDenom);
+		}
+		return RatLitExpr.of(bigNum.negate(), bigDenom);
 	}
 
 	public RatLitExpr mul(final RatLitExpr that) {
+		if (this.isSmall() && that.isSmall()) {
+			try {
+				return RatLitExpr.of(Math.multiplyExact(this.smallNum, that.smallNum),
+						Math.multiplyExact(this.smallDenom, that.smallDenom));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
 		return RatLitExpr.of(this.getNum().multiply(that.getNum()), this.getDenom().multiply(that.getDenom()));
 	}
 
 	public RatLitExpr div(final RatLitExpr that) {
+		if (this.isSmall() && that.isSmall()) {
+			try {
+				return RatLitExpr.of(Math.multiplyExact(this.smallNum, that.smallDenom),
+						Math.multiplyExact(this.smallDenom, that.smallNum));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
 		return RatLitExpr.of(this.getNum().multiply(that.getDenom()), this.getDenom().multiply(that.getNum()));
 	}
 
 	public BoolLitExpr eq(final RatLitExpr that) {
-		return Bool(this.getNum().compareTo(that.getNum()) == 0 && this.getDenom().compareTo(that.getDenom()) == 0);
+		return Bool(this.equals(that));
 	}
 
 	public BoolLitExpr neq(final RatLitExpr that) {
-		return Bool(this.getNum().compareTo(that.getNum()) != 0 || this.getDenom().compareTo(that.getDenom()) != 0);
+		return Bool(!this.equals(that));
 	}
 
 	public BoolLitExpr lt(final RatLitExpr that) {
-		return Bool(this.getNum().multiply(that.getDenom()).compareTo(this.getDenom().multiply(that.getNum())) < 0);
+		return Bool(this.compareTo(that) < 0);
 	}
 
 	public BoolLitExpr leq(final RatLitExpr that) {
-		return Bool(this.getNum().multiply(that.getDenom()).compareTo(this.getDenom().multiply(that.getNum())) <= 0);
+		return Bool(this.compareTo(that) <= 0);
 	}
 
 	public BoolLitExpr gt(final RatLitExpr that) {
-		return Bool(this.getNum().multiply(that.getDenom()).compareTo(this.getDenom().multiply(that.getNum())) > 0);
+		return Bool(this.compareTo(that) > 0);
 	}
 
 	public BoolLitExpr geq(final RatLitExpr that) {
-		return Bool(this.getNum().multiply(that.getDenom()).compareTo(this.getDenom().multiply(that.getNum())) >= 0);
+		return Bool(this.compareTo(that) >= 0);
 	}
 
 	public RatLitExpr abs() {
-		return RatLitExpr.of(num.abs(), denom);
+		if (isSmall()) {
+			return smallNum < 0 ? neg() : this;
+		}
+		return RatLitExpr.of(bigNum.abs(), bigDenom);
 	}
 
 	public RatLitExpr frac() {
@@ -154,8 +258,14 @@ public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<Ra
 		int result = hashCode;
 		if (result == 0) {
 			result = HASH_SEED;
-			result = 31 * result + num.hashCode();
-			result = 31 * result + denom.hashCode();
+			// The representation is canonical, so the hash is consistent with equals
+			if (isSmall()) {
+				result = 31 * result + Long.hashCode(smallNum);
+				result = 31 * result + Long.hashCode(smallDenom);
+			} else {
+				result = 31 * result + bigNum.hashCode();
+				result = 31 * result + bigDenom.hashCode();
+			}
 			hashCode = result;
 		}
 		return hashCode;
@@ -167,6 +277,9 @@ public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<Ra
 			return true;
 		} else if (obj instanceof RatLitExpr) {
 			final RatLitExpr that = (RatLitExpr) obj;
+			if (this.isSmall() && that.isSmall()) {
+				return this.smallNum == that.smallNum && this.smallDenom == that.smallDenom;
+			}
 			return (this.getNum().compareTo(that.getNum()) == 0 && this.getDenom().compareTo(that.getDenom()) == 0);
 		} else {
 			return false;
@@ -176,18 +289,38 @@ public final class RatLitExpr extends NullaryExpr<RatType> implements LitExpr<Ra
 	@Override
 	public String toString() {
 		final StringBuilder sb = new StringBuilder();
-		sb.append(getNum());
-		sb.append('%');
-		sb.append(getDenom());
+		if (isSmall()) {
+			sb.append(smallNum);
+			sb.append('%');
+			sb.append(smallDenom);
+		} else {
+			sb.append(bigNum);
+			sb.append('%');
+			sb.append(bigDenom);
+		}
 		return sb.toString();
 	}
 
 	@Override
 	public int compareTo(final RatLitExpr that) {
+		if (this.isSmall() && that.isSmall()) {
+			if (this.smallDenom == that.smallDenom) {
+				return Long.compare(this.smallNum, that.smallNum);
+			}
+			try {
+				return Long.compare(Math.multiplyExact(this.smallNum, that.smallDenom),
+						Math.multiplyExact(this.smallDenom, that.smallNum));
+			} catch (final ArithmeticException e) {
+				// Overflow, fall back to BigInteger
+			}
+		}
 		return this.getNum().multiply(that.getDenom()).compareTo(this.getDenom().multiply(that.getNum()));
 	}
 
-    public IntLitExpr toInt() {
-		return IntLitExpr.of(num.divide(denom));
-    }
+	public IntLitExpr toInt() {
+		if (isSmall()) {
+			return IntLitExpr.of(smallNum / smallDenom);
+		}
+		return IntLitExpr.of(bigNum.divide(bigDenom));
+	}
 }
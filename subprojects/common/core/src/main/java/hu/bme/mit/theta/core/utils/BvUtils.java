@@ -4,8 +4,6 @@ import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
 
 import java.math.BigInteger;
 
-import static hu.bme.mit.theta.core.type.bvtype.BvExprs.Bv;
-
 public final class BvUtils {
     private BvUtils() {
 
@@ -16,21 +14,25 @@ public final class BvUtils {
     }
 
     public static BigInteger unsignedBvLitExprToBigInteger(final BvLitExpr expr) {
+        final long[] words = expr.toLongArray();
         BigInteger integer = BigInteger.ZERO;
 
-        for(int i = 0; i < expr.getType().getSize(); i++) {
-            if(expr.getValue()[expr.getType().getSize() - 1 - i]) {
-                integer = integer.setBit(i);
-            }
+        for(int i = words.length - 1; i >= 0; i--) {
+            integer = integer.shiftLeft(Long.SIZE).or(unsignedLongToBigInteger(words[i]));
         }
 
         return integer;
     }
 
+    private static BigInteger unsignedLongToBigInteger(final long value) {
+        final BigInteger integer = BigInteger.valueOf(value);
+        return value >= 0 ? integer : integer.add(BigInteger.TWO.pow(Long.SIZE));
+    }
+
     public static BigInteger signedBvLitExprToBigInteger(final BvLitExpr expr) {
         BigInteger integer = unsignedBvLitExprToBigInteger(expr);
 
-        if(expr.getValue()[0]) {
+        if(integer.testBit(expr.getType().getSize() - 1)) {
             integer = integer.subtract(BigInteger.TWO.pow(expr.getType().getSize()));
         }
 
@@ -42,21 +44,11 @@ public final class BvUtils {
     }
 
     public static BvLitExpr bigIntegerToUnsignedBvLitExpr(BigInteger integer, final int size) {
-
-        boolean[] values = new boolean[size];
-        for(int i = 0; i < size; i++) {
-            values[size - 1 - i] = integer.testBit(i);
-        }
-
-        return Bv(values);
+        return BvLitExpr.of(integer, size);
     }
 
     public static BvLitExpr bigIntegerToSignedBvLitExpr(BigInteger integer, final int size) {
-        if(integer.compareTo(BigInteger.ZERO) < 0) {
-            integer = integer.add(BigInteger.TWO.pow(size));
-        }
-
-        return bigIntegerToUnsignedBvLitExpr(integer, size);
+        return BvLitExpr.of(integer, size);
     }
 
     public static BigInteger fitBigIntegerIntoNeutralDomain(BigInteger integer, final int size) {
@@ -0,0 +1,175 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+
+/**
+ * Memoizing wrapper for {@link ExprSimplifier}. Results are cached for a pair
+ * of an expression and the projection of the valuation to the declarations
+ * appearing in the expression, so simplifying the same expression under
+ * valuations that only differ in irrelevant declarations is a cache hit. The
+ * cache is bounded, least recently used entries are evicted first. The
+ * simplifier is thread-safe.
+ */
+public final class CachingExprSimplifier {
+
+	private final Cache<Expr<?>, List<Decl<?>>> exprToDecls;
+	private final Cache<Key, Expr<?>> keyToResult;
+
+	private CachingExprSimplifier(final long maximumSize) {
+		checkArgument(maximumSize > 0, "Cache size must be positive");
+		exprToDecls = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+		keyToResult = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	/**
+	 * Create a simplifier caching at most the given number of results.
+	 */
+	public static CachingExprSimplifier create(final long maximumSize) {
+		return new CachingExprSimplifier(maximumSize);
+	}
+
+	/**
+	 * Simplify expression and substitute the valuation.
+	 *
+	 * @param expr Original expression
+	 * @param val  Valuation
+	 * @return Simplified expression
+	 */
+	public <T extends Type> Expr<T> simplify(final Expr<T> expr, final Valuation val) {
+		checkNotNull(expr);
+		checkNotNull(val);
+		final Key key = new Key(expr, project(val, getDecls(expr)));
+		final Expr<?> cached = keyToResult.getIfPresent(key);
+		if (cached != null) {
+			@SuppressWarnings("unchecked") final Expr<T> result = (Expr<T>) cached;
+			return result;
+		}
+		final Expr<T> result = ExprSimplifier.simplify(expr, val);
+		keyToResult.put(key, result);
+		return result;
+	}
+
+	public long getHitCount() {
+		return keyToResult.stats().hitCount();
+	}
+
+	public long getMissCount() {
+		return keyToResult.stats().missCount();
+	}
+
+	public long getEvictionCount() {
+		return keyToResult.stats().evictionCount();
+	}
+
+	public long size() {
+		return keyToResult.size();
+	}
+
+	public void clear() {
+		exprToDecls.invalidateAll();
+		keyToResult.invalidateAll();
+	}
+
+	private List<Decl<?>> getDecls(final Expr<?> expr) {
+		List<Decl<?>> decls = exprToDecls.getIfPresent(expr);
+		if (decls == null) {
+			final Set<Decl<?>> collected = new LinkedHashSet<>();
+			collectDecls(expr, collected);
+			decls = ImmutableList.copyOf(collected);
+			exprToDecls.put(expr, decls);
+		}
+		return decls;
+	}
+
+	private static void collectDecls(final Expr<?> expr, final Set<Decl<?>> collectTo) {
+		if (expr instanceof RefExpr) {
+			collectTo.add(((RefExpr<?>) expr).getDecl());
+		} else {
+			expr.getOps().forEach(op -> collectDecls(op, collectTo));
+		}
+	}
+
+	private static Map<Decl<?>, LitExpr<?>> project(final Valuation val, final List<Decl<?>> decls) {
+		final ImmutableMap.Builder<Decl<?>, LitExpr<?>> builder = ImmutableMap.builder();
+		for (final Decl<?> decl : decls) {
+			final Optional<? extends LitExpr<?>> value = val.eval(decl);
+			value.ifPresent(v -> builder.put(decl, v));
+		}
+		return builder.build();
+	}
+
+	@Override
+	public String toString() {
+		final CacheStats stats = keyToResult.stats();
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add("size " + keyToResult.size())
+				.add("hits " + stats.hitCount()).add("misses " + stats.missCount())
+				.add("evictions " + stats.evictionCount()).toString();
+	}
+
+	private static final class Key {
+		private final Expr<?> expr;
+		private final Map<Decl<?>, LitExpr<?>> projection;
+		private final int hashCode;
+
+		private Key(final Expr<?> expr, final Map<Decl<?>, LitExpr<?>> projection) {
+			this.expr = expr;
+			this.projection = projection;
+			this.hashCode = 31 * expr.hashCode() + projection.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (obj instanceof Key) {
+				final Key that = (Key) obj;
+				return this.hashCode == that.hashCode && this.expr.equals(that.expr)
+						&& this.projection.equals(that.projection);
+			} else {
+				return false;
+			}
+		}
+	}
+
+}
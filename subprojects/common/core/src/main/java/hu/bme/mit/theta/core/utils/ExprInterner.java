@@ -0,0 +1,115 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.Type;
+
+/**
+ * Hash-consing of expressions. Interning an expression returns a canonical
+ * instance, in which structurally equal subexpressions (including literals)
+ * are represented by the same object. Therefore, interned expressions are
+ * equal if and only if they are the same object, and comparing or hashing
+ * them only touches their top-level node. Canonical instances are weakly
+ * referenced, so they are garbage collected when no longer used.
+ *
+ * Interning is opt-in: expressions are only shared if they were passed to
+ * {@link #intern(Expr)}. The interner is thread-safe.
+ */
+public final class ExprInterner {
+
+	private static final ExprInterner INSTANCE = new ExprInterner();
+
+	private final Interner<Expr<?>> interner;
+	// Canonical instances by identity, so that interning them again returns immediately
+	private final Set<Expr<?>> canonical;
+
+	private ExprInterner() {
+		interner = Interners.newWeakInterner();
+		canonical = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+	}
+
+	/**
+	 * Get the shared interner.
+	 */
+	public static ExprInterner getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Create a new interner, independent of the shared one.
+	 */
+	public static ExprInterner create() {
+		return new ExprInterner();
+	}
+
+	/**
+	 * Get the canonical instance of an expression. Each shared subexpression
+	 * and canonical subexpression is only visited once.
+	 *
+	 * @param expr Expression
+	 * @return Canonical instance, structurally equal to the expression
+	 */
+	public <T extends Type> Expr<T> intern(final Expr<T> expr) {
+		checkNotNull(expr);
+		@SuppressWarnings("unchecked") final Expr<T> result = (Expr<T>) intern(expr, new IdentityHashMap<>());
+		return result;
+	}
+
+	private Expr<?> intern(final Expr<?> expr, final Map<Expr<?>, Expr<?>> memo) {
+		if (canonical.contains(expr)) {
+			return expr;
+		}
+		final Expr<?> memoized = memo.get(expr);
+		if (memoized != null) {
+			return memoized;
+		}
+
+		final List<? extends Expr<?>> ops = expr.getOps();
+		Expr<?> withInternedOps = expr;
+		if (!ops.isEmpty()) {
+			// Operands are interned first, so that the interner compares them by reference
+			final List<Expr<?>> internedOps = new ArrayList<>(ops.size());
+			boolean changed = false;
+			for (final Expr<?> op : ops) {
+				final Expr<?> internedOp = intern(op, memo);
+				internedOps.add(internedOp);
+				changed |= internedOp != op;
+			}
+			if (changed) {
+				withInternedOps = expr.withOps(internedOps);
+			}
+		}
+		final Expr<?> result = interner.intern(withInternedOps);
+		canonical.add(result);
+		memo.put(expr, result);
+		return result;
+	}
+
+}
@@ -23,7 +23,6 @@ import static hu.bme.mit.theta.core.type.bvtype.BvExprs.Bv;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -536,21 +535,17 @@ public final class ExprSimplifier {
 				ops.add(opVisited);
 			}
 		}
-		var num = BigInteger.ZERO;
-		var denom = BigInteger.ONE;
+		var sum = Rat(0, 1);
 
 		for (final Iterator<Expr<RatType>> iterator = ops.iterator(); iterator.hasNext(); ) {
 			final Expr<RatType> op = iterator.next();
 			if (op instanceof RatLitExpr) {
 				final RatLitExpr litOp = (RatLitExpr) op;
-				num = num.multiply(litOp.getDenom()).add(denom.multiply(litOp.getNum()));
-				denom = denom.multiply(litOp.getDenom());
+				sum = sum.add(litOp);
 				iterator.remove();
 			}
 		}
 
-		final Expr<RatType> sum = Rat(num, denom);
-
 		if (!sum.equals(Rat(0, 1))) {
 			ops.add(0, sum);
 		}
@@ -613,24 +608,20 @@ public final class ExprSimplifier {
 				ops.add(opVisited);
 			}
 		}
-		var num = BigInteger.ONE;
-		var denom = BigInteger.ONE;
+		var prod = Rat(1, 1);
 
 		for (final Iterator<Expr<RatType>> iterator = ops.iterator(); iterator.hasNext(); ) {
 			final Expr<RatType> op = iterator.next();
 			if (op instanceof RatLitExpr) {
 				final RatLitExpr litOp = (RatLitExpr) op;
-				num = num.multiply(litOp.getNum());
-				denom = denom.multiply(litOp.getDenom());
+				prod = prod.mul(litOp);
 				iterator.remove();
-				if (num.compareTo(BigInteger.ZERO) == 0) {
+				if (prod.sign() == 0) {
 					return Rat(0, 1);
 				}
 			}
 		}
 
-		final Expr<RatType> prod = Rat(num, denom);
-
 		if (!prod.equals(Rat(1, 1))) {
 			ops.add(0, prod);
 		}
@@ -801,24 +792,23 @@ public final class ExprSimplifier {
 				ops.add(opVisited);
 			}
 		}
-		var value = BigInteger.ZERO;
+		var sum = Int(0);
 
 		for (final Iterator<Expr<IntType>> iterator = ops.iterator(); iterator.hasNext(); ) {
 			final Expr<IntType> op = iterator.next();
 			if (op instanceof IntLitExpr) {
 				final IntLitExpr litOp = (IntLitExpr) op;
-				value = value.add(litOp.getValue());
+				sum = sum.add(litOp);
 				iterator.remove();
 			}
 		}
 
-		if (value.compareTo(BigInteger.ZERO) != 0) {
-			final Expr<IntType> sum = Int(value);
+		if (sum.sign() != 0) {
 			ops.add(sum);
 		}
 
 		if (ops.isEmpty()) {
-			return Int(BigInteger.ZERO);
+			return Int(0);
 		} else if (ops.size() == 1) {
 			return Utils.singleElementOf(ops);
 		}
@@ -838,7 +828,7 @@ public final class ExprSimplifier {
 
 		if (leftOp instanceof RefExpr && rightOp instanceof RefExpr) {
 			if (leftOp.equals(rightOp)) {
-				return Int(BigInteger.ZERO);
+				return Int(0);
 			}
 		}
 
@@ -876,26 +866,25 @@ public final class ExprSimplifier {
 			}
 		}
 
-		var value = BigInteger.ONE;
+		var prod = Int(1);
 		for (final Iterator<Expr<IntType>> iterator = ops.iterator(); iterator.hasNext(); ) {
 			final Expr<IntType> op = iterator.next();
 			if (op instanceof IntLitExpr) {
 				final IntLitExpr litOp = (IntLitExpr) op;
-				value = value.multiply(litOp.getValue());
+				prod = prod.mul(litOp);
 				iterator.remove();
-				if (value.compareTo(BigInteger.ZERO) == 0) {
-					return Int(BigInteger.ZERO);
+				if (prod.sign() == 0) {
+					return Int(0);
 				}
 			}
 		}
 
-		if (value.compareTo(BigInteger.ONE) != 0) {
-			final Expr<IntType> prod = Int(value);
+		if (!prod.equals(Int(1))) {
 			ops.add(0, prod);
 		}
 
 		if (ops.isEmpty()) {
-			return Int(BigInteger.ONE);
+			return Int(1);
 		} else if (ops.size() == 1) {
 			return Utils.singleElementOf(ops);
 		}
@@ -1193,8 +1182,7 @@ public final class ExprSimplifier {
 		}
 
 		final BvLitExpr ZERO = Bv(new boolean[expr.getType().getSize()]);
-		final BvLitExpr ONE = Bv(new boolean[expr.getType().getSize()]);
-		ONE.getValue()[expr.getType().getSize()-1] = true; // 1
+		final BvLitExpr ONE = BvLitExpr.of(1, expr.getType().getSize());
 
 		BvLitExpr value = ONE;
 		for (final Iterator<Expr<BvType>> iterator = ops.iterator(); iterator.hasNext(); ) {
@@ -1234,8 +1222,7 @@ public final class ExprSimplifier {
 
 		if (leftOp instanceof RefExpr && rightOp instanceof RefExpr) {
 			if (leftOp.equals(rightOp)) {
-				final BvLitExpr ONE = Bv(new boolean[expr.getType().getSize()]);
-				ONE.getValue()[expr.getType().getSize()-1] = true; // 1
+				final BvLitExpr ONE = BvLitExpr.of(1, expr.getType().getSize());
 				return ONE;
 			}
 		}
@@ -1255,8 +1242,7 @@ public final class ExprSimplifier {
 
 		if (leftOp instanceof RefExpr && rightOp instanceof RefExpr) {
 			if (leftOp.equals(rightOp)) {
-				final BvLitExpr ONE = Bv(new boolean[expr.getType().getSize()]);
-				ONE.getValue()[expr.getType().getSize()-1] = true; // 1
+				final BvLitExpr ONE = BvLitExpr.of(1, expr.getType().getSize());
 				return ONE;
 			}
 		}
@@ -1333,10 +1319,7 @@ public final class ExprSimplifier {
 				ops.add(opVisited);
 			}
 		}
-		BvLitExpr ONES = Bv(new boolean[expr.getType().getSize()]);
-		for(int i = 0; i < expr.getType().getSize(); i++) {
-			ONES.getValue()[i] = true;
-		}
+		BvLitExpr ONES = BvLitExpr.of(-1, expr.getType().getSize());
 
 		BvLitExpr value = ONES;
 
@@ -19,8 +19,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static hu.bme.mit.theta.core.type.anytype.Exprs.Prime;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import hu.bme.mit.theta.core.decl.ConstDecl;
 import hu.bme.mit.theta.core.decl.Decl;
@@ -112,18 +114,16 @@ public class PathUtils {
 	 * @return Values
 	 */
 	public static Valuation extractValuation(final Valuation model, final VarIndexing indexing) {
-		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		final List<IndexedConstDecl<?>> constDecls = new ArrayList<>();
 		for (final Decl<?> decl : model.getDecls()) {
 			if (decl instanceof IndexedConstDecl) {
 				final IndexedConstDecl<?> indexedConstDecl = (IndexedConstDecl<?>) decl;
-				final VarDecl<?> varDecl = indexedConstDecl.getVarDecl();
-				if (indexedConstDecl.getIndex() == indexing.get(varDecl)) {
-					final LitExpr<?> value = model.eval(indexedConstDecl).get();
-					builder.put(varDecl, value);
+				if (indexedConstDecl.getIndex() == indexing.get(indexedConstDecl.getVarDecl())) {
+					constDecls.add(indexedConstDecl);
 				}
 			}
 		}
-		return builder.build();
+		return extractValuation(model, constDecls);
 	}
 
 	/**
@@ -151,13 +151,21 @@ public class PathUtils {
 	 */
 	public static Valuation extractValuation(final Valuation model, final VarIndexing indexing,
 											 final Collection<? extends VarDecl<?>> varDecls) {
-		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		final List<IndexedConstDecl<?>> constDecls = new ArrayList<>(varDecls.size());
 		for (final VarDecl<?> varDecl : varDecls) {
-			final int index = indexing.get(varDecl);
-			final IndexedConstDecl<?> constDecl = varDecl.getConstDecl(index);
-			final Optional<? extends LitExpr<?>> eval = model.eval(constDecl);
-			if (eval.isPresent()) {
-				builder.put(varDecl, eval.get());
+			constDecls.add(varDecl.getConstDecl(indexing.get(varDecl)));
+		}
+		return extractValuation(model, constDecls);
+	}
+
+	// Evaluates the constants in bulk and maps their values back to the variables
+	private static Valuation extractValuation(final Valuation model, final List<IndexedConstDecl<?>> constDecls) {
+		final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+		final Map<Decl<?>, LitExpr<?>> values = model.evalAll(constDecls);
+		for (final IndexedConstDecl<?> constDecl : constDecls) {
+			final LitExpr<?> value = values.get(constDecl);
+			if (value != null) {
+				builder.put(constDecl.getVarDecl(), value);
 			}
 		}
 		return builder.build();
@@ -21,10 +21,16 @@ import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 
+import java.util.Map;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.type.LitExpr;
 import hu.bme.mit.theta.core.type.inttype.IntType;
 
 public class ValuationTest {
@@ -107,4 +113,13 @@ public class ValuationTest {
 		Assert.assertFalse(v1.equals(v4));
 
 	}
+
+	@Test
+	public void testEvalAll() {
+		final Valuation val = ImmutableValuation.builder().put(ca, Int(1)).put(cb, Int(2)).build();
+		final Map<Decl<?>, LitExpr<?>> values = val.evalAll(ImmutableList.of(cb, cc));
+		Assert.assertEquals(1, values.size());
+		Assert.assertEquals(Int(2), values.get(cb));
+		Assert.assertFalse(values.containsKey(cc));
+	}
 }
@@ -0,0 +1,168 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.type;
+
+import static hu.bme.mit.theta.core.type.bvtype.BvExprs.Bv;
+import static hu.bme.mit.theta.core.type.bvtype.BvExprs.BvType;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
+import hu.bme.mit.theta.core.utils.BvUtils;
+
+public class BvLitExprTest {
+
+	private static final int[] SIZES = {1, 4, 8, 32, 63, 64, 65, 100, 128};
+
+	private static List<BvLitExpr> values(final int size) {
+		final BigInteger modulus = BigInteger.TWO.pow(size);
+		final List<BigInteger> integers = List.of(BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO,
+				BigInteger.valueOf(3), BigInteger.valueOf(-1), BigInteger.valueOf(-3), BigInteger.valueOf(13),
+				BigInteger.TWO.pow(size - 1), BigInteger.TWO.pow(size - 1).subtract(BigInteger.ONE),
+				new BigInteger("123456789abcdef0123456789abcdef", 16));
+		final List<BvLitExpr> values = new ArrayList<>();
+		for (final BigInteger integer : integers) {
+			values.add(BvLitExpr.of(integer.mod(modulus), size));
+		}
+		return values;
+	}
+
+	private static BigInteger unsigned(final BvLitExpr bv) {
+		return BvUtils.unsignedBvLitExprToBigInteger(bv);
+	}
+
+	private static BigInteger signed(final BvLitExpr bv) {
+		return BvUtils.signedBvLitExprToBigInteger(bv);
+	}
+
+	private static void checkBinary(final BinaryOperator<BvLitExpr> op, final BinaryOperator<BigInteger> expected,
+									final boolean signed, final boolean positiveDivisor) {
+		for (final int size : SIZES) {
+			for (final BvLitExpr a : values(size)) {
+				for (final BvLitExpr b : values(size)) {
+					final BigInteger bInt = signed ? signed(b) : unsigned(b);
+					if (positiveDivisor && bInt.signum() <= 0) {
+						continue;
+					}
+					final BigInteger aInt = signed ? signed(a) : unsigned(a);
+					final BvLitExpr expectedBv = BvLitExpr.of(expected.apply(aInt, bInt), size);
+					assertEquals(a + ", " + b, expectedBv, op.apply(a, b));
+					assertEquals(expectedBv.hashCode(), op.apply(a, b).hashCode());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testArithmetic() {
+		checkBinary(BvLitExpr::add, BigInteger::add, false, false);
+		checkBinary(BvLitExpr::sub, BigInteger::subtract, false, false);
+		checkBinary(BvLitExpr::mul, BigInteger::multiply, false, false);
+		checkBinary(BvLitExpr::udiv, BigInteger::divide, false, true);
+		checkBinary(BvLitExpr::sdiv, BigInteger::divide, true, true);
+		checkBinary(BvLitExpr::smod, BigInteger::mod, true, true);
+		checkBinary(BvLitExpr::urem, BigInteger::mod, true, true);
+		checkBinary(BvLitExpr::srem, BigInteger::remainder, true, true);
+		for (final int size : SIZES) {
+			for (final BvLitExpr a : values(size)) {
+				assertEquals(BvLitExpr.of(signed(a).negate(), size), a.neg());
+				assertEquals(BvLitExpr.of(signed(a).not(), size), a.not());
+			}
+		}
+	}
+
+	@Test
+	public void testBitwise() {
+		checkBinary(BvLitExpr::and, BigInteger::and, false, false);
+		checkBinary(BvLitExpr::or, BigInteger::or, false, false);
+		checkBinary(BvLitExpr::xor, BigInteger::xor, false, false);
+	}
+
+	@Test
+	public void testShiftAndRotate() {
+		for (final int size : SIZES) {
+			for (final BvLitExpr a : values(size)) {
+				for (final int distance : new int[]{0, 1, 3, size - 1, size}) {
+					final BvLitExpr d = BvLitExpr.of(distance, size);
+					final BigInteger u = unsigned(a);
+					final int r = BigInteger.valueOf(distance).mod(BigInteger.valueOf(size)).intValue();
+					assertEquals(BvLitExpr.of(u.shiftLeft(distance), size), a.shiftLeft(d));
+					assertEquals(BvLitExpr.of(u.shiftRight(distance), size), a.logicShiftRight(d));
+					assertEquals(BvLitExpr.of(signed(a).shiftRight(distance), size), a.arithShiftRight(d));
+					assertEquals(BvLitExpr.of(u.shiftLeft(r).or(u.shiftRight(size - r)), size), a.rotateLeft(d));
+					assertEquals(BvLitExpr.of(u.shiftRight(r).or(u.shiftLeft(size - r)), size), a.rotateRight(d));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testComparison() {
+		for (final int size : SIZES) {
+			for (final BvLitExpr a : values(size)) {
+				for (final BvLitExpr b : values(size)) {
+					assertEquals(unsigned(a).compareTo(unsigned(b)) < 0, a.ult(b).getValue());
+					assertEquals(unsigned(a).compareTo(unsigned(b)) >= 0, a.uge(b).getValue());
+					assertEquals(signed(a).compareTo(signed(b)) < 0, a.slt(b).getValue());
+					assertEquals(signed(a).compareTo(signed(b)) >= 0, a.sge(b).getValue());
+					assertEquals(unsigned(a).equals(unsigned(b)), a.eq(b).getValue());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testResize() {
+		for (final int size : SIZES) {
+			for (final BvLitExpr a : values(size)) {
+				assertEquals(BvLitExpr.of(unsigned(a), size + 70), a.zext(BvType(size + 70)));
+				assertEquals(BvLitExpr.of(signed(a), size + 70), a.sext(BvType(size + 70)));
+				assertEquals(BvLitExpr.of(unsigned(a), size + 1), a.zext(BvType(size + 1)));
+				assertEquals(BvLitExpr.of(signed(a), size + 1), a.sext(BvType(size + 1)));
+				assertEquals(BvLitExpr.of(unsigned(a).shiftLeft(size).or(unsigned(a)), 2 * size), a.concat(a));
+				assertEquals(a, a.concat(a).extract(Int(size), Int(2 * size)));
+				assertEquals(a, a.concat(a).extract(Int(0), Int(size)));
+			}
+		}
+	}
+
+	@Test
+	public void testRepresentation() {
+		for (final int size : SIZES) {
+			for (final BvLitExpr a : values(size)) {
+				final boolean[] bits = a.getValue();
+				assertEquals(size, bits.length);
+				assertEquals(a, Bv(bits));
+				for (int i = 0; i < size; i++) {
+					assertEquals(unsigned(a).testBit(i), bits[size - 1 - i]);
+				}
+				assertArrayEquals(bits, a.getValue());
+			}
+		}
+		assertEquals("4'b1001", Bv(new boolean[]{true, false, false, true}).toString());
+		assertEquals(BvLitExpr.of(-1, 70), BvLitExpr.of(BigInteger.TWO.pow(70).subtract(BigInteger.ONE), 70));
+		assertEquals(0xffL, BvLitExpr.of(-1, 8).longValue());
+	}
+
+}
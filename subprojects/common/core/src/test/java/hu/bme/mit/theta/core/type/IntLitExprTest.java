@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.type;
+
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+
+public class IntLitExprTest {
+
+	private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+	private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+	private static final List<BigInteger> VALUES = ImmutableList.of(BigInteger.ZERO, BigInteger.ONE,
+			BigInteger.valueOf(-1), BigInteger.valueOf(3), BigInteger.valueOf(-3), BigInteger.valueOf(5),
+			BigInteger.valueOf(-5), BigInteger.valueOf(1023), BigInteger.valueOf(1024), LONG_MAX,
+			LONG_MAX.subtract(BigInteger.ONE), LONG_MIN, LONG_MIN.add(BigInteger.ONE), LONG_MAX.add(BigInteger.ONE),
+			LONG_MIN.subtract(BigInteger.ONE), BigInteger.TWO.pow(62), BigInteger.TWO.pow(70).negate());
+
+	private static void checkBinary(final BinaryOperator<IntLitExpr> op, final BinaryOperator<BigInteger> expected,
+									final boolean nonZeroDivisor) {
+		for (final BigInteger a : VALUES) {
+			for (final BigInteger b : VALUES) {
+				if (nonZeroDivisor && b.signum() == 0) {
+					continue;
+				}
+				final IntLitExpr result = op.apply(Int(a), Int(b));
+				assertEquals(a + ", " + b, expected.apply(a, b), result.getValue());
+				assertEquals(Int(expected.apply(a, b)), result);
+				assertEquals(Int(expected.apply(a, b)).hashCode(), result.hashCode());
+			}
+		}
+	}
+
+	@Test
+	public void testArithmetic() {
+		checkBinary(IntLitExpr::add, BigInteger::add, false);
+		checkBinary(IntLitExpr::sub, BigInteger::subtract, false);
+		checkBinary(IntLitExpr::mul, BigInteger::multiply, false);
+		checkBinary(IntLitExpr::div, BigInteger::divide, true);
+		for (final BigInteger a : VALUES) {
+			assertEquals(a.negate(), Int(a).neg().getValue());
+		}
+	}
+
+	@Test
+	public void testModRem() {
+		checkBinary(IntLitExpr::mod, (a, b) -> a.mod(b.abs()), true);
+		assertEquals(Int(2), Int(5).rem(Int(3)));
+		assertEquals(Int(-2), Int(5).rem(Int(-3)));
+		assertEquals(Int(1), Int(-5).rem(Int(3)));
+		assertEquals(Int(-1), Int(-5).rem(Int(-3)));
+		final IntLitExpr big = Int(LONG_MAX.add(BigInteger.TEN));
+		assertEquals(Int(big.getValue().mod(BigInteger.valueOf(7)).negate()), big.rem(Int(-7)));
+	}
+
+	@Test
+	public void testComparison() {
+		for (final BigInteger a : VALUES) {
+			for (final BigInteger b : VALUES) {
+				assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(Int(a).compareTo(Int(b))));
+				assertEquals(a.equals(b), Int(a).eq(Int(b)).getValue());
+			}
+		}
+	}
+
+	@Test
+	public void testRepresentation() {
+		assertSame(Int(7), Int(BigInteger.valueOf(7)));
+		assertTrue(Int(LONG_MAX).isLong());
+		assertFalse(Int(LONG_MAX).add(Int(1)).isLong());
+		assertTrue(Int(LONG_MAX).add(Int(1)).sub(Int(1)).isLong());
+		assertEquals(Long.MIN_VALUE, Int(LONG_MIN).longValueExact());
+		assertEquals("-9223372036854775809", Int(LONG_MIN).sub(Int(1)).toString());
+	}
+
+}
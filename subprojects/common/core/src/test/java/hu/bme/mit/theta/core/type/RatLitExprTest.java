@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.type;
+
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
+
+public class RatLitExprTest {
+
+	private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+	private static final List<RatLitExpr> VALUES = ImmutableList.of(Rat(0, 1), Rat(1, 1), Rat(-1, 2), Rat(3, 4),
+			Rat(-7, 3), Rat(LONG_MAX, 1), Rat(1, LONG_MAX), Rat(LONG_MAX, 3), Rat(LONG_MAX.negate(), 2),
+			Rat(LONG_MAX.add(BigInteger.ONE), 3), Rat(BigInteger.TWO.pow(70), BigInteger.valueOf(11)));
+
+	// Reference implementation on BigIntegers
+	private static RatLitExpr add(final RatLitExpr a, final RatLitExpr b) {
+		return Rat(a.getNum().multiply(b.getDenom()).add(b.getNum().multiply(a.getDenom())),
+				a.getDenom().multiply(b.getDenom()));
+	}
+
+	private static RatLitExpr mul(final RatLitExpr a, final RatLitExpr b) {
+		return Rat(a.getNum().multiply(b.getNum()), a.getDenom().multiply(b.getDenom()));
+	}
+
+	@Test
+	public void testArithmetic() {
+		for (final RatLitExpr a : VALUES) {
+			for (final RatLitExpr b : VALUES) {
+				assertEquals(add(a, b), a.add(b));
+				assertEquals(add(a, b).hashCode(), a.add(b).hashCode());
+				assertEquals(add(a, b.neg()), a.sub(b));
+				assertEquals(mul(a, b), a.mul(b));
+				if (b.sign() != 0) {
+					assertEquals(mul(a, Rat(b.getDenom(), b.getNum())), a.div(b));
+				}
+				final int expected = a.getNum().multiply(b.getDenom()).compareTo(b.getNum().multiply(a.getDenom()));
+				assertEquals(Integer.signum(expected), Integer.signum(a.compareTo(b)));
+			}
+		}
+	}
+
+	@Test
+	public void testNormalization() {
+		assertEquals(Rat(1, 2), Rat(-2, -4));
+		assertEquals("-1%2", Rat(2, -4).toString());
+		assertEquals(Rat(BigInteger.valueOf(Long.MIN_VALUE / 2), 1), Rat(BigInteger.valueOf(Long.MIN_VALUE), BigInteger.TWO));
+		assertSame(Rat(5, 1), Rat(10, 2));
+	}
+
+	@Test
+	public void testRounding() {
+		assertEquals(BigInteger.valueOf(-3), Rat(-7, 3).floor());
+		assertEquals(BigInteger.valueOf(-2), Rat(-7, 3).ceil());
+		assertEquals(BigInteger.valueOf(2), Rat(7, 3).floor());
+		assertEquals(BigInteger.valueOf(3), Rat(7, 3).ceil());
+		assertEquals(Rat(2, 3), Rat(-7, 3).frac());
+		assertEquals(BigInteger.valueOf(-2), Rat(-7, 3).toInt().getValue());
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class CachingExprSimplifierTest {
+	private final ConstDecl<IntType> ca = Const("a", Int());
+	private final ConstDecl<IntType> cb = Const("b", Int());
+	private final ConstDecl<IntType> cc = Const("c", Int());
+	private final Expr<BoolType> guard = And(Lt(ca.getRef(), Int(5)), Eq(Add(cb.getRef(), Int(1)), Int(3)));
+
+	@Test
+	public void testSameResultAsSimplifier() {
+		final CachingExprSimplifier simplifier = CachingExprSimplifier.create(100);
+		final Valuation val1 = ImmutableValuation.builder().put(ca, Int(1)).put(cb, Int(2)).build();
+		final Valuation val2 = ImmutableValuation.builder().put(ca, Int(1)).put(cb, Int(3)).build();
+		final Valuation val3 = ImmutableValuation.builder().put(ca, Int(1)).build();
+
+		for (final Valuation val : new Valuation[]{val1, val2, val3, val1, val2, val3}) {
+			Assert.assertEquals(ExprSimplifier.simplify(guard, val), simplifier.simplify(guard, val));
+		}
+		Assert.assertEquals(True(), simplifier.simplify(guard, val1));
+		Assert.assertEquals(False(), simplifier.simplify(guard, val2));
+	}
+
+	@Test
+	public void testIrrelevantDeclsIgnored() {
+		final CachingExprSimplifier simplifier = CachingExprSimplifier.create(100);
+		final Valuation val1 = ImmutableValuation.builder().put(ca, Int(1)).put(cb, Int(2)).put(cc, Int(0)).build();
+		final Valuation val2 = ImmutableValuation.builder().put(ca, Int(1)).put(cb, Int(2)).put(cc, Int(7)).build();
+
+		simplifier.simplify(guard, val1);
+		simplifier.simplify(guard, val2);
+
+		Assert.assertEquals(1, simplifier.getMissCount());
+		Assert.assertEquals(1, simplifier.getHitCount());
+	}
+
+	@Test
+	public void testBounded() {
+		final CachingExprSimplifier simplifier = CachingExprSimplifier.create(2);
+		for (int i = 0; i < 10; i++) {
+			simplifier.simplify(guard, ImmutableValuation.builder().put(ca, Int(i)).build());
+		}
+		Assert.assertTrue(simplifier.size() <= 2);
+		Assert.assertEquals(0, simplifier.getHitCount());
+		Assert.assertEquals(10, simplifier.getMissCount());
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.core.utils;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+public class ExprInternerTest {
+	private final Expr<IntType> ca = Const("a", Int()).getRef();
+	private final Expr<IntType> cb = Const("b", Int()).getRef();
+
+	private Expr<BoolType> createExpr() {
+		return And(Eq(ca, Add(cb, Int(1))), Not(Lt(ca, Int(1))));
+	}
+
+	@Test
+	public void testStructurallyEqual() {
+		final ExprInterner interner = ExprInterner.create();
+		final Expr<BoolType> expr1 = createExpr();
+		final Expr<BoolType> expr2 = createExpr();
+		Assert.assertNotSame(expr1, expr2);
+
+		final Expr<BoolType> interned1 = interner.intern(expr1);
+		final Expr<BoolType> interned2 = interner.intern(expr2);
+		Assert.assertSame(interned1, interned2);
+		Assert.assertEquals(expr1, interned1);
+	}
+
+	@Test
+	public void testSubexpressionsShared() {
+		final ExprInterner interner = ExprInterner.create();
+		final AndExpr and = (AndExpr) interner.intern(createExpr());
+		final Expr<BoolType> eq = interner.intern(Eq(ca, Add(cb, Int(1))));
+		Assert.assertSame(eq, and.getOps().get(0));
+
+		// Literals are also shared
+		final Expr<?> one1 = eq.getOps().get(1).getOps().get(1);
+		final Expr<?> one2 = and.getOps().get(1).getOps().get(0).getOps().get(1);
+		Assert.assertSame(one1, one2);
+	}
+
+	@Test
+	public void testDifferentExprs() {
+		final ExprInterner interner = ExprInterner.create();
+		Assert.assertNotSame(interner.intern(Eq(ca, Int(1))), interner.intern(Eq(cb, Int(1))));
+		Assert.assertNotSame(interner.intern(Eq(ca, Int(1))), interner.intern(Eq(ca, Int(2))));
+	}
+
+	@Test
+	public void testIdempotent() {
+		final ExprInterner interner = ExprInterner.create();
+		final Expr<BoolType> interned = interner.intern(createExpr());
+		Assert.assertSame(interned, interner.intern(interned));
+	}
+
+	@Test(timeout = 10_000)
+	public void testSharedDag() {
+		final ExprInterner interner = ExprInterner.create();
+		// Each level refers to the previous one twice, so the tree has 2^64 leaves
+		Expr<BoolType> dag1 = Eq(ca, Int(1));
+		Expr<BoolType> dag2 = Eq(ca, Int(1));
+		for (int i = 0; i < 64; i++) {
+			dag1 = And(dag1, Not(dag1));
+			dag2 = And(dag2, Not(dag2));
+		}
+
+		final Expr<BoolType> interned = interner.intern(dag1);
+		Assert.assertSame(interned, interner.intern(dag2));
+		Assert.assertSame(interned, interner.intern(interned));
+	}
+}
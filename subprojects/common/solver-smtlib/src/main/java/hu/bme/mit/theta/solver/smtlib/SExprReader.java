@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import hu.bme.mit.theta.common.parser.SExpr;
+
+/**
+ * Reads S-expressions one by one from a character stream, e.g., the output of
+ * a solver. Unlike the lexer of the common parser, it never reads ahead of
+ * the current S-expression (which would block on a pipe), and it supports
+ * quoted symbols (stored without the bars) and string literals.
+ */
+final class SExprReader {
+
+	private static final int EOF = -1;
+
+	private final Reader reader;
+	private int next;
+
+	SExprReader(final Reader reader) {
+		this.reader = checkNotNull(reader);
+		this.next = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Reads the next S-expression, blocking until it is complete.
+	 *
+	 * @return S-expression, or null if the stream ended before any S-expression
+	 * @throws IOException if the stream fails or ends inside an S-expression
+	 */
+	public SExpr read() throws IOException {
+		final Deque<List<SExpr>> open = new ArrayDeque<>();
+		while (true) {
+			skipWhitespaceAndComments();
+			final int c = peek();
+			if (c == EOF) {
+				if (open.isEmpty()) {
+					return null;
+				}
+				throw new IOException("Unexpected end of stream inside an S-expression");
+			}
+
+			final SExpr expr;
+			if (c == '(') {
+				consume();
+				open.push(new ArrayList<>());
+				continue;
+			} else if (c == ')') {
+				consume();
+				if (open.isEmpty()) {
+					throw new IOException("Unbalanced parenthesis");
+				}
+				expr = SExpr.list(open.pop());
+			} else {
+				expr = SExpr.atom(readAtom());
+			}
+
+			if (open.isEmpty()) {
+				return expr;
+			}
+			open.peek().add(expr);
+		}
+	}
+
+	private String readAtom() throws IOException {
+		final StringBuilder sb = new StringBuilder();
+		final int c = peek();
+		if (c == '|') {
+			consume();
+			while (peek() != '|') {
+				sb.append((char) consumeNonEof());
+			}
+			consume();
+		} else if (c == '"') {
+			sb.append((char) consume());
+			while (true) {
+				final int d = consumeNonEof();
+				sb.append((char) d);
+				if (d == '"') {
+					if (peek() == '"') {
+						sb.append((char) consume());
+					} else {
+						break;
+					}
+				}
+			}
+		} else {
+			while (true) {
+				final int d = peek();
+				if (d == EOF || d == '(' || d == ')' || d == ';' || Character.isWhitespace(d)) {
+					break;
+				}
+				sb.append((char) consume());
+			}
+		}
+		return sb.toString();
+	}
+
+	private void skipWhitespaceAndComments() throws IOException {
+		while (true) {
+			final int c = peek();
+			if (c != EOF && Character.isWhitespace(c)) {
+				consume();
+			} else if (c == ';') {
+				while (peek() != EOF && peek() != '\n') {
+					consume();
+				}
+			} else {
+				return;
+			}
+		}
+	}
+
+	private int peek() throws IOException {
+		if (next == Integer.MIN_VALUE) {
+			next = reader.read();
+		}
+		return next;
+	}
+
+	private int consume() throws IOException {
+		final int c = peek();
+		next = Integer.MIN_VALUE;
+		return c;
+	}
+
+	private int consumeNonEof() throws IOException {
+		final int c = consume();
+		if (c == EOF) {
+			throw new IOException("Unexpected end of stream inside an atom");
+		}
+		return c;
+	}
+
+}
@@ -0,0 +1,437 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableMap;
+
+import hu.bme.mit.theta.common.DispatchTable;
+import hu.bme.mit.theta.common.Tuple2;
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.decl.ParamDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.MultiaryExpr;
+import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayEqExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayLitExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayNeqExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayReadExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayWriteExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.ExistsExpr;
+import hu.bme.mit.theta.core.type.booltype.FalseExpr;
+import hu.bme.mit.theta.core.type.booltype.ForallExpr;
+import hu.bme.mit.theta.core.type.booltype.IffExpr;
+import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.booltype.OrExpr;
+import hu.bme.mit.theta.core.type.booltype.QuantifiedExpr;
+import hu.bme.mit.theta.core.type.booltype.TrueExpr;
+import hu.bme.mit.theta.core.type.booltype.XorExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvAddExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvAndExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvArithShiftRightExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvConcatExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvEqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvExtractExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvLogicShiftRightExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvMulExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvNegExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvNeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvNotExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvOrExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvPosExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvRotateLeftExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvRotateRightExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSDivExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSExtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSGeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSGtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSLeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSLtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSModExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSRemExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvShiftLeftExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSubExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvUDivExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvUGeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvUGtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvULeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvULtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvURemExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvXorExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvZExtExpr;
+import hu.bme.mit.theta.core.type.functype.FuncAppExpr;
+import hu.bme.mit.theta.core.type.inttype.IntAddExpr;
+import hu.bme.mit.theta.core.type.inttype.IntDivExpr;
+import hu.bme.mit.theta.core.type.inttype.IntEqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntGtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLtExpr;
+import hu.bme.mit.theta.core.type.inttype.IntModExpr;
+import hu.bme.mit.theta.core.type.inttype.IntMulExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNegExpr;
+import hu.bme.mit.theta.core.type.inttype.IntNeqExpr;
+import hu.bme.mit.theta.core.type.inttype.IntPosExpr;
+import hu.bme.mit.theta.core.type.inttype.IntRemExpr;
+import hu.bme.mit.theta.core.type.inttype.IntSubExpr;
+import hu.bme.mit.theta.core.type.inttype.IntToRatExpr;
+import hu.bme.mit.theta.core.type.rattype.RatAddExpr;
+import hu.bme.mit.theta.core.type.rattype.RatDivExpr;
+import hu.bme.mit.theta.core.type.rattype.RatEqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatGeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatGtExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLitExpr;
+import hu.bme.mit.theta.core.type.rattype.RatLtExpr;
+import hu.bme.mit.theta.core.type.rattype.RatMulExpr;
+import hu.bme.mit.theta.core.type.rattype.RatNegExpr;
+import hu.bme.mit.theta.core.type.rattype.RatNeqExpr;
+import hu.bme.mit.theta.core.type.rattype.RatPosExpr;
+import hu.bme.mit.theta.core.type.rattype.RatSubExpr;
+import hu.bme.mit.theta.core.type.rattype.RatToIntExpr;
+
+/**
+ * Transforms expressions to SMT-LIB terms. Constants are mapped to symbols by
+ * a resolver, which can also declare them in the solver on first use. Bitvector
+ * rotations by a non-constant amount use the ext_rotate_left/right extension of
+ * Z3, as standard SMT-LIB only has rotations by a constant.
+ */
+final class SmtLibExprTransformer {
+
+	private static final Map<Class<?>, String> OPERATORS = ImmutableMap.<Class<?>, String>builder()
+			.put(NotExpr.class, "not")
+			.put(ImplyExpr.class, "=>")
+			.put(IffExpr.class, "=")
+			.put(XorExpr.class, "xor")
+			.put(AndExpr.class, "and")
+			.put(OrExpr.class, "or")
+			.put(IteExpr.class, "ite")
+			.put(IntAddExpr.class, "+")
+			.put(IntSubExpr.class, "-")
+			.put(IntNegExpr.class, "-")
+			.put(IntMulExpr.class, "*")
+			.put(IntDivExpr.class, "div")
+			.put(IntModExpr.class, "mod")
+			.put(IntRemExpr.class, "rem")
+			.put(IntEqExpr.class, "=")
+			.put(IntGeqExpr.class, ">=")
+			.put(IntGtExpr.class, ">")
+			.put(IntLeqExpr.class, "<=")
+			.put(IntLtExpr.class, "<")
+			.put(IntToRatExpr.class, "to_real")
+			.put(RatAddExpr.class, "+")
+			.put(RatSubExpr.class, "-")
+			.put(RatNegExpr.class, "-")
+			.put(RatMulExpr.class, "*")
+			.put(RatDivExpr.class, "/")
+			.put(RatEqExpr.class, "=")
+			.put(RatGeqExpr.class, ">=")
+			.put(RatGtExpr.class, ">")
+			.put(RatLeqExpr.class, "<=")
+			.put(RatLtExpr.class, "<")
+			.put(RatToIntExpr.class, "to_int")
+			.put(BvConcatExpr.class, "concat")
+			.put(BvAddExpr.class, "bvadd")
+			.put(BvSubExpr.class, "bvsub")
+			.put(BvNegExpr.class, "bvneg")
+			.put(BvMulExpr.class, "bvmul")
+			.put(BvUDivExpr.class, "bvudiv")
+			.put(BvSDivExpr.class, "bvsdiv")
+			.put(BvSModExpr.class, "bvsmod")
+			.put(BvURemExpr.class, "bvurem")
+			.put(BvSRemExpr.class, "bvsrem")
+			.put(BvAndExpr.class, "bvand")
+			.put(BvOrExpr.class, "bvor")
+			.put(BvXorExpr.class, "bvxor")
+			.put(BvNotExpr.class, "bvnot")
+			.put(BvShiftLeftExpr.class, "bvshl")
+			.put(BvArithShiftRightExpr.class, "bvashr")
+			.put(BvLogicShiftRightExpr.class, "bvlshr")
+			.put(BvRotateLeftExpr.class, "ext_rotate_left")
+			.put(BvRotateRightExpr.class, "ext_rotate_right")
+			.put(BvEqExpr.class, "=")
+			.put(BvUGeqExpr.class, "bvuge")
+			.put(BvUGtExpr.class, "bvugt")
+			.put(BvULeqExpr.class, "bvule")
+			.put(BvULtExpr.class, "bvult")
+			.put(BvSGeqExpr.class, "bvsge")
+			.put(BvSGtExpr.class, "bvsgt")
+			.put(BvSLeqExpr.class, "bvsle")
+			.put(BvSLtExpr.class, "bvslt")
+			.put(ArrayReadExpr.class, "select")
+			.put(ArrayWriteExpr.class, "store")
+			.put(ArrayEqExpr.class, "=")
+			.build();
+
+	private final Function<? super ConstDecl<?>, String> symbolResolver;
+	private final DispatchTable<Void> table;
+	private final Map<ParamDecl<?>, String> params;
+	private StringBuilder out;
+
+	SmtLibExprTransformer(final Function<? super ConstDecl<?>, String> symbolResolver) {
+		this.symbolResolver = checkNotNull(symbolResolver);
+		this.params = Containers.createMap();
+		this.table = DispatchTable.<Void>builder()
+
+				.addCase(RefExpr.class, this::writeRef)
+
+				.addCase(TrueExpr.class, e -> append("true"))
+
+				.addCase(FalseExpr.class, e -> append("false"))
+
+				.addCase(ExistsExpr.class, e -> writeQuantified("exists", e))
+
+				.addCase(ForallExpr.class, e -> writeQuantified("forall", e))
+
+				.addCase(IntLitExpr.class, e -> writeInt(e.getValue()))
+
+				.addCase(RatLitExpr.class, this::writeRatLit)
+
+				.addCase(BvLitExpr.class, this::writeBvLit)
+
+				.addCase(IntNeqExpr.class, this::writeNeq)
+
+				.addCase(RatNeqExpr.class, this::writeNeq)
+
+				.addCase(BvNeqExpr.class, this::writeNeq)
+
+				.addCase(ArrayNeqExpr.class, this::writeNeq)
+
+				.addCase(IntPosExpr.class, e -> write(e.getOp()))
+
+				.addCase(RatPosExpr.class, e -> write(e.getOp()))
+
+				.addCase(BvPosExpr.class, e -> write(e.getOp()))
+
+				.addCase(BvExtractExpr.class, this::writeBvExtract)
+
+				.addCase(BvZExtExpr.class, e -> writeIndexedApp("zero_extend",
+						e.getExtendType().getSize() - e.getOp().getType().getSize(), e.getOp()))
+
+				.addCase(BvSExtExpr.class, e -> writeIndexedApp("sign_extend",
+						e.getExtendType().getSize() - e.getOp().getType().getSize(), e.getOp()))
+
+				.addCase(ArrayLitExpr.class, this::writeArrayLit)
+
+				.addCase(FuncAppExpr.class, this::writeFuncApp)
+
+				.addDefault(o -> {
+					throw new UnsupportedOperationException("Unsupported expression: " + o.getClass().getSimpleName());
+				})
+
+				.build();
+	}
+
+	public String toTerm(final Expr<?> expr) {
+		checkNotNull(expr);
+		out = new StringBuilder();
+		write(expr);
+		final String term = out.toString();
+		out = null;
+		return term;
+	}
+
+	private Void write(final Expr<?> expr) {
+		final String operator = OPERATORS.get(expr.getClass());
+		if (operator != null) {
+			writeApp(operator, expr);
+		} else {
+			table.dispatch(expr);
+		}
+		return null;
+	}
+
+	private Void append(final String string) {
+		out.append(string);
+		return null;
+	}
+
+	private void writeApp(final String operator, final Expr<?> expr) {
+		final List<? extends Expr<?>> ops = expr.getOps();
+		if (expr instanceof MultiaryExpr && ops.size() < 2) {
+			// Associative operators of SMT-LIB need at least two arguments
+			if (ops.size() == 1) {
+				write(ops.get(0));
+			} else if (expr instanceof AndExpr) {
+				out.append("true");
+			} else if (expr instanceof OrExpr) {
+				out.append("false");
+			} else {
+				throw new UnsupportedOperationException("Operator without operands: " + expr);
+			}
+			return;
+		}
+		out.append('(').append(operator);
+		for (final Expr<?> op : ops) {
+			out.append(' ');
+			write(op);
+		}
+		out.append(')');
+	}
+
+	private Void writeIndexedApp(final String operator, final int index, final Expr<?> op) {
+		out.append("((_ ").append(operator).append(' ').append(index).append(") ");
+		write(op);
+		out.append(')');
+		return null;
+	}
+
+	private Void writeRef(final RefExpr<?> expr) {
+		final Decl<?> decl = expr.getDecl();
+		if (decl instanceof ConstDecl) {
+			out.append(symbolResolver.apply((ConstDecl<?>) decl));
+		} else if (decl instanceof ParamDecl && params.containsKey(decl)) {
+			out.append(params.get(decl));
+		} else {
+			throw new UnsupportedOperationException("Cannot transform reference for declaration: " + decl);
+		}
+		return null;
+	}
+
+	private Void writeQuantified(final String quantifier, final QuantifiedExpr expr) {
+		final Map<ParamDecl<?>, String> shadowed = Containers.createMap();
+		out.append('(').append(quantifier).append(" (");
+		boolean first = true;
+		for (final ParamDecl<?> paramDecl : expr.getParamDecls()) {
+			final String symbol = "__p" + params.size() + "_" + SmtLibSymbolTable.toSimpleSymbol(paramDecl.getName());
+			final String previous = params.put(paramDecl, symbol);
+			if (previous != null) {
+				shadowed.put(paramDecl, previous);
+			}
+			if (!first) {
+				out.append(' ');
+			}
+			out.append('(').append(symbol).append(' ').append(SmtLibTypeTransformer.toSort(paramDecl.getType()))
+					.append(')');
+			first = false;
+		}
+		out.append(") ");
+		write(expr.getOp());
+		out.append(')');
+		for (final ParamDecl<?> paramDecl : expr.getParamDecls()) {
+			params.remove(paramDecl);
+		}
+		params.putAll(shadowed);
+		return null;
+	}
+
+	private Void writeInt(final BigInteger value) {
+		if (value.signum() < 0) {
+			out.append("(- ").append(value.negate()).append(')');
+		} else {
+			out.append(value);
+		}
+		return null;
+	}
+
+	private Void writeRatLit(final RatLitExpr expr) {
+		final BigInteger num = expr.getNum();
+		final BigInteger denom = expr.getDenom();
+		if (num.signum() < 0) {
+			out.append("(- ");
+		}
+		if (denom.equals(BigInteger.ONE)) {
+			out.append(num.abs()).append(".0");
+		} else {
+			out.append("(/ ").append(num.abs()).append(".0 ").append(denom).append(".0)");
+		}
+		if (num.signum() < 0) {
+			out.append(')');
+		}
+		return null;
+	}
+
+	private Void writeBvLit(final BvLitExpr expr) {
+		out.append("#b");
+		for (final boolean bit : expr.getValue()) {
+			out.append(bit ? '1' : '0');
+		}
+		return null;
+	}
+
+	private Void writeNeq(final Expr<?> expr) {
+		final List<? extends Expr<?>> ops = expr.getOps();
+		out.append("(not (= ");
+		write(ops.get(0));
+		out.append(' ');
+		write(ops.get(1));
+		out.append("))");
+		return null;
+	}
+
+	private Void writeBvExtract(final BvExtractExpr expr) {
+		final int from = expr.getFrom().getValue().intValue();
+		final int until = expr.getUntil().getValue().intValue();
+		out.append("((_ extract ").append(until - 1).append(' ').append(from).append(") ");
+		write(expr.getBitvec());
+		out.append(')');
+		return null;
+	}
+
+	private Void writeArrayLit(final ArrayLitExpr<?, ?> expr) {
+		final List<? extends Tuple2<? extends Expr<?>, ? extends Expr<?>>> elems = expr.getElements();
+		for (int i = 0; i < elems.size(); i++) {
+			out.append("(store ");
+		}
+		out.append("((as const ").append(SmtLibTypeTransformer.toSort(expr.getType())).append(") ");
+		write(expr.getElseElem());
+		out.append(')');
+		for (final Tuple2<? extends Expr<?>, ? extends Expr<?>> elem : elems) {
+			out.append(' ');
+			write(elem.get1());
+			out.append(' ');
+			write(elem.get2());
+			out.append(')');
+		}
+		return null;
+	}
+
+	private Void writeFuncApp(final FuncAppExpr<?, ?> expr) {
+		final List<Expr<?>> args = new ArrayList<>();
+		Expr<?> func = expr;
+		while (func instanceof FuncAppExpr) {
+			final FuncAppExpr<?, ?> app = (FuncAppExpr<?, ?>) func;
+			args.add(0, app.getParam());
+			func = app.getFunc();
+		}
+		if (!(func instanceof RefExpr)) {
+			throw new UnsupportedOperationException("Higher order functions are not supported: " + func);
+		}
+		out.append('(');
+		write(func);
+		for (final Expr<?> arg : args) {
+			out.append(' ');
+			write(arg);
+		}
+		out.append(')');
+		return null;
+	}
+
+}
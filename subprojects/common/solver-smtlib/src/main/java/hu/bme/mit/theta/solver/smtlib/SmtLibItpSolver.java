@@ -0,0 +1,224 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.collect.Lists;
+
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.common.parser.SExpr;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.TypeUtils;
+import hu.bme.mit.theta.solver.Interpolant;
+import hu.bme.mit.theta.solver.ItpMarker;
+import hu.bme.mit.theta.solver.ItpPattern;
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.impl.ItpPatternImpl;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Interpolating solver over SMT-LIB. Assertions of markers are named, and
+ * interpolants are computed by the get-interpolants command (as supported by,
+ * e.g., SMTInterpol), which only supports sequence patterns.
+ */
+final class SmtLibItpSolver implements ItpSolver {
+
+	private final SmtLibSolver solver;
+
+	private final Stack<SmtLibItpMarker> markers;
+
+	SmtLibItpSolver(final Supplier<SmtLibProcess> processSupplier) {
+		solver = new SmtLibSolver(processSupplier);
+
+		markers = new StackImpl<>();
+	}
+
+	@Override
+	public ItpPattern createPattern(final ItpMarker marker) {
+		checkNotNull(marker);
+		return new ItpPatternImpl(marker);
+	}
+
+	@Override
+	public ItpMarker createMarker() {
+		final SmtLibItpMarker marker = new SmtLibItpMarker();
+		markers.add(marker);
+		return marker;
+	}
+
+	@Override
+	public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+		checkNotNull(marker);
+		checkNotNull(assertion);
+		checkArgument(markers.toCollection().contains(marker), "Marker not found in solver");
+		final SmtLibItpMarker smtLibMarker = (SmtLibItpMarker) marker;
+		smtLibMarker.add(solver.addNamed(assertion));
+	}
+
+	@Override
+	public Interpolant getInterpolant(final ItpPattern pattern) {
+		checkState(solver.getStatus() == SolverStatus.UNSAT, "Cannot get interpolant if status is not UNSAT.");
+
+		// The root of a sequence pattern is the last marker of the sequence
+		final List<SmtLibItpMarker> sequence = new ArrayList<>();
+		for (ItpPattern current = pattern; current != null; current = getOnlyChild(current)) {
+			sequence.add((SmtLibItpMarker) current.getMarker());
+		}
+		final List<SmtLibItpMarker> seqMarkers = Lists.reverse(sequence);
+
+		final Map<ItpMarker, Expr<BoolType>> itpMap = Containers.createMap();
+		itpMap.put(pattern.getMarker(), False());
+		if (seqMarkers.size() > 1) {
+			final List<String> partitions = new ArrayList<>(seqMarkers.size());
+			for (final SmtLibItpMarker marker : seqMarkers) {
+				partitions.add(toPartition(marker));
+			}
+
+			final List<SExpr> itpTerms = solver.queryList("(get-interpolants " + String.join(" ", partitions) + ")");
+			if (itpTerms.size() != seqMarkers.size() - 1) {
+				throw new SmtLibSolverException("Unexpected number of interpolants: " + itpTerms.size());
+			}
+			for (int i = 0; i < itpTerms.size(); i++) {
+				final Expr<?> itpExpr = solver.getTermTransformer().toExpr(itpTerms.get(i));
+				itpMap.put(seqMarkers.get(i), TypeUtils.cast(itpExpr, Bool()));
+			}
+		}
+
+		return new SmtLibInterpolant(itpMap);
+	}
+
+	private static ItpPattern getOnlyChild(final ItpPattern pattern) {
+		final Collection<ItpPattern> children = pattern.getChildren();
+		if (children.isEmpty()) {
+			return null;
+		} else if (children.size() == 1) {
+			return children.iterator().next();
+		} else {
+			throw new UnsupportedOperationException("Only sequence interpolation is supported over SMT-LIB");
+		}
+	}
+
+	private static String toPartition(final SmtLibItpMarker marker) {
+		final Collection<String> labels = marker.getLabels();
+		if (labels.isEmpty()) {
+			return "true";
+		} else if (labels.size() == 1) {
+			return labels.iterator().next();
+		} else {
+			return "(and " + String.join(" ", labels) + ")";
+		}
+	}
+
+	@Override
+	public Collection<? extends ItpMarker> getMarkers() {
+		return markers.toCollection();
+	}
+
+	// delegate
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		solver.add(assertion);
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		solver.track(assertion);
+	}
+
+	@Override
+	public SolverStatus check() {
+		return solver.check();
+	}
+
+	@Override
+	public SolverStatus check(final long timeout, final TimeUnit unit) {
+		return solver.check(timeout, unit);
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		return solver.check(assumptions);
+	}
+
+	@Override
+	public Future<SolverStatus> checkAsync() {
+		return solver.checkAsync();
+	}
+
+	@Override
+	public void push() {
+		markers.push();
+		for (final SmtLibItpMarker marker : markers) {
+			marker.push();
+		}
+		solver.push();
+	}
+
+	@Override
+	public void pop(final int n) {
+		markers.pop(n);
+		for (final SmtLibItpMarker marker : markers) {
+			marker.pop(n);
+		}
+		solver.pop(n);
+	}
+
+	@Override
+	public void reset() {
+		solver.reset();
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		return solver.getStatus();
+	}
+
+	@Override
+	public Valuation getModel() {
+		return solver.getModel();
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		return solver.getUnsatCore();
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return solver.getAssertions();
+	}
+
+}
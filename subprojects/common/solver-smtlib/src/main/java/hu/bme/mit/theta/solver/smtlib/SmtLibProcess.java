@@ -0,0 +1,248 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.parser.SExpr;
+
+/**
+ * A solver process that reads SMT-LIB commands from its standard input and
+ * writes responses to its standard output. The solver is configured to
+ * acknowledge every command (print-success), so commands without a response
+ * can be buffered and sent in a single batch: the acknowledgements are only
+ * read (and errors reported) at the next query, or when too many of them are
+ * pending.
+ */
+final class SmtLibProcess implements AutoCloseable {
+
+	private static final long EXIT_TIMEOUT_MS = 100;
+
+	// Unread acknowledgements fill the output pipe of the solver, which then stops
+	// reading its input and blocks our writes. Syncing after this many commands
+	// keeps the pending acknowledgements far below the size of a pipe buffer.
+	private static final int MAX_PENDING_ACKS = 1024;
+
+	private final List<String> command;
+	private final Process process;
+	private final Writer input;
+	private final SExprReader output;
+
+	private int pendingAcks;
+	private volatile boolean killed;
+
+	private SmtLibProcess(final List<String> command, final List<String> options) {
+		this.command = ImmutableList.copyOf(command);
+		try {
+			process = new ProcessBuilder(this.command).redirectError(Redirect.DISCARD).start();
+		} catch (final IOException e) {
+			throw new SmtLibSolverException("Cannot start solver " + String.join(" ", this.command), e);
+		}
+		input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.US_ASCII));
+		output = new SExprReader(new BufferedReader(new InputStreamReader(process.getInputStream(),
+				StandardCharsets.US_ASCII)));
+		pendingAcks = 0;
+		killed = false;
+
+		send("(set-option :print-success true)");
+		options.forEach(this::send);
+		sync();
+	}
+
+	/**
+	 * Starts a new solver process.
+	 *
+	 * @param command Command line of the solver
+	 * @param options Commands (typically set-option) sent before anything else
+	 * @return Process
+	 */
+	public static SmtLibProcess start(final List<String> command, final List<String> options) {
+		checkNotNull(command);
+		checkNotNull(options);
+		return new SmtLibProcess(command, options);
+	}
+
+	/**
+	 * Buffers a command that is only answered with an acknowledgement. The
+	 * batch is sent and its acknowledgements are read once it gets too large.
+	 */
+	public void send(final String command) {
+		checkAlive();
+		try {
+			input.write(command);
+			input.write('\n');
+			pendingAcks++;
+		} catch (final IOException e) {
+			throw failure(e);
+		}
+		if (pendingAcks >= MAX_PENDING_ACKS) {
+			sync();
+		}
+	}
+
+	/**
+	 * Sends the buffered commands and waits until all of them are acknowledged.
+	 */
+	public void sync() {
+		flush();
+		drainAcks();
+	}
+
+	/**
+	 * Sends the buffered commands and a command with a response, and waits for
+	 * the response.
+	 */
+	public SExpr query(final String command) {
+		checkAlive();
+		try {
+			input.write(command);
+			input.write('\n');
+		} catch (final IOException e) {
+			throw failure(e);
+		}
+		sync();
+		final SExpr response = read();
+		checkError(response);
+		return response;
+	}
+
+	/**
+	 * Kills the process immediately, e.g., to stop a check that takes too long.
+	 * Pending and future operations on this process fail.
+	 */
+	public void kill() {
+		killed = true;
+		process.destroyForcibly();
+	}
+
+	public boolean isKilled() {
+		return killed;
+	}
+
+	public boolean isAlive() {
+		return !killed && process.isAlive();
+	}
+
+	@Override
+	public void close() {
+		if (isAlive()) {
+			try {
+				input.write("(exit)\n");
+				input.flush();
+				process.waitFor(EXIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+			} catch (final IOException e) {
+				// The process is killed anyway
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		kill();
+	}
+
+	private void checkAlive() {
+		if (killed) {
+			throw new SmtLibSolverException("Solver process was killed");
+		}
+	}
+
+	private void flush() {
+		try {
+			input.flush();
+		} catch (final IOException e) {
+			throw failure(e);
+		}
+	}
+
+	private void drainAcks() {
+		// Read every acknowledgement, even after an error, so the stream stays in sync
+		SmtLibSolverException error = null;
+		while (pendingAcks > 0) {
+			final SExpr ack = read();
+			pendingAcks--;
+			if (isError(ack)) {
+				if (error == null) {
+					error = new SmtLibSolverException("Solver error: " + errorMessage(ack));
+				}
+			} else if (!isAck(ack)) {
+				throw new SmtLibSolverException("Unexpected solver response: " + ack);
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	private SExpr read() {
+		final SExpr response;
+		try {
+			response = output.read();
+		} catch (final IOException e) {
+			throw failure(e);
+		}
+		if (response == null) {
+			throw new SmtLibSolverException(killed ? "Solver process was killed" : "Solver process terminated");
+		}
+		return response;
+	}
+
+	private SmtLibSolverException failure(final IOException e) {
+		return new SmtLibSolverException(killed ? "Solver process was killed" : "Cannot communicate with solver", e);
+	}
+
+	private static void checkError(final SExpr response) {
+		if (isError(response)) {
+			throw new SmtLibSolverException("Solver error: " + errorMessage(response));
+		}
+	}
+
+	// Solvers answer "unsupported" to options they do not know, which is not an error
+	private static boolean isAck(final SExpr response) {
+		return response.isAtom()
+				&& (response.asAtom().getAtom().equals("success") || response.asAtom().getAtom().equals("unsupported"));
+	}
+
+	private static boolean isError(final SExpr response) {
+		if (!response.isList()) {
+			return false;
+		}
+		final List<SExpr> list = response.asList().getList();
+		return !list.isEmpty() && list.get(0).isAtom() && list.get(0).asAtom().getAtom().equals("error");
+	}
+
+	private static String errorMessage(final SExpr error) {
+		final List<SExpr> list = error.asList().getList();
+		return list.size() > 1 ? list.get(1).toString() : "";
+	}
+
+	@Override
+	public String toString() {
+		return String.join(" ", command);
+	}
+
+}
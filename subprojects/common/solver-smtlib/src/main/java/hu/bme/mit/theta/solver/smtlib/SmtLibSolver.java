@@ -0,0 +1,554 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.common.parser.SExpr;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.anytype.RefExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.functype.FuncType;
+import hu.bme.mit.theta.core.type.inttype.IntToRatExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverStatus;
+import hu.bme.mit.theta.solver.Stack;
+import hu.bme.mit.theta.solver.UnknownSolverStatusException;
+import hu.bme.mit.theta.solver.impl.StackImpl;
+
+/**
+ * Solver that streams SMT-LIB commands to a solver process. Commands that are
+ * only acknowledged are buffered until the next query (check, model, core).
+ * The declarations and the assertions of each scope are recorded, so when a
+ * check is stopped by killing the process, a new process is started and the
+ * state is replayed.
+ */
+final class SmtLibSolver implements Solver {
+
+	private static final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		final Thread thread = new Thread(runnable, "SmtLibSolver-async");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "SmtLibSolver-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Supplier<SmtLibProcess> processSupplier;
+	private final SmtLibSymbolTable symbolTable;
+	private final SmtLibExprTransformer exprTransformer;
+	private final SmtLibTermTransformer termTransformer;
+
+	private final Stack<Expr<BoolType>> assertions;
+	private final List<String> declarations;
+	private final List<List<String>> scopes;
+	private final Map<String, Expr<BoolType>> trackedLabels;
+	private final Map<Expr<BoolType>, String> assumptionLabels;
+	private final Map<SExpr, Expr<BoolType>> checkAssumptions;
+
+	private volatile SmtLibProcess process;
+	private int labelNum = 0;
+
+	private Valuation model;
+	private Collection<Expr<BoolType>> unsatCore;
+	private SolverStatus status;
+
+	SmtLibSolver(final Supplier<SmtLibProcess> processSupplier) {
+		this.processSupplier = checkNotNull(processSupplier);
+		symbolTable = new SmtLibSymbolTable();
+		exprTransformer = new SmtLibExprTransformer(this::declare);
+		termTransformer = new SmtLibTermTransformer(symbolTable);
+
+		assertions = new StackImpl<>();
+		declarations = new ArrayList<>();
+		scopes = new ArrayList<>();
+		scopes.add(new ArrayList<>());
+		trackedLabels = Containers.createMap();
+		assumptionLabels = Containers.createMap();
+		checkAssumptions = Containers.createMap();
+
+		process = processSupplier.get();
+	}
+
+	////
+
+	@Override
+	public void add(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		assertions.add(assertion);
+		assertTerm("(assert " + exprTransformer.toTerm(assertion) + ")");
+		clearState();
+	}
+
+	@Override
+	public void track(final Expr<BoolType> assertion) {
+		checkNotNull(assertion);
+		final String label = addNamed(assertion);
+		trackedLabels.put(label, assertion);
+	}
+
+	/**
+	 * Adds an assertion with a fresh name, which can be referred to in later
+	 * commands (e.g., unsat cores and interpolants).
+	 */
+	String addNamed(final Expr<BoolType> assertion) {
+		assertions.add(assertion);
+		final String label = nextLabel();
+		assertTerm("(assert (! " + exprTransformer.toTerm(assertion) + " :named " + label + "))");
+		clearState();
+		return label;
+	}
+
+	@Override
+	public SolverStatus check() {
+		clearState();
+		status = transformStatus(query("(check-sat)"));
+		return status;
+	}
+
+	@Override
+	public SolverStatus check(final long timeout, final TimeUnit unit) {
+		checkArgument(timeout > 0, "Timeout must be positive");
+		checkNotNull(unit);
+		clearState();
+		final SmtLibProcess checkedProcess = process;
+		final ScheduledFuture<?> watchdog = WATCHDOG.schedule(checkedProcess::kill, timeout, unit);
+		try {
+			status = transformBoundedStatus(query("(check-sat)"));
+		} catch (final SmtLibSolverException e) {
+			if (!checkedProcess.isKilled()) {
+				throw e;
+			}
+		} finally {
+			watchdog.cancel(false);
+		}
+		// The result is also dropped if the watchdog fired right after the response
+		if (checkedProcess.isKilled()) {
+			restart();
+			status = SolverStatus.UNKNOWN;
+		}
+		return status;
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		checkNotNull(assumptions);
+		clearState();
+		final List<String> terms = new ArrayList<>(assumptions.size());
+		for (final Expr<BoolType> assumption : assumptions) {
+			final SExpr term = toAssumptionTerm(checkNotNull(assumption));
+			checkAssumptions.put(term, assumption);
+			terms.add(term.toString());
+		}
+		status = transformStatus(query("(check-sat-assuming (" + String.join(" ", terms) + "))"));
+		return status;
+	}
+
+	@Override
+	public Future<SolverStatus> checkAsync() {
+		clearState();
+		final SmtLibCheckTask task = new SmtLibCheckTask();
+		ASYNC_EXECUTOR.execute(task);
+		return task;
+	}
+
+	private SExpr toAssumptionTerm(final Expr<BoolType> assumption) {
+		final Optional<SExpr> literal = toLiteral(assumption);
+		if (literal.isPresent()) {
+			return literal.get();
+		}
+		// Assumptions must be literals, other expressions are guarded by a label in the current scope
+		String label = assumptionLabels.get(assumption);
+		if (label == null) {
+			label = nextLabel();
+			declare("(declare-fun " + label + " () Bool)");
+			assertTerm("(assert (=> " + label + " " + exprTransformer.toTerm(assumption) + "))");
+			assumptionLabels.put(assumption, label);
+		}
+		return SExpr.atom(label);
+	}
+
+	private Optional<SExpr> toLiteral(final Expr<BoolType> expr) {
+		if (expr instanceof NotExpr) {
+			return toAtom(((NotExpr) expr).getOp()).map(atom -> SExpr.list(ImmutableList.of(SExpr.atom("not"), atom)));
+		} else {
+			return toAtom(expr);
+		}
+	}
+
+	private Optional<SExpr> toAtom(final Expr<BoolType> expr) {
+		if (expr instanceof RefExpr && ((RefExpr<?>) expr).getDecl() instanceof ConstDecl) {
+			return Optional.of(SExpr.atom(exprTransformer.toTerm(expr)));
+		} else {
+			return Optional.empty();
+		}
+	}
+
+	private SolverStatus transformStatus(final SExpr response) {
+		final SolverStatus result = transformBoundedStatus(response);
+		if (result == SolverStatus.UNKNOWN) {
+			throw new UnknownSolverStatusException(response.toString());
+		}
+		return result;
+	}
+
+	private static SolverStatus transformBoundedStatus(final SExpr response) {
+		checkResponse(response.isAtom(), response);
+		switch (response.asAtom().getAtom()) {
+			case "sat":
+				return SolverStatus.SAT;
+			case "unsat":
+				return SolverStatus.UNSAT;
+			case "unknown":
+				return SolverStatus.UNKNOWN;
+			default:
+				throw new SmtLibSolverException("Unexpected check-sat response: " + response);
+		}
+	}
+
+	@Override
+	public void push() {
+		assertions.push();
+		scopes.add(new ArrayList<>());
+		process.send("(push 1)");
+	}
+
+	@Override
+	public void pop(final int n) {
+		checkArgument(n > 0 && n < scopes.size(), "Cannot pop %s scopes from %s", n, scopes.size() - 1);
+		assertions.pop(n);
+		scopes.subList(scopes.size() - n, scopes.size()).clear();
+		process.send("(pop " + n + ")");
+		assumptionLabels.clear();
+		clearState();
+	}
+
+	/**
+	 * Resets the solver by replacing the process with a fresh one.
+	 */
+	@Override
+	public void reset() {
+		assertions.clear();
+		declarations.clear();
+		scopes.clear();
+		scopes.add(new ArrayList<>());
+		trackedLabels.clear();
+		assumptionLabels.clear();
+		symbolTable.clear();
+		clearState();
+		process.close();
+		process = processSupplier.get();
+	}
+
+	@Override
+	public SolverStatus getStatus() {
+		checkState(status != null, "Solver status is unknown.");
+		return status;
+	}
+
+	/**
+	 * Gets the model of the last check. Values are queried from the solver
+	 * lazily, so the model is only valid until the solver is modified.
+	 */
+	@Override
+	public Valuation getModel() {
+		checkState(status == SolverStatus.SAT, "Cannot get model if status is not SAT.");
+
+		if (model == null) {
+			model = new SmtLibModel();
+		}
+
+		return model;
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getUnsatCore() {
+		checkState(status == SolverStatus.UNSAT, "Cannot get unsat core if status is not UNSAT");
+
+		if (unsatCore == null) {
+			unsatCore = extractUnsatCore();
+		}
+
+		return Collections.unmodifiableCollection(unsatCore);
+	}
+
+	private Collection<Expr<BoolType>> extractUnsatCore() {
+		final Collection<Expr<BoolType>> unsatCore = new LinkedList<>();
+
+		// Labels of assertions that were added to markers instead of tracked are skipped
+		for (final SExpr label : queryList("(get-unsat-core)")) {
+			final Expr<BoolType> assumption = trackedLabels.get(label.toString());
+			if (assumption != null) {
+				unsatCore.add(assumption);
+			}
+		}
+
+		if (!checkAssumptions.isEmpty()) {
+			for (final SExpr term : queryList("(get-unsat-assumptions)")) {
+				final Expr<BoolType> assumption = checkAssumptions.get(term);
+				checkResponse(assumption != null, term);
+				unsatCore.add(assumption);
+			}
+		}
+
+		return unsatCore;
+	}
+
+	@Override
+	public Collection<Expr<BoolType>> getAssertions() {
+		return assertions.toCollection();
+	}
+
+	////
+
+	SExpr query(final String command) {
+		return process.query(command);
+	}
+
+	List<SExpr> queryList(final String command) {
+		final SExpr response = query(command);
+		checkResponse(response.isList(), response);
+		return response.asList().getList();
+	}
+
+	SmtLibTermTransformer getTermTransformer() {
+		return termTransformer;
+	}
+
+	private String declare(final ConstDecl<?> constDecl) {
+		if (symbolTable.definesConst(constDecl)) {
+			return symbolTable.getSymbol(constDecl);
+		}
+		final String symbol = symbolTable.put(constDecl);
+		declare(SmtLibTypeTransformer.toDeclaration(symbol, constDecl.getType()));
+		return symbol;
+	}
+
+	// Declarations are global (not removed by pop), so they are replayed before all scopes
+	private void declare(final String declaration) {
+		declarations.add(declaration);
+		process.send(declaration);
+	}
+
+	private void assertTerm(final String command) {
+		scopes.get(scopes.size() - 1).add(command);
+		process.send(command);
+	}
+
+	private String nextLabel() {
+		return SmtLibSymbolTable.LABEL_PREFIX + labelNum++;
+	}
+
+	private void restart() {
+		process.kill();
+		process = processSupplier.get();
+		declarations.forEach(process::send);
+		for (int i = 0; i < scopes.size(); i++) {
+			if (i > 0) {
+				process.send("(push 1)");
+			}
+			scopes.get(i).forEach(process::send);
+		}
+	}
+
+	private void clearState() {
+		status = null;
+		model = null;
+		unsatCore = null;
+		checkAssumptions.clear();
+	}
+
+	private static void checkResponse(final boolean condition, final SExpr response) {
+		if (!condition) {
+			throw new SmtLibSolverException("Unexpected solver response: " + response);
+		}
+	}
+
+	////
+
+	/**
+	 * Check running on a separate thread. Cancellation kills the process and
+	 * waits until a new process is started with the state of the solver, so
+	 * that the solver can be used again.
+	 */
+	private final class SmtLibCheckTask extends FutureTask<SolverStatus> {
+		private final SmtLibProcess checkedProcess;
+		private final CountDownLatch finished;
+
+		private SmtLibCheckTask() {
+			super(() -> {
+				status = transformBoundedStatus(query("(check-sat)"));
+				return status;
+			});
+			checkedProcess = process;
+			finished = new CountDownLatch(1);
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				if (checkedProcess.isKilled()) {
+					restart();
+					status = SolverStatus.UNKNOWN;
+				}
+				finished.countDown();
+			}
+		}
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			final boolean cancelled = super.cancel(false);
+			if (cancelled && mayInterruptIfRunning) {
+				checkedProcess.kill();
+				try {
+					finished.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return cancelled;
+		}
+	}
+
+	private final class SmtLibModel extends Valuation {
+		private final List<ConstDecl<?>> constDecls;
+		private final Map<Decl<?>, LitExpr<?>> constToExpr;
+
+		private SmtLibModel() {
+			// Functions cannot be queried by get-value, so they are not part of the model
+			final List<ConstDecl<?>> decls = new ArrayList<>();
+			for (final ConstDecl<?> constDecl : symbolTable.getConsts()) {
+				if (!(constDecl.getType() instanceof FuncType)) {
+					decls.add(constDecl);
+				}
+			}
+			constDecls = Collections.unmodifiableList(decls);
+			constToExpr = Containers.createMap();
+		}
+
+		@Override
+		public Collection<ConstDecl<?>> getDecls() {
+			return constDecls;
+		}
+
+		@Override
+		public <DeclType extends Type> Optional<LitExpr<DeclType>> eval(final Decl<DeclType> decl) {
+			checkNotNull(decl);
+			@SuppressWarnings("unchecked") final LitExpr<DeclType> val = (LitExpr<DeclType>) evalAll(
+					ImmutableList.of(decl)).get(decl);
+			return Optional.ofNullable(val);
+		}
+
+		/**
+		 * Evaluates all constants that are not cached yet with a single get-value
+		 * command.
+		 */
+		@Override
+		public Map<Decl<?>, LitExpr<?>> evalAll(final Collection<? extends Decl<?>> decls) {
+			checkNotNull(decls);
+			checkState(model == this, "Model is no longer valid, the solver was modified");
+
+			final List<ConstDecl<?>> missing = new ArrayList<>();
+			for (final Decl<?> decl : decls) {
+				if (decl instanceof ConstDecl && !constToExpr.containsKey(decl) && constDecls.contains(decl)) {
+					missing.add((ConstDecl<?>) decl);
+				}
+			}
+			if (!missing.isEmpty()) {
+				fetch(missing);
+			}
+
+			final Map<Decl<?>, LitExpr<?>> result = new LinkedHashMap<>();
+			for (final Decl<?> decl : decls) {
+				final LitExpr<?> val = constToExpr.get(decl);
+				if (val != null) {
+					result.put(decl, val);
+				}
+			}
+			return Collections.unmodifiableMap(result);
+		}
+
+		private void fetch(final List<ConstDecl<?>> decls) {
+			final StringBuilder command = new StringBuilder("(get-value (");
+			for (final ConstDecl<?> decl : decls) {
+				command.append(symbolTable.getSymbol(decl)).append(' ');
+			}
+			command.setLength(command.length() - 1);
+			command.append("))");
+
+			// Values are returned as (term value) pairs in the order of the terms
+			final List<SExpr> pairs = queryList(command.toString());
+			checkResponse(pairs.size() == decls.size(), SExpr.list(pairs));
+			for (int i = 0; i < decls.size(); i++) {
+				final SExpr pair = pairs.get(i);
+				checkResponse(pair.isList() && pair.asList().getList().size() == 2, pair);
+				constToExpr.put(decls.get(i), toLiteral(decls.get(i), pair.asList().getList().get(1)));
+			}
+		}
+
+		private LitExpr<?> toLiteral(final ConstDecl<?> decl, final SExpr value) {
+			Expr<?> expr = termTransformer.toExpr(value);
+			// Some solvers print integral values of real constants as integers
+			if (decl.getType() instanceof RatType && expr.getType() instanceof IntType) {
+				expr = IntToRatExpr.create(expr);
+			}
+			return expr.eval(ImmutableValuation.empty());
+		}
+
+		@Override
+		public Map<Decl<?>, LitExpr<?>> toMap() {
+			return evalAll(constDecls);
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+/**
+ * Exception thrown when the communication with an SMT-LIB solver process
+ * fails, e.g., the solver reports an error, crashes or is killed.
+ */
+public final class SmtLibSolverException extends RuntimeException {
+	private static final long serialVersionUID = -8297326583651208765L;
+
+	public SmtLibSolverException(final String message) {
+		super(message);
+	}
+
+	public SmtLibSolverException(final String message, final Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.SolverFactory;
+
+/**
+ * Factory for solvers that run in separate processes and communicate over
+ * SMT-LIB. Each solver has its own process, so solvers can be used from
+ * different threads side by side, and stuck processes can be killed with
+ * {@link #killAll()}. Starting a process is expensive, so solvers should be
+ * reused, e.g., by leasing them from {@code SolverPool.create(factory)}.
+ */
+public final class SmtLibSolverFactory implements SolverFactory {
+
+	private static final List<String> DEFAULT_COMMAND = ImmutableList.of("z3", "-in", "-smt2");
+
+	private static final List<String> SOLVER_OPTIONS = ImmutableList.of("(set-option :produce-models true)",
+			"(set-option :produce-unsat-cores true)", "(set-option :produce-unsat-assumptions true)",
+			"(set-option :global-declarations true)");
+
+	private static final String ITP_OPTION = "(set-option :produce-interpolants true)";
+
+	private final List<String> command;
+	private final List<String> itpCommand;
+	private final List<String> options;
+	private final Set<SmtLibProcess> processes;
+
+	private SmtLibSolverFactory(final List<String> command, final List<String> itpCommand,
+								final List<String> options) {
+		checkArgument(!command.isEmpty(), "Command must not be empty");
+		checkArgument(!itpCommand.isEmpty(), "Interpolation command must not be empty");
+		this.command = ImmutableList.copyOf(command);
+		this.itpCommand = ImmutableList.copyOf(itpCommand);
+		this.options = ImmutableList.copyOf(options);
+		this.processes = ConcurrentHashMap.newKeySet();
+	}
+
+	/**
+	 * Creates a factory for Z3, which has to be on the path.
+	 */
+	public static SmtLibSolverFactory create() {
+		return builder().build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public Solver createSolver() {
+		final List<String> solverOptions = ImmutableList.<String>builder().addAll(SOLVER_OPTIONS).addAll(options)
+				.build();
+		return new SmtLibSolver(() -> startProcess(command, solverOptions));
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		final List<String> solverOptions = ImmutableList.<String>builder().addAll(SOLVER_OPTIONS).add(ITP_OPTION)
+				.addAll(options).build();
+		return new SmtLibItpSolver(() -> startProcess(itpCommand, solverOptions));
+	}
+
+	private SmtLibProcess startProcess(final List<String> command, final List<String> options) {
+		processes.removeIf(process -> !process.isAlive());
+		final SmtLibProcess process = SmtLibProcess.start(command, options);
+		processes.add(process);
+		return process;
+	}
+
+	/**
+	 * Gets the number of solver processes that are currently running.
+	 */
+	public int getLiveProcessCount() {
+		processes.removeIf(process -> !process.isAlive());
+		return processes.size();
+	}
+
+	/**
+	 * Kills the processes of all solvers created by this factory. The solvers
+	 * cannot be used afterwards, except for a running timed or asynchronous
+	 * check, which returns UNKNOWN and restarts the process.
+	 */
+	public void killAll() {
+		for (final SmtLibProcess process : new ArrayList<>(processes)) {
+			process.kill();
+		}
+		processes.clear();
+	}
+
+	public List<String> getCommand() {
+		return command;
+	}
+
+	public List<String> getItpCommand() {
+		return itpCommand;
+	}
+
+	public static final class Builder {
+		private List<String> command;
+		private List<String> itpCommand;
+		private final List<String> options;
+
+		private Builder() {
+			this.command = DEFAULT_COMMAND;
+			this.itpCommand = null;
+			this.options = new ArrayList<>();
+		}
+
+		/**
+		 * Sets the command line of the solver, which must read SMT-LIB from its
+		 * standard input (e.g., "z3 -in -smt2" or "cvc4 --lang smt2 --incremental").
+		 */
+		public Builder command(final String... command) {
+			return command(Arrays.asList(command));
+		}
+
+		public Builder command(final List<String> command) {
+			this.command = checkNotNull(command);
+			return this;
+		}
+
+		/**
+		 * Sets the command line of the solver used for interpolation, which must
+		 * support get-interpolants (e.g., "java -jar smtinterpol.jar -q").
+		 * Defaults to the command of the other solvers.
+		 */
+		public Builder itpCommand(final String... itpCommand) {
+			return itpCommand(Arrays.asList(itpCommand));
+		}
+
+		public Builder itpCommand(final List<String> itpCommand) {
+			this.itpCommand = checkNotNull(itpCommand);
+			return this;
+		}
+
+		/**
+		 * Adds a solver specific option, set at the start of each process.
+		 */
+		public Builder option(final String keyword, final String value) {
+			checkNotNull(keyword);
+			checkNotNull(value);
+			options.add("(set-option :" + keyword + " " + value + ")");
+			return this;
+		}
+
+		public SmtLibSolverFactory build() {
+			return new SmtLibSolverFactory(command, itpCommand != null ? itpCommand : command, options);
+		}
+	}
+
+}
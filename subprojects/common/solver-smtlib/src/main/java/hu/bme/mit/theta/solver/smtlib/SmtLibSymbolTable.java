@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Set;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableSet;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+
+/**
+ * Maps constants to the symbols declared for them in the solver. Symbols are
+ * derived from the names of the constants, made unique and restricted to
+ * simple symbols, so they never need to be quoted.
+ */
+final class SmtLibSymbolTable {
+
+	static final String LABEL_PREFIX = "__label_";
+
+	private static final Set<String> RESERVED = ImmutableSet.of("!", "_", "as", "let", "forall", "exists", "match",
+			"par", "true", "false", "not", "and", "or", "xor", "=>", "=", "distinct", "ite", "select", "store", "div",
+			"mod", "rem", "abs", "to_real", "to_int", "is_int", "concat", "extract", "repeat", "zero_extend",
+			"sign_extend", "rotate_left", "rotate_right");
+
+	private final BiMap<ConstDecl<?>, String> constToSymbol;
+
+	SmtLibSymbolTable() {
+		constToSymbol = HashBiMap.create();
+	}
+
+	public boolean definesConst(final ConstDecl<?> constDecl) {
+		return constToSymbol.containsKey(constDecl);
+	}
+
+	public boolean definesSymbol(final String symbol) {
+		return constToSymbol.inverse().containsKey(symbol);
+	}
+
+	public String getSymbol(final ConstDecl<?> constDecl) {
+		checkArgument(definesConst(constDecl), "Declaration %s not found in symbol table", constDecl);
+		return constToSymbol.get(constDecl);
+	}
+
+	public ConstDecl<?> getConst(final String symbol) {
+		checkArgument(definesSymbol(symbol), "Symbol %s not found in symbol table", symbol);
+		return constToSymbol.inverse().get(symbol);
+	}
+
+	public Set<ConstDecl<?>> getConsts() {
+		return constToSymbol.keySet();
+	}
+
+	/**
+	 * Creates a fresh symbol for a constant that is not in the table yet.
+	 */
+	public String put(final ConstDecl<?> constDecl) {
+		checkNotNull(constDecl);
+		checkArgument(!definesConst(constDecl), "Constant %s already declared", constDecl);
+		final String base = toSimpleSymbol(constDecl.getName());
+		String symbol = base;
+		for (int i = 1; definesSymbol(symbol) || isReserved(symbol); i++) {
+			symbol = base + "_" + i;
+		}
+		constToSymbol.put(constDecl, symbol);
+		return symbol;
+	}
+
+	public void clear() {
+		constToSymbol.clear();
+	}
+
+	static String toSimpleSymbol(final String name) {
+		final StringBuilder sb = new StringBuilder(name.length() + 1);
+		for (int i = 0; i < name.length(); i++) {
+			final char c = name.charAt(i);
+			sb.append(isSymbolChar(c) ? c : '_');
+		}
+		if (sb.length() == 0 || Character.isDigit(sb.charAt(0))) {
+			sb.insert(0, '_');
+		}
+		return sb.toString();
+	}
+
+	private static boolean isSymbolChar(final char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+				|| "~!@$%^&*_-+=<>.?/".indexOf(c) >= 0;
+	}
+
+	private static boolean isReserved(final String symbol) {
+		// Symbols starting with @ or . are reserved for the solver, bv* covers the bitvector operators
+		return RESERVED.contains(symbol) || symbol.startsWith(LABEL_PREFIX) || symbol.startsWith("@")
+				|| symbol.startsWith(".") || symbol.startsWith("bv");
+	}
+
+}
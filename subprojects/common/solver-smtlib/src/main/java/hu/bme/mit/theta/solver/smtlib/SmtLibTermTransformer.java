@@ -0,0 +1,390 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+import static hu.bme.mit.theta.core.type.bvtype.BvExprs.BvType;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.container.Containers;
+import hu.bme.mit.theta.common.parser.SExpr;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.abstracttype.AbstractExprs;
+import hu.bme.mit.theta.core.type.anytype.IteExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayExprs;
+import hu.bme.mit.theta.core.type.arraytype.ArrayReadExpr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayType;
+import hu.bme.mit.theta.core.type.arraytype.ArrayWriteExpr;
+import hu.bme.mit.theta.core.type.booltype.AndExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.booltype.IffExpr;
+import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
+import hu.bme.mit.theta.core.type.booltype.NotExpr;
+import hu.bme.mit.theta.core.type.booltype.OrExpr;
+import hu.bme.mit.theta.core.type.booltype.XorExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvAddExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvAndExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvArithShiftRightExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvConcatExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvExtractExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvLogicShiftRightExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvMulExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvNegExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvNotExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvOrExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvRotateLeftExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvRotateRightExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSDivExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSExtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSGeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSGtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSLeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSLtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSModExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSRemExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvShiftLeftExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvSubExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvType;
+import hu.bme.mit.theta.core.type.bvtype.BvUDivExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvUGeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvUGtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvULeqExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvULtExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvURemExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvXorExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvZExtExpr;
+import hu.bme.mit.theta.core.type.functype.FuncAppExpr;
+import hu.bme.mit.theta.core.type.inttype.IntDivExpr;
+import hu.bme.mit.theta.core.type.inttype.IntToRatExpr;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatDivExpr;
+import hu.bme.mit.theta.core.type.rattype.RatToIntExpr;
+
+/**
+ * Transforms SMT-LIB terms returned by a solver (model values and
+ * interpolants) back to expressions. Symbols are resolved through the symbol
+ * table, let bindings are substituted and annotations are dropped.
+ */
+final class SmtLibTermTransformer {
+
+	private final SmtLibSymbolTable symbolTable;
+	private final Map<String, Function<List<Expr<?>>, Expr<?>>> environment;
+
+	SmtLibTermTransformer(final SmtLibSymbolTable symbolTable) {
+		this.symbolTable = checkNotNull(symbolTable);
+
+		environment = Containers.createMap();
+		environment.put("not", unary(NotExpr::create));
+		environment.put("and", AndExpr::create);
+		environment.put("or", OrExpr::create);
+		environment.put("=>", rightAssoc(ImplyExpr::create));
+		environment.put("xor", leftAssoc(XorExpr::create));
+		environment.put("=", chainable(SmtLibTermTransformer::eq));
+		environment.put("distinct", this::distinct);
+		environment.put("ite", ops -> IteExpr.create(ops.get(0), ops.get(1), ops.get(2)));
+		environment.put("+", AbstractExprs::Add);
+		environment.put("-", ops -> ops.size() == 1 ? AbstractExprs.Neg(ops.get(0)) : leftAssoc(AbstractExprs::Sub).apply(ops));
+		environment.put("*", AbstractExprs::Mul);
+		environment.put("/", leftAssoc((l, r) -> RatDivExpr.create(toRat(l), toRat(r))));
+		environment.put("div", leftAssoc(IntDivExpr::create));
+		environment.put("mod", binary(AbstractExprs::Mod));
+		environment.put("rem", binary(AbstractExprs::Rem));
+		environment.put("abs", unary(op -> IteExpr.create(AbstractExprs.Geq(op, Int(0)), op, AbstractExprs.Neg(op))));
+		environment.put("<=", chainable(AbstractExprs::Leq));
+		environment.put("<", chainable(AbstractExprs::Lt));
+		environment.put(">=", chainable(AbstractExprs::Geq));
+		environment.put(">", chainable(AbstractExprs::Gt));
+		environment.put("to_real", unary(IntToRatExpr::create));
+		environment.put("to_int", unary(RatToIntExpr::create));
+		environment.put("select", binary(ArrayReadExpr::create));
+		environment.put("store", ops -> ArrayWriteExpr.create(ops.get(0), ops.get(1), ops.get(2)));
+		environment.put("concat", BvConcatExpr::create);
+		environment.put("bvadd", BvAddExpr::create);
+		environment.put("bvsub", binary(BvSubExpr::create));
+		environment.put("bvneg", unary(BvNegExpr::create));
+		environment.put("bvmul", BvMulExpr::create);
+		environment.put("bvudiv", binary(BvUDivExpr::create));
+		environment.put("bvsdiv", binary(BvSDivExpr::create));
+		environment.put("bvsmod", binary(BvSModExpr::create));
+		environment.put("bvurem", binary(BvURemExpr::create));
+		environment.put("bvsrem", binary(BvSRemExpr::create));
+		environment.put("bvand", BvAndExpr::create);
+		environment.put("bvor", BvOrExpr::create);
+		environment.put("bvxor", BvXorExpr::create);
+		environment.put("bvnot", unary(BvNotExpr::create));
+		environment.put("bvshl", binary(BvShiftLeftExpr::create));
+		environment.put("bvashr", binary(BvArithShiftRightExpr::create));
+		environment.put("bvlshr", binary(BvLogicShiftRightExpr::create));
+		environment.put("ext_rotate_left", binary(BvRotateLeftExpr::create));
+		environment.put("ext_rotate_right", binary(BvRotateRightExpr::create));
+		environment.put("bvuge", binary(BvUGeqExpr::create));
+		environment.put("bvugt", binary(BvUGtExpr::create));
+		environment.put("bvule", binary(BvULeqExpr::create));
+		environment.put("bvult", binary(BvULtExpr::create));
+		environment.put("bvsge", binary(BvSGeqExpr::create));
+		environment.put("bvsgt", binary(BvSGtExpr::create));
+		environment.put("bvsle", binary(BvSLeqExpr::create));
+		environment.put("bvslt", binary(BvSLtExpr::create));
+	}
+
+	public Expr<?> toExpr(final SExpr term) {
+		checkNotNull(term);
+		return transform(term, Containers.createMap());
+	}
+
+	public Type toType(final SExpr sort) {
+		if (sort.isAtom()) {
+			switch (sort.asAtom().getAtom()) {
+				case "Bool":
+					return Bool();
+				case "Int":
+					return Int();
+				case "Real":
+					return Rat();
+				default:
+					break;
+			}
+		} else {
+			final List<SExpr> list = sort.asList().getList();
+			if (list.size() == 3 && isAtom(list.get(0), "_") && isAtom(list.get(1), "BitVec")) {
+				return BvType(Integer.parseInt(list.get(2).asAtom().getAtom()));
+			} else if (list.size() == 3 && isAtom(list.get(0), "Array")) {
+				return ArrayType.of(toType(list.get(1)), toType(list.get(2)));
+			}
+		}
+		throw new UnsupportedOperationException("Unsupported sort: " + sort);
+	}
+
+	private Expr<?> transform(final SExpr term, final Map<String, Expr<?>> bindings) {
+		if (term.isAtom()) {
+			return transformAtom(term.asAtom().getAtom(), bindings);
+		}
+
+		final List<SExpr> list = term.asList().getList();
+		checkArgument(!list.isEmpty(), "Empty term");
+		final SExpr head = list.get(0);
+		final List<SExpr> args = list.subList(1, list.size());
+
+		if (head.isAtom()) {
+			final String symbol = head.asAtom().getAtom();
+			switch (symbol) {
+				case "let":
+					return transformLet(args, bindings);
+				case "!":
+					return transform(args.get(0), bindings);
+				case "_":
+					return transformIndexedConstant(args);
+				default:
+					break;
+			}
+
+			final List<Expr<?>> ops = transformAll(args, bindings);
+			final Function<List<Expr<?>>, Expr<?>> operator = environment.get(symbol);
+			if (operator != null) {
+				return operator.apply(ops);
+			} else if (symbolTable.definesSymbol(symbol)) {
+				Expr<?> app = symbolTable.getConst(symbol).getRef();
+				for (final Expr<?> op : ops) {
+					app = FuncAppExpr.create(app, op);
+				}
+				return app;
+			} else {
+				throw new UnsupportedOperationException("Unsupported operator: " + symbol);
+			}
+		} else {
+			final List<SExpr> indexed = head.asList().getList();
+			final List<Expr<?>> ops = transformAll(args, bindings);
+			if (isAtom(indexed.get(0), "as") && isAtom(indexed.get(1), "const")) {
+				@SuppressWarnings("unchecked") final ArrayType<Type, Type> type = (ArrayType<Type, Type>) toType(indexed.get(2));
+				@SuppressWarnings("unchecked") final Expr<Type> elze = (Expr<Type>) ops.get(0);
+				return ArrayExprs.Array(ImmutableList.of(), elze, type);
+			} else if (isAtom(indexed.get(0), "_")) {
+				return transformIndexedApp(indexed, ops.get(0));
+			} else {
+				throw new UnsupportedOperationException("Unsupported operator: " + head);
+			}
+		}
+	}
+
+	private List<Expr<?>> transformAll(final List<SExpr> terms, final Map<String, Expr<?>> bindings) {
+		final List<Expr<?>> result = new ArrayList<>(terms.size());
+		for (final SExpr term : terms) {
+			result.add(transform(term, bindings));
+		}
+		return result;
+	}
+
+	private Expr<?> transformAtom(final String atom, final Map<String, Expr<?>> bindings) {
+		final Expr<?> bound = bindings.get(atom);
+		if (bound != null) {
+			return bound;
+		} else if (atom.equals("true")) {
+			return True();
+		} else if (atom.equals("false")) {
+			return False();
+		} else if (atom.startsWith("#b")) {
+			return BvLitExpr.of(new BigInteger(atom.substring(2), 2), atom.length() - 2);
+		} else if (atom.startsWith("#x")) {
+			return BvLitExpr.of(new BigInteger(atom.substring(2), 16), 4 * (atom.length() - 2));
+		} else if (!atom.isEmpty() && Character.isDigit(atom.charAt(0))) {
+			if (atom.indexOf('.') >= 0) {
+				final BigDecimal decimal = new BigDecimal(atom);
+				return Rat(decimal.unscaledValue(), BigInteger.TEN.pow(Math.max(decimal.scale(), 0)));
+			} else {
+				return Int(new BigInteger(atom));
+			}
+		} else if (symbolTable.definesSymbol(atom)) {
+			return symbolTable.getConst(atom).getRef();
+		} else {
+			throw new UnsupportedOperationException("Unknown symbol: " + atom);
+		}
+	}
+
+	private Expr<?> transformLet(final List<SExpr> args, final Map<String, Expr<?>> bindings) {
+		// Bindings of a let are parallel, so they are evaluated in the outer scope
+		final Map<String, Expr<?>> inner = Containers.createMap();
+		inner.putAll(bindings);
+		for (final SExpr binding : args.get(0).asList().getList()) {
+			final List<SExpr> pair = binding.asList().getList();
+			inner.put(pair.get(0).asAtom().getAtom(), transform(pair.get(1), bindings));
+		}
+		return transform(args.get(1), inner);
+	}
+
+	// Bitvector literals of the form (_ bvN w)
+	private Expr<?> transformIndexedConstant(final List<SExpr> args) {
+		final String value = args.get(0).asAtom().getAtom();
+		checkArgument(value.startsWith("bv"), "Unsupported indexed constant: %s", value);
+		final int size = Integer.parseInt(args.get(1).asAtom().getAtom());
+		return BvLitExpr.of(new BigInteger(value.substring(2)), size);
+	}
+
+	private Expr<?> transformIndexedApp(final List<SExpr> indexed, final Expr<?> op) {
+		final String name = indexed.get(1).asAtom().getAtom();
+		final int i = Integer.parseInt(indexed.get(2).asAtom().getAtom());
+		switch (name) {
+			case "extract":
+				final int j = Integer.parseInt(indexed.get(3).asAtom().getAtom());
+				return BvExtractExpr.create(op, Int(j), Int(i + 1));
+			case "zero_extend":
+				return BvZExtExpr.create(op, BvType(((BvType) op.getType()).getSize() + i));
+			case "sign_extend":
+				return BvSExtExpr.create(op, BvType(((BvType) op.getType()).getSize() + i));
+			default:
+				throw new UnsupportedOperationException("Unsupported indexed operator: " + name);
+		}
+	}
+
+	private Expr<?> distinct(final List<Expr<?>> ops) {
+		final List<Expr<?>> pairs = new ArrayList<>();
+		for (int i = 0; i < ops.size(); i++) {
+			for (int j = i + 1; j < ops.size(); j++) {
+				pairs.add(NotExpr.create(eq(ops.get(i), ops.get(j))));
+			}
+		}
+		return pairs.size() == 1 ? pairs.get(0) : AndExpr.create(pairs);
+	}
+
+	private static Expr<?> eq(final Expr<?> left, final Expr<?> right) {
+		if (left.getType() instanceof BoolType) {
+			return IffExpr.create(left, right);
+		} else if (left.getType() instanceof ArrayType) {
+			return ArrayExprs.Eq(cast(left), cast(right));
+		} else {
+			return AbstractExprs.Eq(left, right);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Type> T cast(final Expr<?> expr) {
+		return (T) expr;
+	}
+
+	private static Expr<?> toRat(final Expr<?> expr) {
+		return expr.getType() instanceof IntType ? IntToRatExpr.create(expr) : expr;
+	}
+
+	private static boolean isAtom(final SExpr sexpr, final String atom) {
+		return sexpr.isAtom() && sexpr.asAtom().getAtom().equals(atom);
+	}
+
+	private static Function<List<Expr<?>>, Expr<?>> unary(final UnaryOperator<Expr<?>> function) {
+		return ops -> {
+			checkArgument(ops.size() == 1, "Unary operator expected");
+			return function.apply(ops.get(0));
+		};
+	}
+
+	private static Function<List<Expr<?>>, Expr<?>> binary(final BinaryOperator<Expr<?>> function) {
+		return ops -> {
+			checkArgument(ops.size() == 2, "Binary operator expected");
+			return function.apply(ops.get(0), ops.get(1));
+		};
+	}
+
+	private static Function<List<Expr<?>>, Expr<?>> leftAssoc(final BinaryOperator<Expr<?>> function) {
+		return ops -> {
+			Expr<?> result = ops.get(0);
+			for (int i = 1; i < ops.size(); i++) {
+				result = function.apply(result, ops.get(i));
+			}
+			return result;
+		};
+	}
+
+	private static Function<List<Expr<?>>, Expr<?>> rightAssoc(final BinaryOperator<Expr<?>> function) {
+		return ops -> {
+			Expr<?> result = ops.get(ops.size() - 1);
+			for (int i = ops.size() - 2; i >= 0; i--) {
+				result = function.apply(ops.get(i), result);
+			}
+			return result;
+		};
+	}
+
+	private static Function<List<Expr<?>>, Expr<?>> chainable(final BinaryOperator<Expr<?>> function) {
+		return ops -> {
+			if (ops.size() == 2) {
+				return function.apply(ops.get(0), ops.get(1));
+			}
+			final List<Expr<?>> pairs = new ArrayList<>();
+			for (int i = 0; i + 1 < ops.size(); i++) {
+				pairs.add(function.apply(ops.get(i), ops.get(i + 1)));
+			}
+			return AndExpr.create(pairs);
+		};
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.type.arraytype.ArrayType;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.bvtype.BvType;
+import hu.bme.mit.theta.core.type.functype.FuncType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.type.rattype.RatType;
+
+/**
+ * Transforms types to SMT-LIB sorts and declarations.
+ */
+final class SmtLibTypeTransformer {
+
+	private SmtLibTypeTransformer() {
+	}
+
+	public static String toSort(final Type type) {
+		if (type instanceof BoolType) {
+			return "Bool";
+		} else if (type instanceof IntType) {
+			return "Int";
+		} else if (type instanceof RatType) {
+			return "Real";
+		} else if (type instanceof BvType) {
+			return "(_ BitVec " + ((BvType) type).getSize() + ")";
+		} else if (type instanceof ArrayType) {
+			final ArrayType<?, ?> arrayType = (ArrayType<?, ?>) type;
+			return "(Array " + toSort(arrayType.getIndexType()) + " " + toSort(arrayType.getElemType()) + ")";
+		} else {
+			throw new UnsupportedOperationException("Unsupported type: " + type.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Creates the declaration of a symbol, where function types are
+	 * uncurried into the parameter sorts.
+	 */
+	public static String toDeclaration(final String symbol, final Type type) {
+		final StringBuilder sb = new StringBuilder("(declare-fun ").append(symbol).append(" (");
+		Type result = type;
+		boolean first = true;
+		while (result instanceof FuncType) {
+			final FuncType<?, ?> funcType = (FuncType<?, ?>) result;
+			if (!first) {
+				sb.append(' ');
+			}
+			sb.append(toSort(funcType.getParamType()));
+			first = false;
+			result = funcType.getResultType();
+		}
+		return sb.append(") ").append(toSort(result)).append(')').toString();
+	}
+
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains a solver backend that runs an SMT solver in a
+ * separate process and communicates with it over pipes in SMT-LIB v2.
+ * Normally, only {@link hu.bme.mit.theta.solver.smtlib.SmtLibSolverFactory}
+ * should be used from this project to create solver instances. Then, the
+ * common interfaces should be preferred (e.g., {@link hu.bme.mit.theta.solver.Solver}).
+ */
+
+package hu.bme.mit.theta.solver.smtlib;
@@ -0,0 +1,60 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.parser.SExpr;
+
+public class SExprReaderTest {
+
+	@Test
+	public void testSequence() throws IOException {
+		final SExprReader reader = new SExprReader(new StringReader("success\nsat\n((x 1) (y (- 2)))\n"));
+
+		assertEquals(SExpr.atom("success"), reader.read());
+		assertEquals(SExpr.atom("sat"), reader.read());
+		assertEquals(SExpr.list(ImmutableList.of(
+				SExpr.list(ImmutableList.of(SExpr.atom("x"), SExpr.atom("1"))),
+				SExpr.list(ImmutableList.of(SExpr.atom("y"),
+						SExpr.list(ImmutableList.of(SExpr.atom("-"), SExpr.atom("2"))))))), reader.read());
+		assertNull(reader.read());
+	}
+
+	@Test
+	public void testQuotingAndComments() throws IOException {
+		final SExprReader reader = new SExprReader(new StringReader("; comment\n(|x y| \"a ) b\") ; (unused\n"));
+
+		final SExpr expr = reader.read();
+		assertEquals("x y", expr.asList().getList().get(0).asAtom().getAtom());
+		assertEquals(2, expr.asList().getList().size());
+		assertNull(reader.read());
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnexpectedEnd() throws IOException {
+		new SExprReader(new StringReader("(error \"oops\"")).read();
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.common.OsHelper;
+import hu.bme.mit.theta.common.OsHelper.OperatingSystem;
+import hu.bme.mit.theta.common.parser.SExpr;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.SolverStatus;
+
+/**
+ * Runs the process and the solver against a scripted fake solver that
+ * acknowledges every command and answers checks with sat (or never answers).
+ */
+public class SmtLibProcessTest {
+
+	private static final int COMMANDS = 12_000;
+
+	private static final String FAKE_SOLVER = "while IFS= read -r line; do case \"$line\" in "
+			+ "\"(check-sat)\") echo sat ;; *) echo success ;; esac; done";
+	private static final String STUCK_SOLVER = "while IFS= read -r line; do case \"$line\" in "
+			+ "\"(check-sat)\") ;; *) echo success ;; esac; done";
+
+	@Before
+	public void before() {
+		assumeTrue(OsHelper.getOs() == OperatingSystem.LINUX);
+	}
+
+	private static List<String> sh(final String script) {
+		return ImmutableList.of("sh", "-c", script);
+	}
+
+	@Test(timeout = 60_000)
+	public void testManyCommandsBeforeQuery() {
+		final SmtLibProcess process = SmtLibProcess.start(sh(FAKE_SOLVER), ImmutableList.of());
+		try {
+			for (int i = 0; i < COMMANDS; i++) {
+				process.send("(assert true)");
+			}
+			assertEquals(SExpr.atom("sat"), process.query("(check-sat)"));
+		} finally {
+			process.close();
+		}
+	}
+
+	@Test(timeout = 60_000)
+	public void testManyDeclarations() {
+		final SmtLibSolver solver = new SmtLibSolver(() -> SmtLibProcess.start(sh(FAKE_SOLVER), ImmutableList.of()));
+		for (int i = 0; i < COMMANDS / 2; i++) {
+			final ConstDecl<IntType> x = Const("x_" + i, Int());
+			solver.add(Eq(x.getRef(), Int(i)));
+		}
+		assertEquals(SolverStatus.SAT, solver.check());
+		solver.reset();
+	}
+
+	@Test(timeout = 60_000)
+	public void testReplayAfterTimeout() {
+		final SmtLibSolver solver = new SmtLibSolver(() -> SmtLibProcess.start(sh(STUCK_SOLVER), ImmutableList.of()));
+		for (int i = 0; i < COMMANDS / 2; i++) {
+			final ConstDecl<IntType> x = Const("x_" + i, Int());
+			solver.add(Eq(x.getRef(), Int(i)));
+		}
+		// The killed process is replaced by a new one, which gets all the commands again
+		assertEquals(SolverStatus.UNKNOWN, solver.check(100, TimeUnit.MILLISECONDS));
+		assertEquals(COMMANDS / 2, solver.getAssertions().size());
+		solver.reset();
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.smtlib;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.anytype.Exprs.Ite;
+import static hu.bme.mit.theta.core.type.arraytype.ArrayExprs.Array;
+import static hu.bme.mit.theta.core.type.arraytype.ArrayExprs.Read;
+import static hu.bme.mit.theta.core.type.arraytype.ArrayExprs.Write;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Iff;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Imply;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.bvtype.BvExprs.BvType;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Add;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Div;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Eq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Lt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mod;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Mul;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Sub;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.ToRat;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.arraytype.ArrayType;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.bvtype.BvExprs;
+import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+
+/**
+ * Checks that expressions are preserved by transforming them to SMT-LIB and
+ * back, the way terms sent to and received from a solver are transformed.
+ */
+@RunWith(Parameterized.class)
+public class SmtLibTransformerTest {
+
+	private static final ConstDecl<BoolType> A = Const("a", Bool());
+	private static final ConstDecl<BoolType> B = Const("b", Bool());
+	private static final ConstDecl<IntType> X = Const("x", Int());
+	// Names that are not simple symbols or clash with builtins
+	private static final ConstDecl<IntType> Y = Const("y'", Int());
+	private static final ConstDecl<IntType> Z = Const("and", Int());
+	private static final ConstDecl<ArrayType<IntType, IntType>> ARR = Const("arr", Array(Int(), Int()));
+	private static final ConstDecl<BvType> U = Const("u", BvType(8));
+	private static final ConstDecl<BvType> V = Const("v", BvType(8));
+
+	@Parameter
+	public Expr<?> expr;
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][]{
+				{And(A.getRef(), Or(B.getRef(), Not(A.getRef())))},
+				{Imply(A.getRef(), Iff(B.getRef(), False()))},
+				{Ite(A.getRef(), X.getRef(), Add(X.getRef(), Int(1)))},
+				{Lt(Sub(X.getRef(), Y.getRef()), Mul(Z.getRef(), Int(2)))},
+				{Leq(Div(X.getRef(), Int(3)), Mod(Y.getRef(), Int(4)))},
+				{Eq(Read(Write(ARR.getRef(), X.getRef(), Y.getRef()), Z.getRef()), Int(0))},
+				{ToRat(X.getRef())},
+				{BvExprs.Add(ImmutableList.of(U.getRef(), V.getRef(), BvLitExpr.of(5, 8)))},
+				{BvExprs.ULt(BvExprs.Extract(U.getRef(), Int(0), Int(4)), BvExprs.Extract(V.getRef(), Int(4), Int(8)))},
+		});
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final SmtLibSymbolTable symbolTable = new SmtLibSymbolTable();
+		final SmtLibExprTransformer exprTransformer = new SmtLibExprTransformer(
+				c -> symbolTable.definesConst(c) ? symbolTable.getSymbol(c) : symbolTable.put(c));
+		final SmtLibTermTransformer termTransformer = new SmtLibTermTransformer(symbolTable);
+
+		final String term = exprTransformer.toTerm(expr);
+		final Expr<?> result = termTransformer.toExpr(new SExprReader(new StringReader(term)).read());
+
+		assertEquals(term, expr, result);
+	}
+
+}
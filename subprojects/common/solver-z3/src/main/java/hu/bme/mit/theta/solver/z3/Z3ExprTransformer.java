@@ -113,29 +113,43 @@ import hu.bme.mit.theta.core.type.rattype.RatNeqExpr;
 import hu.bme.mit.theta.core.type.rattype.RatPosExpr;
 import hu.bme.mit.theta.core.type.rattype.RatSubExpr;
 import hu.bme.mit.theta.core.type.rattype.RatToIntExpr;
-import hu.bme.mit.theta.core.utils.BvUtils;
 
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
 final class Z3ExprTransformer {
 
-	private static final int CACHE_SIZE = 1000;
+	// Rough estimate of the memory used by a cache entry and each operand of its expression
+	private static final int ENTRY_BYTES = 128;
+	private static final int OP_BYTES = 16;
 
 	private final Z3TransformationManager transformer;
 	private final Context context;
 
 	private final Cache<Expr<?>, com.microsoft.z3.Expr> exprToTerm;
+	private final Z3TermCacheStats stats;
 	private final DispatchTable<com.microsoft.z3.Expr> table;
 	private final Env env;
 
-	public Z3ExprTransformer(final Z3TransformationManager transformer, final Context context) {
+	/**
+	 * Creates a transformer caching terms up to the given (estimated) number of
+	 * bytes. The cache is kept when the solver is popped, and only cleared by
+	 * {@link #reset()}.
+	 */
+	public Z3ExprTransformer(final Z3TransformationManager transformer, final Context context,
+							 final long cacheBytes, final Z3TermCacheStats stats) {
 		this.context = context;
 		this.transformer = transformer;
 		this.env = new Env();
+		this.stats = stats;
 
-		exprToTerm = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+		exprToTerm = CacheBuilder.newBuilder().maximumWeight(cacheBytes)
+				.<Expr<?>, com.microsoft.z3.Expr>weigher((expr, term) -> ENTRY_BYTES + OP_BYTES * expr.getOps().size())
+				.<Expr<?>, com.microsoft.z3.Expr>removalListener(notification -> {
+					if (notification.wasEvicted()) {
+						stats.recordEviction();
+					}
+				}).build();
 
 		table = DispatchTable.<com.microsoft.z3.Expr>builder()
 
@@ -321,11 +335,15 @@ final class Z3ExprTransformer {
 	}
 
 	public com.microsoft.z3.Expr toTerm(final Expr<?> expr) {
-		try {
-			return exprToTerm.get(expr, () -> table.dispatch(expr));
-		} catch (final ExecutionException e) {
-			throw new AssertionError("Unhandled case: " + expr, e);
+		final com.microsoft.z3.Expr cached = exprToTerm.getIfPresent(expr);
+		if (cached != null) {
+			stats.recordHit();
+			return cached;
 		}
+		stats.recordMiss();
+		final com.microsoft.z3.Expr term = table.dispatch(expr);
+		exprToTerm.put(expr, term);
+		return term;
 	}
 
 	////
@@ -631,7 +649,18 @@ final class Z3ExprTransformer {
 	 */
 
 	private com.microsoft.z3.Expr transformBvLit(final BvLitExpr expr) {
-		return context.mkBV(BvUtils.neutralBvLitExprToBigInteger(expr).toString(), expr.getType().getSize());
+		final int size = expr.getType().getSize();
+		if (size <= Long.SIZE) {
+			return context.mkBV(expr.longValue(), size);
+		}
+		// Wider bitvectors are built from their 64-bit words, most significant word first
+		final long[] words = expr.toLongArray();
+		final int topSize = size - (words.length - 1) * Long.SIZE;
+		BitVecExpr term = context.mkBV(words[words.length - 1], topSize);
+		for (int i = words.length - 2; i >= 0; i--) {
+			term = context.mkConcat(term, context.mkBV(words[i], Long.SIZE));
+		}
+		return term.simplify();
 	}
 
 	private com.microsoft.z3.Expr transformBvEq(final BvEqExpr expr) {
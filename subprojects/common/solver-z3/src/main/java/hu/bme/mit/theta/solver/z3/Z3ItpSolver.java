@@ -24,6 +24,8 @@ import hu.bme.mit.theta.common.container.Containers;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
@@ -160,6 +162,21 @@ final class Z3ItpSolver implements ItpSolver {
 		return solver.check();
 	}
 
+	@Override
+	public SolverStatus check(final long timeout, final TimeUnit unit) {
+		return solver.check(timeout, unit);
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		return solver.check(assumptions);
+	}
+
+	@Override
+	public Future<SolverStatus> checkAsync() {
+		return solver.checkAsync();
+	}
+
 	@Override
 	public void push() {
 		markers.push();
@@ -15,8 +15,11 @@
  */
 package hu.bme.mit.theta.solver.z3;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,9 +28,17 @@ import hu.bme.mit.theta.common.container.Containers;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.ImmutableList;
+import com.microsoft.z3.BitVecNum;
 import com.microsoft.z3.FuncDecl;
+import com.microsoft.z3.IntNum;
 import com.microsoft.z3.Status;
 
 import hu.bme.mit.theta.core.decl.ConstDecl;
@@ -41,6 +52,8 @@ import hu.bme.mit.theta.core.type.booltype.BoolType;
 import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
 import hu.bme.mit.theta.core.type.bvtype.BvType;
 import hu.bme.mit.theta.core.type.functype.FuncType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.core.utils.BvUtils;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverStatus;
 import hu.bme.mit.theta.solver.Stack;
@@ -58,10 +71,21 @@ final class Z3Solver implements Solver {
 
 	private final Stack<Expr<BoolType>> assertions;
 	private final Map<String, Expr<BoolType>> assumptions;
+	private final Map<com.microsoft.z3.Expr, Expr<BoolType>> checkAssumptions;
+	private final Map<Expr<BoolType>, com.microsoft.z3.BoolExpr> assumptionLabels;
 
 	private static final String ASSUMPTION_LABEL = "_LABEL_%d";
 	private int labelNum = 0;
 
+	// Z3 reads the timeout as an unsigned integer, where the maximal value (-1) means no timeout
+	private static final int NO_TIMEOUT = -1;
+
+	private static final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		final Thread thread = new Thread(runnable, "Z3Solver-async");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	private Valuation model;
 	private Collection<Expr<BoolType>> unsatCore;
 	private SolverStatus status;
@@ -77,6 +101,8 @@ final class Z3Solver implements Solver {
 
 		assertions = new StackImpl<>();
 		assumptions = Containers.createMap();
+		checkAssumptions = Containers.createMap();
+		assumptionLabels = Containers.createMap();
 	}
 
 	////
@@ -112,19 +138,97 @@ final class Z3Solver implements Solver {
 
 	@Override
 	public SolverStatus check() {
+		clearState();
 		final Status z3Status = z3Solver.check();
 		status = transformStatus(z3Status);
 		return status;
 	}
 
+	@Override
+	public SolverStatus check(final long timeout, final TimeUnit unit) {
+		checkArgument(timeout > 0, "Timeout must be positive");
+		checkNotNull(unit);
+		final long timeoutMs = Math.max(1, Math.min(unit.toMillis(timeout), Integer.MAX_VALUE));
+		clearState();
+		setTimeout((int) timeoutMs);
+		try {
+			final Status z3Status = z3Solver.check();
+			status = transformBoundedStatus(z3Status);
+			return status;
+		} finally {
+			setTimeout(NO_TIMEOUT);
+		}
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		checkNotNull(assumptions);
+		clearState();
+		final com.microsoft.z3.BoolExpr[] terms = new com.microsoft.z3.BoolExpr[assumptions.size()];
+		int i = 0;
+		for (final Expr<BoolType> assumption : assumptions) {
+			final com.microsoft.z3.BoolExpr term = toAssumptionTerm(checkNotNull(assumption));
+			checkAssumptions.put(term, assumption);
+			terms[i++] = term;
+		}
+		final Status z3Status = z3Solver.check(terms);
+		status = transformStatus(z3Status);
+		return status;
+	}
+
+	@Override
+	public Future<SolverStatus> checkAsync() {
+		clearState();
+		final Z3CheckTask task = new Z3CheckTask();
+		ASYNC_EXECUTOR.execute(task);
+		return task;
+	}
+
+	private com.microsoft.z3.BoolExpr toAssumptionTerm(final Expr<BoolType> assumption) {
+		final com.microsoft.z3.BoolExpr term = (com.microsoft.z3.BoolExpr) transformationManager.toTerm(assumption);
+		if (isLiteral(term)) {
+			return term;
+		}
+		// Z3 only accepts literals as assumptions, other expressions are guarded by a label in the current scope
+		com.microsoft.z3.BoolExpr labelTerm = assumptionLabels.get(assumption);
+		if (labelTerm == null) {
+			labelTerm = z3Context.mkBoolConst(String.format(ASSUMPTION_LABEL, labelNum++));
+			z3Solver.add(z3Context.mkImplies(labelTerm, term));
+			assumptionLabels.put(assumption, labelTerm);
+		}
+		return labelTerm;
+	}
+
+	private static boolean isLiteral(final com.microsoft.z3.Expr term) {
+		return term.isNot() ? isAtom(term.getArgs()[0]) : isAtom(term);
+	}
+
+	private static boolean isAtom(final com.microsoft.z3.Expr term) {
+		return term.isConst() && !term.isTrue() && !term.isFalse();
+	}
+
+	private void setTimeout(final int timeoutMs) {
+		final com.microsoft.z3.Params params = z3Context.mkParams();
+		params.add("timeout", timeoutMs);
+		z3Solver.setParameters(params);
+	}
+
 	private SolverStatus transformStatus(final Status z3Status) {
+		final SolverStatus result = transformBoundedStatus(z3Status);
+		if (result == SolverStatus.UNKNOWN) {
+			throw new UnknownSolverStatusException(z3Solver.getReasonUnknown());
+		}
+		return result;
+	}
+
+	private SolverStatus transformBoundedStatus(final Status z3Status) {
 		switch (z3Status) {
 			case SATISFIABLE:
 				return SolverStatus.SAT;
 			case UNSATISFIABLE:
 				return SolverStatus.UNSAT;
 			default:
-				throw new UnknownSolverStatusException();
+				return SolverStatus.UNKNOWN;
 		}
 	}
 
@@ -138,6 +242,7 @@ final class Z3Solver implements Solver {
 	public void pop(final int n) {
 		assertions.pop(n);
 		z3Solver.pop(n);
+		assumptionLabels.clear();
 		clearState();
 	}
 
@@ -146,6 +251,7 @@ final class Z3Solver implements Solver {
 		z3Solver.reset();
 		assertions.clear();
 		assumptions.clear();
+		assumptionLabels.clear();
 		symbolTable.clear();
 		transformationManager.reset();
 		clearState();
@@ -202,6 +308,12 @@ final class Z3Solver implements Solver {
 		for (int i = 0; i < z3UnsatCore.length; i = i + 1) {
 			final com.microsoft.z3.Expr term = z3UnsatCore[i];
 
+			final Expr<BoolType> checkAssumption = checkAssumptions.get(term);
+			if (checkAssumption != null) {
+				unsatCore.add(checkAssumption);
+				continue;
+			}
+
 			checkState(term.isConst(), "Term is not constant.");
 
 			final String label = term.toString();
@@ -223,10 +335,53 @@ final class Z3Solver implements Solver {
 		status = null;
 		model = null;
 		unsatCore = null;
+		checkAssumptions.clear();
 	}
 
 	////
 
+	/**
+	 * Check running on a separate thread. Cancellation interrupts the Z3 context
+	 * and waits until the check returns, so that the solver can be used again.
+	 */
+	private final class Z3CheckTask extends FutureTask<SolverStatus> {
+		private final CountDownLatch finished;
+
+		private Z3CheckTask() {
+			super(() -> {
+				final Status z3Status = z3Solver.check();
+				status = transformBoundedStatus(z3Status);
+				return status;
+			});
+			finished = new CountDownLatch(1);
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				finished.countDown();
+			}
+		}
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			final boolean cancelled = super.cancel(false);
+			if (cancelled && mayInterruptIfRunning) {
+				try {
+					// Repeat, as the interrupt is lost if it arrives before Z3 starts the check
+					while (!finished.await(10, TimeUnit.MILLISECONDS)) {
+						z3Context.interrupt();
+					}
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return cancelled;
+		}
+	}
+
 	private final class Z3Model extends Valuation {
 		private final com.microsoft.z3.Model z3Model;
 		private final Map<Decl<?>, LitExpr<?>> constToExpr;
@@ -257,6 +412,30 @@ final class Z3Solver implements Solver {
 
 			final ConstDecl<DeclType> constDecl = (ConstDecl<DeclType>) decl;
 
+			@SuppressWarnings("unchecked") final LitExpr<DeclType> tVal = (LitExpr<DeclType>) getOrExtract(constDecl);
+			return Optional.ofNullable(tVal);
+		}
+
+		/**
+		 * Evaluates all constants in a single pass over the model, with fast paths
+		 * for integer, boolean and bitvector literals.
+		 */
+		@Override
+		public Map<Decl<?>, LitExpr<?>> evalAll(final Collection<? extends Decl<?>> decls) {
+			checkNotNull(decls);
+			final Map<Decl<?>, LitExpr<?>> result = Containers.createMap();
+			for (final Decl<?> decl : decls) {
+				if (decl instanceof ConstDecl) {
+					final LitExpr<?> val = getOrExtract((ConstDecl<?>) decl);
+					if (val != null) {
+						result.put(decl, val);
+					}
+				}
+			}
+			return Collections.unmodifiableMap(result);
+		}
+
+		private LitExpr<?> getOrExtract(final ConstDecl<?> constDecl) {
 			LitExpr<?> val = constToExpr.get(constDecl);
 			if (val == null) {
 				val = extractLiteral(constDecl);
@@ -264,9 +443,7 @@ final class Z3Solver implements Solver {
 					constToExpr.put(constDecl, val);
 				}
 			}
-
-			@SuppressWarnings("unchecked") final LitExpr<DeclType> tVal = (LitExpr<DeclType>) val;
-			return Optional.ofNullable(tVal);
+			return val;
 		}
 
 		private <DeclType extends Type> LitExpr<?> extractLiteral(final ConstDecl<DeclType> decl) {
@@ -278,6 +455,10 @@ final class Z3Solver implements Solver {
 				return extractArrayLiteral(funcDecl);
 			} else if (type instanceof BvType) {
 				return extractBvConstLiteral(funcDecl, (BvType) type);
+			} else if (type instanceof IntType) {
+				return extractIntConstLiteral(funcDecl);
+			} else if (type instanceof BoolType) {
+				return extractBoolConstLiteral(funcDecl);
 			} else {
 				return extractConstLiteral(funcDecl);
 			}
@@ -297,11 +478,46 @@ final class Z3Solver implements Solver {
 			final com.microsoft.z3.Expr term = z3Model.getConstInterp(funcDecl);
 			if (term == null) {
 				return null;
+			} else if (term instanceof BitVecNum) {
+				// The size is known from the type, no need to query it from the term
+				final BitVecNum bvNum = (BitVecNum) term;
+				final int size = type.getSize();
+				if (size < Long.SIZE) {
+					return BvLitExpr.of(bvNum.getLong(), size);
+				} else {
+					return BvUtils.bigIntegerToNeutralBvLitExpr(bvNum.getBigInteger(), size);
+				}
 			} else {
 				return (BvLitExpr) termTransformer.toExpr(term);
 			}
 		}
 
+		private LitExpr<?> extractIntConstLiteral(final FuncDecl funcDecl) {
+			final com.microsoft.z3.Expr term = z3Model.getConstInterp(funcDecl);
+			if (term == null) {
+				return null;
+			} else if (term instanceof IntNum) {
+				return Z3TermTransformer.toIntLit((IntNum) term);
+			} else {
+				return (LitExpr<?>) termTransformer.toExpr(term);
+			}
+		}
+
+		private LitExpr<?> extractBoolConstLiteral(final FuncDecl funcDecl) {
+			final com.microsoft.z3.Expr term = z3Model.getConstInterp(funcDecl);
+			if (term == null) {
+				return null;
+			}
+			switch (term.getBoolValue()) {
+				case Z3_L_TRUE:
+					return True();
+				case Z3_L_FALSE:
+					return False();
+				default:
+					return (LitExpr<?>) termTransformer.toExpr(term);
+			}
+		}
+
 		private LitExpr<?> extractConstLiteral(final FuncDecl funcDecl) {
 			final com.microsoft.z3.Expr term = z3Model.getConstInterp(funcDecl);
 			if (term == null) {
@@ -313,7 +529,7 @@ final class Z3Solver implements Solver {
 
 		@Override
 		public Map<Decl<?>, LitExpr<?>> toMap() {
-			getDecls().forEach(this::eval);
+			evalAll(getDecls());
 			return Collections.unmodifiableMap(constToExpr);
 		}
 
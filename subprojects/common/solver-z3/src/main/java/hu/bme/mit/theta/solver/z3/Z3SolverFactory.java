@@ -15,29 +15,73 @@
  */
 package hu.bme.mit.theta.solver.z3;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.microsoft.z3.InterpolationContext;
 
 import hu.bme.mit.theta.common.OsHelper;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 import hu.bme.mit.theta.solver.ItpSolver;
 import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 
 public final class Z3SolverFactory implements SolverFactory {
 
+	private static final long DEFAULT_TERM_CACHE_BYTES = 16L * 1024 * 1024;
+
 	private static final Z3SolverFactory INSTANCE;
 
 	static {
 		loadLibraries();
-		INSTANCE = new Z3SolverFactory();
+		INSTANCE = new Z3SolverFactory(DEFAULT_TERM_CACHE_BYTES, false);
 	}
 
-	private Z3SolverFactory() {
+	private final long termCacheBytes;
+	private final boolean internExprs;
+	private final Z3TermCacheStats termCacheStats;
+
+	private Z3SolverFactory(final long termCacheBytes, final boolean internExprs) {
+		checkArgument(termCacheBytes > 0, "Cache size must be positive");
+		this.termCacheBytes = termCacheBytes;
+		this.internExprs = internExprs;
+		this.termCacheStats = new Z3TermCacheStats();
 	}
 
 	public static Z3SolverFactory getInstance() {
 		return INSTANCE;
 	}
 
+	/**
+	 * Creates a factory whose solvers cache the Z3 terms of expressions up to
+	 * the given (estimated) number of bytes each. Each solver has its own cache,
+	 * as terms belong to its context, but the statistics are shared.
+	 */
+	public static Z3SolverFactory create(final long termCacheBytes) {
+		return new Z3SolverFactory(termCacheBytes, false);
+	}
+
+	/**
+	 * Creates a factory whose solvers also intern expressions (see
+	 * {@link ExprInterner}) before transforming them. Structurally equal
+	 * expressions then share the cached terms and are compared by reference,
+	 * at the cost of an interning pass over new expressions.
+	 */
+	public static Z3SolverFactory create(final long termCacheBytes, final boolean internExprs) {
+		return new Z3SolverFactory(termCacheBytes, internExprs);
+	}
+
+	public long getTermCacheBytes() {
+		return termCacheBytes;
+	}
+
+	public boolean isInternExprs() {
+		return internExprs;
+	}
+
+	public Z3TermCacheStats getTermCacheStats() {
+		return termCacheStats;
+	}
+
 	private static void loadLibraries() {
 		switch (OsHelper.getOs()) {
 			case WINDOWS:
@@ -57,7 +101,8 @@ public final class Z3SolverFactory implements SolverFactory {
 		final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
 
 		final Z3SymbolTable symbolTable = new Z3SymbolTable();
-		final Z3TransformationManager transformationManager = new Z3TransformationManager(symbolTable, z3Context);
+		final Z3TransformationManager transformationManager = new Z3TransformationManager(symbolTable, z3Context,
+				termCacheBytes, internExprs, termCacheStats);
 		final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
 
 		return new Z3Solver(symbolTable, transformationManager, termTransformer, z3Context, z3Solver);
@@ -69,7 +114,8 @@ public final class Z3SolverFactory implements SolverFactory {
 		final com.microsoft.z3.Solver z3Solver = z3Context.mkSimpleSolver();
 
 		final Z3SymbolTable symbolTable = new Z3SymbolTable();
-		final Z3TransformationManager transformationManager = new Z3TransformationManager(symbolTable, z3Context);
+		final Z3TransformationManager transformationManager = new Z3TransformationManager(symbolTable, z3Context,
+				termCacheBytes, internExprs, termCacheStats);
 		final Z3TermTransformer termTransformer = new Z3TermTransformer(symbolTable);
 
 		return new Z3ItpSolver(symbolTable, transformationManager, termTransformer, z3Context, z3Solver);
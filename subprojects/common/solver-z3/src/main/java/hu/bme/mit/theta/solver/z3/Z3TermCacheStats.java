@@ -0,0 +1,68 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import hu.bme.mit.theta.common.Utils;
+
+/**
+ * Counters of the caches translating expressions to Z3 terms. The counters are
+ * shared by all solvers of a {@link Z3SolverFactory} and are thread-safe.
+ */
+public final class Z3TermCacheStats {
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	Z3TermCacheStats() {
+		hits = new LongAdder();
+		misses = new LongAdder();
+		evictions = new LongAdder();
+	}
+
+	void recordHit() {
+		hits.increment();
+	}
+
+	void recordMiss() {
+		misses.increment();
+	}
+
+	void recordEviction() {
+		evictions.increment();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add("hits " + getHitCount())
+				.add("misses " + getMissCount()).add("evictions " + getEvictionCount()).toString();
+	}
+
+}
@@ -31,7 +31,6 @@ import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static hu.bme.mit.theta.core.type.rattype.RatExprs.Rat;
 import static java.lang.String.format;
 
-import java.math.BigInteger;
 import java.util.*;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -70,8 +69,10 @@ import hu.bme.mit.theta.core.type.booltype.ImplyExpr;
 import hu.bme.mit.theta.core.type.booltype.NotExpr;
 import hu.bme.mit.theta.core.type.booltype.OrExpr;
 import hu.bme.mit.theta.core.type.booltype.TrueExpr;
+import hu.bme.mit.theta.core.type.bvtype.BvLitExpr;
 import hu.bme.mit.theta.core.type.functype.FuncType;
 import hu.bme.mit.theta.core.type.inttype.IntDivExpr;
+import hu.bme.mit.theta.core.type.inttype.IntLitExpr;
 import hu.bme.mit.theta.core.type.inttype.IntToRatExpr;
 import hu.bme.mit.theta.core.type.inttype.IntModExpr;
 import hu.bme.mit.theta.core.type.rattype.RatDivExpr;
@@ -185,13 +186,16 @@ final class Z3TermTransformer {
 	////
 
 	private Expr<?> transformIntLit(final com.microsoft.z3.Expr term) {
-		final com.microsoft.z3.IntNum intNum = (com.microsoft.z3.IntNum) term;
-		try{
-			final var value = intNum.getInt64();
-			return Int(BigInteger.valueOf(value));
-		} catch (Z3Exception ex){
-			final var value = intNum.getBigInteger();
-			return Int(value);
+		return toIntLit((com.microsoft.z3.IntNum) term);
+	}
+
+	// Also used by Z3Solver when extracting models
+	static IntLitExpr toIntLit(final com.microsoft.z3.IntNum intNum) {
+		try {
+			return IntLitExpr.of(intNum.getInt64());
+		} catch (final Z3Exception ex) {
+			// The value does not fit into a long
+			return IntLitExpr.of(intNum.getBigInteger());
 		}
 	}
 
@@ -212,9 +216,12 @@ final class Z3TermTransformer {
 	private Expr<?> transformBvLit(final com.microsoft.z3.Expr term) {
 		final com.microsoft.z3.BitVecNum bvNum = (com.microsoft.z3.BitVecNum) term;
 
-		BigInteger value = bvNum.getBigInteger();
+		final int size = bvNum.getSortSize();
+		if (size < Long.SIZE) {
+			return BvLitExpr.of(bvNum.getLong(), size);
+		}
 
-		return BvUtils.bigIntegerToNeutralBvLitExpr(value, bvNum.getSortSize());
+		return BvUtils.bigIntegerToNeutralBvLitExpr(bvNum.getBigInteger(), size);
 	}
 
 	private Expr<?> transformApp(final com.microsoft.z3.Expr term, final Model model, final List<Decl<?>> vars) {
@@ -20,17 +20,21 @@ import com.microsoft.z3.Context;
 import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.Type;
+import hu.bme.mit.theta.core.utils.ExprInterner;
 
 final class Z3TransformationManager {
 
 	private final Z3TypeTransformer typeTransformer;
 	private final Z3DeclTransformer declTransformer;
 	private final Z3ExprTransformer exprTransformer;
+	private final boolean internExprs;
 
-	public Z3TransformationManager(final Z3SymbolTable symbolTable, final Context context) {
+	public Z3TransformationManager(final Z3SymbolTable symbolTable, final Context context, final long termCacheBytes,
+								   final boolean internExprs, final Z3TermCacheStats termCacheStats) {
 		this.typeTransformer = new Z3TypeTransformer(this, context);
 		this.declTransformer = new Z3DeclTransformer(this, symbolTable, context);
-		this.exprTransformer = new Z3ExprTransformer(this, context);
+		this.exprTransformer = new Z3ExprTransformer(this, context, termCacheBytes, termCacheStats);
+		this.internExprs = internExprs;
 	}
 
 	public com.microsoft.z3.Sort toSort(final Type type) {
@@ -42,7 +46,8 @@ final class Z3TransformationManager {
 	}
 
 	public com.microsoft.z3.Expr toTerm(final Expr<?> expr) {
-		return exprTransformer.toTerm(expr);
+		// Operands of interned expressions are interned, so the recursive transformation only sees interned keys
+		return exprTransformer.toTerm(internExprs ? ExprInterner.getInstance().intern(expr) : expr);
 	}
 
 	public void reset() {
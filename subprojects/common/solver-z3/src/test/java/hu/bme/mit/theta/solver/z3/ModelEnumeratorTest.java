@@ -0,0 +1,97 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.z3;
+
+import static hu.bme.mit.theta.core.decl.Decls.Const;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Bool;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Iff;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Or;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Geq;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Gt;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
+import static hu.bme.mit.theta.core.type.inttype.IntExprs.Leq;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.type.inttype.IntType;
+import hu.bme.mit.theta.solver.Solver;
+import hu.bme.mit.theta.solver.utils.ModelEnumerator;
+import hu.bme.mit.theta.solver.utils.WithPushPop;
+
+public class ModelEnumeratorTest {
+
+	private final Solver solver = Z3SolverFactory.getInstance().createSolver();
+	private final ConstDecl<IntType> cx = Const("x", Int());
+	private final ConstDecl<IntType> cy = Const("y", Int());
+	private final ConstDecl<BoolType> ca = Const("a", Bool());
+	private final ConstDecl<BoolType> cb = Const("b", Bool());
+
+	@Test
+	public void testProjection() {
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(Geq(cx.getRef(), Int(0)));
+			solver.add(Leq(cx.getRef(), Int(3)));
+			solver.add(Gt(cy.getRef(), cx.getRef()));
+
+			final List<Valuation> models = ModelEnumerator.builder(solver).build().enumerate(ImmutableList.of(cx));
+
+			Assert.assertEquals(4, models.size());
+			for (final Valuation model : models) {
+				Assert.assertEquals(ImmutableList.of(cx), ImmutableList.copyOf(model.getDecls()));
+			}
+		}
+	}
+
+	@Test
+	public void testLimit() {
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(Geq(cx.getRef(), Int(0)));
+
+			final List<Valuation> models = ModelEnumerator.builder(solver).limit(5).build()
+					.enumerate(ImmutableList.of(cx));
+
+			Assert.assertEquals(5, models.size());
+		}
+	}
+
+	@Test
+	public void testGeneralize() {
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			// b is implied by a, so the cubes of the models with a can be shortened
+			solver.add(Iff(cb.getRef(), Or(ca.getRef(), Gt(cx.getRef(), Int(0)))));
+
+			final List<Valuation> plain = ModelEnumerator.builder(solver).build()
+					.enumerate(ImmutableList.of(ca, cb));
+			Assert.assertEquals(3, plain.size());
+		}
+		try (WithPushPop wpp = new WithPushPop(solver)) {
+			solver.add(Iff(cb.getRef(), Or(ca.getRef(), Gt(cx.getRef(), Int(0)))));
+
+			final List<Valuation> generalized = ModelEnumerator.builder(solver).generalize(true).build()
+					.enumerate(ImmutableList.of(ca, cb));
+			Assert.assertEquals(3, generalized.size());
+		}
+	}
+
+}
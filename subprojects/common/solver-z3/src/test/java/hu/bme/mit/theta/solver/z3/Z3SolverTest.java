@@ -47,8 +47,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.collect.ImmutableList.of;
 import static hu.bme.mit.theta.core.decl.Decls.Const;
@@ -58,6 +62,7 @@ import static hu.bme.mit.theta.core.type.functype.FuncExprs.App;
 import static hu.bme.mit.theta.core.type.functype.FuncExprs.Func;
 import static hu.bme.mit.theta.core.type.inttype.IntExprs.Int;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -90,6 +95,21 @@ public final class Z3SolverTest {
 		assertTrue(status.isUnsat());
 	}
 
+	@Test
+	public void testInternedExprs() {
+		final Solver internSolver = Z3SolverFactory.create(1024 * 1024, true).createSolver();
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final ConstDecl<IntType> cy = Const("y", Int());
+
+		// Structurally equal expressions built separately share the interned terms
+		internSolver.add(IntExprs.Eq(cx.getRef(), IntExprs.Add(cy.getRef(), Int(1))));
+		internSolver.add(IntExprs.Lt(IntExprs.Add(cy.getRef(), Int(1)), Int(3)));
+		assertTrue(internSolver.check().isSat());
+
+		internSolver.add(IntExprs.Lt(cx.getRef(), cy.getRef()));
+		assertFalse(internSolver.check().isSat());
+	}
+
 	@Test
 	public void testTrack() {
 		final ConstDecl<BoolType> ca = Const("a", BoolExprs.Bool());
@@ -420,6 +440,71 @@ public final class Z3SolverTest {
 		solver.pop();
 	}
 
+	@Test
+	public void testCheckWithAssumptions() {
+		final ConstDecl<BoolType> ca = Const("a", BoolExprs.Bool());
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final Expr<BoolType> xIsPositive = IntExprs.Gt(cx.getRef(), Int(0));
+
+		solver.add(BoolExprs.Imply(ca.getRef(), IntExprs.Lt(cx.getRef(), Int(0))));
+
+		assertTrue(solver.check(of(ca.getRef())).isSat());
+		assertTrue(solver.check(of(ca.getRef(), xIsPositive)).isUnsat());
+
+		final Collection<Expr<BoolType>> unsatCore = solver.getUnsatCore();
+		assertTrue(unsatCore.contains(ca.getRef()));
+		assertTrue(unsatCore.contains(xIsPositive));
+
+		// Assumptions are not kept by the solver
+		assertTrue(solver.check(of(xIsPositive)).isSat());
+		assertTrue(solver.check().isSat());
+	}
+
+	@Test
+	public void testCheckWithTimeout() {
+		final ConstDecl<IntType> cx = Const("x", Int());
+		solver.add(IntExprs.Eq(cx.getRef(), Int(1)));
+
+		final SolverStatus status = solver.check(10, TimeUnit.SECONDS);
+		assertTrue(status.isSat());
+		assertFalse(status.isUnknown());
+		assertEquals(Int(1), solver.getModel().eval(cx).get());
+	}
+
+	@Test
+	public void testCheckAsync() throws InterruptedException, ExecutionException {
+		final ConstDecl<IntType> cx = Const("x", Int());
+		solver.add(IntExprs.Eq(cx.getRef(), Int(1)));
+		solver.add(IntExprs.Eq(cx.getRef(), Int(2)));
+
+		final Future<SolverStatus> future = solver.checkAsync();
+		assertTrue(future.get().isUnsat());
+		assertTrue(solver.getStatus().isUnsat());
+	}
+
+	@Test
+	public void testTermCacheSurvivesPop() {
+		final Z3SolverFactory factory = Z3SolverFactory.create(1024 * 1024);
+		final Solver cachingSolver = factory.createSolver();
+		final ConstDecl<IntType> cx = Const("x", Int());
+		final IntEqExpr expr = IntExprs.Eq(cx.getRef(), Int(1));
+
+		cachingSolver.push();
+		cachingSolver.add(expr);
+		assertTrue(cachingSolver.check().isSat());
+		cachingSolver.pop();
+		final long misses = factory.getTermCacheStats().getMissCount();
+
+		cachingSolver.add(expr);
+		assertTrue(cachingSolver.check().isSat());
+		assertEquals(misses, factory.getTermCacheStats().getMissCount());
+		assertTrue(factory.getTermCacheStats().getHitCount() > 0);
+
+		cachingSolver.reset();
+		cachingSolver.add(expr);
+		assertTrue(factory.getTermCacheStats().getMissCount() > misses);
+	}
+
 	private static BvLitExpr uint16ToBvLitExpr(int value) {
 		return BvUtils.bigIntegerToUnsignedBvLitExpr(BigInteger.valueOf(value), 16);
 	}
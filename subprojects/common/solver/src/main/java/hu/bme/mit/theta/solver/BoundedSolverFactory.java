@@ -0,0 +1,190 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Factory that bounds the time of each check of the solvers created by an
+ * underlying factory. A check that cannot be decided in time throws an
+ * {@link UnknownSolverStatusException}, just like an unknown result of an
+ * unbounded check, so algorithms handle both the same way (e.g., abstractors
+ * over-approximate the successors and trace checkers report an unknown
+ * status). Checks under assumptions are not bounded.
+ */
+public final class BoundedSolverFactory implements SolverFactory {
+
+	private final SolverFactory factory;
+	private final long timeout;
+	private final TimeUnit unit;
+
+	private BoundedSolverFactory(final SolverFactory factory, final long timeout, final TimeUnit unit) {
+		this.factory = checkNotNull(factory);
+		checkArgument(timeout > 0, "Timeout must be positive");
+		this.timeout = timeout;
+		this.unit = checkNotNull(unit);
+	}
+
+	public static BoundedSolverFactory create(final SolverFactory factory, final long timeout, final TimeUnit unit) {
+		return new BoundedSolverFactory(factory, timeout, unit);
+	}
+
+	@Override
+	public Solver createSolver() {
+		return new BoundedSolver<>(factory.createSolver(), timeout, unit);
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		return new BoundedItpSolver(factory.createItpSolver(), timeout, unit);
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public TimeUnit getUnit() {
+		return unit;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(factory).add(timeout + " " + unit).toString();
+	}
+
+	private static class BoundedSolver<S extends Solver> implements Solver {
+		protected final S solver;
+		private final long timeout;
+		private final TimeUnit unit;
+
+		private BoundedSolver(final S solver, final long timeout, final TimeUnit unit) {
+			this.solver = checkNotNull(solver);
+			this.timeout = timeout;
+			this.unit = unit;
+		}
+
+		@Override
+		public SolverStatus check() {
+			final SolverStatus status = solver.check(timeout, unit);
+			if (status == SolverStatus.UNKNOWN) {
+				throw new UnknownSolverStatusException("Timeout of " + timeout + " " + unit + " exceeded");
+			}
+			return status;
+		}
+
+		@Override
+		public SolverStatus check(final long timeout, final TimeUnit unit) {
+			return solver.check(timeout, unit);
+		}
+
+		@Override
+		public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+			return solver.check(assumptions);
+		}
+
+		@Override
+		public Future<SolverStatus> checkAsync() {
+			return solver.checkAsync();
+		}
+
+		@Override
+		public void add(final Expr<BoolType> assertion) {
+			solver.add(assertion);
+		}
+
+		@Override
+		public void track(final Expr<BoolType> assertion) {
+			solver.track(assertion);
+		}
+
+		@Override
+		public void push() {
+			solver.push();
+		}
+
+		@Override
+		public void pop(final int n) {
+			solver.pop(n);
+		}
+
+		@Override
+		public void reset() {
+			solver.reset();
+		}
+
+		@Override
+		public SolverStatus getStatus() {
+			return solver.getStatus();
+		}
+
+		@Override
+		public Valuation getModel() {
+			return solver.getModel();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getUnsatCore() {
+			return solver.getUnsatCore();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getAssertions() {
+			return solver.getAssertions();
+		}
+	}
+
+	private static final class BoundedItpSolver extends BoundedSolver<ItpSolver> implements ItpSolver {
+		private BoundedItpSolver(final ItpSolver solver, final long timeout, final TimeUnit unit) {
+			super(solver, timeout, unit);
+		}
+
+		@Override
+		public ItpPattern createPattern(final ItpMarker marker) {
+			return solver.createPattern(marker);
+		}
+
+		@Override
+		public ItpMarker createMarker() {
+			return solver.createMarker();
+		}
+
+		@Override
+		public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+			solver.add(marker, assertion);
+		}
+
+		@Override
+		public Interpolant getInterpolant(final ItpPattern pattern) {
+			return solver.getInterpolant(pattern);
+		}
+
+		@Override
+		public Collection<? extends ItpMarker> getMarkers() {
+			return solver.getMarkers();
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Factory whose solvers can be interrupted from another thread (e.g., when a
+ * concurrently running analysis is cancelled). Checks of the created solvers
+ * run with {@link Solver#checkAsync()}, and {@link #interrupt()} cancels the
+ * running checks. Interrupting the thread waiting for a check also cancels
+ * it. An interrupted check throws an {@link UnknownSolverStatusException}, and
+ * so does every later check once the factory is interrupted. Checks under
+ * assumptions are only prevented from starting.
+ */
+public final class InterruptibleSolverFactory implements SolverFactory {
+
+	private final SolverFactory factory;
+	private final Set<Future<SolverStatus>> runningChecks;
+	private volatile boolean interrupted;
+
+	private InterruptibleSolverFactory(final SolverFactory factory) {
+		this.factory = checkNotNull(factory);
+		this.runningChecks = ConcurrentHashMap.newKeySet();
+		this.interrupted = false;
+	}
+
+	public static InterruptibleSolverFactory create(final SolverFactory factory) {
+		return new InterruptibleSolverFactory(factory);
+	}
+
+	@Override
+	public Solver createSolver() {
+		return new InterruptibleSolver<>(factory.createSolver());
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		return new InterruptibleItpSolver(factory.createItpSolver());
+	}
+
+	/**
+	 * Interrupts the running checks of the solvers created by this factory and
+	 * makes later checks fail. Returns when the interrupted checks returned.
+	 */
+	public void interrupt() {
+		interrupted = true;
+		runningChecks.forEach(check -> check.cancel(true));
+	}
+
+	public boolean isInterrupted() {
+		return interrupted;
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(factory).toString();
+	}
+
+	private void checkNotInterrupted() {
+		if (interrupted) {
+			throw new UnknownSolverStatusException("Solver was interrupted");
+		}
+	}
+
+	private SolverStatus await(final Future<SolverStatus> check, final long timeout, final TimeUnit unit) {
+		runningChecks.add(check);
+		try {
+			// The factory may have been interrupted before the check was registered
+			if (interrupted) {
+				check.cancel(true);
+			}
+			return check.get(timeout, unit);
+		} catch (final TimeoutException e) {
+			check.cancel(true);
+			return SolverStatus.UNKNOWN;
+		} catch (final InterruptedException e) {
+			check.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new UnknownSolverStatusException("Solver was interrupted");
+		} catch (final CancellationException e) {
+			throw new UnknownSolverStatusException("Solver was interrupted");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new UnknownSolverStatusException(String.valueOf(cause));
+		} finally {
+			runningChecks.remove(check);
+		}
+	}
+
+	private class InterruptibleSolver<S extends Solver> implements Solver {
+		protected final S solver;
+
+		private InterruptibleSolver(final S solver) {
+			this.solver = checkNotNull(solver);
+		}
+
+		@Override
+		public SolverStatus check() {
+			checkNotInterrupted();
+			final SolverStatus status = await(solver.checkAsync(), Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			if (status == SolverStatus.UNKNOWN) {
+				throw new UnknownSolverStatusException();
+			}
+			return status;
+		}
+
+		@Override
+		public SolverStatus check(final long timeout, final TimeUnit unit) {
+			checkArgument(timeout > 0, "Timeout must be positive");
+			checkNotNull(unit);
+			checkNotInterrupted();
+			return await(solver.checkAsync(), timeout, unit);
+		}
+
+		@Override
+		public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+			checkNotInterrupted();
+			return solver.check(assumptions);
+		}
+
+		@Override
+		public Future<SolverStatus> checkAsync() {
+			checkNotInterrupted();
+			return solver.checkAsync();
+		}
+
+		@Override
+		public void add(final Expr<BoolType> assertion) {
+			solver.add(assertion);
+		}
+
+		@Override
+		public void track(final Expr<BoolType> assertion) {
+			solver.track(assertion);
+		}
+
+		@Override
+		public void push() {
+			solver.push();
+		}
+
+		@Override
+		public void pop(final int n) {
+			solver.pop(n);
+		}
+
+		@Override
+		public void reset() {
+			solver.reset();
+		}
+
+		@Override
+		public SolverStatus getStatus() {
+			return solver.getStatus();
+		}
+
+		@Override
+		public Valuation getModel() {
+			return solver.getModel();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getUnsatCore() {
+			return solver.getUnsatCore();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getAssertions() {
+			return solver.getAssertions();
+		}
+	}
+
+	private final class InterruptibleItpSolver extends InterruptibleSolver<ItpSolver> implements ItpSolver {
+		private InterruptibleItpSolver(final ItpSolver solver) {
+			super(solver);
+		}
+
+		@Override
+		public ItpPattern createPattern(final ItpMarker marker) {
+			return solver.createPattern(marker);
+		}
+
+		@Override
+		public ItpMarker createMarker() {
+			return solver.createMarker();
+		}
+
+		@Override
+		public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+			solver.add(marker, assertion);
+		}
+
+		@Override
+		public Interpolant getInterpolant(final ItpPattern pattern) {
+			return solver.getInterpolant(pattern);
+		}
+
+		@Override
+		public Collection<? extends ItpMarker> getMarkers() {
+			return solver.getMarkers();
+		}
+	}
+
+}
@@ -16,6 +16,8 @@
 package hu.bme.mit.theta.solver;
 
 import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
@@ -30,6 +32,10 @@ import hu.bme.mit.theta.core.type.booltype.BoolType;
  * obtained by {@link #getModel()}.
  *
  * The solver can also support incremental solving by {@link #push()} and {@link #pop()}.
+ *
+ * The cost of a single query can be bounded by {@link #check(long, TimeUnit)} or
+ * {@link #checkAsync()}, which return {@link SolverStatus#UNKNOWN} instead of
+ * blocking forever.
  */
 public interface Solver {
 
@@ -77,6 +83,37 @@ public interface Solver {
 	 */
 	SolverStatus check();
 
+	/**
+	 * Check if the currently added expressions are satisfiable, giving up after
+	 * the given timeout.
+	 *
+	 * @param timeout Maximal time for the check
+	 * @param unit    Unit of the timeout
+	 * @return Status, which is UNKNOWN if the solver could not decide in time
+	 */
+	SolverStatus check(long timeout, TimeUnit unit);
+
+	/**
+	 * Check if the currently added expressions are satisfiable together with the
+	 * given assumptions. The assumptions are only used for this check, they are
+	 * not added to the solver. If the result is UNSAT, the unsat core may also
+	 * contain assumptions.
+	 *
+	 * @param assumptions Expressions assumed to be true
+	 * @return Status
+	 */
+	SolverStatus check(Collection<? extends Expr<BoolType>> assumptions);
+
+	/**
+	 * Check if the currently added expressions are satisfiable on a separate
+	 * thread. Cancelling the returned future interrupts the solver, which can be
+	 * used again once {@link Future#cancel(boolean)} returns. The solver must
+	 * not be modified while the check is running.
+	 *
+	 * @return Future status, which is UNKNOWN if the solver gave up
+	 */
+	Future<SolverStatus> checkAsync();
+
 	/**
 	 * Push the current solver state. When calling {@link #pop()}, all expressions added after
 	 * the last push will be removed.
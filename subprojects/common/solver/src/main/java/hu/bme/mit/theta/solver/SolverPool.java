@@ -0,0 +1,362 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+
+/**
+ * Pool of reusable solvers created by an underlying factory. Solvers are
+ * leased and released instead of being created for each use, so the contexts
+ * of released solvers stay warm: their declared symbols and translated terms
+ * are kept. A leased solver works inside an extra assertion level, which is
+ * popped on release, so the next lease starts from a clean assertion stack.
+ * Calling reset on a leased solver also only clears this level.
+ * <p>
+ * The pool is thread-safe, but each leased solver should be used by a single
+ * thread at a time. The pool is also a {@link SolverFactory}, where creating
+ * a solver leases one, which can be released later (e.g., with
+ * {@link #releaseAll()} after running an analysis configuration).
+ */
+public final class SolverPool implements SolverFactory {
+
+	private final SolverFactory factory;
+	private final int maxIdle;
+	private final Consumer<? super Solver> initializer;
+
+	private final Deque<Solver> idleSolvers;
+	private final Deque<ItpSolver> idleItpSolvers;
+	private final Set<LeasedSolver<?>> leases;
+	private final AtomicInteger created;
+
+	private SolverPool(final SolverFactory factory, final int maxIdle, final Consumer<? super Solver> initializer) {
+		this.factory = checkNotNull(factory);
+		checkArgument(maxIdle >= 0, "Maximal number of idle solvers must be non-negative");
+		this.maxIdle = maxIdle;
+		this.initializer = checkNotNull(initializer);
+		this.idleSolvers = new ArrayDeque<>();
+		this.idleItpSolvers = new ArrayDeque<>();
+		this.leases = ConcurrentHashMap.newKeySet();
+		this.created = new AtomicInteger(0);
+	}
+
+	public static SolverPool create(final SolverFactory factory) {
+		return builder(factory).build();
+	}
+
+	public static Builder builder(final SolverFactory factory) {
+		return new Builder(factory);
+	}
+
+	/**
+	 * Lease a solver with an empty assertion stack, reusing an idle one if
+	 * possible.
+	 *
+	 * @return Leased solver
+	 */
+	public Solver leaseSolver() {
+		final Solver solver = poll(idleSolvers, factory::createSolver);
+		return lease(new LeasedSolver<>(this, solver));
+	}
+
+	/**
+	 * Lease an interpolating solver with an empty assertion stack, reusing an
+	 * idle one if possible.
+	 *
+	 * @return Leased solver
+	 */
+	public ItpSolver leaseItpSolver() {
+		final ItpSolver solver = poll(idleItpSolvers, factory::createItpSolver);
+		return lease(new LeasedItpSolver(this, solver));
+	}
+
+	@Override
+	public Solver createSolver() {
+		return leaseSolver();
+	}
+
+	@Override
+	public ItpSolver createItpSolver() {
+		return leaseItpSolver();
+	}
+
+	/**
+	 * Release a solver leased from this pool. The solver must not be used
+	 * afterwards. Releasing a solver for the second time has no effect.
+	 *
+	 * @param solver Leased solver
+	 */
+	public void release(final Solver solver) {
+		checkNotNull(solver);
+		checkArgument(solver instanceof LeasedSolver && ((LeasedSolver<?>) solver).pool == this,
+				"Solver was not leased from this pool");
+		((LeasedSolver<?>) solver).release();
+	}
+
+	/**
+	 * Release all solvers that are currently leased.
+	 */
+	public void releaseAll() {
+		for (final LeasedSolver<?> lease : new ArrayList<>(leases)) {
+			lease.release();
+		}
+	}
+
+	public int getCreatedCount() {
+		return created.get();
+	}
+
+	public int getLeasedCount() {
+		return leases.size();
+	}
+
+	public synchronized int getIdleCount() {
+		return idleSolvers.size() + idleItpSolvers.size();
+	}
+
+	private <S extends Solver> S poll(final Deque<S> idle, final Supplier<S> supplier) {
+		synchronized (this) {
+			if (!idle.isEmpty()) {
+				return idle.pop();
+			}
+		}
+		final S solver = supplier.get();
+		initializer.accept(solver);
+		created.incrementAndGet();
+		return solver;
+	}
+
+	private <L extends LeasedSolver<?>> L lease(final L lease) {
+		lease.solver.push();
+		leases.add(lease);
+		return lease;
+	}
+
+	private <S extends Solver> void giveBack(final LeasedSolver<S> lease, final Deque<S> idle) {
+		leases.remove(lease);
+		try {
+			lease.solver.pop(lease.depth + 1);
+		} catch (final RuntimeException e) {
+			// The state of the solver is unknown, so it is not reused
+			return;
+		}
+		synchronized (this) {
+			if (idleSolvers.size() + idleItpSolvers.size() < maxIdle) {
+				idle.push(lease.solver);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(factory).add(maxIdle).toString();
+	}
+
+	private static class LeasedSolver<S extends Solver> implements Solver {
+		final SolverPool pool;
+		final S solver;
+		int depth;
+		private boolean released;
+
+		private LeasedSolver(final SolverPool pool, final S solver) {
+			this.pool = pool;
+			this.solver = solver;
+			this.depth = 0;
+			this.released = false;
+		}
+
+		synchronized void release() {
+			if (!released) {
+				released = true;
+				giveBack();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void giveBack() {
+			pool.giveBack(this, (Deque<S>) pool.idleSolvers);
+		}
+
+		final S solver() {
+			checkState(!released, "Solver was already released to the pool");
+			return solver;
+		}
+
+		@Override
+		public void add(final Expr<BoolType> assertion) {
+			solver().add(assertion);
+		}
+
+		@Override
+		public void track(final Expr<BoolType> assertion) {
+			solver().track(assertion);
+		}
+
+		@Override
+		public SolverStatus check() {
+			return solver().check();
+		}
+
+		@Override
+		public SolverStatus check(final long timeout, final TimeUnit unit) {
+			return solver().check(timeout, unit);
+		}
+
+		@Override
+		public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+			return solver().check(assumptions);
+		}
+
+		@Override
+		public Future<SolverStatus> checkAsync() {
+			return solver().checkAsync();
+		}
+
+		@Override
+		public void push() {
+			solver().push();
+			depth++;
+		}
+
+		@Override
+		public void pop(final int n) {
+			checkArgument(n <= depth, "Cannot pop below the level of the lease");
+			solver().pop(n);
+			depth -= n;
+		}
+
+		@Override
+		public void reset() {
+			// Only the assertions of the lease are cleared, the context stays warm
+			solver().pop(depth + 1);
+			depth = 0;
+			solver.push();
+		}
+
+		@Override
+		public SolverStatus getStatus() {
+			return solver().getStatus();
+		}
+
+		@Override
+		public Valuation getModel() {
+			return solver().getModel();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getUnsatCore() {
+			return solver().getUnsatCore();
+		}
+
+		@Override
+		public Collection<Expr<BoolType>> getAssertions() {
+			return solver().getAssertions();
+		}
+	}
+
+	private static final class LeasedItpSolver extends LeasedSolver<ItpSolver> implements ItpSolver {
+
+		private LeasedItpSolver(final SolverPool pool, final ItpSolver solver) {
+			super(pool, solver);
+		}
+
+		@Override
+		void giveBack() {
+			pool.giveBack(this, pool.idleItpSolvers);
+		}
+
+		@Override
+		public ItpPattern createPattern(final ItpMarker marker) {
+			return solver().createPattern(marker);
+		}
+
+		@Override
+		public ItpMarker createMarker() {
+			return solver().createMarker();
+		}
+
+		@Override
+		public void add(final ItpMarker marker, final Expr<BoolType> assertion) {
+			solver().add(marker, assertion);
+		}
+
+		@Override
+		public Interpolant getInterpolant(final ItpPattern pattern) {
+			return solver().getInterpolant(pattern);
+		}
+
+		@Override
+		public Collection<? extends ItpMarker> getMarkers() {
+			return solver().getMarkers();
+		}
+	}
+
+	public static final class Builder {
+		private final SolverFactory factory;
+		private int maxIdle;
+		private Consumer<? super Solver> initializer;
+
+		private Builder(final SolverFactory factory) {
+			this.factory = factory;
+			this.maxIdle = Runtime.getRuntime().availableProcessors();
+			this.initializer = solver -> {
+			};
+		}
+
+		/**
+		 * Maximal number of idle solvers kept in the pool, further released
+		 * solvers are dropped. By default, it is the number of processors.
+		 */
+		public Builder maxIdle(final int maxIdle) {
+			this.maxIdle = maxIdle;
+			return this;
+		}
+
+		/**
+		 * Action to perform once on each new solver before its first lease,
+		 * e.g., to declare the symbols of a model up front by adding and
+		 * popping an expression over them. The solver must be left with an
+		 * empty assertion stack.
+		 */
+		public Builder initializer(final Consumer<? super Solver> initializer) {
+			this.initializer = initializer;
+			return this;
+		}
+
+		public SolverPool build() {
+			return new SolverPool(factory, maxIdle, initializer);
+		}
+	}
+
+}
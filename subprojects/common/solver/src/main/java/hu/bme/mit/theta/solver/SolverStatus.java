@@ -15,13 +15,20 @@
  */
 package hu.bme.mit.theta.solver;
 
+/**
+ * Result of a satisfiability check. UNKNOWN is only returned by checks that can
+ * be bounded or interrupted (e.g., {@link Solver#check(long, java.util.concurrent.TimeUnit)}),
+ * {@link Solver#check()} throws an {@link UnknownSolverStatusException} instead.
+ */
 public enum SolverStatus {
-	SAT(true), UNSAT(false);
+	SAT(true, false), UNSAT(false, true), UNKNOWN(false, false);
 
 	private final boolean sat;
+	private final boolean unsat;
 
-	private SolverStatus(final boolean sat) {
+	private SolverStatus(final boolean sat, final boolean unsat) {
 		this.sat = sat;
+		this.unsat = unsat;
 	}
 
 	public boolean isSat() {
@@ -29,7 +36,11 @@ public enum SolverStatus {
 	}
 
 	public boolean isUnsat() {
-		return !sat;
+		return unsat;
+	}
+
+	public boolean isUnknown() {
+		return !sat && !unsat;
 	}
 
 }
@@ -18,4 +18,12 @@ package hu.bme.mit.theta.solver;
 public final class UnknownSolverStatusException extends RuntimeException {
 	private static final long serialVersionUID = -7472824180590849943L;
 
+	public UnknownSolverStatusException() {
+		super();
+	}
+
+	public UnknownSolverStatusException(final String reason) {
+		super(reason);
+	}
+
 }
@@ -16,6 +16,8 @@
 package hu.bme.mit.theta.solver.impl;
 
 import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
@@ -51,6 +53,21 @@ public final class NullSolver implements Solver {
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public SolverStatus check(final long timeout, final TimeUnit unit) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Future<SolverStatus> checkAsync() {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public void push() {
 		throw new UnsupportedOperationException();
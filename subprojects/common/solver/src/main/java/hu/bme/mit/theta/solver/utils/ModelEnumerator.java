@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static hu.bme.mit.theta.core.type.abstracttype.AbstractExprs.Eq;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.And;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.False;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
+import static hu.bme.mit.theta.core.type.booltype.BoolExprs.True;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import hu.bme.mit.theta.common.Utils;
+import hu.bme.mit.theta.core.decl.ConstDecl;
+import hu.bme.mit.theta.core.decl.Decl;
+import hu.bme.mit.theta.core.model.ImmutableValuation;
+import hu.bme.mit.theta.core.model.Valuation;
+import hu.bme.mit.theta.core.type.Expr;
+import hu.bme.mit.theta.core.type.LitExpr;
+import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.solver.Solver;
+
+/**
+ * Enumerates the models of the assertions of a solver projected to a set of
+ * constants (projected AllSAT). After each model, a blocking clause is added
+ * that refers only to the projection constants, so no formula has to be
+ * unfolded or translated per model. Optionally, literals that are implied by
+ * the rest of the model are dropped from the blocking clause (cube
+ * minimization), which keeps the clauses short at the cost of extra checks.
+ * Use a new instance with the builder.
+ */
+public final class ModelEnumerator {
+
+	private final Solver solver;
+	private final int limit;
+	private final boolean generalize;
+
+	private ModelEnumerator(final Solver solver, final int limit, final boolean generalize) {
+		this.solver = checkNotNull(solver);
+		checkArgument(limit >= 0, "Limit must be non-negative");
+		this.limit = limit;
+		this.generalize = generalize;
+	}
+
+	public static Builder builder(final Solver solver) {
+		return new Builder(solver);
+	}
+
+	/**
+	 * Enumerate the models of the current assertions, projected to the given
+	 * constants. Constants that are not assigned in a model are not part of
+	 * the projected model either. The blocking clauses remain in the solver,
+	 * so the enumeration should be wrapped in a push/pop.
+	 *
+	 * @param projection Constants to project the models to
+	 * @param consumer   Consumer of the projected models
+	 * @return Number of enumerated models
+	 */
+	public int enumerate(final Collection<? extends ConstDecl<?>> projection,
+						 final Consumer<? super Valuation> consumer) {
+		checkNotNull(projection);
+		checkNotNull(consumer);
+		int count = 0;
+		while ((limit == 0 || count < limit) && solver.check().isSat()) {
+			final Map<Decl<?>, LitExpr<?>> values = solver.getModel().evalAll(projection);
+			final ImmutableValuation.Builder builder = ImmutableValuation.builder();
+			final List<Expr<BoolType>> cube = new ArrayList<>(values.size());
+			for (final Map.Entry<Decl<?>, LitExpr<?>> entry : values.entrySet()) {
+				builder.put(entry.getKey(), entry.getValue());
+				cube.add(literal(entry.getKey(), entry.getValue()));
+			}
+			consumer.accept(builder.build());
+			count++;
+			block(cube);
+		}
+		return count;
+	}
+
+	/**
+	 * Enumerate the models of the current assertions, projected to the given
+	 * constants.
+	 *
+	 * @param projection Constants to project the models to
+	 * @return Projected models
+	 */
+	public List<Valuation> enumerate(final Collection<? extends ConstDecl<?>> projection) {
+		final List<Valuation> models = new ArrayList<>();
+		enumerate(projection, models::add);
+		return models;
+	}
+
+	private void block(final List<Expr<BoolType>> cube) {
+		if (generalize) {
+			minimize(cube);
+		}
+		if (cube.isEmpty()) {
+			solver.add(False());
+		} else if (cube.size() == 1) {
+			solver.add(Not(cube.get(0)));
+		} else {
+			solver.add(Not(And(cube)));
+		}
+	}
+
+	// A literal can be dropped if the rest of the cube implies it, because then
+	// the shorter clause blocks exactly the same models
+	private void minimize(final List<Expr<BoolType>> cube) {
+		int i = 0;
+		while (i < cube.size() && cube.size() > 1) {
+			final Expr<BoolType> lit = cube.remove(i);
+			final List<Expr<BoolType>> assumptions = new ArrayList<>(cube);
+			assumptions.add(Not(lit));
+			if (solver.check(assumptions).isUnsat()) {
+				continue;
+			}
+			cube.add(i, lit);
+			i++;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Expr<BoolType> literal(final Decl<?> decl, final LitExpr<?> value) {
+		if (decl.getType() instanceof BoolType) {
+			final Expr<BoolType> ref = (Expr<BoolType>) decl.getRef();
+			return value.equals(True()) ? ref : Not(ref);
+		} else {
+			return Eq(decl.getRef(), value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Utils.lispStringBuilder(getClass().getSimpleName()).add(limit).add(generalize).toString();
+	}
+
+	public static final class Builder {
+		private final Solver solver;
+		private int limit;
+		private boolean generalize;
+
+		private Builder(final Solver solver) {
+			this.solver = solver;
+			this.limit = 0;
+			this.generalize = false;
+		}
+
+		/**
+		 * Limit the number of models to enumerate (0 is unlimited).
+		 */
+		public Builder limit(final int limit) {
+			this.limit = limit;
+			return this;
+		}
+
+		/**
+		 * Drop implied literals from the blocking clauses.
+		 */
+		public Builder generalize(final boolean generalize) {
+			this.generalize = generalize;
+			return this;
+		}
+
+		public ModelEnumerator build() {
+			return new ModelEnumerator(solver, limit, generalize);
+		}
+	}
+
+}
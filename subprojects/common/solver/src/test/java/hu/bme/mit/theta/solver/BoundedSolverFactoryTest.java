@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedSolverFactoryTest {
+
+	private static final class TimedSolverStub extends SolverStub {
+		private final SolverStatus status;
+		private long timeoutMs = -1;
+
+		private TimedSolverStub(final SolverStatus status) {
+			this.status = status;
+		}
+
+		@Override
+		public SolverStatus check(final long timeout, final TimeUnit unit) {
+			timeoutMs = unit.toMillis(timeout);
+			return status;
+		}
+	}
+
+	private static final class SolverFactoryStub implements SolverFactory {
+		private final SolverStatus status;
+		private TimedSolverStub solver;
+
+		private SolverFactoryStub(final SolverStatus status) {
+			this.status = status;
+		}
+
+		@Override
+		public Solver createSolver() {
+			solver = new TimedSolverStub(status);
+			return solver;
+		}
+
+		@Override
+		public ItpSolver createItpSolver() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@Test
+	public void testBoundedCheck() {
+		final SolverFactoryStub factory = new SolverFactoryStub(SolverStatus.SAT);
+		final Solver solver = BoundedSolverFactory.create(factory, 2, TimeUnit.SECONDS).createSolver();
+
+		Assert.assertEquals(SolverStatus.SAT, solver.check());
+		Assert.assertEquals(2000, factory.solver.timeoutMs);
+	}
+
+	@Test(expected = UnknownSolverStatusException.class)
+	public void testTimeout() {
+		final SolverFactoryStub factory = new SolverFactoryStub(SolverStatus.UNKNOWN);
+		final Solver solver = BoundedSolverFactory.create(factory, 100, TimeUnit.MILLISECONDS).createSolver();
+		solver.check();
+	}
+
+	@Test
+	public void testDelegation() {
+		final SolverFactoryStub factory = new SolverFactoryStub(SolverStatus.UNSAT);
+		final Solver solver = BoundedSolverFactory.create(factory, 100, TimeUnit.MILLISECONDS).createSolver();
+
+		solver.push();
+		solver.push();
+		solver.pop();
+		Assert.assertEquals(1, factory.solver.nPush);
+		Assert.assertEquals(SolverStatus.UNSAT, solver.check(1, TimeUnit.SECONDS));
+		Assert.assertEquals(1000, factory.solver.timeoutMs);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveTimeout() {
+		BoundedSolverFactory.create(new SolverFactoryStub(SolverStatus.SAT), 0, TimeUnit.SECONDS);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InterruptibleSolverFactoryTest {
+
+	// Check that blocks until it is released or cancelled
+	private static final class BlockingSolverStub extends SolverStub {
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		@Override
+		public Future<SolverStatus> checkAsync() {
+			final FutureTask<SolverStatus> task = new FutureTask<>(() -> {
+				started.countDown();
+				released.await();
+				return SolverStatus.SAT;
+			});
+			new Thread(task).start();
+			return task;
+		}
+	}
+
+	private static final class SolverFactoryStub implements SolverFactory {
+		private BlockingSolverStub solver;
+
+		@Override
+		public Solver createSolver() {
+			solver = new BlockingSolverStub();
+			return solver;
+		}
+
+		@Override
+		public ItpSolver createItpSolver() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@Test
+	public void testCheck() {
+		final SolverFactoryStub stub = new SolverFactoryStub();
+		final Solver solver = InterruptibleSolverFactory.create(stub).createSolver();
+		stub.solver.released.countDown();
+		Assert.assertEquals(SolverStatus.SAT, solver.check());
+	}
+
+	@Test
+	public void testTimeout() {
+		final SolverFactoryStub stub = new SolverFactoryStub();
+		final Solver solver = InterruptibleSolverFactory.create(stub).createSolver();
+		Assert.assertEquals(SolverStatus.UNKNOWN, solver.check(10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testInterrupt() throws InterruptedException {
+		final SolverFactoryStub stub = new SolverFactoryStub();
+		final InterruptibleSolverFactory factory = InterruptibleSolverFactory.create(stub);
+		final Solver solver = factory.createSolver();
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final Thread thread = new Thread(() -> {
+			try {
+				solver.check();
+			} catch (final Throwable e) {
+				failure.set(e);
+			}
+		});
+		thread.start();
+		stub.solver.started.await();
+
+		factory.interrupt();
+		thread.join(1000);
+		Assert.assertFalse(thread.isAlive());
+		Assert.assertTrue(failure.get() instanceof UnknownSolverStatusException);
+		Assert.assertTrue(factory.isInterrupted());
+	}
+
+	@Test(expected = UnknownSolverStatusException.class)
+	public void testCheckAfterInterrupt() {
+		final SolverFactoryStub stub = new SolverFactoryStub();
+		final InterruptibleSolverFactory factory = InterruptibleSolverFactory.create(stub);
+		final Solver solver = factory.createSolver();
+		factory.interrupt();
+		solver.check();
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolverPoolTest {
+
+	private static final class SolverFactoryStub implements SolverFactory {
+		private final List<SolverStub> solvers = new ArrayList<>();
+
+		@Override
+		public Solver createSolver() {
+			final SolverStub solver = new SolverStub();
+			solvers.add(solver);
+			return solver;
+		}
+
+		@Override
+		public ItpSolver createItpSolver() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	@Test
+	public void testReuse() {
+		final SolverFactoryStub factory = new SolverFactoryStub();
+		final SolverPool pool = SolverPool.create(factory);
+
+		final Solver solver1 = pool.leaseSolver();
+		solver1.push();
+		solver1.push();
+		pool.release(solver1);
+		Assert.assertEquals(1, factory.solvers.size());
+		Assert.assertEquals(0, factory.solvers.get(0).nPush);
+		Assert.assertEquals(1, pool.getIdleCount());
+
+		final Solver solver2 = pool.leaseSolver();
+		Assert.assertEquals(1, pool.getCreatedCount());
+		Assert.assertEquals(1, factory.solvers.get(0).nPush);
+		Assert.assertEquals(0, pool.getIdleCount());
+		Assert.assertEquals(1, pool.getLeasedCount());
+		pool.release(solver2);
+	}
+
+	@Test
+	public void testConcurrentLeases() {
+		final SolverFactoryStub factory = new SolverFactoryStub();
+		final SolverPool pool = SolverPool.builder(factory).maxIdle(1).build();
+
+		pool.createSolver();
+		pool.createSolver();
+		Assert.assertEquals(2, pool.getCreatedCount());
+		Assert.assertEquals(2, pool.getLeasedCount());
+
+		pool.releaseAll();
+		Assert.assertEquals(0, pool.getLeasedCount());
+		Assert.assertEquals(1, pool.getIdleCount());
+	}
+
+	@Test
+	public void testReset() {
+		final SolverFactoryStub factory = new SolverFactoryStub();
+		final SolverPool pool = SolverPool.create(factory);
+
+		final Solver solver = pool.leaseSolver();
+		solver.push();
+		solver.reset();
+		Assert.assertEquals(1, factory.solvers.get(0).nPush);
+		pool.release(solver);
+		Assert.assertEquals(0, factory.solvers.get(0).nPush);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUseAfterRelease() {
+		final SolverPool pool = SolverPool.create(new SolverFactoryStub());
+		final Solver solver = pool.leaseSolver();
+		pool.release(solver);
+		solver.check();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPopBelowLease() {
+		final SolverPool pool = SolverPool.create(new SolverFactoryStub());
+		final Solver solver = pool.leaseSolver();
+		solver.pop();
+	}
+
+}
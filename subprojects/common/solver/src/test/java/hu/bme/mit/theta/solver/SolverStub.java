@@ -16,6 +16,8 @@
 package hu.bme.mit.theta.solver;
 
 import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import hu.bme.mit.theta.core.model.Valuation;
 import hu.bme.mit.theta.core.type.Expr;
@@ -42,6 +44,21 @@ class SolverStub implements Solver {
 		return null;
 	}
 
+	@Override
+	public SolverStatus check(final long timeout, final TimeUnit unit) {
+		return null;
+	}
+
+	@Override
+	public SolverStatus check(final Collection<? extends Expr<BoolType>> assumptions) {
+		return null;
+	}
+
+	@Override
+	public Future<SolverStatus> checkAsync() {
+		return null;
+	}
+
 	@Override
 	public void push() {
 		++nPush;
@@ -89,6 +89,9 @@ public class StsCli {
 	@Parameter(names = "--prunestrategy", description = "Strategy for pruning the ARG after refinement")
 	PruneStrategy pruneStrategy = PruneStrategy.LAZY;
 
+	@Parameter(names = {"--solvertimeout"}, description = "Timeout of a single solver query in milliseconds, after which it is treated as unknown (0: unlimited)")
+	Integer solverTimeout = 0;
+
 	@Parameter(names = {"--loglevel"}, description = "Detailedness of logging")
 	Logger.Level logLevel = Level.SUBSTEP;
 
@@ -193,7 +196,7 @@ public class StsCli {
 
 	private StsConfig<?, ?, ?> buildConfiguration(final STS sts) throws Exception {
 		try {
-			return new StsConfigBuilder(domain, refinement, Z3SolverFactory.getInstance())
+			return new StsConfigBuilder(domain, refinement, createSolverFactory())
 					.initPrec(initPrec).search(search)
 					.predSplit(predSplit).pruneStrategy(pruneStrategy).logger(logger).build(sts);
 		} catch (final Exception ex) {
@@ -201,10 +204,18 @@ public class StsCli {
 		}
 	}
 
+	private SolverFactory createSolverFactory() {
+		final SolverFactory solverFactory = Z3SolverFactory.getInstance();
+		if (solverTimeout > 0) {
+			return BoundedSolverFactory.create(solverFactory, solverTimeout, TimeUnit.MILLISECONDS);
+		}
+		return solverFactory;
+	}
+
 	private void printResult(final SafetyResult<?, ?> status, final STS sts, final long totalTimeMs) {
 		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
 		if (benchmarkMode) {
-			writer.cell(status.isSafe());
+			writer.cell(status.isUnknown() ? "unknown" : status.isSafe());
 			writer.cell(totalTimeMs);
 			writer.cell(stats.getAlgorithmTimeMs());
 			writer.cell(stats.getAbstractorTimeMs());
@@ -2,38 +2,55 @@ package hu.bme.mit.theta.xsts.analysis.config;
 
 import hu.bme.mit.theta.analysis.*;
 import hu.bme.mit.theta.analysis.algorithm.ArgBuilder;
+import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.ArgNodeComparators;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Abstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.BasicAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarChecker;
+import hu.bme.mit.theta.analysis.algorithm.cegar.ParallelAbstractor;
 import hu.bme.mit.theta.analysis.algorithm.cegar.Refiner;
+import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterion;
 import hu.bme.mit.theta.analysis.algorithm.cegar.abstractor.StopCriterions;
 import hu.bme.mit.theta.analysis.expl.*;
+import hu.bme.mit.theta.analysis.expr.ExprAction;
+import hu.bme.mit.theta.analysis.expr.ExprState;
 import hu.bme.mit.theta.analysis.expr.ExprStatePredicate;
 import hu.bme.mit.theta.analysis.expr.refinement.*;
+import hu.bme.mit.theta.analysis.impl.CachingAnalysis;
 import hu.bme.mit.theta.analysis.pred.*;
 import hu.bme.mit.theta.analysis.prod2.Prod2Analysis;
 import hu.bme.mit.theta.analysis.prod2.Prod2Prec;
 import hu.bme.mit.theta.analysis.prod2.Prod2State;
 import hu.bme.mit.theta.analysis.prod2.prod2explpred.*;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
 import hu.bme.mit.theta.analysis.stmtoptimizer.DefaultStmtOptimizer;
 import hu.bme.mit.theta.analysis.waitlist.PriorityWaitlist;
+import hu.bme.mit.theta.analysis.waitlist.Waitlist;
+import hu.bme.mit.theta.common.TriFunction;
 import hu.bme.mit.theta.common.logging.Logger;
 import hu.bme.mit.theta.common.logging.NullLogger;
 import hu.bme.mit.theta.core.decl.VarDecl;
 import hu.bme.mit.theta.core.type.Expr;
 import hu.bme.mit.theta.core.type.booltype.BoolType;
+import hu.bme.mit.theta.core.utils.CachingExprSimplifier;
 import hu.bme.mit.theta.solver.ItpSolver;
+import hu.bme.mit.theta.solver.Solver;
 import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.xsts.XSTS;
 import hu.bme.mit.theta.xsts.analysis.*;
 import hu.bme.mit.theta.xsts.analysis.autoexpl.*;
 import hu.bme.mit.theta.xsts.analysis.initprec.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static hu.bme.mit.theta.core.type.booltype.BoolExprs.Not;
 
 public class XstsConfigBuilder {
@@ -117,6 +134,10 @@ public class XstsConfigBuilder {
 	private PruneStrategy pruneStrategy = PruneStrategy.LAZY;
 	private OptimizeStmts optimizeStmts = OptimizeStmts.ON;
 	private AutoExpl autoExpl = AutoExpl.NEWOPERANDS;
+	private int threads = 1;
+	private boolean incrementalPred = false;
+	private long simplifierCacheSize = 0;
+	private long transFuncCacheSize = 0;
 
 	public XstsConfigBuilder(final Domain domain, final Refinement refinement, final SolverFactory solverFactory) {
 		this.domain = domain;
@@ -164,6 +185,42 @@ public class XstsConfigBuilder {
 		return this;
 	}
 
+	public XstsConfigBuilder threads(final int threads) {
+		checkArgument(threads > 0, "Number of threads must be positive");
+		this.threads = threads;
+		return this;
+	}
+
+	/**
+	 * Use predicate abstractors that keep the predicates in a dedicated solver
+	 * across calls instead of re-adding them for each abstraction.
+	 */
+	public XstsConfigBuilder incrementalPred(final boolean incrementalPred) {
+		this.incrementalPred = incrementalPred;
+		return this;
+	}
+
+	/**
+	 * Size of the cache for simplifying statements with explicit values, 0
+	 * disables caching.
+	 */
+	public XstsConfigBuilder simplifierCacheSize(final long simplifierCacheSize) {
+		checkArgument(simplifierCacheSize >= 0, "Cache size must be non-negative");
+		this.simplifierCacheSize = simplifierCacheSize;
+		return this;
+	}
+
+	/**
+	 * Size of the cache for the successors computed by the transfer function
+	 * of the explicit and predicate domains, 0 disables caching. Each thread
+	 * has its own cache.
+	 */
+	public XstsConfigBuilder transFuncCacheSize(final long transFuncCacheSize) {
+		checkArgument(transFuncCacheSize >= 0, "Cache size must be non-negative");
+		this.transFuncCacheSize = transFuncCacheSize;
+		return this;
+	}
+
 	public XstsConfig<? extends State, ? extends Action, ? extends Prec> build(final XSTS xsts) {
 		final ItpSolver solver = solverFactory.createItpSolver();
 		final Expr<BoolType> negProp = Not(xsts.getProp());
@@ -171,43 +228,47 @@ public class XstsConfigBuilder {
 		if (domain == Domain.EXPL) {
 			final LTS<XstsState<ExplState>, XstsAction> lts;
 			if(optimizeStmts == OptimizeStmts.ON){
-				lts = XstsLts.create(xsts,XstsStmtOptimizer.create(ExplStmtOptimizer.getInstance()));
+				lts = XstsLts.create(xsts,XstsStmtOptimizer.create(createExplStmtOptimizer()));
 			} else {
 				lts = XstsLts.create(xsts, XstsStmtOptimizer.create(DefaultStmtOptimizer.create()));
 			}
 
-			final Predicate<XstsState<ExplState>> target = new XstsStatePredicate<ExplStatePredicate, ExplState>(new ExplStatePredicate(negProp, solver));
-			final Analysis<XstsState<ExplState>, XstsAction, ExplPrec> analysis = XstsAnalysis.create(ExplStmtAnalysis.create(solver, xsts.getInitFormula(), maxEnum));
-			final ArgBuilder<XstsState<ExplState>, XstsAction, ExplPrec> argBuilder = ArgBuilder.create(lts, analysis, target,
-					true);
-			final Abstractor<XstsState<ExplState>, XstsAction, ExplPrec> abstractor = BasicAbstractor.builder(argBuilder)
-					.waitlist(PriorityWaitlist.create(search.comparator))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex())
-					.logger(logger).build();
-
+			final Function<Solver, ArgBuilder<XstsState<ExplState>, XstsAction, ExplPrec>> argBuilderFactory = abstractionSolver -> {
+				final Predicate<XstsState<ExplState>> target = new XstsStatePredicate<ExplStatePredicate, ExplState>(new ExplStatePredicate(negProp, abstractionSolver));
+				final Analysis<XstsState<ExplState>, XstsAction, ExplPrec> analysis = XstsAnalysis.create(withTransFuncCache(
+						ExplStmtAnalysis.create(abstractionSolver, xsts.getInitFormula(), maxEnum), ExplStmtTransFunc::projectPrec,
+						(s, p) -> p.adaptState(s)));
+				return ArgBuilder.create(lts, analysis, target, true);
+			};
+			final Abstractor<XstsState<ExplState>, XstsAction, ExplPrec> abstractor = createAbstractor(argBuilderFactory, solver,
+					CoverageFilters.lift(XstsState::getState, ExplCoverageFilter.getInstance()),
+					PriorityWaitlist.create(search.comparator),
+					refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration() : StopCriterions.firstCex());
+
+			final PrecChangeFilter<XstsState<ExplState>, XstsAction, ExplPrec> precChangeFilter = PrecChangeFilters
+					.lift(XstsState::getState, (s, p) -> p, ExplPrecChangeFilter.create(xsts.getInitFormula()));
 			Refiner<XstsState<ExplState>, XstsAction, ExplPrec> refiner = null;
 
 			switch (refinement) {
 				case FW_BIN_ITP:
 					refiner = SingleExprTraceRefiner.create(ExprTraceFwBinItpChecker.create(xsts.getInitFormula(), negProp, solver),
-							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
+							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case BW_BIN_ITP:
 					refiner = SingleExprTraceRefiner.create(ExprTraceBwBinItpChecker.create(xsts.getInitFormula(), negProp, solver),
-							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
+							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case SEQ_ITP:
 					refiner = SingleExprTraceRefiner.create(ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, solver),
-							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
+							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				case MULTI_SEQ:
-					refiner = MultiExprTraceRefiner.create(ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, solver),
-							JoiningPrecRefiner.create(new ItpRefToExplPrec()), pruneStrategy, logger);
+					refiner = createMultiRefiner(itpSolver -> ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, itpSolver),
+							solver, JoiningPrecRefiner.create(new ItpRefToExplPrec()), precChangeFilter);
 					break;
 				case UNSAT_CORE:
 					refiner = SingleExprTraceRefiner.create(ExprTraceUnsatCoreChecker.create(xsts.getInitFormula(), negProp, solver),
-							JoiningPrecRefiner.create(new VarsRefToExplPrec()), pruneStrategy, logger);
+							JoiningPrecRefiner.create(new VarsRefToExplPrec()), pruneStrategy, precChangeFilter, logger);
 					break;
 				default:
 					throw new UnsupportedOperationException(domain + " domain does not support " + refinement + " refinement.");
@@ -219,21 +280,6 @@ public class XstsConfigBuilder {
 			return XstsConfig.create(checker, prec);
 
 		} else if (domain == Domain.PRED_BOOL || domain == Domain.PRED_CART || domain == Domain.PRED_SPLIT) {
-			PredAbstractors.PredAbstractor predAbstractor = null;
-			switch (domain) {
-				case PRED_BOOL:
-					predAbstractor = PredAbstractors.booleanAbstractor(solver);
-					break;
-				case PRED_SPLIT:
-					predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
-					break;
-				case PRED_CART:
-					predAbstractor = PredAbstractors.cartesianAbstractor(solver);
-					break;
-				default:
-					throw new UnsupportedOperationException(domain + " domain is not supported.");
-			}
-
 			final LTS<XstsState<PredState>, XstsAction> lts;
 			if(optimizeStmts == OptimizeStmts.ON){
 				lts = XstsLts.create(xsts,XstsStmtOptimizer.create(PredStmtOptimizer.getInstance()));
@@ -241,16 +287,18 @@ public class XstsConfigBuilder {
 				lts = XstsLts.create(xsts, XstsStmtOptimizer.create(DefaultStmtOptimizer.create()));
 			}
 
-			final Predicate<XstsState<PredState>> target = new XstsStatePredicate<ExprStatePredicate, PredState>(new ExprStatePredicate(negProp, solver));
-			final Analysis<XstsState<PredState>, XstsAction, PredPrec> analysis = XstsAnalysis.create(PredAnalysis.create(solver, predAbstractor,
-					xsts.getInitFormula()));
-			final ArgBuilder<XstsState<PredState>, XstsAction, PredPrec> argBuilder = ArgBuilder.create(lts, analysis, target,
-					true);
-			final Abstractor<XstsState<PredState>, XstsAction, PredPrec> abstractor = BasicAbstractor.builder(argBuilder)
-					.waitlist(PriorityWaitlist.create(search.comparator))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex())
-					.logger(logger).build();
+			final Function<Solver, ArgBuilder<XstsState<PredState>, XstsAction, PredPrec>> argBuilderFactory = abstractionSolver -> {
+				final PredAbstractors.PredAbstractor predAbstractor = createPredAbstractor(abstractionSolver);
+				final Predicate<XstsState<PredState>> target = new XstsStatePredicate<ExprStatePredicate, PredState>(new ExprStatePredicate(negProp, abstractionSolver));
+				final Analysis<XstsState<PredState>, XstsAction, PredPrec> analysis = XstsAnalysis.create(withTransFuncCache(
+						PredAnalysis.create(abstractionSolver, predAbstractor, xsts.getInitFormula()), (s, a, p) -> p,
+						(s, p) -> s));
+				return ArgBuilder.create(lts, analysis, target, true);
+			};
+			final Abstractor<XstsState<PredState>, XstsAction, PredPrec> abstractor = createAbstractor(argBuilderFactory, solver,
+					CoverageFilters.lift(XstsState::getState, PredCoverageFilter.create()),
+					PriorityWaitlist.create(search.comparator),
+					refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration() : StopCriterions.firstCex());
 
 			ExprTraceChecker<ItpRefutation> exprTraceChecker = null;
 			switch (refinement) {
@@ -272,8 +320,8 @@ public class XstsConfigBuilder {
 			}
 			Refiner<XstsState<PredState>, XstsAction, PredPrec> refiner;
 			if (refinement == Refinement.MULTI_SEQ) {
-				refiner = MultiExprTraceRefiner.create(exprTraceChecker,
-						JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)), pruneStrategy, logger);
+				refiner = createMultiRefiner(itpSolver -> ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, itpSolver),
+						solver, JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)));
 			} else {
 				refiner = SingleExprTraceRefiner.create(exprTraceChecker,
 						JoiningPrecRefiner.create(new ItpRefToPredPrec(predSplit.splitter)), pruneStrategy, logger);
@@ -289,51 +337,37 @@ public class XstsConfigBuilder {
 			if(optimizeStmts == OptimizeStmts.ON){
 				lts = XstsLts.create(xsts,XstsStmtOptimizer.create(
 						Prod2ExplPredStmtOptimizer.create(
-								ExplStmtOptimizer.getInstance()
+								createExplStmtOptimizer()
 						)));
 			} else {
 				lts = XstsLts.create(xsts, XstsStmtOptimizer.create(DefaultStmtOptimizer.create()));
 			}
 
-			final Analysis<Prod2State<ExplState,PredState>,XstsAction,Prod2Prec<ExplPrec,PredPrec>> prod2Analysis;
-			final Predicate<XstsState<Prod2State<ExplState, PredState>>> target = new XstsStatePredicate<ExprStatePredicate, Prod2State<ExplState, PredState>>(new ExprStatePredicate(negProp, solver));
-			if(domain == Domain.EXPL_PRED_BOOL || domain == Domain.EXPL_PRED_CART || domain == Domain.EXPL_PRED_SPLIT){
-				final PredAbstractors.PredAbstractor predAbstractor;
-				switch (domain) {
-					case EXPL_PRED_BOOL:
-						predAbstractor = PredAbstractors.booleanAbstractor(solver);
-						break;
-					case EXPL_PRED_SPLIT:
-						predAbstractor = PredAbstractors.booleanSplitAbstractor(solver);
-						break;
-					case EXPL_PRED_CART:
-						predAbstractor = PredAbstractors.cartesianAbstractor(solver);
-						break;
-					default:
-						throw new UnsupportedOperationException(domain + " domain is not supported.");
+			final Function<Solver, ArgBuilder<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>>> argBuilderFactory = abstractionSolver -> {
+				final Analysis<Prod2State<ExplState,PredState>,XstsAction,Prod2Prec<ExplPrec,PredPrec>> prod2Analysis;
+				final Predicate<XstsState<Prod2State<ExplState, PredState>>> target = new XstsStatePredicate<ExprStatePredicate, Prod2State<ExplState, PredState>>(new ExprStatePredicate(negProp, abstractionSolver));
+				if(domain == Domain.EXPL_PRED_BOOL || domain == Domain.EXPL_PRED_CART || domain == Domain.EXPL_PRED_SPLIT){
+					final PredAbstractors.PredAbstractor predAbstractor = createPredAbstractor(abstractionSolver);
+					prod2Analysis = Prod2Analysis.create(
+							ExplStmtAnalysis.create(abstractionSolver, xsts.getInitFormula(), maxEnum),
+							PredAnalysis.create(abstractionSolver, predAbstractor, xsts.getInitFormula()),
+							Prod2ExplPredPreStrengtheningOperator.create(),
+							Prod2ExplPredStrengtheningOperator.create(abstractionSolver));
+				} else {
+					final Prod2ExplPredAbstractors.Prod2ExplPredAbstractor prodAbstractor = Prod2ExplPredAbstractors.booleanAbstractor(abstractionSolver);
+					prod2Analysis = Prod2ExplPredAnalysis.create(
+							ExplAnalysis.create(abstractionSolver, xsts.getInitFormula()),
+							PredAnalysis.create(abstractionSolver, PredAbstractors.booleanAbstractor(abstractionSolver), xsts.getInitFormula()),
+							Prod2ExplPredStrengtheningOperator.create(abstractionSolver),
+							prodAbstractor);
 				}
-				prod2Analysis = Prod2Analysis.create(
-						ExplStmtAnalysis.create(solver, xsts.getInitFormula(), maxEnum),
-						PredAnalysis.create(solver, predAbstractor, xsts.getInitFormula()),
-						Prod2ExplPredPreStrengtheningOperator.create(),
-						Prod2ExplPredStrengtheningOperator.create(solver));
-			} else {
-				final Prod2ExplPredAbstractors.Prod2ExplPredAbstractor prodAbstractor = Prod2ExplPredAbstractors.booleanAbstractor(solver);
-				prod2Analysis = Prod2ExplPredAnalysis.create(
-						ExplAnalysis.create(solver, xsts.getInitFormula()),
-						PredAnalysis.create(solver, PredAbstractors.booleanAbstractor(solver), xsts.getInitFormula()),
-						Prod2ExplPredStrengtheningOperator.create(solver),
-						prodAbstractor);
-			}
-			final Analysis<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>> analysis = XstsAnalysis.create(prod2Analysis);
-
-			final ArgBuilder<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>> argBuilder = ArgBuilder.create(lts, analysis, target,
-					true);
-			final Abstractor<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>> abstractor = BasicAbstractor.builder(argBuilder)
-					.waitlist(PriorityWaitlist.create(search.comparator))
-					.stopCriterion(refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration()
-							: StopCriterions.firstCex())
-					.logger(logger).build();
+				final Analysis<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>> analysis = XstsAnalysis.create(prod2Analysis);
+				return ArgBuilder.create(lts, analysis, target, true);
+			};
+			final Abstractor<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>> abstractor = createAbstractor(argBuilderFactory, solver,
+					CoverageFilters.none(),
+					PriorityWaitlist.create(search.comparator),
+					refinement == Refinement.MULTI_SEQ ? StopCriterions.fullExploration() : StopCriterions.firstCex());
 
 			Refiner<XstsState<Prod2State<ExplState, PredState>>, XstsAction, Prod2Prec<ExplPrec, PredPrec>> refiner = null;
 
@@ -354,8 +388,8 @@ public class XstsConfigBuilder {
 							JoiningPrecRefiner.create(precRefiner), pruneStrategy, logger);
 					break;
 				case MULTI_SEQ:
-					refiner = MultiExprTraceRefiner.create(ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, solver),
-							JoiningPrecRefiner.create(precRefiner), pruneStrategy, logger);
+					refiner = createMultiRefiner(itpSolver -> ExprTraceSeqItpChecker.create(xsts.getInitFormula(), negProp, itpSolver),
+							solver, JoiningPrecRefiner.create(precRefiner));
 					break;
 				default:
 					throw new UnsupportedOperationException(
@@ -371,5 +405,103 @@ public class XstsConfigBuilder {
 		}
 	}
 
+	private PredAbstractors.PredAbstractor createPredAbstractor(final Solver abstractionSolver) {
+		if (incrementalPred) {
+			return createIncrementalPredAbstractor(solverFactory.createSolver());
+		}
+		switch (domain) {
+			case PRED_BOOL:
+			case EXPL_PRED_BOOL:
+				return PredAbstractors.booleanAbstractor(abstractionSolver);
+			case PRED_SPLIT:
+			case EXPL_PRED_SPLIT:
+				return PredAbstractors.booleanSplitAbstractor(abstractionSolver);
+			case PRED_CART:
+			case EXPL_PRED_CART:
+				return PredAbstractors.cartesianAbstractor(abstractionSolver);
+			default:
+				throw new UnsupportedOperationException(domain + " domain is not supported.");
+		}
+	}
+
+	private ExplStmtOptimizer createExplStmtOptimizer() {
+		if (simplifierCacheSize == 0) {
+			return ExplStmtOptimizer.getInstance();
+		} else {
+			return ExplStmtOptimizer.create(CachingExprSimplifier.create(simplifierCacheSize));
+		}
+	}
+
+	private <S extends State, A extends Action, P extends Prec> Analysis<S, A, P> withTransFuncCache(
+			final Analysis<S, A, P> analysis, final TriFunction<? super S, ? super A, ? super P, ?> precProjection,
+			final BiFunction<? super S, ? super P, ? extends S> succStateAdapter) {
+		if (transFuncCacheSize == 0) {
+			return analysis;
+		} else {
+			return CachingAnalysis.create(analysis, precProjection, succStateAdapter, transFuncCacheSize);
+		}
+	}
+
+	private PredAbstractors.PredAbstractor createIncrementalPredAbstractor(final Solver predSolver) {
+		switch (domain) {
+			case PRED_BOOL:
+			case EXPL_PRED_BOOL:
+				return PredAbstractors.incrementalBooleanAbstractor(predSolver);
+			case PRED_SPLIT:
+			case EXPL_PRED_SPLIT:
+				return PredAbstractors.incrementalBooleanSplitAbstractor(predSolver);
+			case PRED_CART:
+			case EXPL_PRED_CART:
+				return PredAbstractors.incrementalCartesianAbstractor(predSolver);
+			default:
+				throw new UnsupportedOperationException(domain + " domain is not supported.");
+		}
+	}
+
+	/**
+	 * Creates a BasicAbstractor for a single thread, or a ParallelAbstractor
+	 * otherwise. The first ArgBuilder uses the given solver, the others get their
+	 * own solver instances from the solver factory.
+	 */
+	private <S extends State, A extends Action, P extends Prec> Abstractor<S, A, P> createAbstractor(
+			final Function<Solver, ArgBuilder<S, A, P>> argBuilderFactory, final Solver solver,
+			final CoverageFilter<? super S, ?> coverageFilter, final Waitlist<ArgNode<S, A>> waitlist,
+			final StopCriterion<S, A> stopCriterion) {
+		final ArgBuilder<S, A, P> argBuilder = argBuilderFactory.apply(solver);
+		if (threads == 1) {
+			return BasicAbstractor.builder(argBuilder).coverageFilter(coverageFilter).waitlist(waitlist)
+					.stopCriterion(stopCriterion).logger(logger).build();
+		}
+
+		final List<ArgBuilder<S, A, P>> argBuilders = new ArrayList<>(threads);
+		argBuilders.add(argBuilder);
+		for (int i = 1; i < threads; i++) {
+			argBuilders.add(argBuilderFactory.apply(solverFactory.createSolver()));
+		}
+		return ParallelAbstractor.builder(argBuilders).coverageFilter(coverageFilter).waitlist(waitlist)
+				.stopCriterion(stopCriterion).logger(logger).build();
+	}
+
+	/**
+	 * Creates a MultiExprTraceRefiner with an ExprTraceChecker for each thread.
+	 * The first checker uses the given solver, the others get their own
+	 * interpolating solver instances from the solver factory.
+	 */
+	private <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> Refiner<S, A, P> createMultiRefiner(
+			final Function<ItpSolver, ExprTraceChecker<R>> exprTraceCheckerFactory, final ItpSolver solver,
+			final PrecRefiner<S, A, P, R> precRefiner) {
+		return createMultiRefiner(exprTraceCheckerFactory, solver, precRefiner, PrecChangeFilters.all());
+	}
+
+	private <S extends ExprState, A extends ExprAction, P extends Prec, R extends Refutation> Refiner<S, A, P> createMultiRefiner(
+			final Function<ItpSolver, ExprTraceChecker<R>> exprTraceCheckerFactory, final ItpSolver solver,
+			final PrecRefiner<S, A, P, R> precRefiner, final PrecChangeFilter<? super S, ? super A, ? super P> precChangeFilter) {
+		final List<ExprTraceChecker<R>> exprTraceCheckers = new ArrayList<>(threads);
+		exprTraceCheckers.add(exprTraceCheckerFactory.apply(solver));
+		for (int i = 1; i < threads; i++) {
+			exprTraceCheckers.add(exprTraceCheckerFactory.apply(solverFactory.createItpSolver()));
+		}
+		return MultiExprTraceRefiner.create(exprTraceCheckers, precRefiner, pruneStrategy, precChangeFilter, logger);
+	}
 
 }
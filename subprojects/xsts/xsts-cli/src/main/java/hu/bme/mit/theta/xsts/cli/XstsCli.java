@@ -4,10 +4,17 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.google.common.base.Stopwatch;
+import hu.bme.mit.theta.analysis.Action;
+import hu.bme.mit.theta.analysis.Prec;
+import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.Trace;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.algorithm.Statistics;
 import hu.bme.mit.theta.analysis.algorithm.cegar.CegarStatistics;
+import hu.bme.mit.theta.analysis.algorithm.portfolio.PortfolioChecker;
+import hu.bme.mit.theta.analysis.algorithm.portfolio.PortfolioStatistics;
 import hu.bme.mit.theta.analysis.expr.refinement.PruneStrategy;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.utils.ArgVisualizer;
 import hu.bme.mit.theta.analysis.utils.TraceVisualizer;
 import hu.bme.mit.theta.common.CliUtils;
@@ -18,6 +25,9 @@ import hu.bme.mit.theta.common.table.BasicTableWriter;
 import hu.bme.mit.theta.common.table.TableWriter;
 import hu.bme.mit.theta.common.visualization.Graph;
 import hu.bme.mit.theta.common.visualization.writer.GraphvizWriter;
+import hu.bme.mit.theta.solver.BoundedSolverFactory;
+import hu.bme.mit.theta.solver.InterruptibleSolverFactory;
+import hu.bme.mit.theta.solver.SolverFactory;
 import hu.bme.mit.theta.solver.z3.Z3SolverFactory;
 import hu.bme.mit.theta.xsts.XSTS;
 import hu.bme.mit.theta.xsts.analysis.XstsAction;
@@ -39,6 +49,8 @@ import java.util.stream.Stream;
 public class XstsCli {
 
 	private static final String JAR_NAME = "theta-xsts-cli.jar";
+	private static final Domain[] PORTFOLIO_DOMAINS = {Domain.EXPL, Domain.PRED_CART, Domain.EXPL_PRED_COMBINED};
+	private static final Refinement[] PORTFOLIO_REFINEMENTS = {Refinement.SEQ_ITP, Refinement.BW_BIN_ITP, Refinement.SEQ_ITP};
 	private final String[] args;
 	private final TableWriter writer;
 
@@ -78,6 +90,24 @@ public class XstsCli {
 	@Parameter(names = "--optimizestmts", description = "Turn statement optimization on or off")
 	OptimizeStmts optimizeStmts = OptimizeStmts.ON;
 
+	@Parameter(names = "--threads", description = "Number of threads used for building the ARG")
+	Integer threads = 1;
+
+	@Parameter(names = "--incrementalpred", description = "Keep predicates in the solver across abstraction steps (for predicate abstraction)")
+	boolean incrementalPred = false;
+
+	@Parameter(names = "--simplifiercache", description = "Size of the cache for simplifying statements with explicit values (0: disabled)")
+	Long simplifierCache = 0L;
+
+	@Parameter(names = "--transfunccache", description = "Size of the cache for successors computed by the transfer function (0: disabled)")
+	Long transFuncCache = 0L;
+
+	@Parameter(names = "--portfolio", description = "Run a portfolio of configurations concurrently (--domain and --refinement are ignored)")
+	boolean portfolio = false;
+
+	@Parameter(names = {"--solvertimeout"}, description = "Timeout of a single solver query in milliseconds, after which it is treated as unknown (0: unlimited)")
+	Integer solverTimeout = 0;
+
 	@Parameter(names = {"--loglevel"}, description = "Detailedness of logging")
 	Logger.Level logLevel = Logger.Level.SUBSTEP;
 
@@ -200,18 +230,48 @@ public class XstsCli {
 
 	private XstsConfig<?, ?, ?> buildConfiguration(final XSTS xsts) throws Exception {
 		try {
-			return new XstsConfigBuilder(domain, refinement, Z3SolverFactory.getInstance())
-					.maxEnum(maxEnum).autoExpl(autoExpl).initPrec(initPrec).pruneStrategy(pruneStrategy)
-					.search(search).predSplit(predSplit).optimizeStmts(optimizeStmts).logger(logger).build(xsts);
+			if (portfolio) {
+				return buildPortfolio(xsts);
+			}
+			return createConfigBuilder(domain, refinement, Z3SolverFactory.getInstance()).logger(logger).build(xsts);
 		} catch (final Exception ex) {
 			throw new Exception("Could not create configuration: " + ex.getMessage(), ex);
 		}
 	}
 
+	private XstsConfig<State, Action, UnitPrec> buildPortfolio(final XSTS xsts) {
+		final PortfolioChecker.Builder<State, Action> builder = PortfolioChecker.builder();
+		for (int i = 0; i < PORTFOLIO_DOMAINS.length; i++) {
+			// Each member creates its own solvers, i.e., its own Z3 contexts, which are interrupted on cancellation
+			final InterruptibleSolverFactory solverFactory = InterruptibleSolverFactory.create(
+					Z3SolverFactory.getInstance());
+			final XstsConfig<? extends State, ? extends Action, ? extends Prec> config = createConfigBuilder(
+					PORTFOLIO_DOMAINS[i], PORTFOLIO_REFINEMENTS[i], solverFactory).build(xsts);
+			builder.add(PORTFOLIO_DOMAINS[i] + "+" + PORTFOLIO_REFINEMENTS[i], config::check,
+					solverFactory::interrupt);
+		}
+		return XstsConfig.create(builder.logger(logger).build(), UnitPrec.getInstance());
+	}
+
+	private XstsConfigBuilder createConfigBuilder(final Domain domain, final Refinement refinement,
+												  final SolverFactory solverFactory) {
+		return new XstsConfigBuilder(domain, refinement, createSolverFactory(solverFactory))
+				.maxEnum(maxEnum).autoExpl(autoExpl).initPrec(initPrec).pruneStrategy(pruneStrategy)
+				.search(search).predSplit(predSplit).optimizeStmts(optimizeStmts).threads(threads).incrementalPred(incrementalPred)
+				.simplifierCacheSize(simplifierCache).transFuncCacheSize(transFuncCache);
+	}
+
+	private SolverFactory createSolverFactory(final SolverFactory solverFactory) {
+		if (solverTimeout > 0) {
+			return BoundedSolverFactory.create(solverFactory, solverTimeout, TimeUnit.MILLISECONDS);
+		}
+		return solverFactory;
+	}
+
 	private void printResult(final SafetyResult<?, ?> status, final XSTS sts, final long totalTimeMs) {
-		final CegarStatistics stats = (CegarStatistics) status.getStats().get();
+		final CegarStatistics stats = getCegarStatistics(status.getStats().get());
 		if (benchmarkMode) {
-			writer.cell(status.isSafe());
+			writer.cell(status.isUnknown() ? "unknown" : status.isSafe());
 			writer.cell(totalTimeMs);
 			writer.cell(stats.getAlgorithmTimeMs());
 			writer.cell(stats.getAbstractorTimeMs());
@@ -226,10 +286,20 @@ public class XstsCli {
 				writer.cell("");
 			}
 			writer.cell(sts.getVars().size());
+			if (status.getStats().get() instanceof PortfolioStatistics) {
+				writer.cell(((PortfolioStatistics) status.getStats().get()).getWinner());
+			}
 			writer.newRow();
 		}
 	}
 
+	private CegarStatistics getCegarStatistics(final Statistics stats) {
+		if (stats instanceof PortfolioStatistics) {
+			return (CegarStatistics) ((PortfolioStatistics) stats).getWinnerStats().get();
+		}
+		return (CegarStatistics) stats;
+	}
+
 	private void printError(final Throwable ex) {
 		final String message = ex.getMessage() == null ? "" : ex.getMessage();
 		if (benchmarkMode) {
@@ -259,8 +329,8 @@ public class XstsCli {
 
 	private void writeVisualStatus(final SafetyResult<?, ?> status, final String filename)
 			throws FileNotFoundException {
-		final Graph graph = status.isSafe() ? ArgVisualizer.getDefault().visualize(status.asSafe().getArg())
-				: TraceVisualizer.getDefault().visualize(status.asUnsafe().getTrace());
+		final Graph graph = status.isUnsafe() ? TraceVisualizer.getDefault().visualize(status.asUnsafe().getTrace())
+				: ArgVisualizer.getDefault().visualize(status.getArg());
 		GraphvizWriter.getInstance().writeFile(graph, filename);
 	}
 
@@ -21,6 +21,8 @@ import java.util.function.Function;
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.xta.analysis.XtaAction;
 import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics.Builder;
@@ -33,6 +35,13 @@ interface AlgorithmStrategy<S1 extends State, S2 extends State> {
 
 	boolean mightCover(final ArgNode<S1, XtaAction> coveree, ArgNode<S1, XtaAction> coverer);
 
+	/**
+	 * Gets a filter that is conservative with respect to mightCover.
+	 */
+	default CoverageFilter<S1, ?> getCoverageFilter() {
+		return CoverageFilters.none();
+	}
+
 	void cover(ArgNode<S1, XtaAction> coveree, ArgNode<S1, XtaAction> coverer,
 			   Collection<ArgNode<S1, XtaAction>> uncoveredNodes, final Builder stats);
 
@@ -27,6 +27,8 @@ import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
 import hu.bme.mit.theta.analysis.prod2.Prod2Analysis;
 import hu.bme.mit.theta.analysis.prod2.Prod2Prec;
 import hu.bme.mit.theta.analysis.prod2.Prod2State;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.common.Tuple3;
 import hu.bme.mit.theta.xta.XtaSystem;
@@ -68,6 +70,11 @@ final class CombinedStrategy<S1 extends State, S2 extends State>
 		return strategy1.mightCover(coveree, coverer) && strategy2.mightCover(coveree, coverer);
 	}
 
+	@Override
+	public CoverageFilter<XtaState<Prod2State<S1, S2>>, ?> getCoverageFilter() {
+		return CoverageFilters.and(strategy1.getCoverageFilter(), strategy2.getCoverageFilter());
+	}
+
 	@Override
 	public void cover(final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> coveree,
 					  final ArgNode<XtaState<Prod2State<S1, S2>>, XtaAction> coverer,
@@ -28,7 +28,10 @@ import java.util.function.Function;
 import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
+import hu.bme.mit.theta.analysis.expl.ExplCoverageFilter;
 import hu.bme.mit.theta.analysis.expl.ExplState;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.core.decl.Decl;
 import hu.bme.mit.theta.core.model.ImmutableValuation;
@@ -48,11 +51,14 @@ abstract class ItpExplStrategy<S extends State> implements AlgorithmStrategy<S,
 	private final Lens<S, ItpExplState> lens;
 	private final Analysis<ItpExplState, XtaAction, UnitPrec> analysis;
 	private final Function<ItpExplState, ?> projection;
+	private final CoverageFilter<S, ?> coverageFilter;
 
 	public ItpExplStrategy(final XtaSystem system, final Lens<S, ItpExplState> lens) {
 		this.lens = checkNotNull(lens);
 		analysis = ItpExplAnalysis.create(XtaExplAnalysis.create(system));
 		projection = s -> unit();
+		coverageFilter = CoverageFilters.lift(s -> lens.get(s).getAbstrState(), s -> lens.get(s).getConcrState(),
+				ExplCoverageFilter.getInstance());
 	}
 
 	@Override
@@ -72,6 +78,11 @@ abstract class ItpExplStrategy<S extends State> implements AlgorithmStrategy<S,
 		return covereeExpl.isLeq(covererExpl);
 	}
 
+	@Override
+	public final CoverageFilter<S, ?> getCoverageFilter() {
+		return coverageFilter;
+	}
+
 	@Override
 	public final void cover(final ArgNode<S, XtaAction> coveree, final ArgNode<S, XtaAction> coverer,
 							final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
@@ -26,7 +26,10 @@ import hu.bme.mit.theta.analysis.Analysis;
 import hu.bme.mit.theta.analysis.State;
 import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.impl.PrecMappingAnalysis;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilter;
+import hu.bme.mit.theta.analysis.reachedset.CoverageFilters;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.analysis.zone.ZoneCoverageFilter;
 import hu.bme.mit.theta.analysis.zone.ZonePrec;
 import hu.bme.mit.theta.analysis.zone.ZoneState;
 import hu.bme.mit.theta.xta.XtaSystem;
@@ -43,6 +46,7 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
 	private final ZonePrec prec;
 	private final Analysis<ItpZoneState, XtaAction, UnitPrec> analysis;
 	private final Function<ItpZoneState, ?> projection;
+	private final CoverageFilter<S, ?> coverageFilter;
 
 	public ItpZoneStrategy(final XtaSystem system, final Lens<S, ItpZoneState> lens) {
 		checkNotNull(system);
@@ -50,6 +54,8 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
 		prec = ZonePrec.of(system.getClockVars());
 		analysis = PrecMappingAnalysis.create(ItpZoneAnalysis.create(XtaZoneAnalysis.getInstance()), p -> prec);
 		projection = s -> unit();
+		coverageFilter = CoverageFilters.lift(s -> lens.get(s).getAbstrState(), s -> lens.get(s).getConcrState(),
+				ZoneCoverageFilter.create(system.getClockVars()));
 	}
 
 	@Override
@@ -69,6 +75,11 @@ abstract class ItpZoneStrategy<S extends State> implements AlgorithmStrategy<S,
 		return covereeZone.isLeq(covererZone);
 	}
 
+	@Override
+	public final CoverageFilter<S, ?> getCoverageFilter() {
+		return coverageFilter;
+	}
+
 	@Override
 	public final void cover(final ArgNode<S, XtaAction> coveree, final ArgNode<S, XtaAction> coverer,
 							final Collection<ArgNode<S, XtaAction>> uncoveredNodes, final Builder stats) {
@@ -28,7 +28,7 @@ import hu.bme.mit.theta.analysis.algorithm.ArgNode;
 import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
 import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
 import hu.bme.mit.theta.analysis.algorithm.SearchStrategy;
-import hu.bme.mit.theta.analysis.reachedset.Partition;
+import hu.bme.mit.theta.analysis.reachedset.CoverageIndex;
 import hu.bme.mit.theta.analysis.unit.UnitPrec;
 import hu.bme.mit.theta.analysis.waitlist.Waitlist;
 import hu.bme.mit.theta.xta.XtaSystem;
@@ -62,13 +62,14 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 	private final class CheckMethod {
 		final ARG<XtaState<S>, XtaAction> arg;
 		final LazyXtaStatistics.Builder stats;
-		final Partition<ArgNode<XtaState<S>, XtaAction>, ?> passed;
+		final CoverageIndex<XtaState<S>, XtaAction> passed;
 		final Waitlist<ArgNode<XtaState<S>, XtaAction>> waiting;
 
 		public CheckMethod() {
 			arg = ARG.create(algorithmStrategy.getAnalysis().getPartialOrd());
 			stats = LazyXtaStatistics.builder(arg);
-			passed = Partition.of(n -> algorithmStrategy.getProjection().apply(n.getState()));
+			passed = CoverageIndex.of(algorithmStrategy.getProjection(), algorithmStrategy.getCoverageFilter());
+			passed.observe(arg);
 			waiting = searchStrategy.createWaitlist();
 		}
 
@@ -102,7 +103,11 @@ final class LazyXtaChecker<S extends State> implements SafetyChecker<XtaState<S>
 		private void close(final ArgNode<XtaState<S>, XtaAction> coveree) {
 			stats.startClosing();
 
-			final Iterable<ArgNode<XtaState<S>, XtaAction>> candidates = Lists.reverse(passed.get(coveree));
+			final long avoidedChecks = passed.getAvoidedChecks();
+			final long rejectedClasses = passed.getRejectedClasses();
+			final Iterable<ArgNode<XtaState<S>, XtaAction>> candidates = Lists.reverse(passed.getCandidates(coveree));
+			stats.avoidCoverageChecks(passed.getAvoidedChecks() - avoidedChecks);
+			stats.rejectCoverageClasses(passed.getRejectedClasses() - rejectedClasses);
 			for (final ArgNode<XtaState<S>, XtaAction> coverer : candidates) {
 
 				stats.checkCoverage();
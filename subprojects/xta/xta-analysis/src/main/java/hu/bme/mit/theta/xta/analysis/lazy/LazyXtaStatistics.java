@@ -35,6 +35,8 @@ public final class LazyXtaStatistics extends Statistics {
 	private final long closeExplRefinementTimeInMs;
 	private final long closeZoneRefinementTimeInMs;
 	private final long coverageChecks;
+	private final long coverageChecksAvoided;
+	private final long coverageClassesRejected;
 	private final long coverageAttempts;
 	private final long coverageSuccesses;
 	private final long explRefinementSteps;
@@ -52,6 +54,8 @@ public final class LazyXtaStatistics extends Statistics {
 		closeExplRefinementTimeInMs = builder.closeExplRefinementTimer.elapsed(MILLISECONDS);
 		closeZoneRefinementTimeInMs = builder.closeZoneRefinementTimer.elapsed(MILLISECONDS);
 		coverageChecks = builder.coverageChecks;
+		coverageChecksAvoided = builder.coverageChecksAvoided;
+		coverageClassesRejected = builder.coverageClassesRejected;
 		coverageAttempts = builder.coverageAttempts;
 		coverageSuccesses = builder.coverageSuccesses;
 		explRefinementSteps = builder.explRefinementSteps;
@@ -68,6 +72,8 @@ public final class LazyXtaStatistics extends Statistics {
 		addStat("CloseExplRefinementTimeInMs", this::getCloseExplRefinementTimeInMs);
 		addStat("CloseZoneRefinementTimeInMs", this::getCloseZoneRefinementTimeInMs);
 		addStat("CoverageChecks", this::getCoverageChecks);
+		addStat("CoverageChecksAvoided", this::getCoverageChecksAvoided);
+		addStat("CoverageClassesRejected", this::getCoverageClassesRejected);
 		addStat("CoverageAttempts", this::getCoverageAttempts);
 		addStat("CoverageSuccesses", this::getCoverageSuccesses);
 		addStat("ExplRefinementSteps", this::getExplRefinementSteps);
@@ -113,6 +119,14 @@ public final class LazyXtaStatistics extends Statistics {
 		return coverageChecks;
 	}
 
+	public long getCoverageChecksAvoided() {
+		return coverageChecksAvoided;
+	}
+
+	public long getCoverageClassesRejected() {
+		return coverageClassesRejected;
+	}
+
 	public long getCoverageAttempts() {
 		return coverageAttempts;
 	}
@@ -150,6 +164,8 @@ public final class LazyXtaStatistics extends Statistics {
 		writer.cell("CloseExplRefinementTimeInMs");
 		writer.cell("CloseZoneRefinementTimeInMs");
 		writer.cell("CoverageChecks");
+		writer.cell("CoverageChecksAvoided");
+		writer.cell("CoverageClassesRejected");
 		writer.cell("CoverageAttempts");
 		writer.cell("CoverageSuccesses");
 		writer.cell("ExplRefinementSteps");
@@ -169,6 +185,8 @@ public final class LazyXtaStatistics extends Statistics {
 		writer.cell(closeExplRefinementTimeInMs);
 		writer.cell(closeZoneRefinementTimeInMs);
 		writer.cell(coverageChecks);
+		writer.cell(coverageChecksAvoided);
+		writer.cell(coverageClassesRejected);
 		writer.cell(coverageAttempts);
 		writer.cell(coverageSuccesses);
 		writer.cell(explRefinementSteps);
@@ -196,6 +214,8 @@ public final class LazyXtaStatistics extends Statistics {
 		private final Stopwatch closeExplRefinementTimer;
 		private final Stopwatch closeZoneRefinementTimer;
 		private long coverageChecks;
+		private long coverageChecksAvoided;
+		private long coverageClassesRejected;
 		private long coverageAttempts;
 		private long coverageSuccesses;
 		private long explRefinementSteps;
@@ -212,6 +232,8 @@ public final class LazyXtaStatistics extends Statistics {
 			closeExplRefinementTimer = Stopwatch.createUnstarted();
 			closeZoneRefinementTimer = Stopwatch.createUnstarted();
 			coverageChecks = 0;
+			coverageChecksAvoided = 0;
+			coverageClassesRejected = 0;
 			coverageAttempts = 0;
 			coverageSuccesses = 0;
 			explRefinementSteps = 0;
@@ -307,6 +329,16 @@ public final class LazyXtaStatistics extends Statistics {
 			coverageChecks++;
 		}
 
+		public void avoidCoverageChecks(final long count) {
+			checkState(state == State.CLOSING);
+			coverageChecksAvoided += count;
+		}
+
+		public void rejectCoverageClasses(final long count) {
+			checkState(state == State.CLOSING);
+			coverageClassesRejected += count;
+		}
+
 		public void attemptCoverage() {
 			checkState(state == State.CLOSING);
 			coverageAttempts++;
@@ -38,7 +38,7 @@ final class XtaZoneInitFunc implements InitFunc<ZoneState, ZonePrec> {
 	@Override
 	public Collection<ZoneState> getInitStates(final ZonePrec prec) {
 		checkNotNull(prec);
-		return Collections.singleton(ZoneState.zero(prec.getVars()).transform().up().build());
+		return Collections.singleton(ZoneState.zero(prec.getVars()).transform().up().build().intern());
 	}
 
 }
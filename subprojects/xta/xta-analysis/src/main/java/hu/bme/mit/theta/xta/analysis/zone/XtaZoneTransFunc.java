@@ -37,7 +37,8 @@ final class XtaZoneTransFunc implements TransFunc<ZoneState, XtaAction, ZonePrec
 
 	@Override
 	public Collection<ZoneState> getSuccStates(final ZoneState state, final XtaAction action, final ZonePrec prec) {
-		final ZoneState succState = XtaZoneUtils.post(state, action, prec);
+		// Equal zones reached on different paths share their DBM
+		final ZoneState succState = XtaZoneUtils.post(state, action, prec).intern();
 		return ImmutableList.of(succState);
 	}
 
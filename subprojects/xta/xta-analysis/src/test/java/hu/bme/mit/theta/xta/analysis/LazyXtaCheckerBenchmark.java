@@ -0,0 +1,100 @@
+/*
+ *  Copyright 2017 Budapest University of Technology and Economics
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package hu.bme.mit.theta.xta.analysis;
+
+import static hu.bme.mit.theta.analysis.algorithm.SearchStrategy.BFS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.theta.analysis.algorithm.SafetyChecker;
+import hu.bme.mit.theta.analysis.algorithm.SafetyResult;
+import hu.bme.mit.theta.analysis.unit.UnitPrec;
+import hu.bme.mit.theta.xta.XtaSystem;
+import hu.bme.mit.theta.xta.analysis.lazy.ClockStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.DataStrategy;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaCheckerFactory;
+import hu.bme.mit.theta.xta.analysis.lazy.LazyXtaStatistics;
+import hu.bme.mit.theta.xta.dsl.XtaDslManager;
+
+/**
+ * Measures the time spent with coverage checks by the lazy XTA checker on the
+ * bundled models with the interpolation based clock strategies, which use
+ * zone coverage filters. Not a unit test, run it with its main method and the
+ * optional arguments for the number of warmup and measured runs.
+ */
+public final class LazyXtaCheckerBenchmark {
+
+	private static final Collection<String> MODELS = ImmutableList.of("/csma-2.xta", "/fddi-2.xta",
+			"/fischer-2-32-64.xta", "/lynch-2-16.xta", "/engine-classic.xta", "/broadcast.xta");
+
+	private static final Collection<ClockStrategy> CLOCK_STRATEGIES = ImmutableList.of(ClockStrategy.BWITP,
+			ClockStrategy.FWITP);
+
+	private LazyXtaCheckerBenchmark() {
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int warmups = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+		final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		System.out.println("Model,Clock,Nodes,CoverageChecks,CoverageChecksAvoided,CoverageClassesRejected,CloseTimeMs,AlgorithmTimeMs");
+		for (final String model : MODELS) {
+			final XtaSystem system = loadSystem(model);
+			for (final ClockStrategy clockStrategy : CLOCK_STRATEGIES) {
+				for (int i = 0; i < warmups; i++) {
+					check(system, clockStrategy);
+				}
+				final long[] closeTimes = new long[runs];
+				final long[] algorithmTimes = new long[runs];
+				LazyXtaStatistics stats = null;
+				for (int i = 0; i < runs; i++) {
+					stats = check(system, clockStrategy);
+					closeTimes[i] = stats.getCloseTimeInMs();
+					algorithmTimes[i] = stats.getAlgorithmTimeInMs();
+				}
+				System.out.printf("%s,%s,%d,%d,%d,%d,%d,%d%n", model, clockStrategy, stats.getArgNodes(),
+						stats.getCoverageChecks(), stats.getCoverageChecksAvoided(),
+						stats.getCoverageClassesRejected(), median(closeTimes),
+						median(algorithmTimes));
+			}
+		}
+	}
+
+	private static XtaSystem loadSystem(final String model) throws IOException {
+		try (InputStream inputStream = LazyXtaCheckerBenchmark.class.getResourceAsStream(model)) {
+			return XtaDslManager.createSystem(inputStream);
+		}
+	}
+
+	private static LazyXtaStatistics check(final XtaSystem system, final ClockStrategy clockStrategy) {
+		final SafetyChecker<? extends XtaState<?>, XtaAction, UnitPrec> checker = LazyXtaCheckerFactory
+				.create(system, DataStrategy.NONE, clockStrategy, BFS);
+		final SafetyResult<? extends XtaState<?>, XtaAction> result = checker.check(UnitPrec.getInstance());
+		return (LazyXtaStatistics) result.getStats().get();
+	}
+
+	private static long median(final long[] values) {
+		final long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+}